@@ -0,0 +1,47 @@
+package tr.kontas.splitr.benchmarks;
+
+import tr.kontas.splitr.bus.base.BaseCommandHandler;
+import tr.kontas.splitr.bus.base.BaseDomainEventHandler;
+import tr.kontas.splitr.bus.base.BaseEventHandler;
+import tr.kontas.splitr.bus.base.BaseQueryHandler;
+import tr.kontas.splitr.test.CreateOrderCommand;
+import tr.kontas.splitr.test.OrderDomainEvent;
+import tr.kontas.splitr.test.OrderProcessedEvent;
+import tr.kontas.splitr.test.OrderQuery;
+
+/**
+ * Minimal handlers used by the benchmarks so that only the Splitr plumbing is measured.
+ */
+final class BenchmarkHandlers {
+
+    private BenchmarkHandlers() {
+    }
+
+    static class OrderQueryHandler extends BaseQueryHandler<OrderQuery> {
+        @Override
+        public Object handle(OrderQuery payload) {
+            return payload.getOrderId();
+        }
+    }
+
+    static class CreateOrderCommandHandler extends BaseCommandHandler<CreateOrderCommand> {
+        @Override
+        public Object handle(CreateOrderCommand payload) {
+            return payload.getQuantity();
+        }
+    }
+
+    static class OrderProcessedEventHandler extends BaseEventHandler<OrderProcessedEvent> {
+        @Override
+        public void onEvent(OrderProcessedEvent payload) {
+            // no-op
+        }
+    }
+
+    static class OrderDomainEventHandler extends BaseDomainEventHandler<OrderDomainEvent> {
+        @Override
+        public void onEvent(OrderDomainEvent payload) {
+            // no-op
+        }
+    }
+}
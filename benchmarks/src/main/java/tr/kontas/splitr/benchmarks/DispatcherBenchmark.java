@@ -0,0 +1,92 @@
+package tr.kontas.splitr.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import tr.kontas.splitr.consumer.dispatcher.CommandDispatcher;
+import tr.kontas.splitr.consumer.dispatcher.EventDispatcher;
+import tr.kontas.splitr.consumer.dispatcher.QueryDispatcher;
+import tr.kontas.splitr.consumer.store.LruStore;
+import tr.kontas.splitr.dto.CommandRequest;
+import tr.kontas.splitr.dto.EventRequest;
+import tr.kontas.splitr.dto.QueryRequest;
+import tr.kontas.splitr.test.CreateOrderCommand;
+import tr.kontas.splitr.test.OrderProcessedEvent;
+import tr.kontas.splitr.test.OrderQuery;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * End-to-end {@code BaseDispatcher.dispatch} cost against in-memory handlers: deadline check,
+ * idempotency lookup, payload deserialization, handler invocation and result serialization.
+ * The callback URL is blank so no webhook is sent.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DispatcherBenchmark {
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private LruStore store;
+    private QueryDispatcher queryDispatcher;
+    private CommandDispatcher commandDispatcher;
+    private EventDispatcher eventDispatcher;
+
+    private String queryPayload;
+    private String commandPayload;
+    private String eventPayload;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        store = new LruStore(10_000, 60_000L);
+
+        queryDispatcher = new QueryDispatcher(List.of(new BenchmarkHandlers.OrderQueryHandler()), store, mapper);
+        commandDispatcher = new CommandDispatcher(List.of(new BenchmarkHandlers.CreateOrderCommandHandler()), store, mapper);
+        eventDispatcher = new EventDispatcher(List.of(new BenchmarkHandlers.OrderProcessedEventHandler()), store, mapper);
+
+        queryPayload = mapper.writeValueAsString(new OrderQuery("order-1"));
+        commandPayload = mapper.writeValueAsString(new CreateOrderCommand("Laptop", 1));
+        eventPayload = mapper.writeValueAsString(new OrderProcessedEvent("order-1"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        store.shutdown();
+    }
+
+    @Benchmark
+    public void dispatchQuery() throws Exception {
+        queryDispatcher.dispatch(new QueryRequest(
+                "q-" + sequence.incrementAndGet(), OrderQuery.class.getName(), queryPayload,
+                "", true, System.currentTimeMillis(), 10_000L));
+    }
+
+    @Benchmark
+    public void dispatchCommand() throws Exception {
+        commandDispatcher.dispatch(new CommandRequest(
+                "c-" + sequence.incrementAndGet(), CreateOrderCommand.class.getName(), commandPayload,
+                "", true, System.currentTimeMillis(), 10_000L));
+    }
+
+    @Benchmark
+    public void dispatchEvent() throws Exception {
+        eventDispatcher.dispatch(new EventRequest(
+                "e-" + sequence.incrementAndGet(), OrderProcessedEvent.class.getName(), eventPayload));
+    }
+
+    /**
+     * A redelivered request answered from the idempotency store.
+     */
+    @Benchmark
+    public void dispatchDuplicateQuery() throws Exception {
+        queryDispatcher.dispatch(new QueryRequest(
+                "q-duplicate", OrderQuery.class.getName(), queryPayload,
+                "", true, System.currentTimeMillis(), 10_000L));
+    }
+}
@@ -0,0 +1,64 @@
+package tr.kontas.splitr.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import tr.kontas.splitr.dto.QueryRequest;
+import tr.kontas.splitr.dto.QueryResponse;
+import tr.kontas.splitr.test.OrderQuery;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the envelope (de)serialization done on every publish and consume: the payload is
+ * serialized into a string which is then nested inside the {@link QueryRequest} envelope.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EnvelopeSerializationBenchmark {
+
+    private ObjectMapper mapper;
+    private OrderQuery query;
+    private QueryRequest request;
+    private String requestJson;
+    private String responseJson;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        mapper = new ObjectMapper();
+        query = new OrderQuery("order-1");
+        request = new QueryRequest(
+                query.getIdempotencyKey(), OrderQuery.class.getName(), mapper.writeValueAsString(query),
+                "http://localhost:8080/internal/%s/callback", true, System.currentTimeMillis(), 10_000L);
+        requestJson = mapper.writeValueAsString(request);
+        responseJson = mapper.writeValueAsString(new QueryResponse(query.getIdempotencyKey(), "\"order-1\""));
+    }
+
+    /**
+     * Publisher side: payload to string, then the envelope to JSON.
+     */
+    @Benchmark
+    public String serializeRequest() throws Exception {
+        QueryRequest r = new QueryRequest(
+                query.getIdempotencyKey(), OrderQuery.class.getName(), mapper.writeValueAsString(query),
+                request.getCallbackUrl(), true, System.currentTimeMillis(), 10_000L);
+        return mapper.writeValueAsString(r);
+    }
+
+    /**
+     * Consumer side: envelope from JSON, then the nested payload string.
+     */
+    @Benchmark
+    public Object deserializeRequest() throws Exception {
+        QueryRequest r = mapper.readValue(requestJson, QueryRequest.class);
+        return mapper.readValue(r.getPayload(), Class.forName(r.getType()));
+    }
+
+    @Benchmark
+    public QueryResponse deserializeResponse() throws Exception {
+        return mapper.readValue(responseJson, QueryResponse.class);
+    }
+}
@@ -0,0 +1,37 @@
+package tr.kontas.splitr.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import tr.kontas.splitr.id.IdGenerator;
+import tr.kontas.splitr.id.UlidIdGenerator;
+import tr.kontas.splitr.id.UuidIdGenerator;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the id generators used for message idempotency keys, with several threads
+ * creating messages at once.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class IdGeneratorBenchmark {
+
+    @Param({"ulid", "uuid"})
+    public String generator;
+
+    private IdGenerator ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ids = "uuid".equals(generator) ? new UuidIdGenerator() : new UlidIdGenerator();
+    }
+
+    @Benchmark
+    public String nextId() {
+        return ids.nextId();
+    }
+}
@@ -0,0 +1,84 @@
+package tr.kontas.splitr.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import tr.kontas.splitr.bus.domainevent.DomainEventBus;
+import tr.kontas.splitr.consumer.bus.impl.InMemoryCommandBus;
+import tr.kontas.splitr.consumer.bus.impl.InMemoryEventBus;
+import tr.kontas.splitr.consumer.bus.impl.InMemoryQueryBus;
+import tr.kontas.splitr.consumer.dispatcher.DomainEventDispatcher;
+import tr.kontas.splitr.consumer.domainevent.RingBufferDomainEventBus;
+import tr.kontas.splitr.consumer.domainevent.ring.ProducerType;
+import tr.kontas.splitr.consumer.domainevent.ring.RingBufferOptions;
+import tr.kontas.splitr.consumer.domainevent.ring.WaitStrategy;
+import tr.kontas.splitr.consumer.store.LruStore;
+import tr.kontas.splitr.test.CreateOrderCommand;
+import tr.kontas.splitr.test.OrderDomainEvent;
+import tr.kontas.splitr.test.OrderProcessedEvent;
+import tr.kontas.splitr.test.OrderQuery;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the publish paths of the in-memory buses, including the idempotency round trip
+ * and the domain event {@code arise} path (dispatcher and ring buffer).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InMemoryBusBenchmark {
+
+    private LruStore store;
+    private InMemoryQueryBus queryBus;
+    private InMemoryCommandBus commandBus;
+    private InMemoryEventBus eventBus;
+    private DomainEventBus domainEventBus;
+    private RingBufferDomainEventBus ringBufferBus;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        store = new LruStore(10_000, 60_000L);
+
+        queryBus = new InMemoryQueryBus(List.of(new BenchmarkHandlers.OrderQueryHandler()), store);
+        commandBus = new InMemoryCommandBus(List.of(new BenchmarkHandlers.CreateOrderCommandHandler()), store);
+        eventBus = new InMemoryEventBus(List.of(new BenchmarkHandlers.OrderProcessedEventHandler()), store);
+        domainEventBus = new tr.kontas.splitr.consumer.domainevent.InMemoryEventBus(
+                new DomainEventDispatcher(List.of(new BenchmarkHandlers.OrderDomainEventHandler()), store));
+        ringBufferBus = new RingBufferDomainEventBus(List.of(new BenchmarkHandlers.OrderDomainEventHandler()),
+                new RingBufferOptions(65_536, ProducerType.MULTI, WaitStrategy.YIELDING));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ringBufferBus.shutdown();
+        store.shutdown();
+    }
+
+    @Benchmark
+    public String publishQuery() {
+        return queryBus.publishSync(new OrderQuery("order-1"), String.class);
+    }
+
+    @Benchmark
+    public Integer publishCommand() {
+        return commandBus.publishSync(new CreateOrderCommand("Laptop", 1), Integer.class);
+    }
+
+    @Benchmark
+    public void publishEvent() {
+        eventBus.publish(new OrderProcessedEvent("order-1"));
+    }
+
+    @Benchmark
+    public void ariseDomainEvent() {
+        domainEventBus.arise(new OrderDomainEvent("order-1"));
+    }
+
+    @Benchmark
+    public void ariseDomainEventRingBuffer() {
+        ringBufferBus.arise(new OrderDomainEvent("order-1"));
+    }
+}
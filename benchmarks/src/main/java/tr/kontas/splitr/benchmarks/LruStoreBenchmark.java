@@ -0,0 +1,77 @@
+package tr.kontas.splitr.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import tr.kontas.splitr.consumer.store.LruStore;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link LruStore} get/put/contains throughput with several threads hitting
+ * the same store, mirroring concurrent dispatchers sharing one idempotency store.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class LruStoreBenchmark {
+
+    @Param({"100", "10000"})
+    public int maxSize;
+
+    private LruStore store;
+    private String[] keys;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        store = new LruStore(maxSize, 60_000L);
+        keys = new String[maxSize * 2];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = "key-" + i;
+        }
+        for (int i = 0; i < maxSize; i++) {
+            store.put(keys[i], i);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        store.shutdown();
+    }
+
+    private String randomKey() {
+        return keys[ThreadLocalRandom.current().nextInt(keys.length)];
+    }
+
+    @Benchmark
+    public void put() {
+        store.put(randomKey(), Boolean.TRUE);
+    }
+
+    @Benchmark
+    public Object get() {
+        return store.get(randomKey());
+    }
+
+    @Benchmark
+    public boolean contains() {
+        return store.contains(randomKey());
+    }
+
+    /**
+     * The dispatcher access pattern: a lookup followed by a put on a miss.
+     */
+    @Benchmark
+    public void containsThenPut(Blackhole bh) {
+        String key = randomKey();
+        if (store.contains(key)) {
+            bh.consume(store.get(key));
+        } else {
+            store.put(key, Boolean.TRUE);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package tr.kontas.splitr.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of the benchmark uber-jar.
+ * <p>
+ * Accepts the regular JMH command line (e.g. {@code -f 1 -wi 3 LruStore}) and, unless
+ * {@code -rf}/{@code -rff} are given explicitly, writes the results as JSON to
+ * {@code jmh-result.json} so they can be diffed between releases.
+ * </p>
+ *
+ * @author BurakKontas
+ * @version 1.0.0
+ */
+public final class SplitrBenchmarks {
+
+    private static final String DEFAULT_RESULT_FILE = "jmh-result.json";
+
+    private SplitrBenchmarks() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cli = new CommandLineOptions(args);
+
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(cli);
+
+        if (!cli.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+        if (!cli.getResult().hasValue()) {
+            options.result(DEFAULT_RESULT_FILE);
+        }
+
+        new Runner(options.build()).run();
+    }
+}
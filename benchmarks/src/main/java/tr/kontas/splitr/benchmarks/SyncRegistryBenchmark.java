@@ -0,0 +1,61 @@
+package tr.kontas.splitr.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import tr.kontas.splitr.bus.registry.SyncRegistry;
+import tr.kontas.splitr.dto.QueryResponse;
+import tr.kontas.splitr.dto.base.BaseResponse;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures the {@link SyncRegistry} register/complete round trip, with a configurable number
+ * of pending requests parked in the registry to show how the cost scales with outstanding timeouts.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SyncRegistryBenchmark {
+
+    @Param({"0", "10000", "100000"})
+    public int pending;
+
+    private SyncRegistry registry;
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        registry = new SyncRegistry(60_000L, Integer.MAX_VALUE);
+        for (int i = 0; i < pending; i++) {
+            registry.register("pending-" + i, TimeUnit.MINUTES.toMillis(10));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        registry.shutdown();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public BaseResponse registerAndComplete() {
+        return roundTrip();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public BaseResponse registerAndCompleteContended() {
+        return roundTrip();
+    }
+
+    private BaseResponse roundTrip() {
+        String id = "req-" + sequence.incrementAndGet();
+        CompletableFuture<BaseResponse> future = registry.register(id, 30_000L);
+        registry.complete(new QueryResponse(id, "\"ok\""));
+        return future.join();
+    }
+}
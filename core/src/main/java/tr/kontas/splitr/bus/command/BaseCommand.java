@@ -1,9 +1,9 @@
 package tr.kontas.splitr.bus.command;
 
-import java.util.UUID;
+import tr.kontas.splitr.id.IdGenerators;
 
 public abstract class BaseCommand implements Command {
-    private String idempotencyKey = UUID.randomUUID().toString();
+    private String idempotencyKey = IdGenerators.next();
 
     @Override
     public String getIdempotencyKey() {
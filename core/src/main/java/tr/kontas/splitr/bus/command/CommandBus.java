@@ -1,6 +1,7 @@
 package tr.kontas.splitr.bus.command;
 
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Provides a contract for dispatching commands across the distributed system.
@@ -60,6 +61,14 @@ public interface CommandBus {
      */
     <T> CompletableFuture<T> publishAsync(Command command, Class<T> responseType);
 
+    /**
+     * Like {@link #publishAsync(Command, Class)}, but the returned future fails with a
+     * {@link java.util.concurrent.TimeoutException} after {@code timeoutMs}.
+     */
+    default <T> CompletableFuture<T> publishAsync(Command command, Class<T> responseType, long timeoutMs) {
+        return publishAsync(command, responseType).orTimeout(timeoutMs, TimeUnit.MILLISECONDS);
+    }
+
     /**
      * Publishes a command without expecting any response (fire-and-forget).
      *
@@ -1,9 +1,9 @@
 package tr.kontas.splitr.bus.domainevent;
 
-import java.util.UUID;
+import tr.kontas.splitr.id.IdGenerators;
 
 public interface DomainEvent {
     default String getIdempotencyKey() {
-        return UUID.randomUUID().toString();
+        return IdGenerators.next();
     }
 }
@@ -0,0 +1,17 @@
+package tr.kontas.splitr.bus.domainevent;
+
+import java.lang.annotation.*;
+
+/**
+ * Marks a {@link DomainEvent} type whose deliveries are never checked against or recorded in
+ * the domain event idempotency store, even if it declares its own idempotency key.
+ *
+ * @author BurakKontas
+ * @version 1.0.0
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Inherited
+@Documented
+public @interface SkipIdempotency {
+}
@@ -1,9 +1,9 @@
 package tr.kontas.splitr.bus.event;
 
-import java.util.UUID;
+import tr.kontas.splitr.id.IdGenerators;
 
 public class BaseEvent implements Event {
-    private String idempotencyKey = UUID.randomUUID().toString();
+    private String idempotencyKey = IdGenerators.next();
 
     @Override
     public String getIdempotencyKey() {
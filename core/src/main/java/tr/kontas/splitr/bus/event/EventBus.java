@@ -1,5 +1,6 @@
 package tr.kontas.splitr.bus.event;
 
+import java.util.Collection;
 
 /**
  * Provides a contract for publishing events across the distributed system.
@@ -22,4 +23,16 @@ public interface EventBus {
      * @param event The event payload object to be dispatched.
      */
     void publish(Event event);
+
+    /**
+     * Publishes several events (fire-and-forget).
+     * <p>
+     * Transports may send the events as one batch; the default publishes them one by one.
+     * </p>
+     *
+     * @param events The event payload objects to be dispatched, in order.
+     */
+    default void publishAll(Collection<? extends Event> events) {
+        events.forEach(this::publish);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,104 @@
+package tr.kontas.splitr.bus.hedge;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides when a query without a response is published a second time.
+ * <p>
+ * The hedge delay of a query type is the configured percentile of its recent response times,
+ * bounded below by {@code minDelayMs}; until enough responses were observed no hedge is sent.
+ * The second copy keeps the request id, so consumer idempotency still holds and the
+ * {@code SyncRegistry} completes on whichever response arrives first.
+ * </p>
+ *
+ * @author BurakKontas
+ * @version 1.0.0
+ */
+public class HedgingPolicy {
+
+    /**
+     * Hedging disabled.
+     */
+    public static final HedgingPolicy NONE = new HedgingPolicy();
+
+    private final boolean enabled;
+    private final double percentile;
+    private final long minDelayMs;
+    private final Map<String, LatencyTracker> trackers = new ConcurrentHashMap<>();
+    private final ScheduledThreadPoolExecutor scheduler;
+
+    private HedgingPolicy() {
+        this.enabled = false;
+        this.percentile = 1.0;
+        this.minDelayMs = Long.MAX_VALUE;
+        this.scheduler = null;
+    }
+
+    /**
+     * @param percentile Response time percentile used as hedge delay, in {@code (0, 1)}.
+     * @param minDelayMs Lower bound of the hedge delay.
+     */
+    public HedgingPolicy(double percentile, long minDelayMs) {
+        if (percentile <= 0 || percentile >= 1) {
+            throw new IllegalArgumentException("percentile must be in (0, 1): " + percentile);
+        }
+        this.enabled = true;
+        this.percentile = percentile;
+        this.minDelayMs = Math.max(0, minDelayMs);
+        this.scheduler = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread t = new Thread(r, "splitr-hedge");
+            t.setDaemon(true);
+            return t;
+        });
+        // Cevap gelince iptal edilen hedge'ler kuyrukta birikmesin
+        this.scheduler.setRemoveOnCancelPolicy(true);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Records the response time of a successful query.
+     */
+    public void record(String type, long nanos) {
+        if (enabled) {
+            trackers.computeIfAbsent(type, t -> new LatencyTracker(percentile)).record(nanos);
+        }
+    }
+
+    /**
+     * @return The hedge delay of the type in milliseconds, or {@code -1} if it should not be hedged yet.
+     */
+    public long delayMs(String type) {
+        if (!enabled) {
+            return -1;
+        }
+        LatencyTracker tracker = trackers.get(type);
+        long nanos = tracker == null ? -1 : tracker.percentileNanos();
+        if (nanos < 0) {
+            return -1;
+        }
+        return Math.max(minDelayMs, TimeUnit.NANOSECONDS.toMillis(nanos));
+    }
+
+    /**
+     * Runs {@code hedge} after {@code delayMs} unless the returned future is cancelled first.
+     */
+    public ScheduledFuture<?> schedule(Runnable hedge, long delayMs) {
+        if (!enabled) {
+            throw new IllegalStateException("Hedging is disabled");
+        }
+        return scheduler.schedule(hedge, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+}
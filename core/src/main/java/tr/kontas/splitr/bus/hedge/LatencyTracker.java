@@ -0,0 +1,46 @@
+package tr.kontas.splitr.bus.hedge;
+
+import java.util.Arrays;
+
+/**
+ * Percentile of the most recent response times of one query type.
+ * <p>
+ * Samples go into a fixed ring; the percentile is recomputed from a sorted copy every
+ * {@code RECOMPUTE_EVERY} samples, so reading it costs nothing on the publish path.
+ * </p>
+ *
+ * @author BurakKontas
+ * @version 1.0.0
+ */
+final class LatencyTracker {
+
+    private static final int WINDOW = 256;
+    private static final int RECOMPUTE_EVERY = 32;
+
+    private final double percentile;
+    private final long[] samples = new long[WINDOW];
+    private long count;
+    private volatile long percentileNanos = -1;
+
+    LatencyTracker(double percentile) {
+        this.percentile = percentile;
+    }
+
+    synchronized void record(long nanos) {
+        samples[(int) (count % WINDOW)] = nanos;
+        count++;
+        if (count % RECOMPUTE_EVERY == 0) {
+            int size = (int) Math.min(count, WINDOW);
+            long[] sorted = Arrays.copyOf(samples, size);
+            Arrays.sort(sorted);
+            percentileNanos = sorted[(int) Math.min(size - 1, Math.ceil(percentile * size) - 1)];
+        }
+    }
+
+    /**
+     * @return The percentile in nanoseconds, or {@code -1} until enough samples were seen.
+     */
+    long percentileNanos() {
+        return percentileNanos;
+    }
+}
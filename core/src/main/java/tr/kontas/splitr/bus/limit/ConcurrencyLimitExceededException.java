@@ -0,0 +1,34 @@
+package tr.kontas.splitr.bus.limit;
+
+/**
+ * Thrown when a publish is rejected because its target already has as many requests in flight
+ * as its current adaptive limit allows.
+ *
+ * @author BurakKontas
+ * @version 1.0.0
+ */
+public class ConcurrencyLimitExceededException extends RuntimeException {
+
+    private final String destination;
+    private final String type;
+    private final int limit;
+
+    public ConcurrencyLimitExceededException(String destination, String type, int limit) {
+        super("Concurrency limit " + limit + " reached for " + type + " on " + destination);
+        this.destination = destination;
+        this.type = type;
+        this.limit = limit;
+    }
+
+    public String getDestination() {
+        return destination;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+}
@@ -0,0 +1,161 @@
+package tr.kontas.splitr.bus.limit;
+
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Adaptive in-flight limit of one publish target (destination and message type).
+ * <p>
+ * Additive increase, multiplicative decrease: every successful response raises the limit by
+ * {@code 1 / limit} (about one per round of {@code limit} requests) while the limit is actually
+ * used, and a timeout or a round-trip slower than {@code tolerance} times the observed baseline
+ * multiplies it by {@code backoff}. The baseline follows the fastest round-trips and drifts slowly
+ * upwards so that a permanent latency change is eventually accepted. Requests already in flight
+ * when the limit was decreased cannot trigger another decrease, so a burst of timeouts from the
+ * same overload does not collapse the limit to its minimum.
+ * </p>
+ *
+ * @author BurakKontas
+ * @version 1.0.0
+ */
+public final class ConcurrencyLimiter {
+
+    /**
+     * Limiter that admits everything and never adjusts.
+     */
+    public static final ConcurrencyLimiter UNLIMITED = new ConcurrencyLimiter();
+
+    private final boolean unlimited;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoff;
+    private final double tolerance;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile double limit;
+    // Aşağıdaki alanlar this üzerinde senkronize
+    private long baselineNanos;
+    private int samplesSinceDecrease;
+    private int inFlightAtDecrease;
+
+    private ConcurrencyLimiter() {
+        this.unlimited = true;
+        this.minLimit = Integer.MAX_VALUE;
+        this.maxLimit = Integer.MAX_VALUE;
+        this.backoff = 1.0;
+        this.tolerance = Double.MAX_VALUE;
+        this.limit = Integer.MAX_VALUE;
+    }
+
+    /**
+     * @param initialLimit Starting in-flight limit.
+     * @param minLimit     Lower bound, at least 1.
+     * @param maxLimit     Upper bound.
+     * @param backoff      Decrease ratio in {@code (0, 1)}.
+     * @param tolerance    Round-trip multiple of the baseline treated as congestion, above 1.
+     */
+    public ConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double backoff, double tolerance) {
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= min <= initial <= max");
+        }
+        if (backoff <= 0 || backoff >= 1) {
+            throw new IllegalArgumentException("backoff must be in (0, 1): " + backoff);
+        }
+        if (tolerance <= 1) {
+            throw new IllegalArgumentException("tolerance must be above 1: " + tolerance);
+        }
+        this.unlimited = false;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoff = backoff;
+        this.tolerance = tolerance;
+        this.limit = initialLimit;
+    }
+
+    /**
+     * Takes an in-flight slot without blocking.
+     *
+     * @return {@code false} if the limit is reached.
+     */
+    public boolean tryAcquire() {
+        if (unlimited) {
+            return true;
+        }
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    /**
+     * Returns the slot taken by {@link #tryAcquire()} and adjusts the limit from the outcome.
+     * Timeouts decrease the limit, successes feed the latency estimate, other failures only
+     * return the slot.
+     *
+     * @param rttNanos Round-trip time of the request.
+     * @param error    The failure, or {@code null} on success.
+     */
+    public void release(long rttNanos, Throwable error) {
+        if (unlimited) {
+            return;
+        }
+        int used = inFlight.getAndDecrement();
+
+        if (error == null) {
+            onSample(rttNanos, used);
+        } else if (isTimeout(error)) {
+            synchronized (this) {
+                samplesSinceDecrease++;
+                decrease();
+            }
+        }
+    }
+
+    private synchronized void onSample(long rttNanos, int used) {
+        samplesSinceDecrease++;
+        if (baselineNanos == 0 || rttNanos < baselineNanos) {
+            baselineNanos = rttNanos;
+        } else {
+            // Taban yavaşça yukarı kayar; kalıcı gecikme artışı sonunda normal kabul edilir
+            baselineNanos += (rttNanos - baselineNanos) >> 8;
+        }
+
+        if (rttNanos > baselineNanos * tolerance) {
+            decrease();
+        } else if (used * 2 >= limit) {
+            // Limit kullanılmıyorsa büyütmenin anlamı yok
+            limit = Math.min(maxLimit, limit + 1.0 / limit);
+        }
+    }
+
+    private void decrease() {
+        // Son düşüşte zaten yolda olan istekler aynı tıkanıklığı bildirir; onları sayma
+        if (samplesSinceDecrease <= inFlightAtDecrease) {
+            return;
+        }
+        samplesSinceDecrease = 0;
+        inFlightAtDecrease = inFlight.get();
+        limit = Math.max(minLimit, limit * backoff);
+    }
+
+    private static boolean isTimeout(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof TimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int limit() {
+        return (int) limit;
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+}
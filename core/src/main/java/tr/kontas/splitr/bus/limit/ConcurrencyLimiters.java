@@ -0,0 +1,94 @@
+package tr.kontas.splitr.bus.limit;
+
+import tr.kontas.splitr.metrics.Instrumented;
+import tr.kontas.splitr.metrics.SplitrMetrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link ConcurrencyLimiter}s of a publisher, one per destination (topic or queue) and message type.
+ * <p>
+ * Limiters are created on first use with the same settings. {@link #NONE} admits everything.
+ * </p>
+ *
+ * @author BurakKontas
+ * @version 1.0.0
+ */
+public class ConcurrencyLimiters implements Instrumented {
+
+    /**
+     * Disabled limiting; every publish is admitted.
+     */
+    public static final ConcurrencyLimiters NONE = new ConcurrencyLimiters(false, 1, 1, 1, 0.5, 2.0);
+
+    private final boolean enabled;
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoff;
+    private final double tolerance;
+    private final Map<Key, ConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+    private SplitrMetrics metrics = SplitrMetrics.NOOP;
+
+    public ConcurrencyLimiters(int initialLimit, int minLimit, int maxLimit, double backoff, double tolerance) {
+        this(true, initialLimit, minLimit, maxLimit, backoff, tolerance);
+    }
+
+    private ConcurrencyLimiters(boolean enabled, int initialLimit, int minLimit, int maxLimit,
+                                double backoff, double tolerance) {
+        // Ayarları erkenden doğrula
+        new ConcurrencyLimiter(initialLimit, minLimit, maxLimit, backoff, tolerance);
+        this.enabled = enabled;
+        this.initialLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoff = backoff;
+        this.tolerance = tolerance;
+    }
+
+    /**
+     * Takes an in-flight slot for the target; the caller must {@link ConcurrencyLimiter#release}
+     * the returned limiter once the request completed.
+     *
+     * @throws ConcurrencyLimitExceededException if the target is at its limit.
+     */
+    public ConcurrencyLimiter acquire(String destination, String type) {
+        if (!enabled) {
+            return ConcurrencyLimiter.UNLIMITED;
+        }
+
+        ConcurrencyLimiter limiter = limiter(destination, type);
+        if (!limiter.tryAcquire()) {
+            metrics.limitRejected(destination, type);
+            throw new ConcurrencyLimitExceededException(destination, type, limiter.limit());
+        }
+        return limiter;
+    }
+
+    /**
+     * @return The limiter of the target, created if needed; {@link ConcurrencyLimiter#UNLIMITED} when disabled.
+     */
+    public ConcurrencyLimiter limiter(String destination, String type) {
+        if (!enabled) {
+            return ConcurrencyLimiter.UNLIMITED;
+        }
+        return limiters.computeIfAbsent(new Key(destination, type), k -> {
+            ConcurrencyLimiter limiter = new ConcurrencyLimiter(initialLimit, minLimit, maxLimit, backoff, tolerance);
+            metrics.bindLimiter(k.destination(), k.type(), limiter);
+            return limiter;
+        });
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void setMetrics(SplitrMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    private record Key(String destination, String type) {
+    }
+}
@@ -1,9 +1,9 @@
 package tr.kontas.splitr.bus.query;
 
-import java.util.UUID;
+import tr.kontas.splitr.id.IdGenerators;
 
 public class BaseQuery implements Query {
-    private String idempotencyKey = UUID.randomUUID().toString();
+    private String idempotencyKey = IdGenerators.next();
 
     @Override
     public String getIdempotencyKey() {
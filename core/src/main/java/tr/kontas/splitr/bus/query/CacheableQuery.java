@@ -0,0 +1,53 @@
+package tr.kontas.splitr.bus.query;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Lets consumers answer equal queries from different callers with one handler execution.
+ * <p>
+ * The publisher sends a content key (see {@link tr.kontas.splitr.id.ContentHasher}) in the
+ * {@code splitr-content-key} header; a consumer that also sees this annotation on the query type
+ * stores the result under that key and answers repeat queries from the store for
+ * {@link #freshnessMs()}. The per-request idempotency key is unchanged, so concurrent equal
+ * queries still get their own responses.
+ * </p>
+ *
+ * @author BurakKontas
+ * @version 1.0.0
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CacheableQuery {
+
+    /**
+     * How long a result is reused for equal queries.
+     */
+    long freshnessMs();
+
+    /**
+     * Reads the annotation once per query type.
+     */
+    final class Freshness {
+
+        private static final ClassValue<Long> FRESHNESS = new ClassValue<>() {
+            @Override
+            protected Long computeValue(Class<?> type) {
+                CacheableQuery annotation = type.getAnnotation(CacheableQuery.class);
+                return annotation == null ? 0L : Math.max(0L, annotation.freshnessMs());
+            }
+        };
+
+        private Freshness() {
+        }
+
+        /**
+         * @return The freshness window of the type, or {@code 0} if it is not cacheable.
+         */
+        public static long of(Class<?> type) {
+            return FRESHNESS.get(type);
+        }
+    }
+}
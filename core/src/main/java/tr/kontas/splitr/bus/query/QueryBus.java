@@ -1,6 +1,7 @@
 package tr.kontas.splitr.bus.query;
 
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Provides a contract for dispatching queries across the distributed system.
@@ -59,4 +60,12 @@ public interface QueryBus {
      * @return             A future holding the result of the query.
      */
     <T> CompletableFuture<T> publishAsync(Query query, Class<T> responseType);
+
+    /**
+     * Like {@link #publishAsync(Query, Class)}, but the returned future fails with a
+     * {@link java.util.concurrent.TimeoutException} after {@code timeoutMs}.
+     */
+    default <T> CompletableFuture<T> publishAsync(Query query, Class<T> responseType, long timeoutMs) {
+        return publishAsync(query, responseType).orTimeout(timeoutMs, TimeUnit.MILLISECONDS);
+    }
 }
@@ -0,0 +1,37 @@
+package tr.kontas.splitr.bus.query.cache;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Opts a query type into the publisher-side result cache of {@link CachingQueryBus}.
+ * <p>
+ * Only use it on pure reads: equal queries (same type and content) share one result for
+ * {@link #ttlMs()}, and cached results are shared between callers, so treat them as immutable.
+ * </p>
+ *
+ * <pre>{@code
+ * @CachedQuery(ttlMs = 5_000, staleMs = 30_000)
+ * public class GetCountryQuery extends BaseQuery { ... }
+ * }</pre>
+ *
+ * @author BurakKontas
+ * @version 1.0.0
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CachedQuery {
+
+    /**
+     * How long a result is served without contacting the consumer.
+     */
+    long ttlMs();
+
+    /**
+     * How long after {@link #ttlMs()} the old result is still returned while one background
+     * request refreshes it; {@code 0} disables stale-while-revalidate.
+     */
+    long staleMs() default 0;
+}
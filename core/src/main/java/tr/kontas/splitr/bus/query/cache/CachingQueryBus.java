@@ -0,0 +1,138 @@
+package tr.kontas.splitr.bus.query.cache;
+
+import io.micrometer.observation.ObservationRegistry;
+import tr.kontas.splitr.bus.query.Query;
+import tr.kontas.splitr.bus.query.QueryBus;
+import tr.kontas.splitr.deadline.Deadline;
+import tr.kontas.splitr.id.ContentHasher;
+import tr.kontas.splitr.metrics.Instrumented;
+import tr.kontas.splitr.metrics.SplitrMetrics;
+
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link QueryBus} decorator that answers {@link CachedQuery} types from a {@link QueryResultCache}.
+ * <p>
+ * The cache key is the content hash of the query (type and canonical JSON) plus the response
+ * type, so equal queries from different callers share one entry. Concurrent misses of the same
+ * key are coalesced into a single remote request, and stale entries are refreshed by one
+ * background request, so a hot key costs at most one round-trip per TTL window. Query types
+ * without the annotation are passed to the delegate unchanged.
+ * </p>
+ * <p>
+ * The shared request is not bound to the caller that started it: it is sent without that
+ * caller's {@link Deadline#current() request deadline} and with the larger of its timeout and
+ * the default timeout, so a coalesced caller with a longer budget is not failed by a short one.
+ * Every caller still stops waiting after its own timeout, capped at its own request deadline.
+ * </p>
+ *
+ * @author BurakKontas
+ * @version 1.0.0
+ */
+public class CachingQueryBus implements QueryBus, Instrumented {
+
+    private static final ClassValue<CachedQuery> POLICIES = new ClassValue<>() {
+        @Override
+        protected CachedQuery computeValue(Class<?> type) {
+            return type.getAnnotation(CachedQuery.class);
+        }
+    };
+
+    private final QueryBus delegate;
+    private final QueryResultCache cache;
+    private final ContentHasher hasher;
+    private final long defaultTimeoutMs;
+    private SplitrMetrics metrics = SplitrMetrics.NOOP;
+
+    public CachingQueryBus(QueryBus delegate, QueryResultCache cache, ContentHasher hasher, long defaultTimeoutMs) {
+        this.delegate = delegate;
+        this.cache = cache;
+        this.hasher = hasher;
+        this.defaultTimeoutMs = defaultTimeoutMs;
+    }
+
+    @Override
+    public <T> T publishSync(Query query, Class<T> responseType, long timeoutMs) {
+        CachedQuery policy = POLICIES.get(query.getClass());
+        if (policy == null) {
+            return delegate.publishSync(query, responseType, timeoutMs);
+        }
+
+        try {
+            long budget = Deadline.budgetMs(timeoutMs, defaultTimeoutMs);
+            return lookup(query, responseType, budget, policy).get(budget, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Sync execution failed or timeout", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Sync execution failed or timeout", e);
+        } catch (Exception e) {
+            throw new RuntimeException("Sync execution failed or timeout", e);
+        }
+    }
+
+    @Override
+    public <T> T publishSync(Query query, Class<T> responseType) {
+        return publishSync(query, responseType, defaultTimeoutMs);
+    }
+
+    @Override
+    public <T> CompletableFuture<T> publishAsync(Query query, Class<T> responseType) {
+        return publishAsync(query, responseType, defaultTimeoutMs);
+    }
+
+    @Override
+    public <T> CompletableFuture<T> publishAsync(Query query, Class<T> responseType, long timeoutMs) {
+        CachedQuery policy = POLICIES.get(query.getClass());
+        if (policy == null) {
+            return delegate.publishAsync(query, responseType, timeoutMs);
+        }
+
+        try {
+            long budget = Deadline.budgetMs(timeoutMs, defaultTimeoutMs);
+            return lookup(query, responseType, budget, policy).orTimeout(budget, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private <T> CompletableFuture<T> lookup(Query query, Class<T> responseType, long timeoutMs, CachedQuery policy) {
+        String key = hasher.hash(query) + ':' + responseType.getName();
+
+        // Yükleme ilk çağıranın değil tüm bekleyenlerindir; bütçesi ve deadline'ı ona kısılmaz
+        long loadTimeoutMs = Math.max(timeoutMs, defaultTimeoutMs);
+        QueryResultCache.Result result = cache.get(key, policy.ttlMs(), policy.staleMs(), () -> {
+            try {
+                return Deadline.callDetached(() -> delegate.publishAsync(query, responseType, loadTimeoutMs));
+            } catch (Exception e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        });
+
+        metrics.queryCache(query.getClass().getName(), result.outcome().name().toLowerCase(Locale.ROOT));
+        return result.future().thenApply(responseType::cast);
+    }
+
+    public QueryBus getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public void setMetrics(SplitrMetrics metrics) {
+        this.metrics = metrics;
+        // Sarmalanan bus post processor'dan önce sarıldıysa kendi metriklerini alamaz
+        if (delegate instanceof Instrumented instrumented) {
+            instrumented.setMetrics(metrics);
+        }
+    }
+
+    @Override
+    public void setObservationRegistry(ObservationRegistry observationRegistry) {
+        if (delegate instanceof Instrumented instrumented) {
+            instrumented.setObservationRegistry(observationRegistry);
+        }
+    }
+}
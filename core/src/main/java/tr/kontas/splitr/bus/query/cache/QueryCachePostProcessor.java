@@ -0,0 +1,42 @@
+package tr.kontas.splitr.bus.query.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import tr.kontas.splitr.bus.query.QueryBus;
+import tr.kontas.splitr.id.ContentHasher;
+
+/**
+ * Wraps every {@link QueryBus} bean in a {@link CachingQueryBus} sharing one {@link QueryResultCache}.
+ *
+ * @author BurakKontas
+ * @version 1.0.0
+ */
+public class QueryCachePostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<ObjectMapper> mapper;
+    private final int maxSize;
+    private final long defaultTimeoutMs;
+    private QueryResultCache cache;
+    private ContentHasher hasher;
+
+    public QueryCachePostProcessor(ObjectProvider<ObjectMapper> mapper, int maxSize, long defaultTimeoutMs) {
+        this.mapper = mapper;
+        this.maxSize = maxSize;
+        this.defaultTimeoutMs = defaultTimeoutMs;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+        if (!(bean instanceof QueryBus bus) || bean instanceof CachingQueryBus) {
+            return bean;
+        }
+        // ObjectMapper ilk QueryBus'ta çözülür; post processor kaydı erken başlatma zorlamaz
+        if (cache == null) {
+            cache = new QueryResultCache(maxSize);
+            hasher = new ContentHasher(mapper.getIfAvailable(ObjectMapper::new));
+        }
+        return new CachingQueryBus(bus, cache, hasher, defaultTimeoutMs);
+    }
+}
@@ -0,0 +1,145 @@
+package tr.kontas.splitr.bus.query.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Size-bounded LRU cache of query results with in-flight coalescing and stale-while-revalidate.
+ * <p>
+ * At most one load per key is running at any time: concurrent misses join it, and a stale hit
+ * starts it in the background while returning the old value. Failed loads are not cached.
+ * </p>
+ *
+ * @author BurakKontas
+ * @version 1.0.0
+ */
+public class QueryResultCache {
+
+    /**
+     * How a lookup was answered.
+     */
+    public enum Outcome {
+        HIT, STALE, MISS, COALESCED
+    }
+
+    /**
+     * @param future  Completes with the result; never the shared load future itself.
+     * @param outcome How the lookup was answered.
+     */
+    public record Result(CompletableFuture<Object> future, Outcome outcome) {
+    }
+
+    private static final class Entry {
+        Object value;
+        boolean hasValue;
+        long freshUntil;
+        long staleUntil;
+        CompletableFuture<Object> loading;
+    }
+
+    private final Map<String, Entry> entries;
+
+    public QueryResultCache(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive: " + maxSize);
+        }
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached value of {@code key}, or joins/starts a load through {@code loader}.
+     *
+     * @param ttlMs   Freshness of a loaded value.
+     * @param staleMs Additional time a value is served while being refreshed.
+     */
+    public Result get(String key, long ttlMs, long staleMs, Supplier<CompletableFuture<?>> loader) {
+        long now = System.currentTimeMillis();
+        Entry entry;
+        CompletableFuture<Object> load = null;
+        Result result;
+
+        synchronized (entries) {
+            entry = entries.get(key);
+            if (entry != null && entry.hasValue && now < entry.freshUntil) {
+                return new Result(CompletableFuture.completedFuture(entry.value), Outcome.HIT);
+            }
+
+            if (entry != null && entry.hasValue && now < entry.staleUntil) {
+                // Eski değer hemen döner, yenileme arka planda tek istekle yapılır
+                if (entry.loading == null) {
+                    load = entry.loading = new CompletableFuture<>();
+                }
+                result = new Result(CompletableFuture.completedFuture(entry.value), Outcome.STALE);
+            } else {
+                if (entry == null) {
+                    entry = new Entry();
+                    entries.put(key, entry);
+                }
+                entry.hasValue = false;
+                entry.value = null;
+
+                if (entry.loading != null) {
+                    result = new Result(entry.loading.copy(), Outcome.COALESCED);
+                } else {
+                    load = entry.loading = new CompletableFuture<>();
+                    result = new Result(load.copy(), Outcome.MISS);
+                }
+            }
+        }
+
+        if (load != null) {
+            start(key, entry, load, ttlMs, staleMs, loader);
+        }
+        return result;
+    }
+
+    private void start(String key, Entry entry, CompletableFuture<Object> load, long ttlMs, long staleMs,
+                       Supplier<CompletableFuture<?>> loader) {
+        CompletableFuture<?> source;
+        try {
+            source = loader.get();
+        } catch (RuntimeException e) {
+            source = CompletableFuture.failedFuture(e);
+        }
+
+        source.whenComplete((value, error) -> {
+            synchronized (entries) {
+                entry.loading = null;
+                if (error == null) {
+                    long now = System.currentTimeMillis();
+                    entry.value = value;
+                    entry.hasValue = true;
+                    entry.freshUntil = now + ttlMs;
+                    entry.staleUntil = entry.freshUntil + staleMs;
+                } else if (!entry.hasValue) {
+                    entries.remove(key, entry);
+                }
+            }
+
+            if (error == null) {
+                load.complete(value);
+            } else {
+                load.completeExceptionally(error);
+            }
+        });
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+}
@@ -2,17 +2,23 @@ package tr.kontas.splitr.bus.registry;
 
 import lombok.extern.slf4j.Slf4j;
 import tr.kontas.splitr.dto.base.BaseResponse;
+import tr.kontas.splitr.logging.MessageLog;
+import tr.kontas.splitr.metrics.Instrumented;
+import tr.kontas.splitr.metrics.SplitrMetrics;
 
 import java.util.Map;
 import java.util.concurrent.*;
 
 @Slf4j
-public class SyncRegistry {
+public class SyncRegistry implements Instrumented {
 
-    private record Entry(CompletableFuture<BaseResponse> future, long expiresAt) {
-            private Entry(CompletableFuture<BaseResponse> future, long expiresAt) {
+    private static final MessageLog lateResponses = MessageLog.of(SyncRegistry.class, "Dropping late or duplicate response");
+
+    private record Entry(CompletableFuture<BaseResponse> future, long expiresAt, long registeredAtNanos) {
+            private Entry(CompletableFuture<BaseResponse> future, long expiresAt, long registeredAtNanos) {
                 this.future = future;
                 this.expiresAt = System.currentTimeMillis() + expiresAt;
+                this.registeredAtNanos = registeredAtNanos;
             }
 
             boolean isExpired() {
@@ -24,6 +30,7 @@ public class SyncRegistry {
     private final ScheduledExecutorService cleanupScheduler;
     private final long defaultTimeoutMs;
     private final int maxSize;
+    private SplitrMetrics metrics = SplitrMetrics.NOOP;
 
     public SyncRegistry() {
         this(60_000L, 10_000);
@@ -56,6 +63,7 @@ public class SyncRegistry {
 
             // Hala dolu mu?
             if (map.size() >= maxSize) {
+                metrics.registryRejected();
                 CompletableFuture<BaseResponse> rejectedFuture = new CompletableFuture<>();
                 rejectedFuture.completeExceptionally(
                         new IllegalStateException("Registry is full, cannot register new request")
@@ -65,14 +73,16 @@ public class SyncRegistry {
         }
 
         CompletableFuture<BaseResponse> future = new CompletableFuture<>();
-        Entry entry = new Entry(future, timeoutMs);
+        Entry entry = new Entry(future, timeoutMs, System.nanoTime());
 
         map.put(id, entry);
         log.debug("Registered request {} with timeout {}ms", id, timeoutMs);
 
         future.orTimeout(timeoutMs, TimeUnit.MILLISECONDS)
                 .exceptionally(ex -> {
-                    map.remove(id);
+                    if (map.remove(id, entry) && ex instanceof TimeoutException) {
+                        metrics.registryTimeout();
+                    }
                     log.debug("Request {} timed out and removed", id);
                     return null;
                 });
@@ -83,10 +93,12 @@ public class SyncRegistry {
     public void complete(BaseResponse r) {
         Entry entry = map.remove(r.getId());
         if (entry != null) {
+            metrics.registryCompleted(System.nanoTime() - entry.registeredAtNanos);
             entry.future.complete(r);
             log.debug("Completed and removed request {}", r.getId());
         } else {
-            log.warn("Attempted to complete non-existent or already completed request: {}", r.getId());
+            // Hedge ve geç gelen cevaplarda olağan; log politikasına tabi
+            lateResponses.message(null, r.getId());
         }
     }
 
@@ -118,6 +130,7 @@ public class SyncRegistry {
             if (entry.isExpired() || entry.future.isDone()) {
                 if (map.remove(e.getKey()) != null) {
                     if (!entry.future.isDone()) {
+                        metrics.registryTimeout();
                         entry.future.completeExceptionally(
                                 new TimeoutException("Request expired: " + e.getKey())
                         );
@@ -136,6 +149,12 @@ public class SyncRegistry {
         return map.size();
     }
 
+    @Override
+    public void setMetrics(SplitrMetrics metrics) {
+        this.metrics = metrics;
+        metrics.bindRegistry(this);
+    }
+
     public void clear() {
         map.forEach((id, entry) -> {
             if (!entry.future.isDone()) {
@@ -0,0 +1,31 @@
+package tr.kontas.splitr.consumer.autoconfigure;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import tr.kontas.splitr.bus.limit.ConcurrencyLimiters;
+
+/**
+ * Creates the adaptive publisher concurrency limits ({@code splitr.bus.limit.*}) used by the
+ * Kafka and RabbitMQ buses for sync and async requests.
+ */
+@Configuration
+public class ConcurrencyLimitAutoConfigure {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public ConcurrencyLimiters splitrConcurrencyLimiters(
+            @Value("${splitr.bus.limit.enabled:false}") boolean enabled,
+            @Value("${splitr.bus.limit.initial:20}") int initial,
+            @Value("${splitr.bus.limit.min:1}") int min,
+            @Value("${splitr.bus.limit.max:1000}") int max,
+            @Value("${splitr.bus.limit.backoff:0.9}") double backoff,
+            @Value("${splitr.bus.limit.latency-tolerance:2.0}") double tolerance
+    ) {
+        if (!enabled) {
+            return ConcurrencyLimiters.NONE;
+        }
+        return new ConcurrencyLimiters(initial, min, max, backoff, tolerance);
+    }
+}
@@ -1,6 +1,7 @@
 package tr.kontas.splitr.consumer.autoconfigure;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBooleanProperty;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
@@ -9,27 +10,74 @@ import tr.kontas.splitr.bus.domainevent.DomainEventBus;
 import tr.kontas.splitr.bus.registry.SyncRegistry;
 import tr.kontas.splitr.consumer.bus.DomainEventHandler;
 import tr.kontas.splitr.consumer.dispatcher.DomainEventDispatcher;
+import tr.kontas.splitr.consumer.domainevent.DomainEventDispatchMode;
+import tr.kontas.splitr.consumer.domainevent.DomainEventDispatchOptions;
 import tr.kontas.splitr.consumer.domainevent.InMemoryEventBus;
+import tr.kontas.splitr.consumer.domainevent.RingBufferDomainEventBus;
+import tr.kontas.splitr.consumer.domainevent.ring.ProducerType;
+import tr.kontas.splitr.consumer.domainevent.ring.RingBufferOptions;
+import tr.kontas.splitr.consumer.domainevent.ring.WaitStrategy;
 import tr.kontas.splitr.consumer.store.LruStore;
 
 import java.util.List;
+import java.util.Locale;
 
 @Configuration
 public class DomainEventAutoConfigure {
 
     @Bean
     @ConditionalOnMissingBean
+    public DomainEventDispatchOptions domainEventDispatchOptions(
+            @Value("${splitr.domain-event.mode:sync}") String mode,
+            @Value("${splitr.domain-event.virtual-threads:false}") boolean virtualThreads,
+            @Value("${splitr.domain-event.pool-size:0}") int poolSize,
+            @Value("${splitr.domain-event.async-queue-capacity:1024}") int asyncQueueCapacity
+    ) {
+        return new DomainEventDispatchOptions(
+                DomainEventDispatchMode.valueOf(mode.trim().toUpperCase(Locale.ROOT)),
+                virtualThreads,
+                poolSize,
+                asyncQueueCapacity
+        );
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnMissingBean
     public DomainEventDispatcher domainEventDispatcher(
             List<DomainEventHandler<?>> handlers,
-            LruStore store
+            DomainEventDispatchOptions options,
+            @Value("${splitr.domain-event.idempotency.max-size:10000}") int max,
+            @Value("${splitr.domain-event.idempotency.ttl-ms:3600000}") long ttlMs
     ) {
-        return new DomainEventDispatcher(handlers, store);
+        // Açık key'li domain event'ler query/command sonuç cache'inden ayrı bir store kullanır
+        LruStore store = new LruStore(max, ttlMs, "domain-event");
+
+        Runtime.getRuntime().addShutdownHook(new Thread(store::shutdown));
+
+        return new DomainEventDispatcher(handlers, store, options);
     }
 
     @Bean
+    @ConditionalOnBooleanProperty(name = "splitr.domain-event.ring-buffer.enabled", havingValue = false, matchIfMissing = true)
     public DomainEventBus domainEventBus(
             DomainEventDispatcher domainEventDispatcher
     ) {
         return new InMemoryEventBus(domainEventDispatcher);
     }
-}
\ No newline at end of file
+
+    @Bean(name = "domainEventBus", destroyMethod = "shutdown")
+    @ConditionalOnBooleanProperty(name = "splitr.domain-event.ring-buffer.enabled")
+    public RingBufferDomainEventBus ringBufferDomainEventBus(
+            List<DomainEventHandler<?>> handlers,
+            @Value("${splitr.domain-event.ring-buffer.size:65536}") int size,
+            @Value("${splitr.domain-event.ring-buffer.producer:multi}") String producer,
+            @Value("${splitr.domain-event.ring-buffer.wait-strategy:sleeping}") String waitStrategy
+    ) {
+        RingBufferOptions options = new RingBufferOptions(
+                size,
+                ProducerType.valueOf(producer.trim().toUpperCase(Locale.ROOT)),
+                WaitStrategy.valueOf(waitStrategy.trim().toUpperCase(Locale.ROOT).replace('-', '_'))
+        );
+        return new RingBufferDomainEventBus(handlers, options);
+    }
+}
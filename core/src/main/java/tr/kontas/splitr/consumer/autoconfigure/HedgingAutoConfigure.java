@@ -0,0 +1,25 @@
+package tr.kontas.splitr.consumer.autoconfigure;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import tr.kontas.splitr.bus.hedge.HedgingPolicy;
+
+/**
+ * Creates the query hedging policy ({@code splitr.query.hedge.*}) used by the Kafka and RabbitMQ
+ * query buses.
+ */
+@Configuration
+public class HedgingAutoConfigure {
+
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnMissingBean
+    public HedgingPolicy splitrHedgingPolicy(
+            @Value("${splitr.query.hedge.enabled:false}") boolean enabled,
+            @Value("${splitr.query.hedge.percentile:0.95}") double percentile,
+            @Value("${splitr.query.hedge.min-delay-ms:5}") long minDelayMs
+    ) {
+        return enabled ? new HedgingPolicy(percentile, minDelayMs) : HedgingPolicy.NONE;
+    }
+}
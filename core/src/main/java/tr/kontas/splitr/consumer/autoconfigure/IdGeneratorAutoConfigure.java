@@ -0,0 +1,45 @@
+package tr.kontas.splitr.consumer.autoconfigure;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import tr.kontas.splitr.id.IdGenerator;
+import tr.kontas.splitr.id.IdGenerators;
+import tr.kontas.splitr.id.UlidIdGenerator;
+import tr.kontas.splitr.id.UuidIdGenerator;
+
+/**
+ * Installs the {@link IdGenerator} used for message ids ({@code splitr.id.*}).
+ * <p>
+ * A user-declared {@code IdGenerator} bean takes precedence over the property.
+ * </p>
+ */
+@Configuration
+public class IdGeneratorAutoConfigure {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public IdGenerator splitrIdGenerator(
+            @Value("${splitr.id.generator:ulid}") String generator,
+            @Value("${splitr.id.node:-1}") int node
+    ) {
+        return switch (generator.trim().toLowerCase()) {
+            case "ulid" -> node < 0 ? new UlidIdGenerator() : new UlidIdGenerator(node);
+            case "uuid" -> new UuidIdGenerator();
+            default -> throw new IllegalArgumentException("Unknown splitr.id.generator: " + generator);
+        };
+    }
+
+    @Bean
+    public IdGeneratorInstaller splitrIdGeneratorInstaller(IdGenerator generator) {
+        IdGenerators.use(generator);
+        return new IdGeneratorInstaller(generator);
+    }
+
+    /**
+     * Marker bean so the generator is installed even when nothing else depends on it.
+     */
+    public record IdGeneratorInstaller(IdGenerator generator) {
+    }
+}
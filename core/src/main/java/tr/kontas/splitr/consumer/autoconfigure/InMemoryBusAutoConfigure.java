@@ -18,6 +18,7 @@ import tr.kontas.splitr.consumer.bus.impl.*;
 import tr.kontas.splitr.consumer.store.LruStore;
 
 import java.util.List;
+import java.util.Locale;
 
 @Configuration
 public class InMemoryBusAutoConfigure {
@@ -45,16 +46,33 @@ public class InMemoryBusAutoConfigure {
         return store;
     }
 
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnMissingBean
+    @ConditionalOnBooleanProperty(value = "splitr.inmemory.enabled")
+    public InMemoryBusExecutor inMemoryBusExecutor(
+            @Value("${splitr.inmemory.executor.mode:pool}") String mode,
+            @Value("${splitr.inmemory.executor.pool-size:0}") int poolSize,
+            @Value("${splitr.inmemory.executor.queue-capacity:1024}") int queueCapacity
+    ) {
+        return new InMemoryBusExecutor(
+                BusExecutorMode.valueOf(mode.trim().toUpperCase(Locale.ROOT)),
+                poolSize,
+                queueCapacity
+        );
+    }
+
     @Bean
     @ConditionalOnBooleanProperty(value = "splitr.inmemory.enabled")
-    public CommandBus commandBus(List<CommandHandler<?>> handlers, LruStore store) {
-        return new InMemoryCommandBus(handlers, store);
+    public CommandBus commandBus(List<CommandHandler<?>> handlers, LruStore store, InMemoryBusExecutor executor,
+                                 @Value("${splitr.bus.default-timeout:10000}") long defaultTimeout) {
+        return new InMemoryCommandBus(handlers, store, executor, defaultTimeout);
     }
 
     @Bean
     @ConditionalOnBooleanProperty(value = "splitr.inmemory.enabled")
-    public QueryBus queryBus(List<QueryHandler<?>> handlers, LruStore store) {
-        return new InMemoryQueryBus(handlers, store);
+    public QueryBus queryBus(List<QueryHandler<?>> handlers, LruStore store, InMemoryBusExecutor executor,
+                             @Value("${splitr.bus.default-timeout:10000}") long defaultTimeout) {
+        return new InMemoryQueryBus(handlers, store, executor, defaultTimeout);
     }
 
     @Bean
@@ -0,0 +1,43 @@
+package tr.kontas.splitr.consumer.autoconfigure;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import tr.kontas.splitr.logging.MessageLog;
+import tr.kontas.splitr.logging.MessageLogPolicy;
+import tr.kontas.splitr.logging.MessageLogReporter;
+
+/**
+ * Applies the {@code splitr.logging.*} hot-path logging policy.
+ */
+@Configuration
+public class LoggingAutoConfigure {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public MessageLogPolicy messageLogPolicy(
+            @Value("${splitr.logging.message-level:debug}") String level,
+            @Value("${splitr.logging.sample-rate:1}") int sampleRate,
+            @Value("${splitr.logging.max-per-second:100}") int maxPerSecond,
+            @Value("${splitr.logging.summary-interval-ms:60000}") long summaryIntervalMs
+    ) {
+        return new MessageLogPolicy(MessageLogPolicy.parseLevel(level), sampleRate, maxPerSecond, summaryIntervalMs);
+    }
+
+    /**
+     * Applies the policy whether or not the reporter below is replaced by a user bean.
+     */
+    @Bean
+    public SmartInitializingSingleton messageLogPolicyInitializer(MessageLogPolicy policy) {
+        // Listener container'ları başlamadan, tüm singleton'lar kurulunca uygulanır
+        return () -> MessageLog.configure(policy);
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnMissingBean
+    public MessageLogReporter messageLogReporter(MessageLogPolicy policy) {
+        return new MessageLogReporter(policy.summaryIntervalMs());
+    }
+}
@@ -0,0 +1,46 @@
+package tr.kontas.splitr.consumer.autoconfigure;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBooleanProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import tr.kontas.splitr.metrics.MicrometerSplitrMetrics;
+import tr.kontas.splitr.metrics.SplitrInstrumentationPostProcessor;
+import tr.kontas.splitr.metrics.SplitrMetrics;
+
+/**
+ * Enables Splitr metrics and tracing observations.
+ * <p>
+ * Micrometer meters are recorded as soon as a {@link MeterRegistry} bean is present, and
+ * observations are created through the application's {@link ObservationRegistry} if one exists.
+ * Can be switched off with {@code splitr.metrics.enabled=false}.
+ * </p>
+ */
+@Configuration
+@ConditionalOnBooleanProperty(name = "splitr.metrics.enabled", matchIfMissing = true)
+public class MetricsAutoConfigure {
+
+    @Bean
+    public static SplitrInstrumentationPostProcessor splitrInstrumentationPostProcessor(
+            ObjectProvider<SplitrMetrics> metrics,
+            ObjectProvider<ObservationRegistry> observationRegistry
+    ) {
+        return new SplitrInstrumentationPostProcessor(metrics, observationRegistry);
+    }
+
+    @Configuration
+    @ConditionalOnClass(name = "io.micrometer.core.instrument.MeterRegistry")
+    static class MicrometerMetricsConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean(SplitrMetrics.class)
+        public SplitrMetrics splitrMetrics(ObjectProvider<MeterRegistry> meterRegistry) {
+            MeterRegistry registry = meterRegistry.getIfUnique();
+            return registry == null ? SplitrMetrics.NOOP : new MicrometerSplitrMetrics(registry);
+        }
+    }
+}
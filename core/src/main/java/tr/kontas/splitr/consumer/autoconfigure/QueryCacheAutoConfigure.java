@@ -0,0 +1,27 @@
+package tr.kontas.splitr.consumer.autoconfigure;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBooleanProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import tr.kontas.splitr.bus.query.cache.CachedQuery;
+import tr.kontas.splitr.bus.query.cache.QueryCachePostProcessor;
+
+/**
+ * Enables the publisher-side result cache for {@link CachedQuery} types ({@code splitr.query.cache.*}).
+ */
+@Configuration
+@ConditionalOnBooleanProperty(name = "splitr.query.cache.enabled")
+public class QueryCacheAutoConfigure {
+
+    @Bean
+    public static QueryCachePostProcessor splitrQueryCachePostProcessor(
+            ObjectProvider<ObjectMapper> mapper,
+            @Value("${splitr.query.cache.max-size:10000}") int maxSize,
+            @Value("${splitr.bus.default-timeout:10000}") long defaultTimeout
+    ) {
+        return new QueryCachePostProcessor(mapper, maxSize, defaultTimeout);
+    }
+}
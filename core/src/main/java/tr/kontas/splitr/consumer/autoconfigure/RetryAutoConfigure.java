@@ -0,0 +1,30 @@
+package tr.kontas.splitr.consumer.autoconfigure;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import tr.kontas.splitr.consumer.retry.RetryPolicy;
+
+/**
+ * Provides the {@code splitr.retry.*} backoff policy of failed commands and events; disabled by
+ * default.
+ */
+@Configuration
+public class RetryAutoConfigure {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public RetryPolicy retryPolicy(
+            @Value("${splitr.retry.enabled:false}") boolean enabled,
+            @Value("${splitr.retry.max-attempts:3}") int maxAttempts,
+            @Value("${splitr.retry.initial-delay-ms:1000}") long initialDelayMs,
+            @Value("${splitr.retry.multiplier:5.0}") double multiplier,
+            @Value("${splitr.retry.max-delay-ms:60000}") long maxDelayMs
+    ) {
+        if (!enabled) {
+            return RetryPolicy.DISABLED;
+        }
+        return new RetryPolicy(maxAttempts, initialDelayMs, multiplier, maxDelayMs);
+    }
+}
@@ -0,0 +1,97 @@
+package tr.kontas.splitr.consumer.bus;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable type index of bus handlers, built once when a bus is constructed.
+ * <p>
+ * Handlers are grouped by their declared {@link BusHandler#type()}, and the handlers applicable
+ * to a concrete payload class (including those declared for its superclasses and interfaces)
+ * are resolved once per class through a {@link ClassValue}, so the hot path is a single
+ * lookup with no locking and no lazy initialization.
+ * </p>
+ *
+ * @param <H> The handler type.
+ * @author BurakKontas
+ * @version 1.0.0
+ */
+public final class HandlerIndex<H extends BusHandler<?>> {
+
+    private final Map<Class<?>, List<H>> handlersByType;
+    private final ClassValue<List<H>> resolved = new ClassValue<>() {
+        @Override
+        protected List<H> computeValue(Class<?> type) {
+            return resolve(type);
+        }
+    };
+
+    public HandlerIndex(List<? extends H> handlers) {
+        Map<Class<?>, List<H>> grouped = new LinkedHashMap<>();
+        for (H handler : handlers) {
+            grouped.computeIfAbsent(handler.type(), k -> new ArrayList<>()).add(handler);
+        }
+
+        Map<Class<?>, List<H>> index = new LinkedHashMap<>();
+        grouped.forEach((type, list) -> index.put(type, List.copyOf(list)));
+        this.handlersByType = Map.copyOf(index);
+    }
+
+    /**
+     * Returns the handlers for a concrete payload class: handlers declared for the class itself
+     * first (in registration order), then those declared for its superclasses and interfaces,
+     * nearest type first. The result is immutable and computed once per class.
+     */
+    public List<H> handlersFor(Class<?> payloadType) {
+        return resolved.get(payloadType);
+    }
+
+    /**
+     * @return The first of {@link #handlersFor(Class)}, or {@code null} if there is none.
+     */
+    public H handlerFor(Class<?> payloadType) {
+        List<H> handlers = resolved.get(payloadType);
+        return handlers.isEmpty() ? null : handlers.getFirst();
+    }
+
+    public boolean isEmpty() {
+        return handlersByType.isEmpty();
+    }
+
+    private List<H> resolve(Class<?> payloadType) {
+        List<H> result = new ArrayList<>();
+        for (Class<?> type : hierarchyOf(payloadType)) {
+            List<H> declared = handlersByType.get(type);
+            if (declared != null) {
+                result.addAll(declared);
+            }
+        }
+        return List.copyOf(result);
+    }
+
+    /**
+     * @return The class, its superclasses and then all of their interfaces, nearest type first.
+     */
+    public static Set<Class<?>> hierarchyOf(Class<?> type) {
+        Set<Class<?>> hierarchy = new LinkedHashSet<>();
+        for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+            hierarchy.add(c);
+        }
+
+        Deque<Class<?>> pending = new ArrayDeque<>(hierarchy);
+        while (!pending.isEmpty()) {
+            for (Class<?> i : pending.poll().getInterfaces()) {
+                if (hierarchy.add(i)) {
+                    pending.add(i);
+                }
+            }
+        }
+        return hierarchy;
+    }
+}
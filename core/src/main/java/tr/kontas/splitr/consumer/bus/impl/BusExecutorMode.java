@@ -0,0 +1,26 @@
+package tr.kontas.splitr.consumer.bus.impl;
+
+/**
+ * Where {@code publishAsync} work of the in-memory buses runs.
+ *
+ * @author BurakKontas
+ * @version 1.0.0
+ */
+public enum BusExecutorMode {
+
+    /**
+     * Bounded pool of platform threads with a bounded queue; when both are full the caller
+     * runs the handler itself.
+     */
+    POOL,
+
+    /**
+     * A new virtual thread per call; suited to handlers that mostly block on I/O.
+     */
+    VIRTUAL,
+
+    /**
+     * The calling thread runs the handler and the returned future is already complete.
+     */
+    CALLER
+}
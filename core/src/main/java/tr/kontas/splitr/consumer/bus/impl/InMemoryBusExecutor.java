@@ -0,0 +1,192 @@
+package tr.kontas.splitr.consumer.bus.impl;
+
+import tr.kontas.splitr.deadline.Deadline;
+import tr.kontas.splitr.metrics.Instrumented;
+import tr.kontas.splitr.metrics.SplitrMetrics;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Executor of the in-memory command and query buses' {@code publishAsync} calls, and of their
+ * {@code publishSync} calls that have a deadline.
+ * <p>
+ * Keeps blocking handler work off {@code ForkJoinPool.commonPool()}, which is shared with
+ * parallel streams and every other default {@code CompletableFuture} in the JVM. Queue depth,
+ * running tasks and caller-runs fallbacks are exposed for metrics.
+ * </p>
+ *
+ * @author BurakKontas
+ * @version 1.0.0
+ */
+public final class InMemoryBusExecutor implements Executor, Instrumented {
+
+    private final BusExecutorMode mode;
+    private final ExecutorService delegate;
+    private final ThreadPoolExecutor pool;
+    private final AtomicInteger active = new AtomicInteger();
+    private final LongAdder callerRuns = new LongAdder();
+
+    private static final ThreadLocal<InMemoryBusExecutor> RUNNING = new ThreadLocal<>();
+
+    /**
+     * @param mode          Where tasks run.
+     * @param poolSize      Thread count of {@link BusExecutorMode#POOL}; {@code 0} uses the CPU count.
+     * @param queueCapacity Pending tasks of {@link BusExecutorMode#POOL} before the caller runs them.
+     */
+    public InMemoryBusExecutor(BusExecutorMode mode, int poolSize, int queueCapacity) {
+        this.mode = mode;
+        this.pool = mode == BusExecutorMode.POOL ? pool(poolSize, queueCapacity) : null;
+        this.delegate = switch (mode) {
+            case POOL -> pool;
+            case VIRTUAL -> Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("splitr-inmemory-bus-", 0).factory());
+            case CALLER -> null;
+        };
+    }
+
+    /**
+     * @return An executor running every task on the calling thread.
+     */
+    public static InMemoryBusExecutor callerRuns() {
+        return new InMemoryBusExecutor(BusExecutorMode.CALLER, 0, 0);
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (delegate == null) {
+            run(task);
+            return;
+        }
+        delegate.execute(() -> run(task));
+    }
+
+    private void run(Runnable task) {
+        InMemoryBusExecutor previous = RUNNING.get();
+        RUNNING.set(this);
+        active.incrementAndGet();
+        try {
+            task.run();
+        } finally {
+            active.decrementAndGet();
+            RUNNING.set(previous);
+        }
+    }
+
+    /**
+     * Runs {@code task} on this executor and waits for it until {@code deadline}, interrupting it
+     * once the deadline passes.
+     * <p>
+     * The task runs on the calling thread, and cannot be cut short, without a deadline, in
+     * {@link BusExecutorMode#CALLER} mode and when the caller is itself one of this executor's
+     * tasks; nested calls would otherwise wait for threads their callers hold.
+     * </p>
+     *
+     * @throws TimeoutException If the deadline passed before the task completed.
+     */
+    public <T> T callWithin(long deadline, Supplier<T> task) throws TimeoutException {
+        if (deadline == Deadline.NONE || delegate == null || RUNNING.get() == this) {
+            return task.get();
+        }
+
+        FutureTask<T> future = new FutureTask<>(task::get);
+        execute(future);
+        try {
+            return future.get(Deadline.remainingMs(deadline), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw e;
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for an in-memory call", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    public BusExecutorMode mode() {
+        return mode;
+    }
+
+    /**
+     * @return Tasks waiting for a pool thread; always {@code 0} outside {@link BusExecutorMode#POOL}.
+     */
+    public int queueDepth() {
+        return pool == null ? 0 : pool.getQueue().size();
+    }
+
+    /**
+     * @return Tasks currently running, including those run by callers.
+     */
+    public int activeCount() {
+        return active.get();
+    }
+
+    /**
+     * @return Tasks the pool rejected and the caller ran instead.
+     */
+    public long callerRunsCount() {
+        return callerRuns.sum();
+    }
+
+    public void shutdown() {
+        if (delegate == null) {
+            return;
+        }
+        delegate.shutdown();
+        try {
+            if (!delegate.awaitTermination(5, TimeUnit.SECONDS)) {
+                delegate.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            delegate.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private ThreadPoolExecutor pool(int poolSize, int queueCapacity) {
+        int size = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                size, size,
+                60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                r -> {
+                    Thread t = new Thread(r, "splitr-inmemory-bus-" + counter.getAndIncrement());
+                    t.setDaemon(true);
+                    return t;
+                },
+                (task, e) -> {
+                    // Kuyruk doluysa geri basınç: görevi çağıran thread çalıştırır
+                    if (!e.isShutdown()) {
+                        callerRuns.increment();
+                        task.run();
+                    }
+                }
+        );
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    @Override
+    public void setMetrics(SplitrMetrics metrics) {
+        metrics.bindExecutor(this);
+    }
+}
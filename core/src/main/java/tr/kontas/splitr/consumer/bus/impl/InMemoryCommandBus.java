@@ -1,47 +1,83 @@
 package tr.kontas.splitr.consumer.bus.impl;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import tr.kontas.splitr.bus.command.Command;
 import tr.kontas.splitr.bus.command.CommandBus;
 import tr.kontas.splitr.consumer.bus.CommandHandler;
+import tr.kontas.splitr.consumer.bus.HandlerIndex;
 import tr.kontas.splitr.consumer.store.LruStore;
+import tr.kontas.splitr.deadline.Deadline;
+import tr.kontas.splitr.logging.MessageLog;
+import tr.kontas.splitr.metrics.Instrumented;
+import tr.kontas.splitr.metrics.SplitrMetrics;
 
 import java.util.List;
-import java.util.Map;
 import java.util.concurrent.CompletableFuture;
-import java.util.stream.Collectors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @Slf4j
-@RequiredArgsConstructor
-public class InMemoryCommandBus implements CommandBus {
+public class InMemoryCommandBus implements CommandBus, Instrumented {
 
-    private final List<CommandHandler<?>> handlers;
+    private static final MessageLog messages = MessageLog.of(InMemoryCommandBus.class, "Executing command");
+    private static final MessageLog duplicates = MessageLog.of(InMemoryCommandBus.class, "Command already processed, returning cached result");
+
+    private final HandlerIndex<CommandHandler<?>> handlers;
     private final LruStore store;
-    private Map<Class<?>, CommandHandler<?>> handlerMap;
-
-    private void initializeHandlers() {
-        if (handlerMap == null) {
-            handlerMap = handlers.stream()
-                    .collect(Collectors.toMap(
-                            CommandHandler::type,
-                            handler -> handler,
-                            (existing, replacement) -> existing // ilk handler'ı kullan
-                    ));
-        }
+    private final InMemoryBusExecutor executor;
+    private final long defaultTimeoutMs;
+    private SplitrMetrics metrics = SplitrMetrics.NOOP;
+
+    /**
+     * Runs {@code publishAsync} on the calling thread and without a timeout; {@code publishSync}
+     * also runs on the calling thread and only reports a timeout after the handler returned.
+     */
+    public InMemoryCommandBus(List<CommandHandler<?>> handlers, LruStore store) {
+        this(handlers, store, InMemoryBusExecutor.callerRuns(), 0);
+    }
+
+    /**
+     * @param executor         Executor of {@code publishAsync} calls and of {@code publishSync} calls with a timeout.
+     * @param defaultTimeoutMs Timeout of {@code publishAsync} calls without an explicit one; {@code 0} disables it.
+     */
+    public InMemoryCommandBus(List<CommandHandler<?>> handlers, LruStore store, InMemoryBusExecutor executor, long defaultTimeoutMs) {
+        this.handlers = new HandlerIndex<>(handlers);
+        this.store = store;
+        this.executor = executor;
+        this.defaultTimeoutMs = defaultTimeoutMs;
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     public <T> T publishSync(Command command, Class<T> responseType, long timeoutMs) {
-        initializeHandlers();
+        long start = System.nanoTime();
+        Throwable error = null;
+        try {
+            long deadline = deadlineOf(timeoutMs);
+            // Handler ayrı thread'de çalışır; deadline geçince beklemeden timeout döner
+            return executor.callWithin(deadline, () -> execute(command, responseType, deadline));
+        } catch (TimeoutException e) {
+            RuntimeException timeout = new RuntimeException("Command execution failed", deadlineExceeded(command));
+            error = timeout;
+            throw timeout;
+        } catch (RuntimeException e) {
+            error = e;
+            throw e;
+        } finally {
+            metrics.publish("inmemory", command.getClass().getName(), "sync", System.nanoTime() - start, error);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T execute(Command command, Class<T> responseType, long deadline) {
+        messages.message(command.getClass().getName(), command.getIdempotencyKey());
 
-        log.info("Executing command: {} in thread: {}",
-                command.getClass().getSimpleName(),
-                Thread.currentThread().getName());
+        // Async çağrı kuyrukta beklerken çağıranın bütçesi dolmuş olabilir
+        if (Deadline.expired(deadline)) {
+            throw new RuntimeException("Command execution failed", deadlineExceeded(command));
+        }
 
-        CommandHandler<Command> handler = (CommandHandler<Command>) handlerMap.get(command.getClass());
+        CommandHandler<Command> handler = (CommandHandler<Command>) handlers.handlerFor(command.getClass());
 
         if (handler == null) {
             log.warn("No handler found for command type: {}", command.getClass().getName());
@@ -50,15 +86,20 @@ public class InMemoryCommandBus implements CommandBus {
 
         // idempotency control
         if(store.contains(command.getIdempotencyKey())) {
-            log.info("Command with idempotency key {} has already been processed. Returning cached result.", command.getIdempotencyKey());
+            duplicates.message(command.getClass().getName(), command.getIdempotencyKey());
             return (T) store.get(command.getIdempotencyKey());
         }
 
         try {
-            T result = (T) handler.handle(command);
+            T result = (T) Deadline.callWithin(deadline, () -> handler.handle(command));
 
             store.put(command.getIdempotencyKey(), result);
 
+            // Sonuç saklanır ama çağıran Kafka/RabbitMQ'daki gibi timeout görür
+            if (Deadline.expired(deadline)) {
+                throw deadlineExceeded(command);
+            }
+
             if (result == null) {
                 return null;
             }
@@ -77,12 +118,26 @@ public class InMemoryCommandBus implements CommandBus {
 
     @Override
     public <T> T publishSync(Command command, Class<T> responseType) {
-        return publishSync(command, responseType, Long.MAX_VALUE);
+        return publishSync(command, responseType, Deadline.NO_TIMEOUT);
     }
 
     @Override
     public <T> CompletableFuture<T> publishAsync(Command command, Class<T> responseType) {
-        return CompletableFuture.supplyAsync(() -> publishSync(command, responseType));
+        return publishAsync(command, responseType, defaultTimeoutMs);
+    }
+
+    @Override
+    public <T> CompletableFuture<T> publishAsync(Command command, Class<T> responseType, long timeoutMs) {
+        long start = System.nanoTime();
+        long deadline = deadlineOf(timeoutMs);
+        CompletableFuture<T> future = CompletableFuture.supplyAsync(() -> execute(command, responseType, deadline), executor);
+
+        if (deadline != Deadline.NONE) {
+            future = future.orTimeout(Deadline.remainingMs(deadline), TimeUnit.MILLISECONDS);
+        }
+
+        return future.whenComplete((result, error) ->
+                metrics.publish("inmemory", command.getClass().getName(), "async", System.nanoTime() - start, error));
     }
 
     @Override
@@ -94,4 +149,18 @@ public class InMemoryCommandBus implements CommandBus {
     public void publish(Command command, long timeoutMs) {
         publishSync(command, Void.class, timeoutMs);
     }
-}
\ No newline at end of file
+
+    // Handler içinden yapılan çağrı dıştaki isteğin bütçesini aşamaz
+    private static long deadlineOf(long timeoutMs) {
+        return Deadline.earliest(Deadline.after(System.currentTimeMillis(), timeoutMs), Deadline.current());
+    }
+
+    private static TimeoutException deadlineExceeded(Command command) {
+        return new TimeoutException("Command exceeded its deadline: " + command.getIdempotencyKey());
+    }
+
+    @Override
+    public void setMetrics(SplitrMetrics metrics) {
+        this.metrics = metrics;
+    }
+}
@@ -1,51 +1,57 @@
 package tr.kontas.splitr.consumer.bus.impl;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import tr.kontas.splitr.bus.event.Event;
 import tr.kontas.splitr.bus.event.EventBus;
 import tr.kontas.splitr.consumer.bus.EventHandler;
+import tr.kontas.splitr.consumer.bus.HandlerIndex;
 import tr.kontas.splitr.consumer.store.IdempotencyStore;
 import tr.kontas.splitr.consumer.store.LruStore;
+import tr.kontas.splitr.logging.MessageLog;
+import tr.kontas.splitr.metrics.Instrumented;
+import tr.kontas.splitr.metrics.SplitrMetrics;
 
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 
 @Slf4j
-@RequiredArgsConstructor
-public class InMemoryEventBus implements EventBus {
+public class InMemoryEventBus implements EventBus, Instrumented {
 
-    private final List<EventHandler<?>> handlers;
+    private static final MessageLog messages = MessageLog.of(InMemoryEventBus.class, "Publishing event");
+    private static final MessageLog duplicates = MessageLog.of(InMemoryEventBus.class, "Event already processed, skipping");
+
+    private final HandlerIndex<EventHandler<?>> handlers;
     private final LruStore store;
-    private Map<Class<?>, List<EventHandler<?>>> handlerMap;
+    private SplitrMetrics metrics = SplitrMetrics.NOOP;
 
-    private void initializeHandlers() {
-        if (handlerMap == null) {
-            handlerMap = handlers.stream()
-                    .collect(Collectors.groupingBy(EventHandler::type));
-        }
+    public InMemoryEventBus(List<EventHandler<?>> handlers, LruStore store) {
+        this.handlers = new HandlerIndex<>(handlers);
+        this.store = store;
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     public void publish(Event event) {
-        initializeHandlers();
+        long start = System.nanoTime();
+        try {
+            execute(event);
+        } finally {
+            metrics.publish("inmemory", event.getClass().getName(), "fire-and-forget", System.nanoTime() - start, null);
+        }
+    }
 
-        log.info("Publishing event: {} in thread: {}",
-                event.getClass().getSimpleName(),
-                Thread.currentThread().getName());
+    @SuppressWarnings("unchecked")
+    private void execute(Event event) {
+        messages.message(event.getClass().getName(), event.getIdempotencyKey());
 
-        List<EventHandler<?>> eventHandlers = handlerMap.get(event.getClass());
+        List<EventHandler<?>> eventHandlers = handlers.handlersFor(event.getClass());
 
-        if (eventHandlers == null || eventHandlers.isEmpty()) {
+        if (eventHandlers.isEmpty()) {
             log.warn("No handler found for event type: {}", event.getClass().getName());
             return;
         }
 
         if(store.contains(event.getIdempotencyKey())) {
-            log.info("Event with idempotency key {} has already been processed. Skipping.", event.getIdempotencyKey());
+            duplicates.message(event.getClass().getName(), event.getIdempotencyKey());
             return;
         }
 
@@ -61,4 +67,9 @@ public class InMemoryEventBus implements EventBus {
             }
         }
     }
-}
\ No newline at end of file
+
+    @Override
+    public void setMetrics(SplitrMetrics metrics) {
+        this.metrics = metrics;
+    }
+}
@@ -1,46 +1,82 @@
 package tr.kontas.splitr.consumer.bus.impl;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import tr.kontas.splitr.bus.query.Query;
 import tr.kontas.splitr.bus.query.QueryBus;
 import tr.kontas.splitr.consumer.bus.QueryHandler;
+import tr.kontas.splitr.consumer.bus.HandlerIndex;
 import tr.kontas.splitr.consumer.store.LruStore;
+import tr.kontas.splitr.deadline.Deadline;
+import tr.kontas.splitr.logging.MessageLog;
+import tr.kontas.splitr.metrics.Instrumented;
+import tr.kontas.splitr.metrics.SplitrMetrics;
 
 import java.util.List;
-import java.util.Map;
 import java.util.concurrent.CompletableFuture;
-import java.util.stream.Collectors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @Slf4j
-@RequiredArgsConstructor
-public class InMemoryQueryBus implements QueryBus {
+public class InMemoryQueryBus implements QueryBus, Instrumented {
 
-    private final List<QueryHandler<?>> handlers;
+    private static final MessageLog messages = MessageLog.of(InMemoryQueryBus.class, "Executing query");
+    private static final MessageLog duplicates = MessageLog.of(InMemoryQueryBus.class, "Query already processed, returning cached result");
+
+    private final HandlerIndex<QueryHandler<?>> handlers;
     private final LruStore store;
-    private Map<Class<?>, QueryHandler<?>> handlerMap;
-
-    private void initializeHandlers() {
-        if (handlerMap == null) {
-            handlerMap = handlers.stream()
-                    .collect(Collectors.toMap(
-                            QueryHandler::type,
-                            handler -> handler,
-                            (existing, replacement) -> existing
-                    ));
-        }
+    private final InMemoryBusExecutor executor;
+    private final long defaultTimeoutMs;
+    private SplitrMetrics metrics = SplitrMetrics.NOOP;
+
+    /**
+     * Runs {@code publishAsync} on the calling thread and without a timeout; {@code publishSync}
+     * also runs on the calling thread and only reports a timeout after the handler returned.
+     */
+    public InMemoryQueryBus(List<QueryHandler<?>> handlers, LruStore store) {
+        this(handlers, store, InMemoryBusExecutor.callerRuns(), 0);
+    }
+
+    /**
+     * @param executor         Executor of {@code publishAsync} calls and of {@code publishSync} calls with a timeout.
+     * @param defaultTimeoutMs Timeout of {@code publishAsync} calls without an explicit one; {@code 0} disables it.
+     */
+    public InMemoryQueryBus(List<QueryHandler<?>> handlers, LruStore store, InMemoryBusExecutor executor, long defaultTimeoutMs) {
+        this.handlers = new HandlerIndex<>(handlers);
+        this.store = store;
+        this.executor = executor;
+        this.defaultTimeoutMs = defaultTimeoutMs;
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     public <T> T publishSync(Query query, Class<T> responseType, long timeoutMs) {
-        initializeHandlers();
+        long start = System.nanoTime();
+        Throwable error = null;
+        try {
+            long deadline = deadlineOf(timeoutMs);
+            // Handler ayrı thread'de çalışır; deadline geçince beklemeden timeout döner
+            return executor.callWithin(deadline, () -> execute(query, responseType, deadline));
+        } catch (TimeoutException e) {
+            RuntimeException timeout = new RuntimeException("Query execution failed", deadlineExceeded(query));
+            error = timeout;
+            throw timeout;
+        } catch (RuntimeException e) {
+            error = e;
+            throw e;
+        } finally {
+            metrics.publish("inmemory", query.getClass().getName(), "sync", System.nanoTime() - start, error);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T execute(Query query, Class<T> responseType, long deadline) {
+        messages.message(query.getClass().getName(), query.getIdempotencyKey());
 
-        log.info("Executing query: {} in thread: {}",
-                query.getClass().getSimpleName(),
-                Thread.currentThread().getName());
+        // Async çağrı kuyrukta beklerken çağıranın bütçesi dolmuş olabilir
+        if (Deadline.expired(deadline)) {
+            throw new RuntimeException("Query execution failed", deadlineExceeded(query));
+        }
 
-        QueryHandler<Query> handler = (QueryHandler<Query>) handlerMap.get(query.getClass());
+        QueryHandler<Query> handler = (QueryHandler<Query>) handlers.handlerFor(query.getClass());
 
         if (handler == null) {
             log.warn("No handler found for query type: {}", query.getClass().getName());
@@ -48,15 +84,20 @@ public class InMemoryQueryBus implements QueryBus {
         }
 
         if(store.contains(query.getIdempotencyKey())) {
-            log.info("Query with idempotency key {} has already been processed. Returning cached result.", query.getIdempotencyKey());
+            duplicates.message(query.getClass().getName(), query.getIdempotencyKey());
             return (T) store.get(query.getIdempotencyKey());
         }
 
         try {
-            T result = (T) handler.handle(query);
+            T result = (T) Deadline.callWithin(deadline, () -> handler.handle(query));
 
             store.put(query.getIdempotencyKey(), result);
 
+            // Sonuç saklanır ama çağıran Kafka/RabbitMQ'daki gibi timeout görür
+            if (Deadline.expired(deadline)) {
+                throw deadlineExceeded(query);
+            }
+
             if (result == null) {
                 return null;
             }
@@ -75,11 +116,39 @@ public class InMemoryQueryBus implements QueryBus {
 
     @Override
     public <T> T publishSync(Query query, Class<T> responseType) {
-        return publishSync(query, responseType, Long.MAX_VALUE);
+        return publishSync(query, responseType, Deadline.NO_TIMEOUT);
     }
 
     @Override
     public <T> CompletableFuture<T> publishAsync(Query query, Class<T> responseType) {
-        return CompletableFuture.supplyAsync(() -> publishSync(query, responseType));
+        return publishAsync(query, responseType, defaultTimeoutMs);
+    }
+
+    @Override
+    public <T> CompletableFuture<T> publishAsync(Query query, Class<T> responseType, long timeoutMs) {
+        long start = System.nanoTime();
+        long deadline = deadlineOf(timeoutMs);
+        CompletableFuture<T> future = CompletableFuture.supplyAsync(() -> execute(query, responseType, deadline), executor);
+
+        if (deadline != Deadline.NONE) {
+            future = future.orTimeout(Deadline.remainingMs(deadline), TimeUnit.MILLISECONDS);
+        }
+
+        return future.whenComplete((result, error) ->
+                metrics.publish("inmemory", query.getClass().getName(), "async", System.nanoTime() - start, error));
+    }
+
+    // Handler içinden yapılan çağrı dıştaki isteğin bütçesini aşamaz
+    private static long deadlineOf(long timeoutMs) {
+        return Deadline.earliest(Deadline.after(System.currentTimeMillis(), timeoutMs), Deadline.current());
+    }
+
+    private static TimeoutException deadlineExceeded(Query query) {
+        return new TimeoutException("Query exceeded its deadline: " + query.getIdempotencyKey());
+    }
+
+    @Override
+    public void setMetrics(SplitrMetrics metrics) {
+        this.metrics = metrics;
     }
 }
@@ -1,15 +1,22 @@
 package tr.kontas.splitr.consumer.dispatcher;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.client.RestTemplate;
 import tr.kontas.splitr.consumer.bus.BusHandler;
 import tr.kontas.splitr.consumer.store.IdempotencyStore;
+import tr.kontas.splitr.deadline.Deadline;
 import tr.kontas.splitr.dto.CommandRequest;
 import tr.kontas.splitr.dto.EventRequest;
 import tr.kontas.splitr.dto.QueryRequest;
 import tr.kontas.splitr.dto.base.BaseRequest;
 import tr.kontas.splitr.dto.base.BaseResponse;
+import tr.kontas.splitr.logging.MessageLog;
+import tr.kontas.splitr.metrics.Instrumented;
+import tr.kontas.splitr.metrics.SplitrMetrics;
+import tr.kontas.splitr.metrics.SplitrObservations;
 
 import java.util.List;
 import java.util.Map;
@@ -17,12 +24,18 @@ import java.util.concurrent.*;
 import java.util.stream.Collectors;
 
 @Slf4j
-public abstract class BaseDispatcher<TReq extends BaseRequest, TResp extends BaseResponse, THandler extends BusHandler<?>> {
+public abstract class BaseDispatcher<TReq extends BaseRequest, TResp extends BaseResponse, THandler extends BusHandler<?>>
+        implements Instrumented {
+
+    private static final MessageLog messages = MessageLog.of(BaseDispatcher.class, "Working on");
+    private static final MessageLog expired = MessageLog.of(BaseDispatcher.class, "Deadline exceeded, dropping");
 
     protected final Map<Class<?>, List<THandler>> handlers;
     protected final IdempotencyStore store;
     protected final ObjectMapper mapper;
     protected static final RestTemplate rest = new RestTemplate();
+    protected SplitrMetrics metrics = SplitrMetrics.NOOP;
+    protected ObservationRegistry observationRegistry = ObservationRegistry.NOOP;
 
     protected BaseDispatcher(List<THandler> list, IdempotencyStore store, ObjectMapper mapper) {
         this.handlers = list.stream().collect(Collectors.groupingBy(BusHandler::type));
@@ -31,17 +44,55 @@ public abstract class BaseDispatcher<TReq extends BaseRequest, TResp extends Bas
     }
 
     public void dispatch(TReq r) throws Exception {
-        log.atInfo().log("Working on: " + r.getId());
+        dispatch(r, null);
+    }
+
+    /**
+     * Dispatches {@code r}, handing its response to {@code sink} instead of the callback webhook.
+     *
+     * @param sink Receiver of the response, or {@code null} for the webhook.
+     */
+    public void dispatch(TReq r, ResponseSink sink) throws Exception {
+        long deadline = Deadline.of(r);
+        // Çağıran zaten vazgeçtiyse hiç işleme
+        if (deadlineExceeded(r, deadline, "consume")) {
+            return;
+        }
+
+        Observation observation = SplitrObservations.dispatch(observationRegistry, r, kindOf(r)).start();
+        try (Observation.Scope scope = observation.openScope()) {
+            doDispatch(r, deadline, observation, sink);
+        } catch (Exception e) {
+            observation.error(e);
+            throw e;
+        } finally {
+            observation.stop();
+        }
+    }
 
-        long deadline = r.getSentAtEpochMs() + r.getTimeoutMs();
-        long remaining = deadline - System.currentTimeMillis();
-        if (remaining <= 0) return;
+    private void doDispatch(TReq r, long deadline, Observation observation, ResponseSink sink) throws Exception {
+        messages.message(r.getType(), r.getId());
+        ResponseSink out = sink != null ? sink : (req, resp) -> triggerWebhook(r, resp, deadline);
 
-        if (store.contains(r.getId())) {
-            triggerWebhook(r, store.get(r.getId()));
+        String kind = kindOf(r);
+        boolean processed = store.contains(r.getId());
+        metrics.idempotencyLookup(kind, processed);
+        if (processed) {
+            out.accept(r, (BaseResponse) store.get(r.getId()));
             return;
         }
 
+        // Başka çağıranın aynı içerikli sorgusu tazeyse handler çalışmaz
+        SharedKey shared = sharedKeyOf(r);
+        if (shared != null) {
+            Object cached = store.get(shared.key());
+            metrics.sharedResultLookup(kind, cached instanceof BaseResponse);
+            if (cached instanceof BaseResponse sharedResponse) {
+                out.accept(r, createResponse(r.getId(), sharedResponse.getResult()));
+                return;
+            }
+        }
+
         Class<?> type = Class.forName(r.getType());
         List<THandler> typeHandlers = handlers.get(type);
 
@@ -53,23 +104,17 @@ public abstract class BaseDispatcher<TReq extends BaseRequest, TResp extends Bas
         Object payloadObj = mapper.readValue(r.getPayload(), type);
         boolean isEvent = r instanceof EventRequest;
 
+        long start = System.nanoTime();
+        Throwable error = null;
+
         ExecutorService ex = Executors.newSingleThreadExecutor();
         Future<?> f = ex.submit(() -> {
-            try {
-                if (isEvent) {
-                    // EVENT ise: Tüm handler'ları dön
-                    for (THandler h : typeHandlers) {
-                        ((BusHandler<Object>) h).handle(payloadObj);
-                    }
-                    // Eventlerde genellikle bir "sonuç" (return value) beklenmez
-                    // veya boş dönülür. Webhook tetiklenmeyeceği için burası opsiyoneldir.
-                } else {
-                    // COMMAND ise: Sadece ilk handler'ı çalıştır ve sonucu dön
-                    Object result = ((BusHandler<Object>) typeHandlers.getFirst()).handle(payloadObj);
-                    TResp resp = createResponse(r.getId(), mapper.writeValueAsString(result));
-                    store.put(r.getId(), resp);
-                    triggerWebhook(r, resp);
+            try (Observation.Scope scope = observation.openScope()) {
+                // Kuyrukta/deserialization'da geçen süre deadline'ı aşmış olabilir
+                if (deadlineExceeded(r, deadline, "handler")) {
+                    return;
                 }
+                Deadline.callWithin(deadline, () -> invoke(r, isEvent, typeHandlers, payloadObj, shared, out));
             } catch (Exception e) {
                 log.error("Error while processing handlers", e);
                 throw new RuntimeException(e);
@@ -77,24 +122,71 @@ public abstract class BaseDispatcher<TReq extends BaseRequest, TResp extends Bas
         });
 
         try {
-            f.get(remaining, TimeUnit.MILLISECONDS);
+            f.get(Deadline.remainingMs(deadline), TimeUnit.MILLISECONDS);
         } catch (TimeoutException e) {
+            error = e;
             f.cancel(true);
+        } catch (Exception e) {
+            error = e;
+            throw e;
         } finally {
             ex.shutdownNow();
+            metrics.dispatch(kind, r.getType(), System.nanoTime() - start, error);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Void invoke(TReq r, boolean isEvent, List<THandler> typeHandlers, Object payloadObj,
+                        SharedKey shared, ResponseSink out) throws Exception {
+        if (isEvent) {
+            // EVENT ise: Tüm handler'ları dön
+            for (THandler h : typeHandlers) {
+                ((BusHandler<Object>) h).handle(payloadObj);
+            }
+            // Eventlerde genellikle bir "sonuç" (return value) beklenmez
+            // veya boş dönülür. Webhook tetiklenmeyeceği için burası opsiyoneldir.
+        } else {
+            // COMMAND ise: Sadece ilk handler'ı çalıştır ve sonucu dön
+            Object result = ((BusHandler<Object>) typeHandlers.getFirst()).handle(payloadObj);
+            TResp resp = createResponse(r.getId(), mapper.writeValueAsString(result));
+            store.put(r.getId(), resp);
+            if (shared != null) {
+                store.put(shared.key(), resp, shared.ttlMs());
+            }
+            out.accept(r, resp);
         }
+        return null;
+    }
+
+    /**
+     * Returns the key under which the result of {@code r} is shared with equal requests from
+     * other callers, or {@code null} if it is not shared. None by default.
+     */
+    protected SharedKey sharedKeyOf(TReq r) throws Exception {
+        return null;
+    }
+
+    /**
+     * Store key and freshness window of a shared result.
+     */
+    protected record SharedKey(String key, long ttlMs) {
     }
 
-    private void triggerWebhook(TReq r, Object resp) {
+    private boolean deadlineExceeded(TReq r, long deadline, String stage) {
+        if (!Deadline.expired(deadline)) {
+            return false;
+        }
+        expired.message(r.getType(), r.getId());
+        metrics.deadlineExceeded(kindOf(r), stage);
+        return true;
+    }
+
+    private void triggerWebhook(TReq r, Object resp, long deadline) {
         if (r instanceof EventRequest) {
             return;
         }
 
-        String typePath = switch (r) {
-            case QueryRequest q -> "query";
-            case CommandRequest c -> "command";
-            default -> "unknown";
-        };
+        String typePath = kindOf(r);
 
         // Eğer callbackUrl "http://service-a/callback/%s" şeklinde geliyorsa doldurur
         String finalUrl = r.getCallbackUrl();
@@ -102,13 +194,43 @@ public abstract class BaseDispatcher<TReq extends BaseRequest, TResp extends Bas
             finalUrl = String.format(finalUrl, typePath);
         }
 
+        if (finalUrl.isBlank()) {
+            return;
+        }
+
+        // Sonuç store'da kalır; yeniden denenen istek cache'ten cevaplanır
+        if (deadlineExceeded(r, deadline, "webhook")) {
+            return;
+        }
+
+        long start = System.nanoTime();
         try {
-            if(!finalUrl.isBlank())
-                rest.postForEntity(finalUrl, resp, Void.class);
+            rest.postForEntity(finalUrl, resp, Void.class);
+            metrics.webhook(typePath, System.nanoTime() - start, null);
         } catch (Exception e) {
+            metrics.webhook(typePath, System.nanoTime() - start, e);
             log.error("Failed to trigger webhook for ID: {}", r.getId(), e);
         }
     }
 
+    private static String kindOf(BaseRequest r) {
+        return switch (r) {
+            case QueryRequest q -> "query";
+            case CommandRequest c -> "command";
+            case EventRequest e -> "event";
+            default -> "unknown";
+        };
+    }
+
+    @Override
+    public void setMetrics(SplitrMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void setObservationRegistry(ObservationRegistry observationRegistry) {
+        this.observationRegistry = observationRegistry;
+    }
+
     protected abstract TResp createResponse(String id, String payloadJson);
 }
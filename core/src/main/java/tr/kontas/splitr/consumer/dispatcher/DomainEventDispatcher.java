@@ -2,57 +2,295 @@ package tr.kontas.splitr.consumer.dispatcher;
 
 import lombok.extern.slf4j.Slf4j;
 import tr.kontas.splitr.consumer.bus.DomainEventHandler;
+import tr.kontas.splitr.consumer.domainevent.DispatchMode;
+import tr.kontas.splitr.consumer.domainevent.DomainEventDispatchException;
+import tr.kontas.splitr.consumer.domainevent.DomainEventDispatchMode;
+import tr.kontas.splitr.consumer.domainevent.DomainEventDispatchOptions;
+import tr.kontas.splitr.consumer.domainevent.DomainEventHandlerIndex;
+import tr.kontas.splitr.consumer.domainevent.DomainEventKeys;
 import tr.kontas.splitr.consumer.store.IdempotencyStore;
 import tr.kontas.splitr.dto.DomainEventRequest;
+import tr.kontas.splitr.logging.MessageLog;
+import tr.kontas.splitr.metrics.Instrumented;
+import tr.kontas.splitr.metrics.SplitrMetrics;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Slf4j
-public class DomainEventDispatcher {
+public class DomainEventDispatcher implements Instrumented {
 
-    private final List<DomainEventHandler<?>> handlers;
+    private static final String KIND = "domain-event";
+    private static final MessageLog messages = MessageLog.of(DomainEventDispatcher.class, "Processing event");
+    private static final MessageLog duplicates = MessageLog.of(DomainEventDispatcher.class, "Event already processed, skipping");
+
+    private static final DomainEventHandler<?>[] NO_HANDLERS = DomainEventHandlerIndex.NO_HANDLERS;
+
+    private final DomainEventHandlerIndex index;
+    // Somut payload sınıfı başına bir kez, moda göre ayrılır
+    private final ClassValue<Plan> plans = new ClassValue<>() {
+        @Override
+        protected Plan computeValue(Class<?> type) {
+            return plan(index.handlersFor(type));
+        }
+    };
     private final IdempotencyStore store;
+    private final DomainEventDispatchOptions options;
+    private final ExecutorService parallelExecutor;
+    private final ExecutorService asyncExecutor;
+    private SplitrMetrics metrics = SplitrMetrics.NOOP;
 
     public DomainEventDispatcher(List<DomainEventHandler<?>> handlers, IdempotencyStore store) {
-        this.handlers = handlers;
+        this(handlers, store, DomainEventDispatchOptions.DEFAULT);
+    }
+
+    public DomainEventDispatcher(List<DomainEventHandler<?>> handlers, IdempotencyStore store,
+                                 DomainEventDispatchOptions options) {
+        this.index = new DomainEventHandlerIndex(handlers);
         this.store = store;
+        this.options = options;
+        this.parallelExecutor = parallelExecutor(options);
+        this.asyncExecutor = asyncExecutor(options);
+    }
+
+    /**
+     * Handlers of one concrete payload class, split by dispatch mode.
+     */
+    private record Plan(DomainEventHandler<?>[] all,
+                        DomainEventHandler<?>[] sync,
+                        DomainEventHandler<?>[] parallel,
+                        DomainEventHandler<?>[] async) {
     }
 
     public void dispatch(DomainEventRequest event) {
         String eventId = event.getId();
 
         // 1. Idempotency Kontrolü: Bu ID daha önce başarıyla işlendi mi?
-        if (store.contains(eventId)) {
-            log.atInfo().log("Event already processed, skipping: " + eventId);
-            return;
+        // Bus'ın ürettiği id'ler ve @SkipIdempotency tipleri için store'a hiç gidilmez
+        boolean checked = isIdempotencyChecked(event);
+        if (checked) {
+            boolean processed = store.contains(eventId);
+            metrics.idempotencyLookup(KIND, processed);
+            if (processed) {
+                duplicates.message(event.getType(), eventId);
+                return;
+            }
         }
 
-        log.atInfo().log("Processing event: " + eventId);
+        messages.message(event.getType(), eventId);
 
-        if (handlers.isEmpty()) {
+        if (index.isEmpty()) {
             return;
         }
 
-        boolean handlerFound = false;
+        long start = System.nanoTime();
+        Throwable error = null;
 
         try {
-            // 2. Tüm handler'ları çalıştır
-            for (DomainEventHandler<?> h : handlers) {
-                if (h.type().equals(event.getPayload().getClass())) {
-                    ((DomainEventHandler<Object>) h).handle(event.getPayload());
-                    handlerFound = true;
-                }
+            // 2. Payload tipine ait handler'ları moduna göre çalıştır
+            Object payload = event.getPayload();
+            Plan plan = plans.get(payload.getClass());
+
+            if (plan.all().length == 0) {
+                log.error("No DomainEventHandler found for payload type: {}", payload.getClass().getName());
+            }
+
+            for (DomainEventHandler<?> h : plan.async()) {
+                asyncExecutor.execute(() -> runAsync(h, payload, eventId));
             }
 
-            if (!handlerFound) {
-                log.error("No DomainEventHandler found for payload type: {}", event.getPayload().getClass().getName());
+            List<Throwable> failures = runAndJoin(plan, payload);
+            if (!failures.isEmpty()) {
+                throw new DomainEventDispatchException(eventId, failures);
             }
 
-            store.put(eventId, null);
+            if (checked) {
+                store.put(eventId, null);
+            }
 
+        } catch (DomainEventDispatchException e) {
+            error = e;
+            log.error("Error while processing event: {}", eventId, e);
+            throw e;
         } catch (Exception e) {
+            error = e;
             log.error("Error while processing event: {}", eventId, e);
             throw new RuntimeException(e);
+        } finally {
+            metrics.dispatch(KIND, event.getType(), System.nanoTime() - start, error);
+        }
+    }
+
+    private static boolean isIdempotencyChecked(DomainEventRequest event) {
+        return !event.isGeneratedId()
+                && (event.getPayload() == null || !DomainEventKeys.isSkipped(event.getPayload().getClass()));
+    }
+
+    /**
+     * Starts the parallel handlers, runs the sync handlers (and the last parallel one) on the
+     * calling thread, then waits for the rest. Every handler runs even if another one failed.
+     */
+    private List<Throwable> runAndJoin(Plan plan, Object payload) {
+        List<Throwable> failures = new ArrayList<>(0);
+        DomainEventHandler<?>[] parallel = plan.parallel();
+
+        int forked = Math.max(parallel.length - 1, 0);
+        List<Future<?>> futures = new ArrayList<>(forked);
+        for (int i = 0; i < forked; i++) {
+            DomainEventHandler<?> h = parallel[i];
+            futures.add(parallelExecutor.submit(() -> invoke(h, payload)));
+        }
+
+        for (DomainEventHandler<?> h : plan.sync()) {
+            runCollecting(h, payload, failures);
+        }
+        if (parallel.length > 0) {
+            runCollecting(parallel[parallel.length - 1], payload, failures);
+        }
+
+        for (Future<?> f : futures) {
+            try {
+                f.get();
+            } catch (ExecutionException e) {
+                failures.add(e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failures.add(e);
+            }
+        }
+        return failures;
+    }
+
+    private static void runCollecting(DomainEventHandler<?> h, Object payload, List<Throwable> failures) {
+        try {
+            invoke(h, payload);
+        } catch (Exception e) {
+            failures.add(e);
+        }
+    }
+
+    private void runAsync(DomainEventHandler<?> h, Object payload, String eventId) {
+        try {
+            invoke(h, payload);
+        } catch (Exception e) {
+            log.error("Async domain event handler {} failed for event: {}", h.getClass().getName(), eventId, e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void invoke(DomainEventHandler<?> h, Object payload) {
+        ((DomainEventHandler<Object>) h).handle(payload);
+    }
+
+    /**
+     * Returns the handlers for a concrete payload class: handlers declared for the class itself
+     * first, then those declared for its superclasses and interfaces, nearest type first.
+     * The result is computed once per class and cached.
+     */
+    public DomainEventHandler<?>[] handlersFor(Class<?> payloadType) {
+        return plans.get(payloadType).all();
+    }
+
+    public DomainEventDispatchMode modeOf(DomainEventHandler<?> handler) {
+        DispatchMode mode = handler.getClass().getAnnotation(DispatchMode.class);
+        return mode == null ? options.defaultMode() : mode.value();
+    }
+
+    private Plan plan(DomainEventHandler<?>[] all) {
+        List<DomainEventHandler<?>> sync = new ArrayList<>();
+        List<DomainEventHandler<?>> parallel = new ArrayList<>();
+        List<DomainEventHandler<?>> async = new ArrayList<>();
+
+        for (DomainEventHandler<?> h : all) {
+            switch (modeOf(h)) {
+                case SYNC -> sync.add(h);
+                case PARALLEL -> parallel.add(h);
+                case ASYNC -> async.add(h);
+            }
+        }
+
+        // Tek paralel handler'ı çağıran thread'de çalıştırmak devir maliyetini ortadan kaldırır
+        if (parallel.size() == 1) {
+            sync.add(parallel.removeFirst());
+        }
+
+        return new Plan(all, sync.toArray(NO_HANDLERS), parallel.toArray(NO_HANDLERS), async.toArray(NO_HANDLERS));
+    }
+
+    private static ExecutorService parallelExecutor(DomainEventDispatchOptions options) {
+        if (options.virtualThreads()) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("splitr-domain-event-parallel-", 0).factory());
+        }
+
+        // Havuz doluysa görev çağıran thread'de çalışır; iç içe arise çağrılarında kilitlenmeyi önler
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                options.poolSize(), options.poolSize(),
+                60L, TimeUnit.SECONDS,
+                new SynchronousQueue<>(),
+                daemonThreads("splitr-domain-event-parallel-"),
+                new ThreadPoolExecutor.CallerRunsPolicy()
+        );
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private static ExecutorService asyncExecutor(DomainEventDispatchOptions options) {
+        ThreadFactory factory = options.virtualThreads()
+                ? Thread.ofVirtual().name("splitr-domain-event-async-", 0).factory()
+                : daemonThreads("splitr-domain-event-async-");
+
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                options.poolSize(), options.poolSize(),
+                60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(options.asyncQueueCapacity()),
+                factory,
+                new ThreadPoolExecutor.CallerRunsPolicy()
+        );
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, prefix + counter.getAndIncrement());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    /**
+     * Stops the parallel and async executors, letting queued async handlers finish.
+     */
+    public void shutdown() {
+        parallelExecutor.shutdown();
+        asyncExecutor.shutdown();
+        try {
+            if (!asyncExecutor.awaitTermination(5, TimeUnit.SECONDS)) {
+                asyncExecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            asyncExecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void setMetrics(SplitrMetrics metrics) {
+        this.metrics = metrics;
+        // Özel store bean değildir; metrikleri buradan alır
+        if (store instanceof Instrumented instrumented) {
+            instrumented.setMetrics(metrics);
         }
     }
 }
@@ -2,10 +2,13 @@ package tr.kontas.splitr.consumer.dispatcher;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
+import tr.kontas.splitr.bus.query.CacheableQuery;
 import tr.kontas.splitr.consumer.bus.QueryHandler;
 import tr.kontas.splitr.consumer.store.IdempotencyStore;
 import tr.kontas.splitr.dto.QueryRequest;
 import tr.kontas.splitr.dto.QueryResponse;
+import tr.kontas.splitr.dto.base.TransportHeaders;
+import tr.kontas.splitr.id.ContentHasher;
 
 import java.util.List;
 
@@ -19,8 +22,37 @@ import java.util.List;
 @Slf4j
 public class QueryDispatcher extends BaseDispatcher<QueryRequest, QueryResponse, QueryHandler<?>> {
 
+    private final ContentHasher hasher;
+
     public QueryDispatcher(List<QueryHandler<?>> list, IdempotencyStore store, ObjectMapper mapper) {
         super(list, store, mapper);
+        this.hasher = new ContentHasher(mapper);
+    }
+
+    /**
+     * Shares results of {@link CacheableQuery} types the publisher marked with a content key, for
+     * the freshness window declared on the consumer's copy of the type. The key is recomputed
+     * from the received payload; the header only opts the request in, so a caller cannot read
+     * or overwrite another query's result by sending a foreign key.
+     */
+    @Override
+    protected SharedKey sharedKeyOf(QueryRequest r) throws Exception {
+        String contentKey = r.getHeaders() == null ? null : r.getHeaders().get(TransportHeaders.CONTENT_KEY);
+        if (contentKey == null || contentKey.isBlank()) {
+            return null;
+        }
+        Class<?> type = Class.forName(r.getType());
+        long freshness = CacheableQuery.Freshness.of(type);
+        if (freshness <= 0) {
+            return null;
+        }
+
+        String key = hasher.hash(mapper.readValue(r.getPayload(), type));
+        if (!key.equals(contentKey)) {
+            // Yayıncının tip kopyası farklı olabilir; yine de yalnızca tüketicinin anahtarı kullanılır
+            log.debug("Content key of query {} does not match its payload, using the recomputed key", r.getId());
+        }
+        return new SharedKey("content:" + key, freshness);
     }
 
     /**
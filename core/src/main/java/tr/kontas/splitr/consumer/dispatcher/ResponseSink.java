@@ -0,0 +1,21 @@
+package tr.kontas.splitr.consumer.dispatcher;
+
+import tr.kontas.splitr.dto.base.BaseRequest;
+import tr.kontas.splitr.dto.base.BaseResponse;
+
+/**
+ * Receives the response of a dispatched query or command instead of the callback webhook, e.g. to
+ * produce it inside the consumer's transaction.
+ * <p>
+ * Called before {@link BaseDispatcher#dispatch(BaseRequest, ResponseSink)} returns, possibly on the
+ * handler thread, also for requests answered from the idempotency store. Never called for events.
+ * </p>
+ *
+ * @author BurakKontas
+ * @version 1.0.0
+ */
+@FunctionalInterface
+public interface ResponseSink {
+
+    void accept(BaseRequest request, BaseResponse response);
+}
@@ -0,0 +1,25 @@
+package tr.kontas.splitr.consumer.domainevent;
+
+import java.lang.annotation.*;
+
+/**
+ * Declares the {@link DomainEventDispatchMode} of a domain event handler, overriding
+ * {@code splitr.domain-event.mode} for that handler.
+ *
+ * <pre>{@code
+ * @Component
+ * @DispatchMode(DomainEventDispatchMode.ASYNC)
+ * public class AuditHandler extends BaseDomainEventHandler<OrderDomainEvent> { ... }
+ * }</pre>
+ *
+ * @author BurakKontas
+ * @version 1.0.0
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Inherited
+@Documented
+public @interface DispatchMode {
+
+    DomainEventDispatchMode value();
+}
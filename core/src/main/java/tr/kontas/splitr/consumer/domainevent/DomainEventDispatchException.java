@@ -0,0 +1,31 @@
+package tr.kontas.splitr.consumer.domainevent;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Thrown when one or more synchronous or parallel domain event handlers failed.
+ * <p>
+ * All handlers run even if one of them fails; the first failure is the cause and the
+ * others are attached as suppressed exceptions.
+ * </p>
+ *
+ * @author BurakKontas
+ * @version 1.0.0
+ */
+@Getter
+public class DomainEventDispatchException extends RuntimeException {
+
+    private final String eventId;
+    private final List<Throwable> failures;
+
+    public DomainEventDispatchException(String eventId, List<Throwable> failures) {
+        super(failures.size() + " domain event handler(s) failed for event: " + eventId, failures.getFirst());
+        this.eventId = eventId;
+        this.failures = List.copyOf(failures);
+        for (int i = 1; i < failures.size(); i++) {
+            addSuppressed(failures.get(i));
+        }
+    }
+}
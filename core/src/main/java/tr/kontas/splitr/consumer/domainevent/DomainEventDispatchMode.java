@@ -0,0 +1,25 @@
+package tr.kontas.splitr.consumer.domainevent;
+
+/**
+ * How a domain event handler is executed by {@code DomainEventDispatcher}.
+ *
+ * @author BurakKontas
+ * @version 1.0.0
+ */
+public enum DomainEventDispatchMode {
+
+    /**
+     * Runs on the thread calling {@code arise}, one handler after another.
+     */
+    SYNC,
+
+    /**
+     * Fans out across the parallel executor; {@code arise} returns once all such handlers finished.
+     */
+    PARALLEL,
+
+    /**
+     * Fire-and-forget on the async executor; failures are only logged.
+     */
+    ASYNC
+}
@@ -0,0 +1,32 @@
+package tr.kontas.splitr.consumer.domainevent;
+
+/**
+ * Settings of the domain event dispatch modes.
+ *
+ * @param defaultMode        Mode of handlers without {@link DispatchMode}.
+ * @param virtualThreads     Runs parallel and async handlers on virtual threads instead of a platform pool.
+ * @param poolSize           Platform threads of the parallel pool and worker count of the async executor.
+ * @param asyncQueueCapacity Pending async handler invocations; when full, the caller runs the handler itself.
+ * @author BurakKontas
+ * @version 1.0.0
+ */
+public record DomainEventDispatchOptions(DomainEventDispatchMode defaultMode,
+                                         boolean virtualThreads,
+                                         int poolSize,
+                                         int asyncQueueCapacity) {
+
+    public static final DomainEventDispatchOptions DEFAULT = new DomainEventDispatchOptions(
+            DomainEventDispatchMode.SYNC, false, Runtime.getRuntime().availableProcessors(), 1024);
+
+    public DomainEventDispatchOptions {
+        if (defaultMode == null) {
+            defaultMode = DomainEventDispatchMode.SYNC;
+        }
+        if (poolSize <= 0) {
+            poolSize = Runtime.getRuntime().availableProcessors();
+        }
+        if (asyncQueueCapacity <= 0) {
+            throw new IllegalArgumentException("splitr.domain-event.async-queue-capacity must be > 0");
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package tr.kontas.splitr.consumer.domainevent;
+
+import tr.kontas.splitr.consumer.bus.DomainEventHandler;
+import tr.kontas.splitr.consumer.bus.HandlerIndex;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Type index of domain event handlers.
+ * <p>
+ * Handlers are grouped by their declared {@link DomainEventHandler#type()} once, and the
+ * handlers applicable to a concrete payload class (including those declared for its
+ * superclasses and interfaces) are resolved once per class through a {@link ClassValue}.
+ * </p>
+ *
+ * @author BurakKontas
+ * @version 1.0.0
+ */
+public final class DomainEventHandlerIndex {
+
+    public static final DomainEventHandler<?>[] NO_HANDLERS = new DomainEventHandler<?>[0];
+
+    // Handler'ın tam olarak bildirdiği tipe göre, kayıt sırasıyla
+    private final Map<Class<?>, DomainEventHandler<?>[]> handlersByType;
+    // Somut payload sınıfı başına bir kez çözülür (üst sınıf ve arayüz handler'ları dahil)
+    private final ClassValue<DomainEventHandler<?>[]> resolved = new ClassValue<>() {
+        @Override
+        protected DomainEventHandler<?>[] computeValue(Class<?> type) {
+            return resolve(type);
+        }
+    };
+
+    public DomainEventHandlerIndex(List<? extends DomainEventHandler<?>> handlers) {
+        this.handlersByType = indexByType(handlers);
+    }
+
+    public boolean isEmpty() {
+        return handlersByType.isEmpty();
+    }
+
+    /**
+     * Returns the handlers for a concrete payload class: handlers declared for the class itself
+     * first, then those declared for its superclasses and interfaces, nearest type first.
+     * The result is computed once per class and cached; callers must not modify it.
+     */
+    public DomainEventHandler<?>[] handlersFor(Class<?> payloadType) {
+        return resolved.get(payloadType);
+    }
+
+    private DomainEventHandler<?>[] resolve(Class<?> payloadType) {
+        List<DomainEventHandler<?>> result = new ArrayList<>();
+        for (Class<?> type : HandlerIndex.hierarchyOf(payloadType)) {
+            DomainEventHandler<?>[] declared = handlersByType.get(type);
+            if (declared != null) {
+                Collections.addAll(result, declared);
+            }
+        }
+        return result.isEmpty() ? NO_HANDLERS : result.toArray(NO_HANDLERS);
+    }
+
+    private static Map<Class<?>, DomainEventHandler<?>[]> indexByType(List<? extends DomainEventHandler<?>> handlers) {
+        Map<Class<?>, List<DomainEventHandler<?>>> grouped = new LinkedHashMap<>();
+        for (DomainEventHandler<?> h : handlers) {
+            grouped.computeIfAbsent(h.type(), k -> new ArrayList<>()).add(h);
+        }
+
+        Map<Class<?>, DomainEventHandler<?>[]> index = new LinkedHashMap<>();
+        grouped.forEach((type, list) -> index.put(type, list.toArray(NO_HANDLERS)));
+        return Collections.unmodifiableMap(index);
+    }
+}
@@ -0,0 +1,49 @@
+package tr.kontas.splitr.consumer.domainevent;
+
+import tr.kontas.splitr.bus.domainevent.DomainEvent;
+import tr.kontas.splitr.bus.domainevent.SkipIdempotency;
+
+/**
+ * Per-type idempotency rules of domain events, resolved once per class.
+ *
+ * @author BurakKontas
+ * @version 1.0.0
+ */
+public final class DomainEventKeys {
+
+    private static final ClassValue<Boolean> EXPLICIT_KEY = new ClassValue<>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            try {
+                return type.getMethod("getIdempotencyKey").getDeclaringClass() != DomainEvent.class;
+            } catch (NoSuchMethodException e) {
+                return false;
+            }
+        }
+    };
+
+    private static final ClassValue<Boolean> SKIPPED = new ClassValue<>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            return type.isAnnotationPresent(SkipIdempotency.class);
+        }
+    };
+
+    private DomainEventKeys() {
+    }
+
+    /**
+     * @return {@code true} if the event type overrides {@link DomainEvent#getIdempotencyKey()}
+     * instead of using the random default.
+     */
+    public static boolean hasExplicitKey(Class<?> eventType) {
+        return EXPLICIT_KEY.get(eventType);
+    }
+
+    /**
+     * @return {@code true} if the event type opted out with {@link SkipIdempotency}.
+     */
+    public static boolean isSkipped(Class<?> eventType) {
+        return SKIPPED.get(eventType);
+    }
+}
@@ -4,15 +4,18 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import tr.kontas.splitr.consumer.dispatcher.DomainEventDispatcher;
 import tr.kontas.splitr.dto.DomainEventRequest;
+import tr.kontas.splitr.logging.MessageLog;
 
 @RequiredArgsConstructor
 @Slf4j
 public class DomainEventListener {
 
+    private static final MessageLog messages = MessageLog.of(DomainEventListener.class, "Dispatching domain event");
+
     private final DomainEventDispatcher dispatcher;
 
     public void listen(DomainEventRequest r) {
-        log.atInfo().log("Dispatching event: " + r.getId());
+        messages.message(r.getType(), r.getId());
         dispatcher.dispatch(r);
     }
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package tr.kontas.splitr.consumer.domainevent;
+
+import java.lang.annotation.*;
+
+/**
+ * Assigns a domain event handler to a named group of the ring-buffer pipeline
+ * ({@code splitr.domain-event.ring-buffer.enabled=true}).
+ * <p>
+ * Each group consumes the ring on its own thread, and handlers of a group run one after another
+ * in registration order. Handlers without this annotation belong to the {@value #DEFAULT} group.
+ * </p>
+ *
+ * @author BurakKontas
+ * @version 1.0.0
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Inherited
+@Documented
+public @interface HandlerGroup {
+
+    String DEFAULT = "default";
+
+    String value();
+}
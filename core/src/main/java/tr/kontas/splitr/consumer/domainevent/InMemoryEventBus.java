@@ -6,8 +6,7 @@ import tr.kontas.splitr.bus.domainevent.DomainEvent;
 import tr.kontas.splitr.bus.domainevent.DomainEventBus;
 import tr.kontas.splitr.consumer.dispatcher.DomainEventDispatcher;
 import tr.kontas.splitr.dto.DomainEventRequest;
-
-import java.util.UUID;
+import tr.kontas.splitr.id.IdGenerators;
 
 @Slf4j
 @RequiredArgsConstructor
@@ -18,14 +17,19 @@ public class InMemoryEventBus implements DomainEventBus {
     @Override
     public void arise(DomainEvent event) {
         try {
-            String id = UUID.randomUUID().toString();
+            // Açık bir idempotency key yoksa id'yi bus üretir ve store kontrolü atlanır
+            boolean explicitKey = DomainEventKeys.hasExplicitKey(event.getClass());
+            String id = explicitKey ? event.getIdempotencyKey() : IdGenerators.next();
             DomainEventRequest request = new DomainEventRequest(
                     id,
                     event.getClass().getName(),
-                    event
+                    event,
+                    !explicitKey
             );
 
             domainEventDispatcher.dispatch(request);
+        } catch (DomainEventDispatchException e) {
+            throw e;
         } catch (Exception e) {
             log.error("In-memory event dispatch failed", e);
             throw new RuntimeException(e);
@@ -0,0 +1,123 @@
+package tr.kontas.splitr.consumer.domainevent;
+
+import lombok.extern.slf4j.Slf4j;
+import tr.kontas.splitr.bus.domainevent.DomainEvent;
+import tr.kontas.splitr.bus.domainevent.DomainEventBus;
+import tr.kontas.splitr.consumer.bus.DomainEventHandler;
+import tr.kontas.splitr.consumer.domainevent.ring.BatchEventProcessor;
+import tr.kontas.splitr.consumer.domainevent.ring.RingBuffer;
+import tr.kontas.splitr.consumer.domainevent.ring.RingBufferOptions;
+import tr.kontas.splitr.consumer.domainevent.ring.Sequence;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * High-throughput {@link DomainEventBus} backed by a pre-allocated ring buffer.
+ * <p>
+ * {@code arise} only claims a slot and stores the event reference; no request envelope,
+ * id or idempotency lookup is created. Handler groups (see {@link HandlerGroup}) consume the
+ * ring concurrently on their own threads, in batches, and the publisher waits only when the
+ * slowest group is a full ring behind.
+ * </p>
+ * <p>
+ * Handlers run asynchronously with respect to {@code arise}; failures are logged and do not
+ * reach the publisher. {@link DispatchMode} is not used in this mode.
+ * </p>
+ *
+ * @author BurakKontas
+ * @version 1.0.0
+ */
+@Slf4j
+public class RingBufferDomainEventBus implements DomainEventBus {
+
+    private final RingBuffer<DomainEvent> ringBuffer;
+    private final List<BatchEventProcessor<DomainEvent>> processors = new ArrayList<>();
+    private final List<Thread> threads = new ArrayList<>();
+    private volatile boolean accepting = true;
+
+    public RingBufferDomainEventBus(List<DomainEventHandler<?>> handlers, RingBufferOptions options) {
+        this.ringBuffer = new RingBuffer<>(options.producerType(), options.bufferSize());
+
+        groupOf(handlers).forEach((group, groupHandlers) -> {
+            DomainEventHandlerIndex index = new DomainEventHandlerIndex(groupHandlers);
+            BatchEventProcessor<DomainEvent> processor = new BatchEventProcessor<>(
+                    ringBuffer,
+                    (event, sequence, endOfBatch) -> handle(index, event),
+                    options.waitStrategy()
+            );
+            processors.add(processor);
+
+            Thread thread = new Thread(processor, "splitr-domain-event-ring-" + group);
+            thread.setDaemon(true);
+            threads.add(thread);
+        });
+
+        ringBuffer.setGatingSequences(processors.stream()
+                .map(BatchEventProcessor::sequence)
+                .toArray(Sequence[]::new));
+
+        threads.forEach(Thread::start);
+    }
+
+    @Override
+    public void arise(DomainEvent event) {
+        if (!accepting) {
+            throw new IllegalStateException("Domain event ring buffer is shut down");
+        }
+        ringBuffer.publish(event);
+    }
+
+    /**
+     * @return Events published but not yet handled by the slowest handler group.
+     */
+    public long backlog() {
+        return ringBuffer.backlog();
+    }
+
+    /**
+     * Stops accepting events, lets the handler groups drain the ring and stops their threads.
+     */
+    public void shutdown() {
+        accepting = false;
+        processors.forEach(BatchEventProcessor::halt);
+
+        for (Thread thread : threads) {
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private static void handle(DomainEventHandlerIndex index, DomainEvent event) {
+        for (DomainEventHandler<?> h : index.handlersFor(event.getClass())) {
+            try {
+                invoke(h, event);
+            } catch (Exception e) {
+                log.error("Domain event handler {} failed for event type: {}",
+                        h.getClass().getName(), event.getClass().getName(), e);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void invoke(DomainEventHandler<?> h, Object payload) {
+        ((DomainEventHandler<Object>) h).handle(payload);
+    }
+
+    private static Map<String, List<DomainEventHandler<?>>> groupOf(List<DomainEventHandler<?>> handlers) {
+        Map<String, List<DomainEventHandler<?>>> groups = new LinkedHashMap<>();
+        for (DomainEventHandler<?> h : handlers) {
+            HandlerGroup group = h.getClass().getAnnotation(HandlerGroup.class);
+            String name = group == null ? HandlerGroup.DEFAULT : group.value();
+            groups.computeIfAbsent(name, k -> new ArrayList<>()).add(h);
+        }
+        return groups;
+    }
+}
@@ -0,0 +1,74 @@
+package tr.kontas.splitr.consumer.domainevent.ring;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Consumer loop of one handler group.
+ * <p>
+ * Reads every published slot after its own {@link Sequence}, in batches: all slots available at
+ * once are handled before the sequence is advanced, so producers see one store per batch
+ * instead of one per event. Each slot is released right after it is handled. After
+ * {@link #halt()} the processor drains what has already been published and then exits.
+ * </p>
+ *
+ * @param <E> The event type.
+ * @author BurakKontas
+ * @version 1.0.0
+ */
+@Slf4j
+public final class BatchEventProcessor<E> implements Runnable {
+
+    private final RingBuffer<E> ringBuffer;
+    private final RingEventHandler<E> handler;
+    private final WaitStrategy waitStrategy;
+    private final Sequence sequence = new Sequence();
+    private volatile boolean running = true;
+
+    public BatchEventProcessor(RingBuffer<E> ringBuffer, RingEventHandler<E> handler, WaitStrategy waitStrategy) {
+        this.ringBuffer = ringBuffer;
+        this.handler = handler;
+        this.waitStrategy = waitStrategy;
+    }
+
+    public Sequence sequence() {
+        return sequence;
+    }
+
+    public void halt() {
+        running = false;
+    }
+
+    @Override
+    public void run() {
+        Sequencer sequencer = ringBuffer.sequencer();
+        long next = sequence.get() + 1;
+        int idle = 0;
+
+        while (true) {
+            long available = sequencer.highestPublished(next, sequencer.cursor());
+
+            if (available < next) {
+                // Durdurulduysa cursor'ı halt sonrasında tekrar oku; öncesinde yayınlanan event'ler kaçmasın
+                if (!running && sequencer.highestPublished(next, sequencer.cursor()) < next) {
+                    return;
+                }
+                idle = waitStrategy.idle(idle);
+                continue;
+            }
+
+            idle = 0;
+            for (long s = next; s <= available; s++) {
+                try {
+                    handler.onEvent(ringBuffer.get(s), s, s == available);
+                } catch (Exception e) {
+                    log.error("Ring buffer handler failed at sequence {}", s, e);
+                } finally {
+                    ringBuffer.release(s);
+                }
+            }
+
+            sequence.set(available);
+            next = available + 1;
+        }
+    }
+}
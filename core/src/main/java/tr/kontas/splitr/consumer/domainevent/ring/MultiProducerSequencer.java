@@ -0,0 +1,74 @@
+package tr.kontas.splitr.consumer.domainevent.ring;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+
+/**
+ * Sequencer for concurrent publishers.
+ * <p>
+ * Slots are claimed with a CAS on the cursor; since claims and publications can complete out of
+ * order, each slot records the "lap" it was last published in, and consumers only advance over
+ * contiguous published slots.
+ * </p>
+ *
+ * @author BurakKontas
+ * @version 1.0.0
+ */
+public final class MultiProducerSequencer extends Sequencer {
+
+    private static final VarHandle AVAILABLE = MethodHandles.arrayElementVarHandle(int[].class);
+
+    private final Sequence gatingSequenceCache = new Sequence();
+    private final int[] availableBuffer;
+    private final int indexMask;
+    private final int indexShift;
+
+    MultiProducerSequencer(int bufferSize) {
+        super(bufferSize);
+        this.availableBuffer = new int[bufferSize];
+        this.indexMask = bufferSize - 1;
+        this.indexShift = Integer.numberOfTrailingZeros(bufferSize);
+        Arrays.fill(availableBuffer, -1);
+    }
+
+    @Override
+    public long next() {
+        while (true) {
+            long current = cursor.get();
+            long next = current + 1;
+            long wrapPoint = next - bufferSize;
+            long cachedGatingSequence = gatingSequenceCache.get();
+
+            if (wrapPoint > cachedGatingSequence || cachedGatingSequence > current) {
+                long gatingSequence = minimumGatingSequence(current);
+                if (wrapPoint > gatingSequence) {
+                    backOff();
+                    continue;
+                }
+                gatingSequenceCache.set(gatingSequence);
+            } else if (cursor.compareAndSet(current, next)) {
+                return next;
+            }
+        }
+    }
+
+    @Override
+    public void publish(long sequence) {
+        AVAILABLE.setRelease(availableBuffer, (int) sequence & indexMask, (int) (sequence >>> indexShift));
+    }
+
+    @Override
+    public long highestPublished(long lowerBound, long available) {
+        for (long sequence = lowerBound; sequence <= available; sequence++) {
+            if (!isPublished(sequence)) {
+                return sequence - 1;
+            }
+        }
+        return available;
+    }
+
+    private boolean isPublished(long sequence) {
+        return (int) AVAILABLE.getAcquire(availableBuffer, (int) sequence & indexMask) == (int) (sequence >>> indexShift);
+    }
+}
@@ -0,0 +1,20 @@
+package tr.kontas.splitr.consumer.domainevent.ring;
+
+/**
+ * Claim strategy of the ring buffer.
+ *
+ * @author BurakKontas
+ * @version 1.0.0
+ */
+public enum ProducerType {
+
+    /**
+     * Only one thread publishes; claiming a slot is a plain increment.
+     */
+    SINGLE,
+
+    /**
+     * Any thread may publish; slots are claimed with a CAS on the cursor.
+     */
+    MULTI
+}
@@ -0,0 +1,87 @@
+package tr.kontas.splitr.consumer.domainevent.ring;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Pre-allocated ring of event slots, coordinated by a {@link Sequencer}.
+ * <p>
+ * Publishing stores a reference into an existing slot, so the buffer itself does not allocate
+ * per event. Slot contents become visible to consumers through the release store in
+ * {@link Sequencer#publish(long)}. Each consumer {@linkplain #release(long) releases} a slot after
+ * handling it; the last one clears the reference, so handled events are not kept reachable
+ * until the slot is reused.
+ * </p>
+ *
+ * @param <E> The event type.
+ * @author BurakKontas
+ * @version 1.0.0
+ */
+public final class RingBuffer<E> {
+
+    private final Object[] entries;
+    private final int mask;
+    private final AtomicIntegerArray pending;
+    private final Sequencer sequencer;
+    private int consumers;
+
+    public RingBuffer(ProducerType producerType, int bufferSize) {
+        this.sequencer = Sequencer.create(producerType, bufferSize);
+        this.entries = new Object[bufferSize];
+        this.pending = new AtomicIntegerArray(bufferSize);
+        this.mask = bufferSize - 1;
+    }
+
+    /**
+     * Registers the consumer sequences; must be called before publishing starts.
+     */
+    public void setGatingSequences(Sequence... sequences) {
+        sequencer.setGatingSequences(sequences);
+        this.consumers = sequences.length;
+    }
+
+    /**
+     * Claims a slot, stores the event and publishes it; waits while the buffer is full.
+     */
+    public void publish(E event) {
+        long sequence = sequencer.next();
+        int slot = (int) sequence & mask;
+        if (consumers > 0) {
+            entries[slot] = event;
+        }
+        if (consumers > 1) {
+            pending.setPlain(slot, consumers);
+        }
+        sequencer.publish(sequence);
+    }
+
+    /**
+     * Marks {@code sequence} as handled by one consumer; the last consumer clears the slot.
+     * <p>
+     * Must be called before the consumer advances its sequence past {@code sequence}: the
+     * producer reuses the slot only after that, so the clear never races with a new event.
+     * </p>
+     */
+    public void release(long sequence) {
+        int slot = (int) sequence & mask;
+        if (consumers == 1 || pending.decrementAndGet(slot) == 0) {
+            entries[slot] = null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public E get(long sequence) {
+        return (E) entries[(int) sequence & mask];
+    }
+
+    public Sequencer sequencer() {
+        return sequencer;
+    }
+
+    /**
+     * @return Slots not yet consumed by the slowest consumer.
+     */
+    public long backlog() {
+        long cursor = sequencer.cursor();
+        return cursor - sequencer.minimumGatingSequence(cursor);
+    }
+}
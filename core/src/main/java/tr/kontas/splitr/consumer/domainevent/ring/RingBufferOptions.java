@@ -0,0 +1,27 @@
+package tr.kontas.splitr.consumer.domainevent.ring;
+
+/**
+ * Settings of the ring-buffer domain event pipeline.
+ *
+ * @param bufferSize   Slot count; must be a power of two.
+ * @param producerType {@link ProducerType#MULTI} unless {@code arise} is only ever called from one thread.
+ * @param waitStrategy How idle handler groups wait for events.
+ * @author BurakKontas
+ * @version 1.0.0
+ */
+public record RingBufferOptions(int bufferSize, ProducerType producerType, WaitStrategy waitStrategy) {
+
+    public static final RingBufferOptions DEFAULT = new RingBufferOptions(65_536, ProducerType.MULTI, WaitStrategy.SLEEPING);
+
+    public RingBufferOptions {
+        if (bufferSize < 1 || Integer.bitCount(bufferSize) != 1) {
+            throw new IllegalArgumentException("splitr.domain-event.ring-buffer.size must be a power of two: " + bufferSize);
+        }
+        if (producerType == null) {
+            producerType = ProducerType.MULTI;
+        }
+        if (waitStrategy == null) {
+            waitStrategy = WaitStrategy.SLEEPING;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package tr.kontas.splitr.consumer.domainevent.ring;
+
+/**
+ * Callback of a {@link BatchEventProcessor}.
+ *
+ * @param <E> The event type.
+ * @author BurakKontas
+ * @version 1.0.0
+ */
+@FunctionalInterface
+public interface RingEventHandler<E> {
+
+    /**
+     * @param event      The event in the slot.
+     * @param sequence   The slot sequence.
+     * @param endOfBatch {@code true} for the last event of the currently available batch.
+     */
+    void onEvent(E event, long sequence, boolean endOfBatch) throws Exception;
+}
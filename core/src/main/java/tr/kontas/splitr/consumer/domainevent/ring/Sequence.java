@@ -0,0 +1,70 @@
+package tr.kontas.splitr.consumer.domainevent.ring;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+abstract class SequenceLhsPadding {
+    protected long p1, p2, p3, p4, p5, p6, p7;
+}
+
+abstract class SequenceValue extends SequenceLhsPadding {
+    protected volatile long value;
+}
+
+abstract class SequenceRhsPadding extends SequenceValue {
+    protected long p9, p10, p11, p12, p13, p14, p15;
+}
+
+/**
+ * A padded, cache-line isolated sequence counter shared between producers and consumers.
+ *
+ * @author BurakKontas
+ * @version 1.0.0
+ */
+public final class Sequence extends SequenceRhsPadding {
+
+    public static final long INITIAL_VALUE = -1L;
+
+    private static final VarHandle VALUE;
+
+    static {
+        try {
+            VALUE = MethodHandles.lookup().findVarHandle(SequenceValue.class, "value", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    public Sequence() {
+        this(INITIAL_VALUE);
+    }
+
+    public Sequence(long initialValue) {
+        VALUE.setRelease(this, initialValue);
+    }
+
+    public long get() {
+        return (long) VALUE.getAcquire(this);
+    }
+
+    public void set(long newValue) {
+        VALUE.setRelease(this, newValue);
+    }
+
+    public boolean compareAndSet(long expected, long newValue) {
+        return VALUE.compareAndSet(this, expected, newValue);
+    }
+
+    static long minimum(Sequence[] sequences, long defaultValue) {
+        long min = defaultValue;
+        for (Sequence s : sequences) {
+            min = Math.min(min, s.get());
+        }
+        return min;
+    }
+
+    @Override
+    public String toString() {
+        return Long.toString(get());
+    }
+}
@@ -0,0 +1,73 @@
+package tr.kontas.splitr.consumer.domainevent.ring;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Coordinates slot claiming and publication for a ring buffer of a fixed power-of-two size.
+ * <p>
+ * Producers claim a sequence with {@link #next()}, write the slot and call {@link #publish(long)}.
+ * A producer never overtakes the slowest gating (consumer) sequence by more than the buffer size.
+ * </p>
+ *
+ * @author BurakKontas
+ * @version 1.0.0
+ */
+public abstract sealed class Sequencer permits SingleProducerSequencer, MultiProducerSequencer {
+
+    protected final int bufferSize;
+    protected final Sequence cursor = new Sequence();
+    protected volatile Sequence[] gatingSequences = new Sequence[0];
+
+    protected Sequencer(int bufferSize) {
+        if (bufferSize < 1 || Integer.bitCount(bufferSize) != 1) {
+            throw new IllegalArgumentException("Ring buffer size must be a power of two: " + bufferSize);
+        }
+        this.bufferSize = bufferSize;
+    }
+
+    public static Sequencer create(ProducerType type, int bufferSize) {
+        return switch (type) {
+            case SINGLE -> new SingleProducerSequencer(bufferSize);
+            case MULTI -> new MultiProducerSequencer(bufferSize);
+        };
+    }
+
+    /**
+     * Claims the next slot, waiting while the buffer is full.
+     */
+    public abstract long next();
+
+    /**
+     * Makes the slot of the given sequence visible to consumers.
+     */
+    public abstract void publish(long sequence);
+
+    /**
+     * Returns the highest sequence in {@code [lowerBound, available]} up to which every slot
+     * has been published, or {@code lowerBound - 1} if none.
+     */
+    public abstract long highestPublished(long lowerBound, long available);
+
+    public long cursor() {
+        return cursor.get();
+    }
+
+    public int bufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * Registers the consumer sequences producers must not overtake. Called before publishing starts.
+     */
+    public void setGatingSequences(Sequence... sequences) {
+        this.gatingSequences = sequences.clone();
+    }
+
+    public long minimumGatingSequence(long defaultValue) {
+        return Sequence.minimum(gatingSequences, defaultValue);
+    }
+
+    protected static void backOff() {
+        LockSupport.parkNanos(1L);
+    }
+}
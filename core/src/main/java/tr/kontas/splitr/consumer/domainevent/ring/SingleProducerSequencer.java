@@ -0,0 +1,44 @@
+package tr.kontas.splitr.consumer.domainevent.ring;
+
+/**
+ * Sequencer for a single publishing thread. Not safe for concurrent {@link #next()} calls.
+ *
+ * @author BurakKontas
+ * @version 1.0.0
+ */
+public final class SingleProducerSequencer extends Sequencer {
+
+    private long nextValue = Sequence.INITIAL_VALUE;
+    private long cachedGatingSequence = Sequence.INITIAL_VALUE;
+
+    SingleProducerSequencer(int bufferSize) {
+        super(bufferSize);
+    }
+
+    @Override
+    public long next() {
+        long next = nextValue + 1;
+        long wrapPoint = next - bufferSize;
+
+        if (wrapPoint > cachedGatingSequence) {
+            long minSequence;
+            while (wrapPoint > (minSequence = minimumGatingSequence(nextValue))) {
+                backOff();
+            }
+            cachedGatingSequence = minSequence;
+        }
+
+        nextValue = next;
+        return next;
+    }
+
+    @Override
+    public void publish(long sequence) {
+        cursor.set(sequence);
+    }
+
+    @Override
+    public long highestPublished(long lowerBound, long available) {
+        return available;
+    }
+}
@@ -0,0 +1,65 @@
+package tr.kontas.splitr.consumer.domainevent.ring;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * How an idle consumer waits for new events. Trades latency against CPU usage.
+ *
+ * @author BurakKontas
+ * @version 1.0.0
+ */
+public enum WaitStrategy {
+
+    /**
+     * Spins on the CPU; lowest latency, burns a core per handler group.
+     */
+    BUSY_SPIN {
+        @Override
+        int idle(int counter) {
+            Thread.onSpinWait();
+            return counter;
+        }
+    },
+
+    /**
+     * Spins briefly, then yields the thread.
+     */
+    YIELDING {
+        @Override
+        int idle(int counter) {
+            if (counter < SPIN_TRIES) {
+                Thread.onSpinWait();
+                return counter + 1;
+            }
+            Thread.yield();
+            return counter;
+        }
+    },
+
+    /**
+     * Spins, yields, then parks for short periods; low CPU usage when idle.
+     */
+    SLEEPING {
+        @Override
+        int idle(int counter) {
+            if (counter < SPIN_TRIES) {
+                Thread.onSpinWait();
+            } else if (counter < SPIN_TRIES * 2) {
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(PARK_NANOS);
+                return counter;
+            }
+            return counter + 1;
+        }
+    };
+
+    private static final int SPIN_TRIES = 100;
+    private static final long PARK_NANOS = 100_000L;
+
+    /**
+     * Waits once and returns the updated idle counter; the counter is reset to 0 by the
+     * caller as soon as work is found.
+     */
+    abstract int idle(int counter);
+}
@@ -0,0 +1,45 @@
+package tr.kontas.splitr.consumer.retry;
+
+/**
+ * Exponential backoff tiers of failed commands and events.
+ * <p>
+ * Tier {@code n} (the {@code n+1}-th retry) waits {@code initialDelayMs * multiplier^n}, capped at
+ * {@code maxDelayMs}. Every tier is a separate delay topic or queue, so messages inside one tier
+ * are due in the order they arrived. After {@code maxAttempts} retries the message is
+ * dead-lettered.
+ * </p>
+ *
+ * @param maxAttempts    Retries before dead-lettering; {@code 0} disables retries.
+ * @param initialDelayMs Delay of the first tier.
+ * @param multiplier     Growth factor between tiers, at least 1.
+ * @param maxDelayMs     Upper bound of a tier delay.
+ * @author BurakKontas
+ * @version 1.0.0
+ */
+public record RetryPolicy(int maxAttempts, long initialDelayMs, double multiplier, long maxDelayMs) {
+
+    /**
+     * No retries; failures propagate to the transport's own error handling.
+     */
+    public static final RetryPolicy DISABLED = new RetryPolicy(0, 0, 1, 0);
+
+    public RetryPolicy {
+        if (maxAttempts < 0 || initialDelayMs < 0 || multiplier < 1 || maxDelayMs < initialDelayMs) {
+            throw new IllegalArgumentException("Invalid retry policy: attempts=" + maxAttempts
+                    + ", initial=" + initialDelayMs + ", multiplier=" + multiplier + ", max=" + maxDelayMs);
+        }
+    }
+
+    public boolean isEnabled() {
+        return maxAttempts > 0;
+    }
+
+    /**
+     * @param tier Zero-based tier, i.e. the retry count before the retry.
+     * @return The delay of the tier in milliseconds.
+     */
+    public long delayMs(int tier) {
+        double delay = initialDelayMs * Math.pow(multiplier, tier);
+        return (long) Math.min(delay, maxDelayMs);
+    }
+}
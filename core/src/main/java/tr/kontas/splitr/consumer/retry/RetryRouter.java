@@ -0,0 +1,95 @@
+package tr.kontas.splitr.consumer.retry;
+
+import lombok.extern.slf4j.Slf4j;
+import tr.kontas.splitr.deadline.Deadline;
+import tr.kontas.splitr.dto.CommandRequest;
+import tr.kontas.splitr.dto.base.BaseRequest;
+import tr.kontas.splitr.dto.base.TransportHeaders;
+import tr.kontas.splitr.metrics.Instrumented;
+import tr.kontas.splitr.metrics.SplitrMetrics;
+
+/**
+ * Moves failed commands and events off the main topic or queue.
+ * <p>
+ * Listeners hand a failed request here instead of rethrowing, so the main partition keeps
+ * flowing. The request goes to the next delay tier with {@link BaseRequest#getRetryCount()}
+ * incremented, or to the dead-letter destination once the policy is exhausted or the caller's
+ * deadline would pass before the retry. If publishing the retry itself fails, the original
+ * error is rethrown so the transport's error handling keeps the message.
+ * </p>
+ *
+ * @author BurakKontas
+ * @version 1.0.0
+ */
+@Slf4j
+public class RetryRouter implements Instrumented {
+
+    /**
+     * Disabled router; failures are rethrown.
+     */
+    public static final RetryRouter DISABLED = new RetryRouter(RetryPolicy.DISABLED, null);
+
+    private final RetryPolicy policy;
+    private final RetryTransport transport;
+    private SplitrMetrics metrics = SplitrMetrics.NOOP;
+
+    public RetryRouter(RetryPolicy policy, RetryTransport transport) {
+        this.policy = policy;
+        this.transport = transport;
+    }
+
+    /**
+     * Handles a failed dispatch of {@code request}.
+     *
+     * @throws Exception {@code error} itself when retries are disabled or could not be published.
+     */
+    public void onFailure(BaseRequest request, Exception error) throws Exception {
+        onFailure(request, error, transport);
+    }
+
+    /**
+     * Handles a failed dispatch of {@code request}, publishing through {@code transport} instead
+     * of the router's own, e.g. one bound to the listener's transaction.
+     *
+     * @throws Exception {@code error} itself when retries are disabled or could not be published.
+     */
+    public void onFailure(BaseRequest request, Exception error, RetryTransport transport) throws Exception {
+        if (!policy.isEnabled() || transport == null) {
+            throw error;
+        }
+
+        String kind = request instanceof CommandRequest ? "command" : "event";
+        int attempt = request.getRetryCount();
+        long dueAt = System.currentTimeMillis() + policy.delayMs(attempt);
+        long deadline = Deadline.of(request);
+
+        request.getHeaders().put(TransportHeaders.ERROR, String.valueOf(error));
+        try {
+            // Çağıran retry'dan önce vazgeçecekse beklemek anlamsız
+            if (attempt >= policy.maxAttempts() || (deadline != Deadline.NONE && dueAt >= deadline)) {
+                transport.deadLetter(request);
+                metrics.deadLettered(kind);
+                log.warn("Dead-lettered {} {} after {} retries", kind, request.getId(), attempt, error);
+                return;
+            }
+
+            request.setRetryCount(attempt + 1);
+            transport.retry(request, attempt, dueAt);
+            metrics.retried(kind, attempt);
+            log.debug("Retrying {} {} in tier {}", kind, request.getId(), attempt);
+        } catch (Exception e) {
+            request.setRetryCount(attempt);
+            error.addSuppressed(e);
+            throw error;
+        }
+    }
+
+    public RetryPolicy getPolicy() {
+        return policy;
+    }
+
+    @Override
+    public void setMetrics(SplitrMetrics metrics) {
+        this.metrics = metrics;
+    }
+}
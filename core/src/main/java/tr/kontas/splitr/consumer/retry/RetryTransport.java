@@ -0,0 +1,23 @@
+package tr.kontas.splitr.consumer.retry;
+
+import tr.kontas.splitr.dto.base.BaseRequest;
+
+/**
+ * Transport side of the retry engine: delay tiers and dead-letter destination of one broker.
+ *
+ * @author BurakKontas
+ * @version 1.0.0
+ */
+public interface RetryTransport {
+
+    /**
+     * Publishes {@code request} to the delay tier {@code tier}; it returns to the main topic or
+     * queue once {@code dueAtEpochMs} is reached. Must not return before the broker accepted it.
+     */
+    void retry(BaseRequest request, int tier, long dueAtEpochMs) throws Exception;
+
+    /**
+     * Publishes {@code request} to the dead-letter topic or queue.
+     */
+    void deadLetter(BaseRequest request) throws Exception;
+}
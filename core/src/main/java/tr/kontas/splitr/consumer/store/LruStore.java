@@ -1,6 +1,8 @@
 package tr.kontas.splitr.consumer.store;
 
 import lombok.extern.slf4j.Slf4j;
+import tr.kontas.splitr.metrics.Instrumented;
+import tr.kontas.splitr.metrics.SplitrMetrics;
 
 import java.util.*;
 import java.util.concurrent.Executors;
@@ -10,17 +12,37 @@ import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 @Slf4j
-public class LruStore implements IdempotencyStore {
+public class LruStore implements IdempotencyStore, Instrumented {
+
+    /**
+     * Upper bound of expired entries reclaimed from the head of the expiry queue per write.
+     */
+    private static final int DRAIN_PER_WRITE = 4;
+
+    /**
+     * Batch size used by {@link #cleanup()} and the background sweep; the write lock is
+     * released between batches so dispatchers are never blocked for a full drain.
+     */
+    private static final int DRAIN_BATCH_SIZE = 128;
+
+    /**
+     * Name of the store backing query and command idempotency.
+     */
+    public static final String DEFAULT_NAME = "idempotency";
 
     private static class Entry {
+        final String key;
         final Object value;
         final long expiresAt;
         final long createdAt;
+        final long sequence;
 
-        Entry(Object value, long ttlMs) {
+        Entry(String key, Object value, long ttlMs, long sequence) {
+            this.key = key;
             this.value = value;
             this.createdAt = System.currentTimeMillis();
             this.expiresAt = createdAt + ttlMs;
+            this.sequence = sequence;
         }
 
         boolean isExpired() {
@@ -33,12 +55,18 @@ public class LruStore implements IdempotencyStore {
     }
 
     private final Map<String, Entry> cache;
+    // TTL-ordered view of the cache, head is always the next entry to expire
+    private final NavigableSet<Entry> expiryQueue = new TreeSet<>(
+            Comparator.<Entry>comparingLong(e -> e.expiresAt).thenComparingLong(e -> e.sequence)
+    );
     private final ReadWriteLock lock = new ReentrantReadWriteLock();
     private final int maxSize;
     private final long defaultTtlMs;
+    private final String name;
     private final ScheduledExecutorService cleanupScheduler;
     private long evictionCount = 0;
     private long expiredCount = 0;
+    private long sequence = 0;
 
     public LruStore() {
         this(500, 60 * 60 * 1000L);
@@ -49,8 +77,16 @@ public class LruStore implements IdempotencyStore {
     }
 
     public LruStore(int maxSize, long defaultTtlMs) {
+        this(maxSize, defaultTtlMs, DEFAULT_NAME);
+    }
+
+    /**
+     * @param name Distinguishes the store's meters from those of other stores.
+     */
+    public LruStore(int maxSize, long defaultTtlMs, String name) {
         this.maxSize = maxSize;
         this.defaultTtlMs = defaultTtlMs;
+        this.name = name;
 
         this.cache = Collections.synchronizedMap(
                 new LinkedHashMap<String, Entry>(
@@ -62,6 +98,7 @@ public class LruStore implements IdempotencyStore {
                     protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
                         boolean shouldRemove = size() > maxSize;
                         if (shouldRemove) {
+                            expiryQueue.remove(eldest.getValue());
                             evictionCount++;
                             log.debug("Evicting oldest entry: {}, age: {}ms",
                                     eldest.getKey(),
@@ -80,7 +117,7 @@ public class LruStore implements IdempotencyStore {
 
         this.cleanupScheduler.scheduleAtFixedRate(
                 this::cleanupExpiredEntries,
-                5, 5, TimeUnit.MINUTES
+                30, 30, TimeUnit.SECONDS
         );
     }
 
@@ -97,7 +134,7 @@ public class LruStore implements IdempotencyStore {
                 lock.readLock().unlock();
                 lock.writeLock().lock();
                 try {
-                    cache.remove(id);
+                    removeEntry(entry);
                     expiredCount++;
                     log.debug("Entry {} expired on access", id);
                 } finally {
@@ -126,7 +163,7 @@ public class LruStore implements IdempotencyStore {
                 lock.readLock().unlock();
                 lock.writeLock().lock();
                 try {
-                    cache.remove(id);
+                    removeEntry(entry);
                     expiredCount++;
                     log.debug("Entry {} expired on get", id);
                     return null;
@@ -154,60 +191,102 @@ public class LruStore implements IdempotencyStore {
 
         lock.writeLock().lock();
         try {
-            cache.put(id, new Entry(value, safeTtl));
+            Entry entry = new Entry(id, value, safeTtl, sequence++);
+            Entry previous = cache.put(id, entry);
+            if (previous != null) {
+                expiryQueue.remove(previous);
+            }
+            expiryQueue.add(entry);
+
+            int drained = drainExpired(DRAIN_PER_WRITE);
+            expiredCount += drained;
             log.debug("Stored entry {} with TTL: {}ms, current size: {}", id, safeTtl, cache.size());
         } finally {
             lock.writeLock().unlock();
         }
     }
 
-    private void cleanupExpiredEntries() {
-        lock.writeLock().lock();
-        try {
-            int cleaned = 0;
-            Iterator<Map.Entry<String, Entry>> iterator = cache.entrySet().iterator();
-
-            while (iterator.hasNext()) {
-                Map.Entry<String, Entry> e = iterator.next();
-                if (e.getValue().isExpired()) {
-                    iterator.remove();
-                    cleaned++;
-                }
+    /**
+     * Removes up to {@code limit} expired entries from the head of the expiry queue.
+     * Must be called while holding the write lock.
+     *
+     * @return The number of entries removed.
+     */
+    private int drainExpired(int limit) {
+        long now = System.currentTimeMillis();
+        int drained = 0;
+
+        while (drained < limit) {
+            Entry head = expiryQueue.isEmpty() ? null : expiryQueue.first();
+            if (head == null || head.expiresAt >= now) {
+                break;
             }
 
-            if (cleaned > 0) {
-                expiredCount += cleaned;
-                log.info("Cleaned up {} expired entries, current size: {}, total evicted: {}, total expired: {}",
-                        cleaned, cache.size(), evictionCount, expiredCount);
-            }
-        } finally {
-            lock.writeLock().unlock();
+            expiryQueue.pollFirst();
+            cache.remove(head.key, head);
+            drained++;
         }
+
+        return drained;
     }
 
-    @Override
-    public int cleanup() {
+    /**
+     * Drains every expired entry in batches, releasing the write lock between batches.
+     *
+     * @return The number of entries removed.
+     */
+    private int drainAllExpired() {
         int cleaned = 0;
-        lock.writeLock().lock();
-        try {
-            Iterator<Map.Entry<String, Entry>> iterator = cache.entrySet().iterator();
-            while (iterator.hasNext()) {
-                if (iterator.next().getValue().isExpired()) {
-                    iterator.remove();
-                    cleaned++;
-                }
+        int drained;
+
+        do {
+            lock.writeLock().lock();
+            try {
+                drained = drainExpired(DRAIN_BATCH_SIZE);
+                expiredCount += drained;
+            } finally {
+                lock.writeLock().unlock();
             }
-        } finally {
-            lock.writeLock().unlock();
-        }
+            cleaned += drained;
+        } while (drained == DRAIN_BATCH_SIZE);
+
         return cleaned;
     }
 
+    /**
+     * Removes the given entry from both the cache and the expiry queue.
+     * Must be called while holding the write lock.
+     */
+    private void removeEntry(Entry entry) {
+        if (cache.remove(entry.key, entry)) {
+            expiryQueue.remove(entry);
+        }
+    }
+
+    private void cleanupExpiredEntries() {
+        int cleaned = drainAllExpired();
+
+        if (cleaned > 0) {
+            log.info("Cleaned up {} expired entries, current size: {}, total evicted: {}, total expired: {}",
+                    cleaned, size(), evictionCount, expiredCount);
+        }
+    }
+
+    @Override
+    public int cleanup() {
+        return drainAllExpired();
+    }
+
     @Override
     public boolean remove(String id) {
         lock.writeLock().lock();
         try {
-            return cache.remove(id) != null;
+            Entry entry = cache.remove(id);
+            if (entry == null) {
+                return false;
+            }
+            expiryQueue.remove(entry);
+            return true;
         } finally {
             lock.writeLock().unlock();
         }
@@ -218,8 +297,8 @@ public class LruStore implements IdempotencyStore {
         lock.writeLock().lock();
         try {
             cache.clear();
-            evictionCount = 0;
-            expiredCount = 0;
+            expiryQueue.clear();
+            // Sayaçlar ömür boyu toplamdır; metrik counter'ları geri gitmemeli
             log.info("Store cleared");
         } finally {
             lock.writeLock().unlock();
@@ -259,6 +338,19 @@ public class LruStore implements IdempotencyStore {
         log.info("LruStore shutdown complete");
     }
 
+    @Override
+    public void setMetrics(SplitrMetrics metrics) {
+        metrics.bindStore(this);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return Current size, plus evictions and expirations since the store was created; clearing
+     * the store does not reset them.
+     */
     public StoreStats getStats() {
         lock.readLock().lock();
         try {
@@ -0,0 +1,173 @@
+package tr.kontas.splitr.deadline;
+
+import tr.kontas.splitr.dto.base.BaseRequest;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Absolute deadlines of Splitr requests and the deadline of the request being handled.
+ * <p>
+ * A deadline is an epoch-millisecond instant carried in {@link BaseRequest#getDeadlineEpochMs()};
+ * {@link #NONE} means the caller waits forever. Consumers drop a request whose deadline has
+ * passed before dispatching it, before invoking the handler and before calling the webhook,
+ * because the caller has already given up on it.
+ * </p>
+ * <p>
+ * While a handler runs, {@link #remainingMs()} returns its remaining budget so it can pass a
+ * shorter timeout to downstream calls or stop early. Request-response calls published from a
+ * handler (sync and async queries and commands) never wait longer than that budget;
+ * fire-and-forget publishes do not inherit it.
+ * </p>
+ * <pre>{@code
+ * public Object handle(GetOrder query) {
+ *     return client.fetch(query.id(), Duration.ofMillis(Deadline.remainingMs()));
+ * }
+ * }</pre>
+ *
+ * @author BurakKontas
+ * @version 1.0.0
+ */
+public final class Deadline {
+
+    /**
+     * No deadline.
+     */
+    public static final long NONE = 0L;
+
+    /**
+     * Timeout value meaning "no timeout" in publish calls and request envelopes.
+     */
+    public static final long NO_TIMEOUT = 0L;
+
+    private static final ThreadLocal<long[]> CURRENT = ThreadLocal.withInitial(() -> new long[]{NONE});
+
+    private Deadline() {
+    }
+
+    /**
+     * @return The deadline {@code timeoutMs} after {@code startEpochMs}, or {@link #NONE} for a
+     * non-positive timeout, {@code Long.MAX_VALUE} or an overflowing sum.
+     */
+    public static long after(long startEpochMs, long timeoutMs) {
+        if (timeoutMs <= 0) {
+            return NONE;
+        }
+        long deadline = startEpochMs + timeoutMs;
+        // Taşma (ör. Long.MAX_VALUE timeout) süresiz bekleme demektir
+        return deadline < startEpochMs ? NONE : deadline;
+    }
+
+    /**
+     * @return The deadline of the request; envelopes without {@code deadlineEpochMs} (older
+     * publishers) fall back to {@code sentAtEpochMs + timeoutMs}.
+     */
+    public static long of(BaseRequest request) {
+        long deadline = request.getDeadlineEpochMs();
+        return deadline != NONE ? deadline : after(request.getSentAtEpochMs(), request.getTimeoutMs());
+    }
+
+    /**
+     * @return The earlier of two deadlines, treating {@link #NONE} as "later than anything".
+     */
+    public static long earliest(long a, long b) {
+        if (a == NONE) {
+            return b;
+        }
+        if (b == NONE) {
+            return a;
+        }
+        return Math.min(a, b);
+    }
+
+    public static boolean expired(long deadline) {
+        return deadline != NONE && System.currentTimeMillis() >= deadline;
+    }
+
+    public static boolean expired(BaseRequest request) {
+        return expired(of(request));
+    }
+
+    /**
+     * @return Milliseconds until {@code deadline}, {@code 0} if it passed, or {@code Long.MAX_VALUE}
+     * for {@link #NONE}.
+     */
+    public static long remainingMs(long deadline) {
+        if (deadline == NONE) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(0L, deadline - System.currentTimeMillis());
+    }
+
+    /**
+     * @return The deadline of the request handled by the current thread, or {@link #NONE}.
+     */
+    public static long current() {
+        return CURRENT.get()[0];
+    }
+
+    /**
+     * @return The remaining budget of the request handled by the current thread, or
+     * {@code Long.MAX_VALUE} if it has no deadline.
+     */
+    public static long remainingMs() {
+        return remainingMs(current());
+    }
+
+    /**
+     * Budget of a request-response call published on the current thread.
+     *
+     * @param timeoutMs        The caller's timeout; non-positive means {@code defaultTimeoutMs}.
+     * @param defaultTimeoutMs The bus default timeout.
+     * @return The timeout capped at the remaining budget of the request being handled.
+     * @throws TimeoutException If that request has already run out of time; nothing should be
+     *                          registered or sent, because a zero budget would go out as
+     *                          {@link #NO_TIMEOUT}.
+     */
+    public static long budgetMs(long timeoutMs, long defaultTimeoutMs) throws TimeoutException {
+        long budget = Math.min(timeoutMs > 0 ? timeoutMs : defaultTimeoutMs, remainingMs());
+        if (budget <= 0) {
+            throw new TimeoutException("Deadline of the current request has passed");
+        }
+        return budget;
+    }
+
+    /**
+     * @return Whether the request handled by the current thread has run out of time.
+     */
+    public static boolean isExpired() {
+        return expired(current());
+    }
+
+    /**
+     * Runs {@code task} with {@code deadline} as the current deadline, restoring the previous one
+     * afterwards (nested in-memory calls).
+     */
+    public static <T> T callWithin(long deadline, Callable<T> task) throws Exception {
+        long[] holder = CURRENT.get();
+        long previous = holder[0];
+        // En yakın deadline geçerlidir; iç çağrı dış bütçeyi aşamaz
+        holder[0] = earliest(previous, deadline);
+        try {
+            return task.call();
+        } finally {
+            holder[0] = previous;
+        }
+    }
+
+    /**
+     * Runs {@code task} without a current deadline, restoring it afterwards. Used for work that
+     * outlives the request being handled and is shared with other callers (coalesced query cache
+     * loads); each caller is expected to bound its own wait.
+     */
+    public static <T> T callDetached(Callable<T> task) throws Exception {
+        long[] holder = CURRENT.get();
+        long previous = holder[0];
+        holder[0] = NONE;
+        try {
+            return task.call();
+        } finally {
+            holder[0] = previous;
+        }
+    }
+}
@@ -10,4 +10,10 @@ public class DomainEventRequest {
     private String id;
     private String type;
     private DomainEvent payload;
+    // Id bus tarafından üretildiyse tekrar gelmesi mümkün değildir; idempotency kontrolü atlanır
+    private boolean generatedId;
+
+    public DomainEventRequest(String id, String type, DomainEvent payload) {
+        this(id, type, payload, false);
+    }
 }
@@ -1,6 +1,7 @@
 package tr.kontas.splitr.dto;
 
 import lombok.AllArgsConstructor;
+import tr.kontas.splitr.deadline.Deadline;
 import tr.kontas.splitr.dto.base.BaseRequest;
 
 
@@ -11,6 +12,6 @@ public class EventRequest extends BaseRequest {
             String type,
             String payload
     ) {
-        super(id, type, payload, "", false, System.currentTimeMillis(), Long.MAX_VALUE, 0);
+        super(id, type, payload, "", false, System.currentTimeMillis(), Deadline.NO_TIMEOUT, 0);
     }
 }
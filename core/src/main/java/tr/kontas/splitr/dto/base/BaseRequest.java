@@ -1,12 +1,14 @@
 package tr.kontas.splitr.dto.base;
 
-import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import tr.kontas.splitr.deadline.Deadline;
+
+import java.util.HashMap;
+import java.util.Map;
 
 @Data
 @NoArgsConstructor
-@AllArgsConstructor
 public class BaseRequest {
     private String id;
     private String type;
@@ -15,6 +17,23 @@ public class BaseRequest {
     private boolean isSync;
     private long sentAtEpochMs;
     private long timeoutMs;
+    // Mutlak deadline (epoch ms); 0 = süresiz. Bkz. Deadline
+    private long deadlineEpochMs;
     private int retryCount = 0;
+    // Propagation fields (e.g. traceparent) carried across the transport
+    private Map<String, String> headers = new HashMap<>();
+
+    public BaseRequest(String id, String type, String payload, String callbackUrl, boolean isSync,
+                       long sentAtEpochMs, long timeoutMs, int retryCount) {
+        this.id = id;
+        this.type = type;
+        this.payload = payload;
+        this.callbackUrl = callbackUrl;
+        this.isSync = isSync;
+        this.sentAtEpochMs = sentAtEpochMs;
+        this.timeoutMs = timeoutMs;
+        this.deadlineEpochMs = Deadline.after(sentAtEpochMs, timeoutMs);
+        this.retryCount = retryCount;
+    }
 }
 
@@ -0,0 +1,86 @@
+package tr.kontas.splitr.dto.base;
+
+import tr.kontas.splitr.deadline.Deadline;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Transport headers duplicated from the {@link BaseRequest} envelope.
+ * <p>
+ * Listeners read these before the record body is deserialized, so an expired request can be
+ * skipped without parsing the envelope or its nested payload. The deadline is written as ASCII
+ * epoch milliseconds so that non-Java producers can set it as well.
+ * </p>
+ *
+ * @author BurakKontas
+ * @version 1.0.0
+ */
+public final class TransportHeaders {
+
+    /**
+     * Absolute deadline in epoch milliseconds; absent when the request has none.
+     */
+    public static final String DEADLINE = "splitr-deadline";
+
+    /**
+     * Fully qualified payload type, same as {@link BaseRequest#getType()}.
+     */
+    public static final String TYPE = "splitr-type";
+
+    /**
+     * Content key of a {@link tr.kontas.splitr.bus.query.CacheableQuery}, carried in
+     * {@link BaseRequest#getHeaders()}.
+     */
+    public static final String CONTENT_KEY = "splitr-content-key";
+
+    /**
+     * Due time (epoch ms) of a request waiting in a retry tier.
+     */
+    public static final String RETRY_AT = "splitr-retry-at";
+
+    /**
+     * Last dispatch failure of a retried or dead-lettered request, carried in
+     * {@link BaseRequest#getHeaders()}.
+     */
+    public static final String ERROR = "splitr-error";
+
+    private TransportHeaders() {
+    }
+
+    public static byte[] encodeDeadline(long deadline) {
+        return Long.toString(deadline).getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Parses an ASCII deadline without allocating.
+     *
+     * @return The deadline, or {@link Deadline#NONE} if the value is missing or malformed.
+     */
+    public static long parseDeadline(byte[] value) {
+        if (value == null || value.length == 0 || value.length > 19) {
+            return Deadline.NONE;
+        }
+        long result = 0;
+        for (byte b : value) {
+            if (b < '0' || b > '9') {
+                return Deadline.NONE;
+            }
+            result = result * 10 + (b - '0');
+        }
+        return result;
+    }
+
+    /**
+     * Reads a deadline header carried as a number or a string (AMQP header tables).
+     *
+     * @return The deadline, or {@link Deadline#NONE} if the value is missing or malformed.
+     */
+    public static long parseDeadline(Object value) {
+        return switch (value) {
+            case Number n -> n.longValue();
+            case byte[] bytes -> parseDeadline(bytes);
+            case null -> Deadline.NONE;
+            default -> parseDeadline(value.toString().getBytes(StandardCharsets.US_ASCII));
+        };
+    }
+}
@@ -0,0 +1,63 @@
+package tr.kontas.splitr.id;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Derives a deterministic 128-bit key from a payload's type and canonical JSON.
+ * <p>
+ * Properties and map entries are written in sorted order, so equal payloads give the same key
+ * regardless of field declaration or insertion order. Properties ignored by Jackson (such as the
+ * idempotency key) do not take part. The key is the first 128 bits of a SHA-256 digest, as 32
+ * hex characters.
+ * </p>
+ *
+ * @author BurakKontas
+ * @version 1.0.0
+ */
+public final class ContentHasher {
+
+    private static final HexFormat HEX = HexFormat.of();
+    private static final ThreadLocal<MessageDigest> DIGEST = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    });
+
+    private final ObjectMapper canonical;
+
+    @SuppressWarnings("deprecation")
+    public ContentHasher(ObjectMapper mapper) {
+        this.canonical = mapper.copy()
+                .configure(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY, true)
+                .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+    }
+
+    /**
+     * @return 32 hex characters identifying the payload's type and content.
+     */
+    public String hash(Object payload) {
+        byte[] json;
+        try {
+            json = canonical.writeValueAsBytes(payload);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Content hash failed for " + payload.getClass().getName(), e);
+        }
+
+        MessageDigest digest = DIGEST.get();
+        digest.reset();
+        digest.update(payload.getClass().getName().getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(json);
+        return HEX.formatHex(digest.digest(), 0, 16);
+    }
+}
@@ -0,0 +1,21 @@
+package tr.kontas.splitr.id;
+
+/**
+ * Strategy for generating correlation and idempotency ids.
+ * <p>
+ * The active generator is held by {@link IdGenerators}; it can be replaced through
+ * {@link java.util.ServiceLoader} (a {@code META-INF/services/tr.kontas.splitr.id.IdGenerator}
+ * entry), by declaring an {@code IdGenerator} bean, or with {@code splitr.id.generator}.
+ * </p>
+ *
+ * @author BurakKontas
+ * @version 1.0.0
+ */
+@FunctionalInterface
+public interface IdGenerator {
+
+    /**
+     * @return A new id, unique across the cluster for practical purposes.
+     */
+    String nextId();
+}
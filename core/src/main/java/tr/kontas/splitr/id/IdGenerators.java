@@ -0,0 +1,39 @@
+package tr.kontas.splitr.id;
+
+import java.util.ServiceLoader;
+
+/**
+ * Holder of the process-wide {@link IdGenerator}.
+ * <p>
+ * Message base classes ({@code BaseCommand}, {@code BaseQuery}, {@code BaseEvent}) are created
+ * with {@code new} outside of Spring, so they read the generator from here. The initial
+ * generator is the first {@link ServiceLoader} provider, or {@link UlidIdGenerator}.
+ * </p>
+ *
+ * @author BurakKontas
+ * @version 1.0.0
+ */
+public final class IdGenerators {
+
+    private static volatile IdGenerator current = ServiceLoader.load(IdGenerator.class)
+            .findFirst()
+            .orElseGet(UlidIdGenerator::new);
+
+    private IdGenerators() {
+    }
+
+    public static String next() {
+        return current.nextId();
+    }
+
+    public static IdGenerator current() {
+        return current;
+    }
+
+    public static void use(IdGenerator generator) {
+        if (generator == null) {
+            throw new IllegalArgumentException("IdGenerator must not be null");
+        }
+        current = generator;
+    }
+}
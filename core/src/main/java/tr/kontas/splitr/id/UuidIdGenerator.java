@@ -0,0 +1,17 @@
+package tr.kontas.splitr.id;
+
+import java.util.UUID;
+
+/**
+ * Random (version 4) UUIDs; the behaviour before {@link UlidIdGenerator} became the default.
+ *
+ * @author BurakKontas
+ * @version 1.0.0
+ */
+public class UuidIdGenerator implements IdGenerator {
+
+    @Override
+    public String nextId() {
+        return UUID.randomUUID().toString();
+    }
+}
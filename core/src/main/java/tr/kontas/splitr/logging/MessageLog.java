@@ -0,0 +1,146 @@
+package tr.kontas.splitr.logging;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-message logger for hot paths (listeners, dispatchers, in-memory buses).
+ * <p>
+ * Instead of one INFO line per message, each call increments a per-type counter and writes a
+ * parameterized line only if the configured level is enabled and the message passes sampling
+ * and the per-second rate limit. Counters are flushed as one summary line per interval by
+ * {@link MessageLogReporter}.
+ * </p>
+ * <p>
+ * The {@link MessageLogPolicy} is process-wide, like the underlying SLF4J configuration, and
+ * is set by {@code LoggingAutoConfigure} from the {@code splitr.logging.*} properties.
+ * </p>
+ *
+ * @author BurakKontas
+ * @version 1.0.0
+ */
+public final class MessageLog {
+
+    private static final Queue<MessageLog> LOGS = new ConcurrentLinkedQueue<>();
+    private static volatile MessageLogPolicy policy = MessageLogPolicy.DEFAULT;
+
+    private final Logger logger;
+    private final String action;
+    private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private final LongAdder suppressed = new LongAdder();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicInteger windowCount = new AtomicInteger();
+    private volatile long windowSecond;
+
+    private MessageLog(Logger logger, String action) {
+        this.logger = logger;
+        this.action = action;
+    }
+
+    /**
+     * @param owner  The class whose logger is used.
+     * @param action Prefix of every line, e.g. {@code "Dispatching query"}.
+     */
+    public static MessageLog of(Class<?> owner, String action) {
+        MessageLog log = new MessageLog(LoggerFactory.getLogger(owner), action);
+        LOGS.add(log);
+        return log;
+    }
+
+    public static void configure(MessageLogPolicy newPolicy) {
+        policy = newPolicy;
+    }
+
+    public static MessageLogPolicy policy() {
+        return policy;
+    }
+
+    /**
+     * Writes the per-type summary of every {@link MessageLog} and resets the counters.
+     */
+    public static void reportAll() {
+        for (MessageLog log : LOGS) {
+            log.report();
+        }
+    }
+
+    /**
+     * Records one message and logs it if the policy allows.
+     *
+     * @param type The message type, used as counter key.
+     * @param id   The message id.
+     */
+    public void message(String type, String id) {
+        MessageLogPolicy p = policy;
+        String key = type == null ? "unknown" : type;
+
+        if (p.countingEnabled()) {
+            counters.computeIfAbsent(key, k -> new LongAdder()).increment();
+        }
+
+        Level level = p.level();
+        if (level == null || !logger.isEnabledForLevel(level) || !admit(p)) {
+            return;
+        }
+
+        logger.atLevel(level).log("{}: {} ({})", action, id, key);
+    }
+
+    /**
+     * @return Message count per type since the last report, without resetting.
+     */
+    public Map<String, Long> counts() {
+        Map<String, Long> snapshot = new TreeMap<>();
+        counters.forEach((type, count) -> snapshot.put(type, count.sum()));
+        return snapshot;
+    }
+
+    boolean admit(MessageLogPolicy p) {
+        if (p.sampleRate() > 1 && sequence.getAndIncrement() % p.sampleRate() != 0) {
+            return false;
+        }
+
+        if (p.maxPerSecond() == 0) {
+            return true;
+        }
+
+        long second = System.nanoTime() / 1_000_000_000L;
+        if (second != windowSecond) {
+            // Pencere değişimi yarış içerebilir; sınır yaklaşık olarak uygulanır
+            windowSecond = second;
+            windowCount.set(0);
+        }
+
+        if (windowCount.incrementAndGet() <= p.maxPerSecond()) {
+            return true;
+        }
+
+        suppressed.increment();
+        return false;
+    }
+
+    void report() {
+        Map<String, Long> snapshot = new TreeMap<>();
+        counters.forEach((type, count) -> {
+            long n = count.sumThenReset();
+            if (n > 0) {
+                snapshot.put(type, n);
+            }
+        });
+        long dropped = suppressed.sumThenReset();
+
+        if (!snapshot.isEmpty() && logger.isInfoEnabled()) {
+            logger.info("{} summary: {} (rate-limited lines: {})", action, snapshot, dropped);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package tr.kontas.splitr.logging;
+
+import org.slf4j.event.Level;
+
+import java.util.Locale;
+
+/**
+ * Policy applied to per-message log lines on the hot path.
+ *
+ * @param level             The level per-message lines are written at, or {@code null} to disable them.
+ * @param sampleRate        Only every N-th message (per {@link MessageLog}) is considered for logging.
+ * @param maxPerSecond      Upper bound of lines per second per {@link MessageLog}; {@code 0} means unlimited.
+ * @param summaryIntervalMs Interval of the per-type counter summary; {@code 0} disables counting.
+ * @author BurakKontas
+ * @version 1.0.0
+ */
+public record MessageLogPolicy(Level level, int sampleRate, int maxPerSecond, long summaryIntervalMs) {
+
+    /**
+     * Per-message lines at DEBUG, at most 100 per second, summary every minute.
+     */
+    public static final MessageLogPolicy DEFAULT = new MessageLogPolicy(Level.DEBUG, 1, 100, 60_000L);
+
+    public MessageLogPolicy {
+        if (sampleRate < 1) {
+            throw new IllegalArgumentException("splitr.logging.sample-rate must be >= 1");
+        }
+        if (maxPerSecond < 0) {
+            throw new IllegalArgumentException("splitr.logging.max-per-second must be >= 0");
+        }
+        if (summaryIntervalMs < 0) {
+            throw new IllegalArgumentException("splitr.logging.summary-interval-ms must be >= 0");
+        }
+    }
+
+    /**
+     * Parses a level name as used by {@code splitr.logging.message-level}; {@code off} disables logging.
+     */
+    public static Level parseLevel(String name) {
+        if (name == null || name.isBlank() || name.equalsIgnoreCase("off")) {
+            return null;
+        }
+        return Level.valueOf(name.trim().toUpperCase(Locale.ROOT));
+    }
+
+    public boolean countingEnabled() {
+        return summaryIntervalMs > 0;
+    }
+}
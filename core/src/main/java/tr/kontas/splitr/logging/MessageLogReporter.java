@@ -0,0 +1,44 @@
+package tr.kontas.splitr.logging;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically writes the {@link MessageLog} per-type summaries.
+ *
+ * @author BurakKontas
+ * @version 1.0.0
+ */
+@Slf4j
+public class MessageLogReporter {
+
+    private final ScheduledExecutorService scheduler;
+
+    public MessageLogReporter(long intervalMs) {
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "splitr-log-summary");
+            t.setDaemon(true);
+            return t;
+        });
+
+        if (intervalMs > 0) {
+            scheduler.scheduleAtFixedRate(this::report, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void report() {
+        try {
+            MessageLog.reportAll();
+        } catch (Exception e) {
+            log.error("Error while writing message log summary", e);
+        }
+    }
+
+    public void shutdown() {
+        scheduler.shutdownNow();
+        MessageLog.reportAll();
+    }
+}
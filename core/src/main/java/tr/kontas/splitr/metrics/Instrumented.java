@@ -0,0 +1,29 @@
+package tr.kontas.splitr.metrics;
+
+import io.micrometer.observation.ObservationRegistry;
+
+/**
+ * Implemented by Splitr components that record metrics or observations.
+ * <p>
+ * Collaborators are injected after construction by {@code SplitrInstrumentationPostProcessor}
+ * when the application provides them; until then components fall back to
+ * {@link SplitrMetrics#NOOP} and {@link ObservationRegistry#NOOP}.
+ * </p>
+ *
+ * @author BurakKontas
+ * @version 1.0.0
+ */
+public interface Instrumented {
+
+    /**
+     * @param metrics The metrics implementation to record to.
+     */
+    void setMetrics(SplitrMetrics metrics);
+
+    /**
+     * @param observationRegistry The registry used to create tracing observations.
+     */
+    default void setObservationRegistry(ObservationRegistry observationRegistry) {
+        // No observations by default
+    }
+}
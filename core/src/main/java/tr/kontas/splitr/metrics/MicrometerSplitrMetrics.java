@@ -0,0 +1,273 @@
+package tr.kontas.splitr.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import tr.kontas.splitr.bus.limit.ConcurrencyLimiter;
+import tr.kontas.splitr.bus.registry.SyncRegistry;
+import tr.kontas.splitr.consumer.bus.impl.InMemoryBusExecutor;
+import tr.kontas.splitr.consumer.store.LruStore;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * {@link SplitrMetrics} implementation backed by a Micrometer {@link MeterRegistry}.
+ * <p>
+ * Meters:
+ * </p>
+ * <ul>
+ *     <li>{@code splitr.publish} (timer) - transport, type, mode, outcome</li>
+ *     <li>{@code splitr.publish.rejected} (counter) - transport, type, reason ({@code nack}/{@code returned})</li>
+ *     <li>{@code splitr.registry.wait} (timer) - time until a registered request was completed</li>
+ *     <li>{@code splitr.registry.timeouts} / {@code splitr.registry.rejections} (counters)</li>
+ *     <li>{@code splitr.registry.pending} (gauge)</li>
+ *     <li>{@code splitr.dispatch} (timer) - kind, type, outcome</li>
+ *     <li>{@code splitr.webhook} (timer) - kind, outcome</li>
+ *     <li>{@code splitr.idempotency.lookups} (counter) - kind, result ({@code hit}/{@code miss})</li>
+ *     <li>{@code splitr.idempotency.shared} (counter) - kind, result ({@code hit}/{@code miss})</li>
+ *     <li>{@code splitr.deadline.exceeded} (counter) - kind, stage ({@code consume}/{@code handler}/{@code webhook})</li>
+ *     <li>{@code splitr.deadline.shed} (counter) - transport</li>
+ *     <li>{@code splitr.store.size} (gauge), {@code splitr.store.evictions} and
+ *     {@code splitr.store.expirations} (function counters), tagged with the store name</li>
+ *     <li>{@code splitr.inmemory.executor.queued} / {@code splitr.inmemory.executor.active} (gauges)
+ *     and {@code splitr.inmemory.executor.caller-runs} (function counter) - mode</li>
+ *     <li>{@code splitr.retry} (counter) - kind, tier; {@code splitr.retry.dead-lettered} (counter) - kind</li>
+ *     <li>{@code splitr.hedge.sent} (counter) - transport, type</li>
+ *     <li>{@code splitr.query.cache} (counter) - type, result ({@code hit}/{@code stale}/{@code miss}/{@code coalesced})</li>
+ *     <li>{@code splitr.limit.current} / {@code splitr.limit.inflight} (gauges) and
+ *     {@code splitr.limit.rejections} (counter) - destination, type</li>
+ * </ul>
+ *
+ * @author BurakKontas
+ * @version 1.0.0
+ */
+public class MicrometerSplitrMetrics implements SplitrMetrics {
+
+    private static final String SUCCESS = "success";
+    private static final String FAILURE = "failure";
+    private static final String TIMEOUT = "timeout";
+
+    private final MeterRegistry registry;
+
+    private final Meter.MeterProvider<Timer> publishTimer;
+    private final Meter.MeterProvider<Timer> dispatchTimer;
+    private final Meter.MeterProvider<Timer> webhookTimer;
+    private final Meter.MeterProvider<Counter> idempotencyCounter;
+    private final Meter.MeterProvider<Counter> sharedResultCounter;
+    private final Meter.MeterProvider<Counter> publishRejections;
+    private final Meter.MeterProvider<Counter> deadlineCounter;
+    private final Meter.MeterProvider<Counter> shedCounter;
+    private final Meter.MeterProvider<Counter> limitRejections;
+    private final Meter.MeterProvider<Counter> queryCacheCounter;
+    private final Meter.MeterProvider<Counter> hedgeCounter;
+    private final Meter.MeterProvider<Counter> retryCounter;
+    private final Meter.MeterProvider<Counter> deadLetterCounter;
+    private final Timer registryWaitTimer;
+    private final Counter registryTimeouts;
+    private final Counter registryRejections;
+
+    public MicrometerSplitrMetrics(MeterRegistry registry) {
+        this.registry = registry;
+
+        this.publishTimer = Timer.builder("splitr.publish")
+                .description("Publish latency per message type")
+                .withRegistry(registry);
+        this.publishRejections = Counter.builder("splitr.publish.rejected")
+                .description("Publishes negatively confirmed or returned by the broker")
+                .withRegistry(registry);
+        this.dispatchTimer = Timer.builder("splitr.dispatch")
+                .description("Consumer dispatch latency including handler execution")
+                .withRegistry(registry);
+        this.webhookTimer = Timer.builder("splitr.webhook")
+                .description("Callback webhook latency")
+                .withRegistry(registry);
+        this.idempotencyCounter = Counter.builder("splitr.idempotency.lookups")
+                .description("Idempotency store lookups by result")
+                .withRegistry(registry);
+        this.sharedResultCounter = Counter.builder("splitr.idempotency.shared")
+                .description("Content-key lookups of cacheable queries by result")
+                .withRegistry(registry);
+        this.deadlineCounter = Counter.builder("splitr.deadline.exceeded")
+                .description("Requests dropped because their deadline passed")
+                .withRegistry(registry);
+        this.shedCounter = Counter.builder("splitr.deadline.shed")
+                .description("Expired records skipped from their headers, before deserialization")
+                .withRegistry(registry);
+        this.limitRejections = Counter.builder("splitr.limit.rejections")
+                .description("Publishes rejected by the adaptive concurrency limit")
+                .withRegistry(registry);
+        this.queryCacheCounter = Counter.builder("splitr.query.cache")
+                .description("Publisher-side query cache lookups by result")
+                .withRegistry(registry);
+        this.hedgeCounter = Counter.builder("splitr.hedge.sent")
+                .description("Queries published a second time after their hedge delay")
+                .withRegistry(registry);
+        this.retryCounter = Counter.builder("splitr.retry")
+                .description("Failed commands and events moved to a retry tier")
+                .withRegistry(registry);
+        this.deadLetterCounter = Counter.builder("splitr.retry.dead-lettered")
+                .description("Commands and events dead-lettered after their retries")
+                .withRegistry(registry);
+        this.registryWaitTimer = Timer.builder("splitr.registry.wait")
+                .description("Time a request spent in the SyncRegistry before completion")
+                .register(registry);
+        this.registryTimeouts = Counter.builder("splitr.registry.timeouts")
+                .description("Requests that timed out in the SyncRegistry")
+                .register(registry);
+        this.registryRejections = Counter.builder("splitr.registry.rejections")
+                .description("Registrations rejected because the SyncRegistry was full")
+                .register(registry);
+    }
+
+    @Override
+    public void publish(String transport, String type, String mode, long nanos, Throwable error) {
+        publishTimer.withTags("transport", transport, "type", type, "mode", mode, "outcome", outcome(error))
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void registryCompleted(long nanos) {
+        registryWaitTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void registryTimeout() {
+        registryTimeouts.increment();
+    }
+
+    @Override
+    public void registryRejected() {
+        registryRejections.increment();
+    }
+
+    @Override
+    public void dispatch(String kind, String type, long nanos, Throwable error) {
+        dispatchTimer.withTags("kind", kind, "type", type, "outcome", outcome(error))
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void webhook(String kind, long nanos, Throwable error) {
+        webhookTimer.withTags("kind", kind, "outcome", outcome(error))
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void idempotencyLookup(String kind, boolean hit) {
+        idempotencyCounter.withTags("kind", kind, "result", hit ? "hit" : "miss").increment();
+    }
+
+    @Override
+    public void sharedResultLookup(String kind, boolean hit) {
+        sharedResultCounter.withTags("kind", kind, "result", hit ? "hit" : "miss").increment();
+    }
+
+    @Override
+    public void deadlineExceeded(String kind, String stage) {
+        deadlineCounter.withTags("kind", kind, "stage", stage).increment();
+    }
+
+    @Override
+    public void shed(String transport) {
+        shedCounter.withTags("transport", transport).increment();
+    }
+
+    @Override
+    public void limitRejected(String destination, String type) {
+        limitRejections.withTags("destination", destination, "type", type).increment();
+    }
+
+    @Override
+    public void publishRejected(String transport, String type, String reason) {
+        publishRejections.withTags("transport", transport, "type", type, "reason", reason).increment();
+    }
+
+    @Override
+    public void retried(String kind, int tier) {
+        retryCounter.withTags("kind", kind, "tier", Integer.toString(tier)).increment();
+    }
+
+    @Override
+    public void deadLettered(String kind) {
+        deadLetterCounter.withTags("kind", kind).increment();
+    }
+
+    @Override
+    public void hedge(String transport, String type) {
+        hedgeCounter.withTags("transport", transport, "type", type).increment();
+    }
+
+    @Override
+    public void queryCache(String type, String result) {
+        queryCacheCounter.withTags("type", type, "result", result).increment();
+    }
+
+    @Override
+    public void bindRegistry(SyncRegistry syncRegistry) {
+        Gauge.builder("splitr.registry.pending", syncRegistry, SyncRegistry::size)
+                .description("Requests waiting for a response")
+                .register(registry);
+    }
+
+    @Override
+    public void bindStore(LruStore store) {
+        Gauge.builder("splitr.store.size", store, LruStore::size)
+                .description("Entries in the idempotency store")
+                .tag("store", store.getName())
+                .register(registry);
+        FunctionCounter.builder("splitr.store.evictions", store, s -> s.getStats().totalEvictions())
+                .description("Entries evicted because the store was full")
+                .tag("store", store.getName())
+                .register(registry);
+        FunctionCounter.builder("splitr.store.expirations", store, s -> s.getStats().totalExpirations())
+                .description("Entries removed because their TTL elapsed")
+                .tag("store", store.getName())
+                .register(registry);
+    }
+
+    @Override
+    public void bindExecutor(InMemoryBusExecutor executor) {
+        String mode = executor.mode().name().toLowerCase(Locale.ROOT);
+        Gauge.builder("splitr.inmemory.executor.queued", executor, InMemoryBusExecutor::queueDepth)
+                .description("In-memory publishAsync calls waiting for a thread")
+                .tag("mode", mode)
+                .register(registry);
+        Gauge.builder("splitr.inmemory.executor.active", executor, InMemoryBusExecutor::activeCount)
+                .description("In-memory publishAsync calls running")
+                .tag("mode", mode)
+                .register(registry);
+        FunctionCounter.builder("splitr.inmemory.executor.caller-runs", executor, InMemoryBusExecutor::callerRunsCount)
+                .description("In-memory publishAsync calls run by the caller because the queue was full")
+                .tag("mode", mode)
+                .register(registry);
+    }
+
+    @Override
+    public void bindLimiter(String destination, String type, ConcurrencyLimiter limiter) {
+        Gauge.builder("splitr.limit.current", limiter, ConcurrencyLimiter::limit)
+                .description("Current adaptive in-flight limit")
+                .tags("destination", destination, "type", type)
+                .register(registry);
+        Gauge.builder("splitr.limit.inflight", limiter, ConcurrencyLimiter::inFlight)
+                .description("Requests in flight against the limit")
+                .tags("destination", destination, "type", type)
+                .register(registry);
+    }
+
+    private static String outcome(Throwable error) {
+        if (error == null) {
+            return SUCCESS;
+        }
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof TimeoutException) {
+                return TIMEOUT;
+            }
+        }
+        return FAILURE;
+    }
+}
@@ -0,0 +1,38 @@
+package tr.kontas.splitr.metrics;
+
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+/**
+ * Injects the available {@link SplitrMetrics} and {@link ObservationRegistry} into every
+ * {@link Instrumented} bean, including user-defined buses and dispatchers.
+ * <p>
+ * Collaborators are resolved lazily on first use so that registering this post processor
+ * does not force early initialization of the meter or observation registries.
+ * </p>
+ *
+ * @author BurakKontas
+ * @version 1.0.0
+ */
+public class SplitrInstrumentationPostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<SplitrMetrics> metrics;
+    private final ObjectProvider<ObservationRegistry> observationRegistry;
+
+    public SplitrInstrumentationPostProcessor(ObjectProvider<SplitrMetrics> metrics,
+                                              ObjectProvider<ObservationRegistry> observationRegistry) {
+        this.metrics = metrics;
+        this.observationRegistry = observationRegistry;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+        if (bean instanceof Instrumented instrumented) {
+            instrumented.setMetrics(metrics.getIfAvailable(() -> SplitrMetrics.NOOP));
+            instrumented.setObservationRegistry(observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP));
+        }
+        return bean;
+    }
+}
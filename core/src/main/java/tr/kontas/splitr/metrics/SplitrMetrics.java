@@ -0,0 +1,204 @@
+package tr.kontas.splitr.metrics;
+
+import tr.kontas.splitr.bus.limit.ConcurrencyLimiter;
+import tr.kontas.splitr.bus.registry.SyncRegistry;
+import tr.kontas.splitr.consumer.bus.impl.InMemoryBusExecutor;
+import tr.kontas.splitr.consumer.store.LruStore;
+
+/**
+ * Strategy interface for recording Splitr runtime metrics.
+ * <p>
+ * Every method has a no-op default so components can call it unconditionally; the
+ * {@link #NOOP} instance is used until a real implementation (e.g. {@link MicrometerSplitrMetrics})
+ * is injected through {@link Instrumented#setMetrics(SplitrMetrics)}.
+ * </p>
+ *
+ * @author BurakKontas
+ * @version 1.0.0
+ */
+public interface SplitrMetrics {
+
+    /**
+     * Metrics implementation that discards everything.
+     */
+    SplitrMetrics NOOP = new SplitrMetrics() { };
+
+    /**
+     * Records a publish operation, measured until the response arrived for request-response
+     * calls and until the message was handed to the transport otherwise.
+     *
+     * @param transport The transport name ({@code kafka}, {@code rabbit}, {@code inmemory}).
+     * @param type      The fully qualified payload type.
+     * @param mode      {@code sync}, {@code async} or {@code fire-and-forget}.
+     * @param nanos     Elapsed time in nanoseconds.
+     * @param error     The failure, or {@code null} on success.
+     */
+    default void publish(String transport, String type, String mode, long nanos, Throwable error) {
+    }
+
+    /**
+     * Records the time a request spent in the {@link SyncRegistry} before it was completed.
+     *
+     * @param nanos Elapsed time in nanoseconds.
+     */
+    default void registryCompleted(long nanos) {
+    }
+
+    /**
+     * Records a registry entry that timed out before a response arrived.
+     */
+    default void registryTimeout() {
+    }
+
+    /**
+     * Records a registration rejected because the registry was full.
+     */
+    default void registryRejected() {
+    }
+
+    /**
+     * Records a consumer-side dispatch, including handler execution.
+     *
+     * @param kind  {@code query}, {@code command}, {@code event} or {@code domain-event}.
+     * @param type  The fully qualified payload type.
+     * @param nanos Elapsed time in nanoseconds.
+     * @param error The failure, or {@code null} on success.
+     */
+    default void dispatch(String kind, String type, long nanos, Throwable error) {
+    }
+
+    /**
+     * Records a request dropped because its deadline passed.
+     *
+     * @param kind  {@code query}, {@code command} or {@code event}.
+     * @param stage {@code consume}, {@code handler} or {@code webhook}.
+     */
+    default void deadlineExceeded(String kind, String stage) {
+    }
+
+    /**
+     * Records a record skipped by a listener from its headers alone, before deserialization.
+     *
+     * @param transport {@code kafka} or {@code rabbit}.
+     */
+    default void shed(String transport) {
+    }
+
+    /**
+     * Records a publish rejected by the adaptive concurrency limit of its target.
+     *
+     * @param destination The topic or queue.
+     * @param type        The fully qualified payload type.
+     */
+    default void limitRejected(String destination, String type) {
+    }
+
+    /**
+     * Records a publish the broker did not accept after the send call returned.
+     *
+     * @param transport {@code rabbit}.
+     * @param type      The fully qualified message type.
+     * @param reason    {@code nack} (negative publisher confirm) or {@code returned} (unroutable).
+     */
+    default void publishRejected(String transport, String type, String reason) {
+    }
+
+    /**
+     * Records a failed command or event moved to a retry tier.
+     *
+     * @param kind {@code command} or {@code event}.
+     * @param tier Zero-based retry tier.
+     */
+    default void retried(String kind, int tier) {
+    }
+
+    /**
+     * Records a command or event dead-lettered after its retries.
+     *
+     * @param kind {@code command} or {@code event}.
+     */
+    default void deadLettered(String kind) {
+    }
+
+    /**
+     * Records a query published a second time because no response arrived within its hedge delay.
+     *
+     * @param transport {@code kafka} or {@code rabbit}.
+     * @param type      The fully qualified query type.
+     */
+    default void hedge(String transport, String type) {
+    }
+
+    /**
+     * Records a lookup in the publisher-side query result cache.
+     *
+     * @param type   The fully qualified query type.
+     * @param result {@code hit}, {@code stale}, {@code miss} or {@code coalesced}.
+     */
+    default void queryCache(String type, String result) {
+    }
+
+    /**
+     * Records a callback webhook call.
+     *
+     * @param kind  {@code query} or {@code command}.
+     * @param nanos Elapsed time in nanoseconds.
+     * @param error The failure, or {@code null} on success.
+     */
+    default void webhook(String kind, long nanos, Throwable error) {
+    }
+
+    /**
+     * Records an idempotency store lookup.
+     *
+     * @param kind {@code query}, {@code command}, {@code event} or {@code domain-event}.
+     * @param hit  {@code true} if the id was already processed.
+     */
+    default void idempotencyLookup(String kind, boolean hit) {
+    }
+
+    /**
+     * Records a lookup of a result shared between equal cacheable queries.
+     *
+     * @param kind {@code query}.
+     * @param hit  {@code true} if the result was reused.
+     */
+    default void sharedResultLookup(String kind, boolean hit) {
+    }
+
+    /**
+     * Registers pull-based meters (pending entries) for the given registry.
+     *
+     * @param registry The registry to observe.
+     */
+    default void bindRegistry(SyncRegistry registry) {
+    }
+
+    /**
+     * Registers pull-based meters (size, evictions, expirations) for the given store.
+     *
+     * @param store The store to observe.
+     */
+    default void bindStore(LruStore store) {
+    }
+
+    /**
+     * Registers pull-based meters (queue depth, active tasks, caller-runs) for the executor of
+     * the in-memory buses.
+     *
+     * @param executor The executor to observe.
+     */
+    default void bindExecutor(InMemoryBusExecutor executor) {
+    }
+
+    /**
+     * Registers pull-based meters (current limit, in-flight requests) for the concurrency limiter
+     * of a publish target.
+     *
+     * @param destination The topic or queue.
+     * @param type        The fully qualified payload type.
+     * @param limiter     The limiter to observe.
+     */
+    default void bindLimiter(String destination, String type, ConcurrencyLimiter limiter) {
+    }
+}
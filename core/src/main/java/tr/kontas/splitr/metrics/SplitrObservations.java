@@ -0,0 +1,57 @@
+package tr.kontas.splitr.metrics;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.transport.ReceiverContext;
+import io.micrometer.observation.transport.SenderContext;
+import tr.kontas.splitr.dto.base.BaseRequest;
+
+/**
+ * Factory for the observations that carry tracing context through the {@link BaseRequest} envelope.
+ * <p>
+ * The publisher side uses a {@link SenderContext} whose setter writes propagation fields
+ * (e.g. {@code traceparent}) into {@link BaseRequest#getHeaders()}; the consumer side uses a
+ * {@link ReceiverContext} reading them back, so a configured tracer continues the same trace
+ * across the broker hop.
+ * </p>
+ *
+ * @author BurakKontas
+ * @version 1.0.0
+ */
+public final class SplitrObservations {
+
+    public static final String PUBLISH = "splitr.publish";
+    public static final String DISPATCH = "splitr.dispatch";
+
+    private SplitrObservations() {
+    }
+
+    public static Observation publish(ObservationRegistry registry, BaseRequest request, String transport) {
+        SenderContext<BaseRequest> context = new SenderContext<>(
+                (carrier, key, value) -> carrier.getHeaders().put(key, value));
+        context.setCarrier(request);
+        context.setRemoteServiceName(transport);
+
+        return Observation.createNotStarted(PUBLISH, () -> context, registry)
+                .contextualName(simpleName(request.getType()) + " publish")
+                .lowCardinalityKeyValue("transport", transport)
+                .lowCardinalityKeyValue("type", request.getType())
+                .highCardinalityKeyValue("id", request.getId());
+    }
+
+    public static Observation dispatch(ObservationRegistry registry, BaseRequest request, String kind) {
+        ReceiverContext<BaseRequest> context = new ReceiverContext<>(
+                (carrier, key) -> carrier.getHeaders() == null ? null : carrier.getHeaders().get(key));
+        context.setCarrier(request);
+
+        return Observation.createNotStarted(DISPATCH, () -> context, registry)
+                .contextualName(simpleName(request.getType()) + " dispatch")
+                .lowCardinalityKeyValue("kind", kind)
+                .lowCardinalityKeyValue("type", request.getType())
+                .highCardinalityKeyValue("id", request.getId());
+    }
+
+    private static String simpleName(String type) {
+        return type == null ? "unknown" : type.substring(type.lastIndexOf('.') + 1);
+    }
+}
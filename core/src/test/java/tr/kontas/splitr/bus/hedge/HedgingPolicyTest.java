@@ -0,0 +1,64 @@
+package tr.kontas.splitr.bus.hedge;
+
+import org.junit.jupiter.api.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class HedgingPolicyTest {
+
+    private HedgingPolicy policy;
+
+    @BeforeEach
+    void setUp() {
+        policy = new HedgingPolicy(0.9, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        policy.shutdown();
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Should hedge only after enough samples, at the percentile bounded by the minimum delay")
+    void testDelayFromPercentile() {
+        assertEquals(-1, policy.delayMs("a.Query"));
+
+        // 1..100 ms; %90 => 90 ms
+        for (int i = 1; i <= 100; i++) {
+            policy.record("a.Query", TimeUnit.MILLISECONDS.toNanos(i));
+        }
+        assertEquals(-1, policy.delayMs("b.Query"));
+        long delay = policy.delayMs("a.Query");
+        assertTrue(delay >= 80 && delay <= 100, "delay: " + delay);
+
+        for (int i = 0; i < 256; i++) {
+            policy.record("fast.Query", 1_000L);
+        }
+        assertEquals(2, policy.delayMs("fast.Query"));
+        assertEquals(-1, HedgingPolicy.NONE.delayMs("a.Query"));
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Should run scheduled hedges and skip cancelled ones")
+    void testSchedule() throws Exception {
+        CountDownLatch ran = new CountDownLatch(1);
+        AtomicBoolean cancelledRan = new AtomicBoolean();
+
+        ScheduledFuture<?> cancelled = policy.schedule(() -> cancelledRan.set(true), 50);
+        policy.schedule(ran::countDown, 10);
+        cancelled.cancel(false);
+
+        assertTrue(ran.await(1, TimeUnit.SECONDS));
+        Thread.sleep(80);
+        assertFalse(cancelledRan.get());
+        assertThrows(IllegalArgumentException.class, () -> new HedgingPolicy(1.5, 0));
+    }
+}
@@ -0,0 +1,85 @@
+package tr.kontas.splitr.bus.limit;
+
+import org.junit.jupiter.api.*;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class ConcurrencyLimiterTest {
+
+    private static final long RTT = 1_000_000L;
+
+    @Test
+    @Order(1)
+    @DisplayName("Should reject fast once the in-flight limit is reached")
+    void testRejectAtLimit() {
+        ConcurrencyLimiters limiters = new ConcurrencyLimiters(2, 1, 10, 0.5, 2.0);
+
+        ConcurrencyLimiter first = limiters.acquire("topic", "a.Query");
+        limiters.acquire("topic", "a.Query");
+
+        ConcurrencyLimitExceededException ex = assertThrows(ConcurrencyLimitExceededException.class,
+                () -> limiters.acquire("topic", "a.Query"));
+        assertEquals(2, ex.getLimit());
+
+        // Diğer tipin ayrı limiti var
+        assertNotSame(first, limiters.acquire("topic", "b.Query"));
+
+        first.release(RTT, null);
+        assertSame(first, limiters.acquire("topic", "a.Query"));
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Should grow while used and back off once per round on timeouts")
+    void testAimd() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(10, 1, 100, 0.5, 2.0);
+
+        for (int round = 0; round < 10; round++) {
+            fill(limiter);
+            while (limiter.inFlight() > 0) {
+                limiter.release(RTT, null);
+            }
+        }
+        int grown = limiter.limit();
+        assertTrue(grown > 10, "limit: " + grown);
+
+        fill(limiter);
+        int inFlight = limiter.inFlight();
+        for (int i = 0; i < inFlight; i++) {
+            limiter.release(RTT, new ExecutionException(new TimeoutException()));
+        }
+
+        assertEquals(grown / 2, limiter.limit());
+        assertEquals(0, limiter.inFlight());
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("Should treat slow responses as congestion and ignore plain failures")
+    void testLatencyAndFailures() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(10, 1, 100, 0.5, 2.0);
+
+        fill(limiter);
+        for (int i = 0; i < 10; i++) {
+            limiter.release(RTT, new IllegalStateException("boom"));
+        }
+        assertEquals(10, limiter.limit());
+
+        fill(limiter);
+        for (int i = 0; i < 10; i++) {
+            limiter.release(i == 0 ? RTT : RTT * 5, null);
+        }
+        assertEquals(5, limiter.limit());
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrencyLimiter(1, 1, 10, 1.5, 2.0));
+    }
+
+    private static void fill(ConcurrencyLimiter limiter) {
+        while (limiter.tryAcquire()) {
+            // Limite kadar doldur
+        }
+    }
+}
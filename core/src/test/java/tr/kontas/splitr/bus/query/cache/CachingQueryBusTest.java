@@ -0,0 +1,188 @@
+package tr.kontas.splitr.bus.query.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.*;
+import tr.kontas.splitr.bus.query.BaseQuery;
+import tr.kontas.splitr.bus.query.Query;
+import tr.kontas.splitr.bus.query.QueryBus;
+import tr.kontas.splitr.deadline.Deadline;
+import tr.kontas.splitr.id.ContentHasher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class CachingQueryBusTest {
+
+    private RecordingBus remote;
+    private CachingQueryBus bus;
+
+    @BeforeEach
+    void setUp() {
+        remote = new RecordingBus();
+        bus = new CachingQueryBus(remote, new QueryResultCache(100), new ContentHasher(new ObjectMapper()), 1_000);
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Should serve equal queries from cache and bypass types without @CachedQuery")
+    void testHitAndBypass() {
+        remote.autoComplete = true;
+
+        assertEquals("DE:1", bus.publishSync(new Country("DE"), String.class));
+        assertEquals("DE:1", bus.publishSync(new Country("DE"), String.class));
+        assertEquals("FR:2", bus.publishSync(new Country("FR"), String.class));
+        assertEquals(2, remote.calls.get());
+
+        bus.publishSync(new Uncached("DE"), String.class);
+        bus.publishSync(new Uncached("DE"), String.class);
+        assertEquals(4, remote.calls.get());
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Should coalesce concurrent misses into one remote request")
+    void testCoalescing() {
+        CompletableFuture<String> first = bus.publishAsync(new Country("TR"), String.class);
+        CompletableFuture<String> second = bus.publishAsync(new Country("TR"), String.class);
+
+        assertEquals(1, remote.calls.get());
+        assertFalse(first.isDone());
+
+        remote.pending.getFirst().complete("TR");
+
+        assertEquals("TR", first.join());
+        assertEquals("TR", second.join());
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("Should return the stale value while one request refreshes it, and not cache failures")
+    void testStaleWhileRevalidate() throws Exception {
+        remote.autoComplete = true;
+        assertEquals("NL:1", bus.publishSync(new Stale("NL"), String.class));
+        Thread.sleep(30);
+
+        remote.autoComplete = false;
+        assertEquals("NL:1", bus.publishSync(new Stale("NL"), String.class));
+        assertEquals("NL:1", bus.publishSync(new Stale("NL"), String.class));
+        assertEquals(2, remote.calls.get());
+
+        remote.pending.getFirst().complete("NL:2");
+        assertEquals("NL:2", bus.publishSync(new Stale("NL"), String.class));
+
+        CompletableFuture<String> failed = bus.publishAsync(new Country("XX"), String.class);
+        remote.pending.get(1).completeExceptionally(new IllegalStateException("boom"));
+        assertThrows(Exception.class, failed::join);
+
+        remote.autoComplete = true;
+        assertEquals("XX:4", bus.publishSync(new Country("XX"), String.class));
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("Should treat a zero timeout as the default timeout")
+    void testZeroTimeout() throws Exception {
+        CompletableFuture<String> future = bus.publishAsync(new Country("BE"), String.class, 0);
+        Thread.sleep(20);
+        assertFalse(future.isDone());
+
+        remote.pending.getFirst().complete("BE");
+        assertEquals("BE", future.join());
+    }
+
+    @Test
+    @Order(5)
+    @DisplayName("Should not fail a coalesced caller with the budget of the caller that started the request")
+    void testCoalescedBudget() throws Exception {
+        long deadline = System.currentTimeMillis() + 50;
+        CompletableFuture<String> first = Deadline.callWithin(deadline,
+                () -> bus.publishAsync(new Country("PL"), String.class, 50));
+        CompletableFuture<String> second = bus.publishAsync(new Country("PL"), String.class, 5_000);
+
+        assertEquals(1, remote.calls.get());
+        assertEquals(1_000, remote.lastTimeoutMs);
+        assertEquals(Deadline.NONE, remote.lastDeadline);
+
+        Exception error = assertThrows(Exception.class, first::join);
+        assertInstanceOf(TimeoutException.class, error.getCause());
+        assertFalse(second.isDone());
+
+        remote.pending.getFirst().complete("PL");
+        assertEquals("PL", second.join());
+    }
+
+    @CachedQuery(ttlMs = 60_000)
+    public static class Country extends BaseQuery {
+        public String code;
+
+        public Country(String code) {
+            this.code = code;
+        }
+    }
+
+    @CachedQuery(ttlMs = 10, staleMs = 60_000)
+    public static class Stale extends BaseQuery {
+        public String code;
+
+        public Stale(String code) {
+            this.code = code;
+        }
+    }
+
+    public static class Uncached extends BaseQuery {
+        public String code;
+
+        public Uncached(String code) {
+            this.code = code;
+        }
+    }
+
+    static class RecordingBus implements QueryBus {
+        final AtomicInteger calls = new AtomicInteger();
+        final List<CompletableFuture<Object>> pending = new ArrayList<>();
+        volatile boolean autoComplete;
+        volatile long lastTimeoutMs;
+        volatile long lastDeadline;
+
+        @Override
+        public <T> T publishSync(Query query, Class<T> responseType, long timeoutMs) {
+            return publishAsync(query, responseType, timeoutMs).join();
+        }
+
+        @Override
+        public <T> T publishSync(Query query, Class<T> responseType) {
+            return publishSync(query, responseType, 1_000);
+        }
+
+        @Override
+        public <T> CompletableFuture<T> publishAsync(Query query, Class<T> responseType) {
+            return publishAsync(query, responseType, 1_000);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> CompletableFuture<T> publishAsync(Query query, Class<T> responseType, long timeoutMs) {
+            int call = calls.incrementAndGet();
+            lastTimeoutMs = timeoutMs;
+            lastDeadline = Deadline.current();
+            String code = switch (query) {
+                case Country c -> c.code;
+                case Stale s -> s.code;
+                case Uncached u -> u.code;
+                default -> "?";
+            };
+            if (autoComplete) {
+                return CompletableFuture.completedFuture((T) (code + ":" + call));
+            }
+            CompletableFuture<Object> future = new CompletableFuture<>();
+            pending.add(future);
+            return (CompletableFuture<T>) future;
+        }
+    }
+}
@@ -182,4 +182,33 @@ class LruStoreTest {
 
         assertEquals(0, store.size());
     }
+
+    @Test
+    @Order(11)
+    @DisplayName("Should reclaim expired entries incrementally on write")
+    void testIncrementalExpiryOnWrite() throws InterruptedException {
+        store.put("e1", "v1", 50);
+        store.put("e2", "v2", 50);
+
+        Thread.sleep(100);
+
+        store.put("fresh", "v3");
+
+        assertEquals(1, store.size());
+        assertEquals(2, store.getStats().totalExpirations());
+        assertTrue(store.contains("fresh"));
+    }
+
+    @Test
+    @Order(12)
+    @DisplayName("Should not expire an entry that was overwritten with a longer TTL")
+    void testOverwriteResetsExpiry() throws InterruptedException {
+        store.put("k", "old", 50);
+        store.put("k", "new", 10_000);
+
+        Thread.sleep(100);
+
+        assertEquals(0, store.cleanup());
+        assertEquals("new", store.get("k"));
+    }
 }
@@ -0,0 +1,151 @@
+package tr.kontas.splitr.consumer.bus;
+
+import org.junit.jupiter.api.*;
+import tr.kontas.splitr.bus.command.BaseCommand;
+import tr.kontas.splitr.bus.event.BaseEvent;
+import tr.kontas.splitr.consumer.bus.impl.InMemoryCommandBus;
+import tr.kontas.splitr.consumer.bus.impl.InMemoryEventBus;
+import tr.kontas.splitr.consumer.store.LruStore;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class HandlerIndexTest {
+
+    private LruStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new LruStore(10_000, 60_000L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.shutdown();
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Should resolve nearest handler first and cache the result per class")
+    void testResolution() {
+        CreateHandler exact = new CreateHandler("exact");
+        BaseHandler base = new BaseHandler();
+        HandlerIndex<CommandHandler<?>> index = new HandlerIndex<>(List.of(base, exact, new CreateHandler("second")));
+
+        assertSame(exact, index.handlerFor(Create.class));
+        assertSame(base, index.handlerFor(Delete.class));
+        assertEquals(3, index.handlersFor(Create.class).size());
+        assertSame(index.handlersFor(Create.class), index.handlersFor(Create.class));
+        assertNull(index.handlerFor(String.class));
+        assertThrows(UnsupportedOperationException.class, () -> index.handlersFor(Create.class).clear());
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Should route concurrent first publishes without losing handlers")
+    void testConcurrentFirstPublish() throws Exception {
+        List<String> calls = Collections.synchronizedList(new ArrayList<>());
+        InMemoryEventBus bus = new InMemoryEventBus(List.of(
+                new CreatedHandler(calls, "a"),
+                new CreatedHandler(calls, "b")
+        ), store);
+
+        int threads = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    bus.publish(new Created());
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        assertEquals(threads * 2, calls.size());
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("Should dispatch commands to a handler declared for a supertype")
+    void testSupertypeCommand() {
+        InMemoryCommandBus bus = new InMemoryCommandBus(List.of(new BaseHandler()), store);
+
+        assertEquals("base", bus.publishSync(new Delete(), String.class));
+    }
+
+    static class Create extends BaseCommand {
+    }
+
+    static class Delete extends BaseCommand {
+    }
+
+    static class Created extends BaseEvent {
+    }
+
+    static class CreateHandler implements CommandHandler<Create> {
+        private final String name;
+
+        CreateHandler(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public Class<Create> type() {
+            return Create.class;
+        }
+
+        @Override
+        public Object handle(Create payload) {
+            return name;
+        }
+    }
+
+    static class BaseHandler implements CommandHandler<BaseCommand> {
+        @Override
+        public Class<BaseCommand> type() {
+            return BaseCommand.class;
+        }
+
+        @Override
+        public Object handle(BaseCommand payload) {
+            return "base";
+        }
+    }
+
+    static class CreatedHandler implements EventHandler<Created> {
+        private final List<String> calls;
+        private final String name;
+
+        CreatedHandler(List<String> calls, String name) {
+            this.calls = calls;
+            this.name = name;
+        }
+
+        @Override
+        public Class<Created> type() {
+            return Created.class;
+        }
+
+        @Override
+        public void onEvent(Created payload) {
+            calls.add(name);
+        }
+    }
+}
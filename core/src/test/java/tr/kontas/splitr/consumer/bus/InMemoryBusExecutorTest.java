@@ -0,0 +1,137 @@
+package tr.kontas.splitr.consumer.bus;
+
+import org.junit.jupiter.api.*;
+import tr.kontas.splitr.bus.query.BaseQuery;
+import tr.kontas.splitr.consumer.bus.impl.BusExecutorMode;
+import tr.kontas.splitr.consumer.bus.impl.InMemoryBusExecutor;
+import tr.kontas.splitr.consumer.bus.impl.InMemoryQueryBus;
+import tr.kontas.splitr.consumer.store.LruStore;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class InMemoryBusExecutorTest {
+
+    private LruStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new LruStore(100, 60_000L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.shutdown();
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Should run publishAsync on the bus pool instead of the common pool")
+    void testRunsOnBusPool() throws Exception {
+        InMemoryBusExecutor executor = new InMemoryBusExecutor(BusExecutorMode.POOL, 2, 16);
+        InMemoryQueryBus bus = new InMemoryQueryBus(List.of(new ThreadNameHandler(0)), store, executor, 1_000);
+        try {
+            String thread = bus.publishAsync(new Ping(), String.class).get(1, TimeUnit.SECONDS);
+
+            assertTrue(thread.startsWith("splitr-inmemory-bus-"), thread);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Should fail the future when the timeout elapses")
+    void testTimeout() {
+        InMemoryBusExecutor executor = new InMemoryBusExecutor(BusExecutorMode.VIRTUAL, 0, 0);
+        InMemoryQueryBus bus = new InMemoryQueryBus(List.of(new ThreadNameHandler(500)), store, executor, 10_000);
+        try {
+            ExecutionException ex = assertThrows(ExecutionException.class,
+                    () -> bus.publishAsync(new Ping(), String.class, 50).get(1, TimeUnit.SECONDS));
+
+            assertInstanceOf(TimeoutException.class, ex.getCause());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("Should report queue depth and fall back to the caller when the queue is full")
+    void testQueueDepthAndCallerRuns() throws Exception {
+        InMemoryBusExecutor executor = new InMemoryBusExecutor(BusExecutorMode.POOL, 1, 1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicReference<Thread> overflow = new AtomicReference<>();
+        try {
+            executor.execute(() -> {
+                started.countDown();
+                awaitQuietly(release);
+            });
+            assertTrue(started.await(1, TimeUnit.SECONDS));
+
+            executor.execute(() -> { });
+            executor.execute(() -> overflow.set(Thread.currentThread()));
+
+            assertEquals(1, executor.queueDepth());
+            assertEquals(1, executor.activeCount());
+            assertEquals(1, executor.callerRunsCount());
+            assertSame(Thread.currentThread(), overflow.get());
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("Should complete inline in caller mode")
+    void testCallerMode() {
+        InMemoryQueryBus bus = new InMemoryQueryBus(List.of(new ThreadNameHandler(0)), store);
+
+        assertEquals(Thread.currentThread().getName(), bus.publishAsync(new Ping(), String.class).getNow(null));
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    static class Ping extends BaseQuery {
+    }
+
+    static class ThreadNameHandler implements QueryHandler<Ping> {
+        private final long sleepMs;
+
+        ThreadNameHandler(long sleepMs) {
+            this.sleepMs = sleepMs;
+        }
+
+        @Override
+        public Class<Ping> type() {
+            return Ping.class;
+        }
+
+        @Override
+        public Object handle(Ping payload) {
+            if (sleepMs > 0) {
+                try {
+                    Thread.sleep(sleepMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return Thread.currentThread().getName();
+        }
+    }
+}
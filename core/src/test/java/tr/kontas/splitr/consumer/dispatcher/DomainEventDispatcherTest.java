@@ -0,0 +1,287 @@
+package tr.kontas.splitr.consumer.dispatcher;
+
+import org.junit.jupiter.api.*;
+import tr.kontas.splitr.bus.domainevent.DomainEvent;
+import tr.kontas.splitr.bus.domainevent.SkipIdempotency;
+import tr.kontas.splitr.consumer.bus.DomainEventHandler;
+import tr.kontas.splitr.consumer.domainevent.DispatchMode;
+import tr.kontas.splitr.consumer.domainevent.DomainEventDispatchException;
+import tr.kontas.splitr.consumer.domainevent.DomainEventDispatchMode;
+import tr.kontas.splitr.consumer.domainevent.DomainEventDispatchOptions;
+import tr.kontas.splitr.consumer.domainevent.InMemoryEventBus;
+import tr.kontas.splitr.consumer.store.LruStore;
+import tr.kontas.splitr.dto.DomainEventRequest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class DomainEventDispatcherTest {
+
+    private LruStore store;
+    private List<String> calls;
+
+    @BeforeEach
+    void setUp() {
+        store = new LruStore(100, 60_000L);
+        calls = Collections.synchronizedList(new ArrayList<>());
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.shutdown();
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Should route only to handlers of the payload type")
+    void testExactTypeRouting() {
+        DomainEventDispatcher dispatcher = new DomainEventDispatcher(List.of(
+                new RecordingHandler<>(Created.class, "created"),
+                new RecordingHandler<>(Deleted.class, "deleted")
+        ), store);
+
+        dispatcher.dispatch(new DomainEventRequest("1", Created.class.getName(), new Created()));
+
+        assertEquals(List.of("created"), calls);
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Should resolve supertype and interface handlers, nearest type first")
+    void testHierarchyRouting() {
+        DomainEventDispatcher dispatcher = new DomainEventDispatcher(List.of(
+                new RecordingHandler<>(DomainEvent.class, "any"),
+                new RecordingHandler<>(Created.class, "created"),
+                new RecordingHandler<>(SpecialCreated.class, "special")
+        ), store);
+
+        dispatcher.dispatch(new DomainEventRequest("2", SpecialCreated.class.getName(), new SpecialCreated()));
+
+        assertEquals(List.of("special", "created", "any"), calls);
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("Should cache resolved handlers per concrete class")
+    void testResolvedOncePerClass() {
+        DomainEventDispatcher dispatcher = new DomainEventDispatcher(List.of(
+                new RecordingHandler<>(Created.class, "created")
+        ), store);
+
+        assertSame(dispatcher.handlersFor(SpecialCreated.class), dispatcher.handlersFor(SpecialCreated.class));
+        assertEquals(0, dispatcher.handlersFor(Deleted.class).length);
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("Should join parallel handlers before returning")
+    void testParallelMode() {
+        DomainEventDispatcher dispatcher = new DomainEventDispatcher(List.of(
+                new RecordingHandler<>(Created.class, "a"),
+                new RecordingHandler<>(Created.class, "b"),
+                new RecordingHandler<>(Created.class, "c")
+        ), store, new DomainEventDispatchOptions(DomainEventDispatchMode.PARALLEL, false, 2, 16));
+
+        try {
+            dispatcher.dispatch(new DomainEventRequest("4", Created.class.getName(), new Created()));
+
+            assertEquals(3, calls.size());
+            assertTrue(calls.containsAll(List.of("a", "b", "c")));
+            assertTrue(store.contains("4"));
+        } finally {
+            dispatcher.shutdown();
+        }
+    }
+
+    @Test
+    @Order(5)
+    @DisplayName("Should run annotated async handlers without blocking the caller")
+    void testAsyncAnnotation() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+        AsyncHandler async = new AsyncHandler(release, done);
+
+        DomainEventDispatcher dispatcher = new DomainEventDispatcher(List.of(
+                async,
+                new RecordingHandler<>(Created.class, "sync")
+        ), store);
+
+        try {
+            assertEquals(DomainEventDispatchMode.ASYNC, dispatcher.modeOf(async));
+
+            dispatcher.dispatch(new DomainEventRequest("5", Created.class.getName(), new Created()));
+            assertEquals(List.of("sync"), calls);
+
+            release.countDown();
+            assertTrue(done.await(1, TimeUnit.SECONDS));
+        } finally {
+            dispatcher.shutdown();
+        }
+    }
+
+    @Test
+    @Order(6)
+    @DisplayName("Should run every handler and aggregate failures")
+    void testAggregatedErrors() {
+        DomainEventDispatcher dispatcher = new DomainEventDispatcher(List.of(
+                new FailingHandler("first"),
+                new RecordingHandler<>(Created.class, "ok"),
+                new FailingHandler("second")
+        ), store);
+
+        DomainEventDispatchException ex = assertThrows(
+                DomainEventDispatchException.class,
+                () -> dispatcher.dispatch(new DomainEventRequest("6", Created.class.getName(), new Created()))
+        );
+
+        assertEquals(List.of("ok"), calls);
+        assertEquals(2, ex.getFailures().size());
+        assertEquals("first", ex.getCause().getMessage());
+        assertEquals("second", ex.getSuppressed()[0].getMessage());
+        assertFalse(store.contains("6"));
+    }
+
+    @Test
+    @Order(7)
+    @DisplayName("Should not touch the store for bus-generated ids")
+    void testGeneratedIdBypassesStore() {
+        DomainEventDispatcher dispatcher = new DomainEventDispatcher(List.of(
+                new RecordingHandler<>(Created.class, "created")
+        ), store);
+
+        dispatcher.dispatch(new DomainEventRequest("7", Created.class.getName(), new Created(), true));
+        dispatcher.dispatch(new DomainEventRequest("7", Created.class.getName(), new Created(), true));
+
+        assertEquals(List.of("created", "created"), calls);
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    @Order(8)
+    @DisplayName("Should honour explicit keys and @SkipIdempotency through arise")
+    void testExplicitKeysThroughArise() {
+        DomainEventDispatcher dispatcher = new DomainEventDispatcher(List.of(
+                new RecordingHandler<>(Keyed.class, "keyed"),
+                new RecordingHandler<>(SkippedKeyed.class, "skipped"),
+                new RecordingHandler<>(Created.class, "created")
+        ), store);
+        InMemoryEventBus bus = new InMemoryEventBus(dispatcher);
+
+        bus.arise(new Keyed("order-1"));
+        bus.arise(new Keyed("order-1"));
+        bus.arise(new SkippedKeyed("order-2"));
+        bus.arise(new SkippedKeyed("order-2"));
+        bus.arise(new Created());
+
+        assertEquals(List.of("keyed", "skipped", "skipped", "created"), calls);
+        assertTrue(store.contains("order-1"));
+        assertFalse(store.contains("order-2"));
+        assertEquals(1, store.size());
+    }
+
+    static class Keyed implements DomainEvent {
+        private final String key;
+
+        Keyed(String key) {
+            this.key = key;
+        }
+
+        @Override
+        public String getIdempotencyKey() {
+            return key;
+        }
+    }
+
+    @SkipIdempotency
+    static class SkippedKeyed implements DomainEvent {
+        private final String key;
+
+        SkippedKeyed(String key) {
+            this.key = key;
+        }
+
+        @Override
+        public String getIdempotencyKey() {
+            return key;
+        }
+    }
+
+    static class Created implements DomainEvent {
+    }
+
+    static class SpecialCreated extends Created {
+    }
+
+    static class Deleted implements DomainEvent {
+    }
+
+    class RecordingHandler<T> implements DomainEventHandler<T> {
+        private final Class<T> type;
+        private final String name;
+
+        RecordingHandler(Class<T> type, String name) {
+            this.type = type;
+            this.name = name;
+        }
+
+        @Override
+        public Class<T> type() {
+            return type;
+        }
+
+        @Override
+        public void onEvent(T payload) {
+            calls.add(name);
+        }
+    }
+
+    static class FailingHandler implements DomainEventHandler<Created> {
+        private final String message;
+
+        FailingHandler(String message) {
+            this.message = message;
+        }
+
+        @Override
+        public Class<Created> type() {
+            return Created.class;
+        }
+
+        @Override
+        public void onEvent(Created payload) {
+            throw new IllegalStateException(message);
+        }
+    }
+
+    @DispatchMode(DomainEventDispatchMode.ASYNC)
+    static class AsyncHandler implements DomainEventHandler<Created> {
+        private final CountDownLatch release;
+        private final CountDownLatch done;
+
+        AsyncHandler(CountDownLatch release, CountDownLatch done) {
+            this.release = release;
+            this.done = done;
+        }
+
+        @Override
+        public Class<Created> type() {
+            return Created.class;
+        }
+
+        @Override
+        public void onEvent(Created payload) {
+            try {
+                release.await();
+                done.countDown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package tr.kontas.splitr.consumer.dispatcher;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.*;
+import tr.kontas.splitr.bus.query.BaseQuery;
+import tr.kontas.splitr.bus.query.CacheableQuery;
+import tr.kontas.splitr.consumer.bus.QueryHandler;
+import tr.kontas.splitr.consumer.store.LruStore;
+import tr.kontas.splitr.dto.QueryRequest;
+import tr.kontas.splitr.dto.QueryResponse;
+import tr.kontas.splitr.dto.base.BaseResponse;
+import tr.kontas.splitr.dto.base.TransportHeaders;
+import tr.kontas.splitr.id.ContentHasher;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class SharedQueryResultTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final ContentHasher hasher = new ContentHasher(mapper);
+    private LruStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new LruStore(100, 60_000L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.shutdown();
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Should derive equal keys for equal content regardless of map order and idempotency key")
+    void testContentHash() {
+        Map<String, Object> ab = new LinkedHashMap<>();
+        ab.put("a", 1);
+        ab.put("b", 2);
+        Map<String, Object> ba = new LinkedHashMap<>();
+        ba.put("b", 2);
+        ba.put("a", 1);
+
+        String key = hasher.hash(new Lookup("x", ab));
+        assertEquals(key, hasher.hash(new Lookup("x", ba)));
+        assertEquals(32, key.length());
+        assertNotEquals(key, hasher.hash(new Lookup("y", ab)));
+        assertNotEquals(key, hasher.hash(new PlainLookup("x", ab)));
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Should answer equal cacheable queries from different callers with one handler call")
+    void testSharedResult() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        QueryDispatcher dispatcher = new QueryDispatcher(List.of(new LookupHandler<>(Lookup.class, calls)), store, mapper);
+
+        dispatcher.dispatch(request("1", new Lookup("x", Map.of())));
+        dispatcher.dispatch(request("2", new Lookup("x", Map.of())));
+        dispatcher.dispatch(request("3", new Lookup("y", Map.of())));
+
+        assertEquals(2, calls.get());
+        assertTrue(store.contains("1"));
+        assertFalse(store.contains("2"));
+        QueryResponse shared = (QueryResponse) store.get("content:" + hasher.hash(new Lookup("x", Map.of())));
+        assertEquals("1", shared.getId());
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("Should ignore the content key for types that are not cacheable on the consumer")
+    void testNotCacheable() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        QueryDispatcher dispatcher = new QueryDispatcher(List.of(new LookupHandler<>(PlainLookup.class, calls)), store, mapper);
+
+        dispatcher.dispatch(request("1", new PlainLookup("x", Map.of())));
+        dispatcher.dispatch(request("2", new PlainLookup("x", Map.of())));
+
+        assertEquals(2, calls.get());
+        assertEquals(2, store.size());
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("Should hand responses to the sink, also when answered from the store")
+    void testResponseSink() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        QueryDispatcher dispatcher = new QueryDispatcher(List.of(new LookupHandler<>(PlainLookup.class, calls)), store, mapper);
+        List<BaseResponse> responses = new ArrayList<>();
+
+        QueryRequest request = request("1", new PlainLookup("x", Map.of()));
+        dispatcher.dispatch(request, (r, response) -> responses.add(response));
+        dispatcher.dispatch(request, (r, response) -> responses.add(response));
+
+        assertEquals(1, calls.get());
+        assertEquals(2, responses.size());
+        assertSame(responses.get(0), responses.get(1));
+        assertEquals("\"x\"", responses.get(0).getResult());
+    }
+
+    @Test
+    @Order(5)
+    @DisplayName("Should key shared results by the received payload, not by the content key header")
+    void testForgedContentKey() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        QueryDispatcher dispatcher = new QueryDispatcher(List.of(new LookupHandler<>(Lookup.class, calls)), store, mapper);
+        List<BaseResponse> responses = new ArrayList<>();
+
+        dispatcher.dispatch(request("1", new Lookup("x", Map.of())));
+        QueryRequest forged = request("2", new Lookup("y", Map.of()));
+        forged.getHeaders().put(TransportHeaders.CONTENT_KEY, hasher.hash(new Lookup("x", Map.of())));
+        dispatcher.dispatch(forged, (r, response) -> responses.add(response));
+
+        assertEquals(2, calls.get());
+        assertEquals("\"y\"", responses.get(0).getResult());
+        QueryResponse shared = (QueryResponse) store.get("content:" + hasher.hash(new Lookup("x", Map.of())));
+        assertEquals("1", shared.getId());
+    }
+
+    private QueryRequest request(String id, BaseQuery query) throws Exception {
+        QueryRequest request = new QueryRequest(id, query.getClass().getName(), mapper.writeValueAsString(query),
+                "", true, System.currentTimeMillis(), 5_000);
+        request.getHeaders().put(TransportHeaders.CONTENT_KEY, hasher.hash(query));
+        return request;
+    }
+
+    @CacheableQuery(freshnessMs = 60_000)
+    public static class Lookup extends BaseQuery {
+        public String name;
+        public Map<String, Object> filters;
+
+        public Lookup() {
+        }
+
+        Lookup(String name, Map<String, Object> filters) {
+            this.name = name;
+            this.filters = filters;
+        }
+    }
+
+    public static class PlainLookup extends Lookup {
+        public PlainLookup() {
+        }
+
+        PlainLookup(String name, Map<String, Object> filters) {
+            super(name, filters);
+        }
+    }
+
+    static class LookupHandler<T extends Lookup> implements QueryHandler<T> {
+        private final Class<T> type;
+        private final AtomicInteger calls;
+
+        LookupHandler(Class<T> type, AtomicInteger calls) {
+            this.type = type;
+            this.calls = calls;
+        }
+
+        @Override
+        public Class<T> type() {
+            return type;
+        }
+
+        @Override
+        public Object handle(T payload) {
+            calls.incrementAndGet();
+            return payload.name;
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package tr.kontas.splitr.consumer.domainevent;
+
+import org.junit.jupiter.api.*;
+import tr.kontas.splitr.bus.domainevent.DomainEvent;
+import tr.kontas.splitr.consumer.bus.DomainEventHandler;
+import tr.kontas.splitr.consumer.domainevent.ring.BatchEventProcessor;
+import tr.kontas.splitr.consumer.domainevent.ring.ProducerType;
+import tr.kontas.splitr.consumer.domainevent.ring.RingBuffer;
+import tr.kontas.splitr.consumer.domainevent.ring.RingBufferOptions;
+import tr.kontas.splitr.consumer.domainevent.ring.WaitStrategy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class RingBufferDomainEventBusTest {
+
+    @Test
+    @Order(1)
+    @DisplayName("Should deliver events in publish order with a single producer")
+    void testSingleProducerOrder() {
+        List<Integer> received = new ArrayList<>();
+        DomainEventHandler<Numbered> handler = new SimpleHandler(e -> received.add(e.value()));
+
+        RingBufferDomainEventBus bus = new RingBufferDomainEventBus(List.of(handler),
+                new RingBufferOptions(64, ProducerType.SINGLE, WaitStrategy.YIELDING));
+
+        for (int i = 0; i < 1_000; i++) {
+            bus.arise(new Numbered(i));
+        }
+        bus.shutdown();
+
+        assertEquals(1_000, received.size());
+        for (int i = 0; i < received.size(); i++) {
+            assertEquals(i, received.get(i));
+        }
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Should deliver every event to every handler group with concurrent producers")
+    void testMultiProducerGroups() throws Exception {
+        int producers = 4;
+        int perProducer = 25_000;
+        AtomicLong defaultGroup = new AtomicLong();
+        AtomicLong auditGroup = new AtomicLong();
+
+        RingBufferDomainEventBus bus = new RingBufferDomainEventBus(List.of(
+                new SimpleHandler(e -> defaultGroup.incrementAndGet()),
+                new AuditHandler(e -> auditGroup.incrementAndGet())
+        ), new RingBufferOptions(1_024, ProducerType.MULTI, WaitStrategy.SLEEPING));
+
+        ExecutorService pool = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            for (int p = 0; p < producers; p++) {
+                pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perProducer; i++) {
+                        bus.arise(new Numbered(i));
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+            pool.shutdown();
+            assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+        } finally {
+            bus.shutdown();
+        }
+
+        assertEquals((long) producers * perProducer, defaultGroup.get());
+        assertEquals((long) producers * perProducer, auditGroup.get());
+        assertEquals(0, bus.backlog());
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("Should keep consuming after a handler failure and reject events after shutdown")
+    void testFailureAndShutdown() {
+        AtomicLong handled = new AtomicLong();
+        RingBufferDomainEventBus bus = new RingBufferDomainEventBus(List.of(
+                new SimpleHandler(e -> {
+                    if (e.value() == 1) {
+                        throw new IllegalStateException("boom");
+                    }
+                    handled.incrementAndGet();
+                })
+        ), new RingBufferOptions(8, ProducerType.SINGLE, WaitStrategy.BUSY_SPIN));
+
+        bus.arise(new Numbered(0));
+        bus.arise(new Numbered(1));
+        bus.arise(new Numbered(2));
+        bus.shutdown();
+
+        assertEquals(2, handled.get());
+        assertThrows(IllegalStateException.class, () -> bus.arise(new Numbered(3)));
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("Should reject ring sizes that are not a power of two")
+    void testInvalidSize() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new RingBufferOptions(1_000, ProducerType.MULTI, WaitStrategy.SLEEPING));
+    }
+
+    @Test
+    @Order(5)
+    @DisplayName("Should clear a slot once every handler group has handled it")
+    void testSlotsReleased() throws Exception {
+        RingBuffer<Numbered> ring = new RingBuffer<>(ProducerType.SINGLE, 8);
+        CountDownLatch release = new CountDownLatch(1);
+        BatchEventProcessor<Numbered> fast = new BatchEventProcessor<>(ring, (e, s, end) -> {
+        }, WaitStrategy.YIELDING);
+        BatchEventProcessor<Numbered> slow = new BatchEventProcessor<>(ring, (e, s, end) -> release.await(),
+                WaitStrategy.YIELDING);
+        ring.setGatingSequences(fast.sequence(), slow.sequence());
+
+        Thread fastThread = new Thread(fast);
+        Thread slowThread = new Thread(slow);
+        fastThread.start();
+        slowThread.start();
+        try {
+            ring.publish(new Numbered(0));
+            while (fast.sequence().get() < 0) {
+                Thread.onSpinWait();
+            }
+            // Yavaş grup henüz işlemedi; slot dolu kalmalı
+            assertNotNull(ring.get(0));
+
+            release.countDown();
+            while (slow.sequence().get() < 0) {
+                Thread.onSpinWait();
+            }
+            assertNull(ring.get(0));
+        } finally {
+            fast.halt();
+            slow.halt();
+            fastThread.join(1_000);
+            slowThread.join(1_000);
+        }
+    }
+
+    record Numbered(int value) implements DomainEvent {
+    }
+
+    interface Listener {
+        void on(Numbered event);
+    }
+
+    static class SimpleHandler implements DomainEventHandler<Numbered> {
+        private final Listener listener;
+
+        SimpleHandler(Listener listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public Class<Numbered> type() {
+            return Numbered.class;
+        }
+
+        @Override
+        public void onEvent(Numbered payload) {
+            listener.on(payload);
+        }
+    }
+
+    @HandlerGroup("audit")
+    static class AuditHandler extends SimpleHandler {
+        AuditHandler(Listener listener) {
+            super(listener);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package tr.kontas.splitr.consumer.retry;
+
+import org.junit.jupiter.api.*;
+import tr.kontas.splitr.dto.CommandRequest;
+import tr.kontas.splitr.dto.EventRequest;
+import tr.kontas.splitr.dto.base.BaseRequest;
+import tr.kontas.splitr.dto.base.TransportHeaders;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class RetryRouterTest {
+
+    private final RetryPolicy policy = new RetryPolicy(3, 100, 10, 5_000);
+    private RecordingTransport transport;
+    private RetryRouter router;
+
+    @BeforeEach
+    void setUp() {
+        transport = new RecordingTransport();
+        router = new RetryRouter(policy, transport);
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Should grow tier delays exponentially up to the cap")
+    void testBackoff() {
+        assertEquals(100, policy.delayMs(0));
+        assertEquals(1_000, policy.delayMs(1));
+        assertEquals(5_000, policy.delayMs(2));
+        assertFalse(RetryPolicy.DISABLED.isEnabled());
+        assertThrows(IllegalArgumentException.class, () -> new RetryPolicy(3, 100, 0.5, 5_000));
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Should move failures through every tier and dead-letter after max attempts")
+    void testTiersThenDeadLetter() throws Exception {
+        EventRequest request = new EventRequest();
+        request.setId("e-1");
+        IllegalStateException error = new IllegalStateException("boom");
+
+        for (int i = 0; i <= policy.maxAttempts(); i++) {
+            router.onFailure(request, error);
+        }
+
+        assertEquals(List.of("retry:0", "retry:1", "retry:2", "dlq"), transport.calls);
+        assertEquals(3, request.getRetryCount());
+        assertEquals(error.toString(), request.getHeaders().get(TransportHeaders.ERROR));
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("Should dead-letter when the deadline passes before the retry is due")
+    void testDeadlineBeforeRetry() throws Exception {
+        CommandRequest request = new CommandRequest();
+        request.setId("c-1");
+        request.setDeadlineEpochMs(System.currentTimeMillis() + 50);
+
+        router.onFailure(request, new IllegalStateException("boom"));
+
+        assertEquals(List.of("dlq"), transport.calls);
+        assertEquals(0, request.getRetryCount());
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("Should rethrow when disabled or when the retry cannot be published")
+    void testRethrow() {
+        CommandRequest request = new CommandRequest();
+        request.setId("c-2");
+        IllegalStateException error = new IllegalStateException("boom");
+
+        assertSame(error, assertThrows(IllegalStateException.class,
+                () -> RetryRouter.DISABLED.onFailure(request, error)));
+
+        transport.fail = true;
+        IllegalStateException thrown = assertThrows(IllegalStateException.class,
+                () -> router.onFailure(request, error));
+
+        assertSame(error, thrown);
+        assertEquals("broker down", thrown.getSuppressed()[0].getMessage());
+        assertEquals(0, request.getRetryCount());
+    }
+
+    @Test
+    @Order(5)
+    @DisplayName("Should publish through the given transport instead of the router's own")
+    void testTransportOverride() throws Exception {
+        CommandRequest request = new CommandRequest();
+        request.setId("c-3");
+        RecordingTransport transactional = new RecordingTransport();
+
+        router.onFailure(request, new IllegalStateException("boom"), transactional);
+
+        assertEquals(List.of("retry:0"), transactional.calls);
+        assertTrue(transport.calls.isEmpty());
+    }
+
+    static class RecordingTransport implements RetryTransport {
+        final List<String> calls = new ArrayList<>();
+        boolean fail;
+
+        @Override
+        public void retry(BaseRequest request, int tier, long dueAtEpochMs) {
+            check();
+            calls.add("retry:" + tier);
+        }
+
+        @Override
+        public void deadLetter(BaseRequest request) {
+            check();
+            calls.add("dlq");
+        }
+
+        private void check() {
+            if (fail) {
+                throw new IllegalStateException("broker down");
+            }
+        }
+    }
+}
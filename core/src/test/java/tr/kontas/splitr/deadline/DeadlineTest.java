@@ -0,0 +1,208 @@
+package tr.kontas.splitr.deadline;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.*;
+import tr.kontas.splitr.bus.event.BaseEvent;
+import tr.kontas.splitr.bus.query.BaseQuery;
+import tr.kontas.splitr.consumer.bus.EventHandler;
+import tr.kontas.splitr.consumer.bus.QueryHandler;
+import tr.kontas.splitr.consumer.bus.impl.BusExecutorMode;
+import tr.kontas.splitr.consumer.bus.impl.InMemoryBusExecutor;
+import tr.kontas.splitr.consumer.bus.impl.InMemoryQueryBus;
+import tr.kontas.splitr.consumer.dispatcher.EventDispatcher;
+import tr.kontas.splitr.consumer.dispatcher.QueryDispatcher;
+import tr.kontas.splitr.consumer.store.LruStore;
+import tr.kontas.splitr.dto.EventRequest;
+import tr.kontas.splitr.dto.QueryRequest;
+import tr.kontas.splitr.dto.base.TransportHeaders;
+
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class DeadlineTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private LruStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new LruStore(100, 60_000L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.shutdown();
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Should treat non-positive and overflowing timeouts as no deadline")
+    void testAfter() {
+        assertEquals(Deadline.NONE, Deadline.after(1_000L, 0));
+        assertEquals(Deadline.NONE, Deadline.after(1_000L, Long.MAX_VALUE));
+        assertEquals(1_500L, Deadline.after(1_000L, 500));
+        assertEquals(5L, Deadline.earliest(Deadline.NONE, 5L));
+        assertEquals(Long.MAX_VALUE, Deadline.remainingMs(Deadline.NONE));
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Should fall back to sentAt + timeout for envelopes without a deadline")
+    void testLegacyEnvelope() {
+        QueryRequest request = new QueryRequest("1", "t", "{}", "", true, 1_000L, 500L);
+        assertEquals(1_500L, request.getDeadlineEpochMs());
+
+        request.setDeadlineEpochMs(Deadline.NONE);
+        assertEquals(1_500L, Deadline.of(request));
+        assertTrue(Deadline.expired(request));
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("Should handle events without a timeout and drop expired queries before the handler")
+    void testDispatcherStages() throws Exception {
+        AtomicInteger events = new AtomicInteger();
+        EventDispatcher eventDispatcher = new EventDispatcher(List.of(new PingedHandler(events)), store, mapper);
+
+        eventDispatcher.dispatch(new EventRequest("e-1", Pinged.class.getName(), "{}"));
+        assertEquals(1, events.get());
+
+        AtomicLong budget = new AtomicLong(-1);
+        QueryDispatcher queryDispatcher = new QueryDispatcher(List.of(new PingHandler(budget, 0)), store, mapper);
+
+        queryDispatcher.dispatch(new QueryRequest("q-1", Ping.class.getName(), "{}", "", true,
+                System.currentTimeMillis() - 1_000L, 500L));
+        assertEquals(-1, budget.get());
+        assertFalse(store.contains("q-1"));
+
+        queryDispatcher.dispatch(new QueryRequest("q-2", Ping.class.getName(), "{}", "", true,
+                System.currentTimeMillis(), 5_000L));
+        assertTrue(budget.get() > 0 && budget.get() <= 5_000L, "budget: " + budget.get());
+        assertTrue(store.contains("q-2"));
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("Should honour timeoutMs in in-memory sync calls and expose the budget to handlers")
+    void testInMemorySync() throws Exception {
+        AtomicLong budget = new AtomicLong(-1);
+        InMemoryQueryBus fast = new InMemoryQueryBus(List.of(new PingHandler(budget, 0)), store);
+
+        fast.publishSync(new Ping(), String.class, 1_000);
+        assertTrue(budget.get() > 0 && budget.get() <= 1_000L, "budget: " + budget.get());
+
+        // İç çağrı dıştaki daha kısa bütçeyi devralır
+        Deadline.callWithin(System.currentTimeMillis() + 200, () -> fast.publishSync(new Ping(), String.class, 10_000));
+        assertTrue(budget.get() <= 200L, "budget: " + budget.get());
+
+        InMemoryQueryBus slow = new InMemoryQueryBus(List.of(new PingHandler(budget, 100)), store);
+        Ping ping = new Ping();
+        RuntimeException ex = assertThrows(RuntimeException.class, () -> slow.publishSync(ping, String.class, 20));
+
+        assertInstanceOf(TimeoutException.class, ex.getCause());
+        assertTrue(store.contains(ping.getIdempotencyKey()));
+        assertEquals(Deadline.NONE, Deadline.current());
+    }
+
+    @Test
+    @Order(5)
+    @DisplayName("Should round-trip deadline headers and treat malformed values as no deadline")
+    void testTransportHeaders() {
+        assertEquals(1766863520525L, TransportHeaders.parseDeadline(TransportHeaders.encodeDeadline(1766863520525L)));
+        assertEquals(1766863520525L, TransportHeaders.parseDeadline((Object) 1766863520525L));
+        assertEquals(42L, TransportHeaders.parseDeadline((Object) "42"));
+        assertEquals(Deadline.NONE, TransportHeaders.parseDeadline((Object) null));
+        assertEquals(Deadline.NONE, TransportHeaders.parseDeadline("-1".getBytes()));
+        assertEquals(Deadline.NONE, TransportHeaders.parseDeadline(new byte[0]));
+    }
+
+    @Test
+    @Order(6)
+    @DisplayName("Should cap call budgets at the current deadline and fail once it has passed")
+    void testBudget() throws Exception {
+        assertEquals(300L, Deadline.budgetMs(300, 1_000));
+        assertEquals(1_000L, Deadline.budgetMs(0, 1_000));
+
+        long within = Deadline.callWithin(System.currentTimeMillis() + 200, () -> Deadline.budgetMs(10_000, 1_000));
+        assertTrue(within > 0 && within <= 200L, "budget: " + within);
+
+        assertThrows(TimeoutException.class, () -> Deadline.callWithin(System.currentTimeMillis() - 1,
+                () -> Deadline.budgetMs(10_000, 1_000)));
+    }
+
+    @Test
+    @Order(7)
+    @DisplayName("Should return from an in-memory sync call once its timeout passes, not when the handler does")
+    void testInMemorySyncCutShort() {
+        InMemoryBusExecutor executor = new InMemoryBusExecutor(BusExecutorMode.POOL, 2, 4);
+        AtomicLong budget = new AtomicLong(-1);
+        InMemoryQueryBus slow = new InMemoryQueryBus(List.of(new PingHandler(budget, 5_000)), store, executor, 0);
+
+        try {
+            long start = System.currentTimeMillis();
+            RuntimeException ex = assertThrows(RuntimeException.class, () -> slow.publishSync(new Ping(), String.class, 50));
+
+            assertInstanceOf(TimeoutException.class, ex.getCause());
+            assertTrue(System.currentTimeMillis() - start < 2_000, "waited for the handler");
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    public static class Ping extends BaseQuery {
+    }
+
+    public static class Pinged extends BaseEvent {
+    }
+
+    static class PingHandler implements QueryHandler<Ping> {
+        private final AtomicLong budget;
+        private final long sleepMs;
+
+        PingHandler(AtomicLong budget, long sleepMs) {
+            this.budget = budget;
+            this.sleepMs = sleepMs;
+        }
+
+        @Override
+        public Class<Ping> type() {
+            return Ping.class;
+        }
+
+        @Override
+        public Object handle(Ping payload) {
+            budget.set(Deadline.remainingMs());
+            if (sleepMs > 0) {
+                try {
+                    Thread.sleep(sleepMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return "pong";
+        }
+    }
+
+    static class PingedHandler implements EventHandler<Pinged> {
+        private final AtomicInteger calls;
+
+        PingedHandler(AtomicInteger calls) {
+            this.calls = calls;
+        }
+
+        @Override
+        public Class<Pinged> type() {
+            return Pinged.class;
+        }
+
+        @Override
+        public void onEvent(Pinged payload) {
+            calls.incrementAndGet();
+        }
+    }
+}
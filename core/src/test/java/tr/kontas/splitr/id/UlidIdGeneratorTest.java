@@ -0,0 +1,94 @@
+package tr.kontas.splitr.id;
+
+import org.junit.jupiter.api.*;
+import tr.kontas.splitr.bus.query.BaseQuery;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class UlidIdGeneratorTest {
+
+    @AfterEach
+    void tearDown() {
+        IdGenerators.use(new UlidIdGenerator());
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Should produce 26 character Crockford base32 ids")
+    void testFormat() {
+        String id = new UlidIdGenerator(7).nextId();
+
+        assertEquals(26, id.length());
+        assertTrue(id.matches("[0-9A-HJKMNP-TV-Z]{26}"), id);
+        assertEquals("7ZZZZZZZZZZZZZZZZZZZZZZZZZ", UlidIdGenerator.encode(-1L, -1L));
+        assertEquals("00000000000000000000000001", UlidIdGenerator.encode(0L, 1L));
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Should increase within a thread and sort by creation time")
+    void testOrdering() throws Exception {
+        UlidIdGenerator generator = new UlidIdGenerator(1);
+
+        String previous = generator.nextId();
+        for (int i = 0; i < 10_000; i++) {
+            String next = generator.nextId();
+            assertTrue(next.compareTo(previous) > 0, previous + " >= " + next);
+            previous = next;
+        }
+
+        String earlier = new UlidIdGenerator(65_535).nextId();
+        Thread.sleep(2);
+        String later = new UlidIdGenerator(0).nextId();
+        assertTrue(later.compareTo(earlier) > 0);
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("Should not collide across threads")
+    void testUniqueAcrossThreads() throws Exception {
+        UlidIdGenerator generator = new UlidIdGenerator();
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        int threads = 8;
+        int perThread = 50_000;
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        ids.add(generator.nextId());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        assertEquals(threads * perThread, ids.size());
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("Should use the installed generator for message ids and reject invalid nodes")
+    void testInstalledGenerator() {
+        IdGenerators.use(() -> "fixed");
+
+        assertEquals("fixed", new BaseQuery().getIdempotencyKey());
+        assertThrows(IllegalArgumentException.class, () -> new UlidIdGenerator(70_000));
+        assertThrows(IllegalArgumentException.class, () -> IdGenerators.use(null));
+    }
+}
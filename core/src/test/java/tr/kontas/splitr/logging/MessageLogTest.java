@@ -0,0 +1,92 @@
+package tr.kontas.splitr.logging;
+
+import org.junit.jupiter.api.*;
+import org.slf4j.event.Level;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class MessageLogTest {
+
+    @AfterEach
+    void tearDown() {
+        MessageLog.configure(MessageLogPolicy.DEFAULT);
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Should admit only every N-th message when sampling")
+    void testSampling() {
+        MessageLog log = MessageLog.of(MessageLogTest.class, "Sampling");
+        MessageLogPolicy policy = new MessageLogPolicy(Level.INFO, 10, 0, 0);
+
+        int admitted = 0;
+        for (int i = 0; i < 100; i++) {
+            if (log.admit(policy)) {
+                admitted++;
+            }
+        }
+
+        assertEquals(10, admitted);
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Should cap admitted messages per second")
+    void testRateLimit() {
+        MessageLog log = MessageLog.of(MessageLogTest.class, "Rate limit");
+        MessageLogPolicy policy = new MessageLogPolicy(Level.INFO, 1, 5, 0);
+
+        int admitted = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (log.admit(policy)) {
+                admitted++;
+            }
+        }
+
+        // Saniye sınırına denk gelirse ikinci pencere de dolabilir
+        assertTrue(admitted >= 5 && admitted <= 10, "admitted: " + admitted);
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("Should count messages per type and reset on report")
+    void testCountersPerType() {
+        MessageLog.configure(new MessageLogPolicy(null, 1, 0, 60_000L));
+        MessageLog log = MessageLog.of(MessageLogTest.class, "Counting");
+
+        log.message("a.Query", "1");
+        log.message("a.Query", "2");
+        log.message("b.Command", "3");
+        log.message(null, "4");
+
+        assertEquals(Map.of("a.Query", 2L, "b.Command", 1L, "unknown", 1L), log.counts());
+
+        log.report();
+
+        assertTrue(log.counts().values().stream().allMatch(c -> c == 0L));
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("Should not count when summary is disabled")
+    void testCountingDisabled() {
+        MessageLog.configure(new MessageLogPolicy(null, 1, 0, 0));
+        MessageLog log = MessageLog.of(MessageLogTest.class, "Disabled");
+
+        log.message("a.Query", "1");
+
+        assertTrue(log.counts().isEmpty());
+    }
+
+    @Test
+    @Order(5)
+    @DisplayName("Should parse level names and reject invalid policies")
+    void testPolicyParsing() {
+        assertNull(MessageLogPolicy.parseLevel("off"));
+        assertEquals(Level.INFO, MessageLogPolicy.parseLevel("info"));
+        assertThrows(IllegalArgumentException.class, () -> new MessageLogPolicy(Level.INFO, 0, 0, 0));
+    }
+}
@@ -0,0 +1,158 @@
+package tr.kontas.splitr.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+import tr.kontas.splitr.bus.registry.SyncRegistry;
+import tr.kontas.splitr.consumer.store.LruStore;
+import tr.kontas.splitr.dto.base.BaseResponse;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class MicrometerSplitrMetricsTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private MicrometerSplitrMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        metrics = new MicrometerSplitrMetrics(meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        meterRegistry.close();
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Should record registry wait time and pending gauge")
+    void testRegistryCompleted() {
+        SyncRegistry registry = new SyncRegistry(5000L, 100);
+        registry.setMetrics(metrics);
+
+        try {
+            registry.register("m-1");
+            assertEquals(1.0, meterRegistry.get("splitr.registry.pending").gauge().value());
+
+            registry.complete(new BaseResponse("m-1", "ok"));
+
+            assertEquals(1, meterRegistry.get("splitr.registry.wait").timer().count());
+            assertEquals(0.0, meterRegistry.get("splitr.registry.pending").gauge().value());
+        } finally {
+            registry.shutdown();
+        }
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Should count registry timeouts")
+    void testRegistryTimeout() {
+        SyncRegistry registry = new SyncRegistry(5000L, 100);
+        registry.setMetrics(metrics);
+
+        try {
+            CompletableFuture<BaseResponse> future = registry.register("m-timeout", 50L);
+
+            assertThrows(ExecutionException.class, () -> future.get(1, TimeUnit.SECONDS));
+            awaitCount("splitr.registry.timeouts", 1.0);
+            assertEquals(1.0, meterRegistry.get("splitr.registry.timeouts").counter().count());
+            assertEquals(0, meterRegistry.get("splitr.registry.wait").timer().count());
+        } finally {
+            registry.shutdown();
+        }
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("Should count rejected registrations when registry is full")
+    void testRegistryRejected() {
+        SyncRegistry registry = new SyncRegistry(5000L, 1);
+        registry.setMetrics(metrics);
+
+        try {
+            registry.register("m-first");
+            CompletableFuture<BaseResponse> rejected = registry.register("m-second");
+
+            assertTrue(rejected.isCompletedExceptionally());
+            assertEquals(1.0, meterRegistry.get("splitr.registry.rejections").counter().count());
+        } finally {
+            registry.shutdown();
+        }
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("Should tag publish and dispatch timers with outcome")
+    void testOutcomeTags() {
+        metrics.publish("kafka", "a.B", "sync", 1_000L, null);
+        metrics.publish("kafka", "a.B", "sync", 1_000L, new RuntimeException("boom"));
+        metrics.dispatch("query", "a.B", 1_000L, null);
+        metrics.idempotencyLookup("query", true);
+
+        assertEquals(1, meterRegistry.get("splitr.publish").tag("outcome", "success").timer().count());
+        assertEquals(1, meterRegistry.get("splitr.publish").tag("outcome", "failure").timer().count());
+        assertEquals(1, meterRegistry.get("splitr.dispatch").tag("kind", "query").timer().count());
+        assertEquals(1.0, meterRegistry.get("splitr.idempotency.lookups").tag("result", "hit").counter().count());
+    }
+
+    @Test
+    @Order(5)
+    @DisplayName("Should expose LruStore size and eviction counters")
+    void testStoreBinding() {
+        LruStore store = new LruStore(2, 60_000L);
+        store.setMetrics(metrics);
+
+        try {
+            store.put("a", "1");
+            store.put("b", "2");
+            store.put("c", "3");
+
+            assertEquals(2.0, meterRegistry.get("splitr.store.size").gauge().value());
+            assertEquals(1.0, meterRegistry.get("splitr.store.evictions").functionCounter().count());
+        } finally {
+            store.shutdown();
+        }
+    }
+
+    @Test
+    @Order(6)
+    @DisplayName("Should report every store under its own name and keep counters across clear")
+    void testStoresTaggedByName() {
+        LruStore first = new LruStore(1, 60_000L);
+        LruStore second = new LruStore(1, 60_000L, "domain-event");
+        first.setMetrics(metrics);
+        second.setMetrics(metrics);
+
+        try {
+            first.put("a", "1");
+            first.put("b", "2");
+            second.put("a", "1");
+            second.put("b", "2");
+            second.put("c", "3");
+            second.clear();
+
+            assertEquals(1.0, meterRegistry.get("splitr.store.evictions").tag("store", LruStore.DEFAULT_NAME)
+                    .functionCounter().count());
+            assertEquals(2.0, meterRegistry.get("splitr.store.evictions").tag("store", "domain-event")
+                    .functionCounter().count());
+            assertEquals(0.0, meterRegistry.get("splitr.store.size").tag("store", "domain-event").gauge().value());
+        } finally {
+            first.shutdown();
+            second.shutdown();
+        }
+    }
+
+    private void awaitCount(String name, double expected) {
+        long deadline = System.currentTimeMillis() + 1000;
+        while (meterRegistry.get(name).counter().count() < expected
+                && System.currentTimeMillis() < deadline) {
+            Thread.onSpinWait();
+        }
+    }
+}
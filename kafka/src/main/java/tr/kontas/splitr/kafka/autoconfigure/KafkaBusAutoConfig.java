@@ -2,6 +2,8 @@ package tr.kontas.splitr.kafka.autoconfigure;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBooleanProperty;
@@ -10,11 +12,16 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.support.JacksonMapperUtils;
+import tools.jackson.databind.json.JsonMapper;
 import tr.kontas.splitr.bus.command.CommandBus;
 import tr.kontas.splitr.bus.command.CommandCallbackController;
 import tr.kontas.splitr.bus.event.EventBus;
+import tr.kontas.splitr.bus.hedge.HedgingPolicy;
+import tr.kontas.splitr.bus.limit.ConcurrencyLimiters;
 import tr.kontas.splitr.bus.query.QueryBus;
 import tr.kontas.splitr.bus.query.QueryCallbackController;
 import tr.kontas.splitr.bus.registry.SyncRegistry;
@@ -26,22 +33,56 @@ import tr.kontas.splitr.dto.QueryRequest;
 import tr.kontas.splitr.kafka.bus.KafkaCommandBus;
 import tr.kontas.splitr.kafka.bus.KafkaEventBus;
 import tr.kontas.splitr.kafka.bus.KafkaQueryBus;
+import tr.kontas.splitr.kafka.listener.ReplyKafkaListener;
+import tr.kontas.splitr.kafka.producer.KafkaProducerProfile;
+import tr.kontas.splitr.kafka.producer.SplitrKafkaProducers;
+
+import java.util.Map;
 
 @AutoConfigureAfter(InMemoryBusAutoConfigure.class)
 @Configuration
 @ConditionalOnBooleanProperty(name = "splitr.kafka.publisher.enabled")
 public class KafkaBusAutoConfig {
 
+    /**
+     * Shared producers of the query, command and event templates, enabled by
+     * {@code splitr.kafka.producer.profile}. Connection settings come from
+     * {@code splitr.kafka.producer.bootstrap-servers} or else from an existing producer factory.
+     */
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnProperty(name = "splitr.kafka.producer.profile")
+    public SplitrKafkaProducers splitrKafkaProducers(
+            ObjectProvider<ProducerFactory<?, ?>> producerFactories,
+            ObjectProvider<JsonMapper> jsonMapper,
+            @Value("${splitr.kafka.producer.bootstrap-servers:${spring.kafka.bootstrap-servers:}}") String bootstrapServers
+    ) {
+        JsonMapper mapper = jsonMapper.getIfAvailable(JacksonMapperUtils::enhancedJsonMapper);
+        if (!bootstrapServers.isBlank()) {
+            return new SplitrKafkaProducers(Map.of(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers), mapper);
+        }
+        ProducerFactory<?, ?> existing = producerFactories.orderedStream().findFirst().orElseThrow(() -> new RuntimeException(
+                "splitr.kafka.producer.profile requires splitr.kafka.producer.bootstrap-servers or a ProducerFactory bean"));
+        return new SplitrKafkaProducers(existing.getConfigurationProperties(), mapper);
+    }
+
     @Bean("queryKafka")
     @ConditionalOnMissingBean
     public KafkaTemplate<String, QueryRequest> kafkaQueryTemplate(
-            ProducerFactory<String, QueryRequest> producerFactory
+            ObjectProvider<ProducerFactory<String, QueryRequest>> producerFactory,
+            ObjectProvider<SplitrKafkaProducers> producers,
+            @Value("${splitr.kafka.producer.query.profile:${splitr.kafka.producer.profile:balanced}}") String profile
     ) {
-        if (producerFactory == null) {
+        SplitrKafkaProducers managed = producers.getIfAvailable();
+        if (managed != null) {
+            return managed.template(KafkaProducerProfile.parse(profile));
+        }
+
+        ProducerFactory<String, QueryRequest> factory = producerFactory.getIfAvailable();
+        if (factory == null) {
             throw new RuntimeException("ProducerFactory<String, QueryRequest> bean is null");
         }
 
-        return new KafkaTemplate<>(producerFactory);
+        return new KafkaTemplate<>(factory);
     }
 
     @Bean
@@ -55,23 +96,36 @@ public class KafkaBusAutoConfig {
             KafkaTemplate<String, QueryRequest> kafka,
             SyncRegistry registry,
             ObjectMapper mapper,
+            ConcurrencyLimiters limiters,
+            HedgingPolicy hedging,
             @Value("${splitr.callback-url}") String url,
             @Value("${splitr.bus.kafka.query.topic:tr.kontas.splitr.query.topic}") String queryTopic,
             @Value("${splitr.bus.default-timeout:10000}") int defaultTimeout
         ) {
-        return new KafkaQueryBus(queryTopic, kafka, registry, mapper, url, defaultTimeout);
+        KafkaQueryBus bus = new KafkaQueryBus(queryTopic, kafka, registry, mapper, url, defaultTimeout);
+        bus.setConcurrencyLimiters(limiters);
+        bus.setHedgingPolicy(hedging);
+        return bus;
     }
 
     @Bean("commandKafka")
     @ConditionalOnMissingBean
     public KafkaTemplate<String, CommandRequest> kafkaCommandTemplate(
-            ProducerFactory<String, CommandRequest> producerFactory
+            ObjectProvider<ProducerFactory<String, CommandRequest>> producerFactory,
+            ObjectProvider<SplitrKafkaProducers> producers,
+            @Value("${splitr.kafka.producer.command.profile:${splitr.kafka.producer.profile:balanced}}") String profile
     ) {
-        if (producerFactory == null) {
+        SplitrKafkaProducers managed = producers.getIfAvailable();
+        if (managed != null) {
+            return managed.template(KafkaProducerProfile.parse(profile));
+        }
+
+        ProducerFactory<String, CommandRequest> factory = producerFactory.getIfAvailable();
+        if (factory == null) {
             throw new RuntimeException("ProducerFactory<String, CommandRequest> bean is null");
         }
 
-        return new KafkaTemplate<>(producerFactory);
+        return new KafkaTemplate<>(factory);
     }
 
     @Bean
@@ -85,23 +139,34 @@ public class KafkaBusAutoConfig {
             KafkaTemplate<String, CommandRequest> kafka,
             SyncRegistry registry,
             ObjectMapper mapper,
+            ConcurrencyLimiters limiters,
             @Value("${splitr.callback-url}") String url,
             @Value("${splitr.bus.kafka.command.topic:tr.kontas.splitr.command.topic}") String queryTopic,
             @Value("${splitr.bus.default-timeout:10000}") int defaultTimeout
     ) {
-        return new KafkaCommandBus(queryTopic, kafka, registry, mapper, url, defaultTimeout);
+        KafkaCommandBus bus = new KafkaCommandBus(queryTopic, kafka, registry, mapper, url, defaultTimeout);
+        bus.setConcurrencyLimiters(limiters);
+        return bus;
     }
 
     @Bean("eventKafka")
     @ConditionalOnMissingBean
     public KafkaTemplate<String, EventRequest> kafkaEventTemplate(
-            ProducerFactory<String, EventRequest> producerFactory
+            ObjectProvider<ProducerFactory<String, EventRequest>> producerFactory,
+            ObjectProvider<SplitrKafkaProducers> producers,
+            @Value("${splitr.kafka.producer.event.profile:${splitr.kafka.producer.profile:balanced}}") String profile
     ) {
-        if (producerFactory == null) {
+        SplitrKafkaProducers managed = producers.getIfAvailable();
+        if (managed != null) {
+            return managed.template(KafkaProducerProfile.parse(profile));
+        }
+
+        ProducerFactory<String, EventRequest> factory = producerFactory.getIfAvailable();
+        if (factory == null) {
             throw new RuntimeException("ProducerFactory<String, EventRequest> bean is null");
         }
 
-        return new KafkaTemplate<>(producerFactory);
+        return new KafkaTemplate<>(factory);
     }
 
     @Bean("kafkaEventBus")
@@ -112,8 +177,26 @@ public class KafkaBusAutoConfig {
             ObjectMapper mapper,
             @Value("${splitr.callback-url}") String url,
             @Value("${splitr.bus.kafka.event.topic:tr.kontas.splitr.event.topic}") String queryTopic,
+            @Value("${splitr.kafka.producer.event.sticky:false}") boolean sticky,
             @Value("${splitr.bus.default-timeout:10000}") int defaultTimeout
     ) {
-        return new KafkaEventBus(queryTopic, kafka, registry, mapper, url, defaultTimeout);
+        KafkaEventBus bus = new KafkaEventBus(queryTopic, kafka, registry, mapper, url, defaultTimeout);
+        bus.setKeyed(!sticky);
+        return bus;
+    }
+
+    /**
+     * Reads command responses of transactional consumers from the reply topic.
+     */
+    @Configuration
+    @EnableKafka
+    @ConditionalOnBooleanProperty(name = "splitr.kafka.publisher.replies.enabled")
+    static class Replies {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public ReplyKafkaListener replyKafkaListener(SyncRegistry registry) {
+            return new ReplyKafkaListener(registry);
+        }
     }
 }
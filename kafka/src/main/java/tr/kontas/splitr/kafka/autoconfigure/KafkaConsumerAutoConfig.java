@@ -3,14 +3,37 @@ package tr.kontas.splitr.kafka.autoconfigure;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.CommonClientConfigs;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBooleanProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.support.JacksonMapperUtils;
+import org.springframework.kafka.support.serializer.JacksonJsonDeserializer;
+import org.springframework.kafka.support.serializer.JacksonJsonSerializer;
+import tools.jackson.databind.json.JsonMapper;
 import tr.kontas.splitr.bus.registry.SyncRegistry;
 import tr.kontas.splitr.consumer.autoconfigure.InMemoryBusAutoConfigure;
 import tr.kontas.splitr.consumer.bus.CommandHandler;
@@ -19,13 +42,32 @@ import tr.kontas.splitr.consumer.bus.QueryHandler;
 import tr.kontas.splitr.consumer.dispatcher.CommandDispatcher;
 import tr.kontas.splitr.consumer.dispatcher.EventDispatcher;
 import tr.kontas.splitr.consumer.dispatcher.QueryDispatcher;
+import tr.kontas.splitr.consumer.retry.RetryPolicy;
+import tr.kontas.splitr.consumer.retry.RetryRouter;
 import tr.kontas.splitr.consumer.store.IdempotencyStore;
 import tr.kontas.splitr.consumer.store.LruStore;
+import tr.kontas.splitr.dto.CommandRequest;
+import tr.kontas.splitr.dto.EventRequest;
 import tr.kontas.splitr.kafka.listener.CommandKafkaListener;
 import tr.kontas.splitr.kafka.listener.EventKafkaListener;
 import tr.kontas.splitr.kafka.listener.QueryKafkaListener;
+import tr.kontas.splitr.kafka.producer.KafkaProducerProfile;
+import tr.kontas.splitr.kafka.producer.SplitrKafkaProducers;
+import tr.kontas.splitr.kafka.retry.KafkaRetryForwarder;
+import tr.kontas.splitr.kafka.retry.KafkaRetryListenerConfigurer;
+import tr.kontas.splitr.kafka.retry.KafkaRetryRoute;
+import tr.kontas.splitr.kafka.retry.KafkaRetryTransport;
+import tr.kontas.splitr.kafka.shedding.DeadlineSheddingPostProcessor;
+import tr.kontas.splitr.kafka.shedding.KafkaDeadlineFilter;
+import tr.kontas.splitr.kafka.store.KafkaCompactedStore;
+import tr.kontas.splitr.kafka.transaction.TransactionalCommandListener;
+import tr.kontas.splitr.kafka.transaction.TransactionalContainerFactory;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 @AutoConfigureAfter(InMemoryBusAutoConfigure.class)
 @Configuration
@@ -51,23 +93,31 @@ public class KafkaConsumerAutoConfig {
 
     @Bean
     @ConditionalOnMissingBean
-    public CommandKafkaListener commandKafkaListener(CommandDispatcher dispatcher) {
-        return new CommandKafkaListener(dispatcher);
+    @ConditionalOnBooleanProperty(name = "splitr.kafka.consumer.transactional.enabled", havingValue = false, matchIfMissing = true)
+    public CommandKafkaListener commandKafkaListener(CommandDispatcher dispatcher,
+                                                     @Qualifier("kafkaRetryRouter") RetryRouter retries,
+                                                     @Qualifier(KafkaCompactedStore.BEAN_NAME) ObjectProvider<KafkaCompactedStore> compactedStore) {
+        CommandKafkaListener listener = new CommandKafkaListener(dispatcher, retries);
+        listener.setCompactedStore(compactedStore.getIfAvailable());
+        return listener;
     }
 
     @Bean
     public CommandDispatcher commandDispatcher(
             List<CommandHandler<?>> handlers,
             IdempotencyStore store,
+            @Qualifier(KafkaCompactedStore.BEAN_NAME) ObjectProvider<KafkaCompactedStore> compactedStore,
             ObjectMapper mapper) {
         log.atInfo().log("Initializing CommandDispatcher");
-        return new CommandDispatcher(handlers, store, mapper);
+        KafkaCompactedStore compacted = compactedStore.getIfAvailable();
+        return new CommandDispatcher(handlers, compacted != null ? compacted : store, mapper);
     }
 
     @Bean
     @ConditionalOnMissingBean
-    public EventKafkaListener eventKafkaListener(EventDispatcher dispatcher) {
-        return new EventKafkaListener(dispatcher);
+    public EventKafkaListener eventKafkaListener(EventDispatcher dispatcher,
+                                                 @Qualifier("kafkaRetryRouter") RetryRouter retries) {
+        return new EventKafkaListener(dispatcher, retries);
     }
 
     @Bean
@@ -78,4 +128,209 @@ public class KafkaConsumerAutoConfig {
         log.atInfo().log("Initializing EventDispatcher");
         return new EventDispatcher(handlers, store, mapper);
     }
+
+    @Bean(KafkaDeadlineFilter.BEAN_NAME)
+    @ConditionalOnMissingBean(name = KafkaDeadlineFilter.BEAN_NAME)
+    public KafkaDeadlineFilter splitrKafkaDeadlineFilter(
+            ObjectProvider<QueryKafkaListener> queryListener,
+            @Value("${splitr.kafka.consumer.shedding.enabled:true}") boolean enabled,
+            @Value("${splitr.kafka.consumer.fast-forward.enabled:false}") boolean fastForward,
+            @Value("${splitr.bus.kafka.query.topic:tr.kontas.splitr.query.topic}") String queryTopic,
+            @Value("${splitr.kafka.consumer.fast-forward.max-timeout-ms:${splitr.bus.default-timeout:10000}}") long maxTimeoutMs) {
+        // Seek, filtre çağrıldığında listener'a çözülür; döngüsel bağımlılık oluşmaz
+        KafkaDeadlineFilter.FastForward seeker = fastForward
+                ? (topic, partition, ts) -> queryListener.getObject().seekToTimestamp(topic, partition, ts)
+                : null;
+        return new KafkaDeadlineFilter(enabled, seeker, queryTopic, maxTimeoutMs);
+    }
+
+    @Bean
+    @ConditionalOnBooleanProperty(name = "splitr.kafka.consumer.shedding.enabled", matchIfMissing = true)
+    public static DeadlineSheddingPostProcessor splitrDeadlineSheddingPostProcessor() {
+        return new DeadlineSheddingPostProcessor();
+    }
+
+    @Bean
+    @ConditionalOnBooleanProperty(name = "splitr.retry.enabled")
+    public KafkaRetryTransport kafkaRetryTransport(
+            ObjectProvider<ProducerFactory<String, CommandRequest>> commandProducer,
+            ObjectProvider<ProducerFactory<String, EventRequest>> eventProducer,
+            ObjectProvider<SplitrKafkaProducers> producers,
+            @Value("${splitr.bus.kafka.command.topic:tr.kontas.splitr.command.topic}") String commandTopic,
+            @Value("${splitr.bus.kafka.event.topic:tr.kontas.splitr.event.topic}") String eventTopic,
+            @Value("${splitr.bus.kafka.command.consumer:tr.kontas.splitr.command.consumer}") String commandGroup,
+            @Value("${splitr.bus.kafka.event.consumer:tr.kontas.splitr.event.consumer}") String eventGroup,
+            @Value("${splitr.kafka.producer.command.profile:${splitr.kafka.producer.profile:balanced}}") String commandProfile,
+            @Value("${splitr.kafka.producer.event.profile:${splitr.kafka.producer.profile:balanced}}") String eventProfile) {
+        // Bus'larla aynı paylaşılan producer'lar kullanılır
+        SplitrKafkaProducers managed = producers.getIfAvailable();
+        if (managed != null) {
+            return new KafkaRetryTransport(
+                    new KafkaRetryRoute<>(commandTopic, commandGroup, managed.template(KafkaProducerProfile.parse(commandProfile)), CommandRequest.class),
+                    new KafkaRetryRoute<>(eventTopic, eventGroup, managed.template(KafkaProducerProfile.parse(eventProfile)), EventRequest.class));
+        }
+
+        ProducerFactory<String, CommandRequest> commands = commandProducer.getIfAvailable();
+        ProducerFactory<String, EventRequest> events = eventProducer.getIfAvailable();
+        if (commands == null || events == null) {
+            throw new RuntimeException("splitr.retry.enabled requires splitr.kafka.producer.profile or ProducerFactory<String, CommandRequest> and ProducerFactory<String, EventRequest> beans");
+        }
+
+        return new KafkaRetryTransport(
+                new KafkaRetryRoute<>(commandTopic, commandGroup, new KafkaTemplate<>(commands), CommandRequest.class),
+                new KafkaRetryRoute<>(eventTopic, eventGroup, new KafkaTemplate<>(events), EventRequest.class));
+    }
+
+    @Bean("kafkaRetryRouter")
+    public RetryRouter kafkaRetryRouter(RetryPolicy policy, ObjectProvider<KafkaRetryTransport> transport) {
+        return new RetryRouter(policy, transport.getIfAvailable());
+    }
+
+    @Bean
+    @ConditionalOnBooleanProperty(name = "splitr.retry.enabled")
+    public KafkaRetryListenerConfigurer kafkaRetryListenerConfigurer(
+            KafkaRetryTransport transport,
+            RetryPolicy policy,
+            ConsumerFactory<?, ?> consumerFactory,
+            ObjectProvider<CommandKafkaListener> commandListener,
+            ObjectProvider<TransactionalCommandListener> transactionalListener,
+            ObjectProvider<EventKafkaListener> eventListener) {
+        // Tier consumer'ları poll thread'inde bekler; bekleme poll aralığını aşarsa gruptan atılırlar
+        Object pollInterval = consumerFactory.getConfigurationProperties().get(ConsumerConfig.MAX_POLL_INTERVAL_MS_CONFIG);
+        long maxPollIntervalMs = pollInterval == null ? 300_000L : Long.parseLong(pollInterval.toString());
+        long longestTierMs = policy.isEnabled() ? policy.delayMs(policy.maxAttempts() - 1) : 0L;
+        if (longestTierMs >= maxPollIntervalMs) {
+            throw new RuntimeException("Retry tier delay " + longestTierMs + " ms must stay below "
+                    + ConsumerConfig.MAX_POLL_INTERVAL_MS_CONFIG + " (" + maxPollIntervalMs
+                    + " ms); lower splitr.retry.max-delay-ms or raise the poll interval");
+        }
+
+        // Vadesi gelen kayıt ana topic'e değil, bu grubun kendi listener'ına verilir
+        TransactionalCommandListener transactional = transactionalListener.getIfAvailable();
+        CommandKafkaListener commands = commandListener.getIfAvailable();
+        EventKafkaListener events = eventListener.getIfAvailable();
+        if ((transactional == null && commands == null) || events == null) {
+            throw new RuntimeException("splitr.retry.enabled requires the Kafka command and event listeners");
+        }
+
+        KafkaRetryForwarder.Redelivery commandRedelivery = transactional != null
+                ? (record, consumer) -> transactional.listen(List.of(record), consumer)
+                : (record, consumer) -> commands.listen((CommandRequest) record.value());
+        return new KafkaRetryListenerConfigurer(List.of(
+                new KafkaRetryListenerConfigurer.Tiered(transport.commands(), commandRedelivery),
+                new KafkaRetryListenerConfigurer.Tiered(transport.events(),
+                        (record, consumer) -> events.listen((EventRequest) record.value()))
+        ), policy.maxAttempts());
+    }
+
+    @Bean
+    @ConditionalOnBooleanProperty(name = "splitr.retry.enabled")
+    public KafkaAdmin.NewTopics splitrRetryTopics(KafkaRetryTransport transport, RetryPolicy policy) {
+        List<NewTopic> topics = new ArrayList<>();
+        for (KafkaRetryRoute<?> route : List.of(transport.commands(), transport.events())) {
+            for (int tier = 0; tier < policy.maxAttempts(); tier++) {
+                topics.add(TopicBuilder.name(route.tierTopic(tier)).build());
+            }
+            topics.add(TopicBuilder.name(route.deadLetterTopic()).build());
+        }
+        return new KafkaAdmin.NewTopics(topics.toArray(NewTopic[]::new));
+    }
+
+    @Bean
+    @ConditionalOnBooleanProperty(name = "splitr.kafka.consumer.transactional.enabled")
+    public DefaultKafkaProducerFactory<String, Object> splitrTransactionalProducerFactory(
+            ObjectProvider<ProducerFactory<String, CommandRequest>> commandProducer,
+            ObjectProvider<SplitrKafkaProducers> producers,
+            ObjectProvider<JsonMapper> jsonMapper,
+            @Value("${splitr.kafka.consumer.transactional.id-prefix:}") String idPrefix) {
+        // Prefix her instance'ta farklı olmalı; aksi halde instance'lar birbirini fence eder
+        String prefix = idPrefix.isBlank() ? "splitr-tx-" + UUID.randomUUID() + "-" : idPrefix;
+        SplitrKafkaProducers managed = producers.getIfAvailable();
+        if (managed != null) {
+            return managed.transactionalFactory(prefix);
+        }
+
+        ProducerFactory<String, CommandRequest> commands = commandProducer.getIfAvailable();
+        if (commands == null) {
+            throw new RuntimeException("splitr.kafka.consumer.transactional.enabled requires splitr.kafka.producer.profile or a ProducerFactory<String, CommandRequest> bean");
+        }
+
+        // Bağlantı ayarları mevcut factory'den; reply ve marker kayıtları için JSON serializer
+        DefaultKafkaProducerFactory<String, Object> factory = new DefaultKafkaProducerFactory<>(
+                commands.getConfigurationProperties(), new StringSerializer(),
+                new JacksonJsonSerializer<>(jsonMapper.getIfAvailable(JacksonMapperUtils::enhancedJsonMapper)));
+        factory.setTransactionIdPrefix(prefix);
+        return factory;
+    }
+
+    @Bean(TransactionalContainerFactory.BEAN_NAME)
+    @ConditionalOnBooleanProperty(name = "splitr.kafka.consumer.transactional.enabled")
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> splitrTransactionalContainerFactory(
+            ConsumerFactory<?, ?> consumerFactory,
+            @Value("${splitr.kafka.consumer.transactional.max-batch:100}") int maxBatch) {
+        return TransactionalContainerFactory.create(consumerFactory, maxBatch);
+    }
+
+    @Bean
+    @ConditionalOnBooleanProperty(name = "splitr.kafka.consumer.transactional.enabled")
+    public TransactionalCommandListener transactionalCommandListener(
+            CommandDispatcher dispatcher,
+            @Qualifier("kafkaRetryRouter") RetryRouter retries,
+            ObjectProvider<KafkaRetryTransport> retryTransport,
+            DefaultKafkaProducerFactory<String, Object> splitrTransactionalProducerFactory,
+            @Qualifier(KafkaCompactedStore.BEAN_NAME) ObjectProvider<KafkaCompactedStore> compactedStore,
+            @Value("${splitr.bus.kafka.command.reply-topic:${splitr.bus.kafka.command.topic:tr.kontas.splitr.command.topic}.reply}") String replyTopic,
+            @Value("${splitr.kafka.consumer.idempotency.topic:${splitr.bus.kafka.command.topic:tr.kontas.splitr.command.topic}.idempotency}") String markerTopic) {
+        TransactionalCommandListener listener = new TransactionalCommandListener(dispatcher, retries,
+                new KafkaTemplate<>(splitrTransactionalProducerFactory), replyTopic, markerTopic);
+        listener.setRetryTransport(retryTransport.getIfAvailable());
+        listener.setCompactedStore(compactedStore.getIfAvailable());
+        return listener;
+    }
+
+    @Bean
+    @ConditionalOnExpression("${splitr.kafka.consumer.transactional.enabled:false} or ${splitr.kafka.consumer.idempotency.compacted.enabled:false}")
+    public NewTopic splitrIdempotencyMarkerTopic(
+            @Value("${splitr.kafka.consumer.idempotency.topic:${splitr.bus.kafka.command.topic:tr.kontas.splitr.command.topic}.idempotency}") String markerTopic) {
+        // Key başına son marker yeterli; compaction eskileri siler
+        return TopicBuilder.name(markerTopic).compact().build();
+    }
+
+    // Yalnızca command dispatcher kullanır; IdempotencyStore tipiyle enjekte edilmez
+    @Bean(name = KafkaCompactedStore.BEAN_NAME, destroyMethod = "shutdown", defaultCandidate = false)
+    @ConditionalOnBooleanProperty(name = "splitr.kafka.consumer.idempotency.compacted.enabled")
+    public KafkaCompactedStore kafkaCompactedStore(
+            ConsumerFactory<?, ?> consumerFactory,
+            ObjectProvider<SplitrKafkaProducers> producers,
+            ObjectProvider<JsonMapper> jsonMapper,
+            @Value("${splitr.kafka.consumer.idempotency.topic:${splitr.bus.kafka.command.topic:tr.kontas.splitr.command.topic}.idempotency}") String topic,
+            @Value("${splitr.idempotency.ttl-ms:3600000}") long ttlMs,
+            @Value("${splitr.kafka.consumer.idempotency.linger-ms:20}") int lingerMs,
+            @Value("${splitr.kafka.consumer.transactional.enabled:false}") boolean transactional) {
+        Object servers = consumerFactory.getConfigurationProperties().get(CommonClientConfigs.BOOTSTRAP_SERVERS_CONFIG);
+
+        Map<String, Object> producerProps = new HashMap<>();
+        producerProps.put(CommonClientConfigs.BOOTSTRAP_SERVERS_CONFIG, servers);
+        // Marker'lar asenkron yazılır; producer linger süresince batch'ler
+        producerProps.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+        producerProps.put(ProducerConfig.ACKS_CONFIG, "all");
+
+        Map<String, Object> readerProps = new HashMap<>();
+        readerProps.put(CommonClientConfigs.BOOTSTRAP_SERVERS_CONFIG, servers);
+        readerProps.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        // Abort edilmiş transaction'ların marker'ları sayılmaz
+        readerProps.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, "read_committed");
+
+        JsonMapper mapper = jsonMapper.getIfAvailable(JacksonMapperUtils::enhancedJsonMapper);
+        // Paylaşılan balanced producer da acks=all ile yazar; linger-ms yalnızca kendi producer'ı için geçerli
+        SplitrKafkaProducers managed = producers.getIfAvailable();
+        Producer<String, Object> producer = managed != null
+                ? managed.factory(KafkaProducerProfile.BALANCED).createProducer()
+                : new KafkaProducer<>(producerProps, new StringSerializer(), new JacksonJsonSerializer<>(mapper));
+        KafkaCompactedStore store = new KafkaCompactedStore(topic, ttlMs, producer,
+                () -> new KafkaConsumer<>(readerProps, new StringDeserializer(),
+                        new JacksonJsonDeserializer<>(Object.class, mapper).trustedPackages("tr.kontas.splitr.dto")));
+        store.setIndexOnly(transactional);
+        return store;
+    }
 }
\ No newline at end of file
@@ -5,10 +5,10 @@ import org.springframework.kafka.core.KafkaTemplate;
 import tr.kontas.splitr.bus.command.Command;
 import tr.kontas.splitr.bus.command.CommandBus;
 import tr.kontas.splitr.bus.registry.SyncRegistry;
+import tr.kontas.splitr.deadline.Deadline;
 import tr.kontas.splitr.dto.CommandRequest;
 import tr.kontas.splitr.kafka.bus.base.AbstractKafkaBus;
 
-import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 
 public class KafkaCommandBus extends AbstractKafkaBus<CommandRequest> implements CommandBus {
@@ -39,17 +39,18 @@ public class KafkaCommandBus extends AbstractKafkaBus<CommandRequest> implements
         return executeAsync(command, responseType);
     }
 
+    @Override
+    public <T> CompletableFuture<T> publishAsync(Command command, Class<T> responseType, long timeoutMs) {
+        return executeAsync(command, responseType, timeoutMs);
+    }
+
     @Override
     public void publish(Command command) {
-        publish(command, Long.MAX_VALUE);
+        publish(command, Deadline.NO_TIMEOUT);
     }
 
     @Override
     public void publish(Command command, long timeoutMs) {
-        try {
-            sendInternal(command, false, timeoutMs);
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
+        execute(command, timeoutMs);
     }
 }
\ No newline at end of file
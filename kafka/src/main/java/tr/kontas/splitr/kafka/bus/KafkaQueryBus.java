@@ -37,4 +37,9 @@ public class KafkaQueryBus extends AbstractKafkaBus<QueryRequest> implements Que
     public <T> CompletableFuture<T> publishAsync(Query query, Class<T> responseType) {
         return executeAsync(query, responseType);
     }
+
+    @Override
+    public <T> CompletableFuture<T> publishAsync(Query query, Class<T> responseType, long timeoutMs) {
+        return executeAsync(query, responseType, timeoutMs);
+    }
 }
\ No newline at end of file
@@ -1,15 +1,39 @@
 package tr.kontas.splitr.kafka.bus.base;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.utils.Utils;
 import org.springframework.kafka.core.KafkaTemplate;
 import tr.kontas.splitr.bus.base.IdempotencyProtected;
+import tr.kontas.splitr.bus.hedge.HedgingPolicy;
+import tr.kontas.splitr.bus.limit.ConcurrencyLimitExceededException;
+import tr.kontas.splitr.bus.limit.ConcurrencyLimiter;
+import tr.kontas.splitr.bus.limit.ConcurrencyLimiters;
+import tr.kontas.splitr.bus.query.CacheableQuery;
 import tr.kontas.splitr.bus.registry.SyncRegistry;
+import tr.kontas.splitr.deadline.Deadline;
+import tr.kontas.splitr.dto.base.BaseRequest;
 import tr.kontas.splitr.dto.base.BaseResponse;
+import tr.kontas.splitr.dto.base.TransportHeaders;
+import tr.kontas.splitr.id.ContentHasher;
+import tr.kontas.splitr.metrics.Instrumented;
+import tr.kontas.splitr.metrics.SplitrMetrics;
+import tr.kontas.splitr.metrics.SplitrObservations;
 
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
-public abstract class AbstractKafkaBus<TRequest> {
+@Slf4j
+public abstract class AbstractKafkaBus<TRequest extends BaseRequest> implements Instrumented {
+
+    private static final String TRANSPORT = "kafka";
 
     protected final KafkaTemplate<String, TRequest> kafka;
     protected final SyncRegistry registry;
@@ -17,6 +41,12 @@ public abstract class AbstractKafkaBus<TRequest> {
     protected final String callbackUrl;
     protected final String topic;
     protected final int defaultTimeout;
+    protected final ContentHasher hasher;
+    protected SplitrMetrics metrics = SplitrMetrics.NOOP;
+    protected ConcurrencyLimiters limiters = ConcurrencyLimiters.NONE;
+    protected HedgingPolicy hedging = HedgingPolicy.NONE;
+    protected ObservationRegistry observationRegistry = ObservationRegistry.NOOP;
+    protected boolean keyed = true;
 
     protected AbstractKafkaBus(String topic,
                                KafkaTemplate<String, TRequest> kafka,
@@ -30,6 +60,7 @@ public abstract class AbstractKafkaBus<TRequest> {
         this.mapper = mapper;
         this.callbackUrl = callbackUrl;
         this.defaultTimeout = defaultTimeout;
+        this.hasher = new ContentHasher(mapper);
 
         if (callbackUrl == null || callbackUrl.isBlank()) {
             throw new RuntimeException("splitr.callback-url is blank");
@@ -43,48 +74,90 @@ public abstract class AbstractKafkaBus<TRequest> {
                                               boolean isSync, long now, long timeout);
 
     protected <T> T executeSync(IdempotencyProtected payload, Class<T> responseType, long timeoutMs) {
+        long start = System.nanoTime();
+        Throwable error = null;
+        ConcurrencyLimiter limiter = ConcurrencyLimiter.UNLIMITED;
         try {
+            // Registry, gönderilen deadline ve bekleme aynı bütçeyi kullanır
+            long budget = Deadline.budgetMs(timeoutMs, defaultTimeout);
+            // Hedef doluysa registry'ye girmeden hemen reddet
+            limiter = limiters.acquire(topic, payload.getClass().getName());
             String id = payload.getIdempotencyKey();
-            var future = registry.register(id);
+            var future = registry.register(id, budget);
 
-            sendInternal(payload, true, timeoutMs);
+            TRequest request = sendInternal(payload, true, budget);
+            scheduleHedge(request, future, budget);
 
-            BaseResponse response = future.get(timeoutMs, TimeUnit.MILLISECONDS);
+            BaseResponse response = future.get(budget, TimeUnit.MILLISECONDS);
+            hedging.record(request.getType(), System.nanoTime() - start);
             return mapper.readValue(response.getResult(), responseType);
+        } catch (ConcurrencyLimitExceededException e) {
+            // Yük atma reddi timeout'tan ayırt edilebilsin; async yol da aynı istisnayla biter
+            error = e;
+            throw e;
         } catch (Exception e) {
+            error = e;
             throw new RuntimeException("Sync execution failed or timeout", e);
+        } finally {
+            limiter.release(System.nanoTime() - start, error);
+            recordPublish(payload, "sync", start, error);
         }
     }
 
     // Event bus için
     protected void execute(IdempotencyProtected payload) {
+        execute(payload, Deadline.NO_TIMEOUT);
+    }
+
+    protected void execute(IdempotencyProtected payload, long timeoutMs) {
+        long start = System.nanoTime();
+        Throwable error = null;
         try {
-            sendInternal(payload, false, Long.MAX_VALUE);
+            sendInternal(payload, false, timeoutMs);
         } catch (Exception e) {
+            error = e;
             throw new RuntimeException("Async execution failed", e);
+        } finally {
+            recordPublish(payload, "fire-and-forget", start, error);
         }
     }
 
     protected <T> CompletableFuture<T> executeAsync(IdempotencyProtected payload, Class<T> responseType) {
+        return executeAsync(payload, responseType, defaultTimeout);
+    }
+
+    protected <T> CompletableFuture<T> executeAsync(IdempotencyProtected payload, Class<T> responseType, long timeoutMs) {
+        long start = System.nanoTime();
+        ConcurrencyLimiter limiter = ConcurrencyLimiter.UNLIMITED;
         try {
+            long budget = Deadline.budgetMs(timeoutMs, defaultTimeout);
+            limiter = limiters.acquire(topic, payload.getClass().getName());
+            ConcurrencyLimiter acquired = limiter;
             String id = payload.getIdempotencyKey();
-            var future = registry.register(id);
+            var future = registry.register(id, budget);
 
-            sendInternal(payload, false, Long.MAX_VALUE);
+            TRequest request = sendInternal(payload, false, budget);
+            scheduleHedge(request, future, budget);
 
             return future.thenApply(response -> {
+                hedging.record(request.getType(), System.nanoTime() - start);
                 try {
                     return mapper.readValue(response.getResult(), responseType);
                 } catch (Exception e) {
                     throw new RuntimeException("Deserialization failed", e);
                 }
+            }).whenComplete((result, error) -> {
+                acquired.release(System.nanoTime() - start, error);
+                recordPublish(payload, "async", start, error);
             });
         } catch (Exception e) {
+            limiter.release(System.nanoTime() - start, e);
+            recordPublish(payload, "async", start, e);
             return CompletableFuture.failedFuture(e);
         }
     }
 
-    protected void sendInternal(IdempotencyProtected payload, boolean isSync, long timeoutMs) throws Exception {
+    protected TRequest sendInternal(IdempotencyProtected payload, boolean isSync, long timeoutMs) throws Exception {
         TRequest request = createRequest(
                 payload.getIdempotencyKey(),
                 payload.getClass().getName(),
@@ -93,6 +166,104 @@ public abstract class AbstractKafkaBus<TRequest> {
                 System.currentTimeMillis(),
                 timeoutMs
         );
-        kafka.send(this.topic, payload.getIdempotencyKey(), request);
+        // Eşit sorgular consumer'da tek sonucu paylaşır; istek id'si yine tekildir
+        if (CacheableQuery.Freshness.of(payload.getClass()) > 0) {
+            request.getHeaders().put(TransportHeaders.CONTENT_KEY, hasher.hash(payload));
+        }
+
+        Observation observation = SplitrObservations.publish(observationRegistry, request, TRANSPORT).start();
+        try (Observation.Scope ignored = observation.openScope()) {
+            kafka.send(record(request, null));
+        } catch (Exception e) {
+            observation.error(e);
+            throw e;
+        } finally {
+            observation.stop();
+        }
+        return request;
+    }
+
+    /**
+     * Publishes {@code request} once more if no response arrived within the hedge delay of its
+     * type. Both copies share the id, so the registry completes on the first response.
+     */
+    private void scheduleHedge(TRequest request, CompletableFuture<?> future, long budgetMs) {
+        long delay = hedging.delayMs(request.getType());
+        if (delay < 0 || delay >= budgetMs) {
+            return;
+        }
+        ScheduledFuture<?> task = hedging.schedule(() -> {
+            if (future.isDone() || Deadline.expired(request.getDeadlineEpochMs())) {
+                return;
+            }
+            try {
+                if (sendHedge(request)) {
+                    metrics.hedge(TRANSPORT, request.getType());
+                }
+            } catch (Exception e) {
+                log.debug("Hedge of {} failed", request.getId(), e);
+            }
+        }, delay);
+        future.whenComplete((response, error) -> task.cancel(false));
+    }
+
+    // Aynı key varsayılan partitioner ile aynı partition'a düşer; hedge bir sonrakine gider
+    private boolean sendHedge(TRequest request) {
+        List<PartitionInfo> partitions = kafka.partitionsFor(topic);
+        if (partitions == null || partitions.size() < 2) {
+            return false;
+        }
+        int count = partitions.size();
+        int original = Utils.toPositive(Utils.murmur2(request.getId().getBytes(StandardCharsets.UTF_8))) % count;
+        kafka.send(record(request, (original + 1) % count));
+        return true;
+    }
+
+    // Deadline ve tip header'da da taşınır; listener gövdeyi parse etmeden eleyebilir
+    private ProducerRecord<String, TRequest> record(TRequest request, Integer partition) {
+        // Key'siz kayıtları producer sticky partitioner ile aynı batch'te toplar
+        ProducerRecord<String, TRequest> record = new ProducerRecord<>(topic, partition, keyed ? request.getId() : null, request);
+        record.headers().add(TransportHeaders.TYPE, request.getType().getBytes(StandardCharsets.UTF_8));
+        if (request.getDeadlineEpochMs() != Deadline.NONE) {
+            record.headers().add(TransportHeaders.DEADLINE, TransportHeaders.encodeDeadline(request.getDeadlineEpochMs()));
+        }
+        return record;
+    }
+
+    private void recordPublish(IdempotencyProtected payload, String mode, long start, Throwable error) {
+        metrics.publish(TRANSPORT, payload.getClass().getName(), mode, System.nanoTime() - start, error);
+    }
+
+    /**
+     * @param keyed Whether records carry the idempotency key as Kafka key. Unkeyed records are
+     *              batched per partition by the sticky partitioner; only for event buses, since
+     *              commands and queries rely on key partitioning.
+     */
+    public void setKeyed(boolean keyed) {
+        this.keyed = keyed;
+    }
+
+    /**
+     * @param hedging Policy for publishing slow queries a second time; only set on query buses.
+     */
+    public void setHedgingPolicy(HedgingPolicy hedging) {
+        this.hedging = hedging;
+    }
+
+    /**
+     * @param limiters Adaptive in-flight limits applied to sync and async requests.
+     */
+    public void setConcurrencyLimiters(ConcurrencyLimiters limiters) {
+        this.limiters = limiters;
+    }
+
+    @Override
+    public void setMetrics(SplitrMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void setObservationRegistry(ObservationRegistry observationRegistry) {
+        this.observationRegistry = observationRegistry;
     }
-}
\ No newline at end of file
+}
@@ -2,22 +2,63 @@ package tr.kontas.splitr.kafka.listener;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.TopicPartition;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerSeekAware;
 import tr.kontas.splitr.consumer.dispatcher.CommandDispatcher;
+import tr.kontas.splitr.consumer.retry.RetryRouter;
 import tr.kontas.splitr.dto.CommandRequest;
+import tr.kontas.splitr.kafka.shedding.KafkaDeadlineFilter;
+import tr.kontas.splitr.kafka.store.KafkaCompactedStore;
+import tr.kontas.splitr.logging.MessageLog;
+
+import java.util.Collection;
+import java.util.Map;
 
 @RequiredArgsConstructor
 @Slf4j
-public class CommandKafkaListener {
+public class CommandKafkaListener implements ConsumerSeekAware {
+
+    private static final MessageLog messages = MessageLog.of(CommandKafkaListener.class, "Dispatching command");
 
     private final CommandDispatcher dispatcher;
+    private final RetryRouter retries;
+    private KafkaCompactedStore store;
 
     @KafkaListener(
             topics = "${splitr.bus.kafka.command.topic:tr.kontas.splitr.command.topic}",
-            groupId = "${splitr.bus.kafka.command.consumer:tr.kontas.splitr.command.consumer}"
+            groupId = "${splitr.bus.kafka.command.consumer:tr.kontas.splitr.command.consumer}",
+            filter = KafkaDeadlineFilter.BEAN_NAME
     )
     public void listen(CommandRequest r) throws Exception {
-        log.atInfo().log("Dispatching command: " + r.getId());
-        dispatcher.dispatch(r);
+        messages.message(r.getType(), r.getId());
+        try {
+            dispatcher.dispatch(r);
+        } catch (Exception e) {
+            // Hata partition'ı bloklamasın; retry tier'ına ya da DLT'ye taşı
+            retries.onFailure(r, e);
+        }
+    }
+
+    /**
+     * @param store Store whose partitions follow this listener's assignment, or {@code null}.
+     */
+    public void setCompactedStore(KafkaCompactedStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        // Partition'ın ilk kaydı dispatch edilmeden marker'lar yüklenmiş olmalı
+        if (store != null) {
+            store.assign(assignments.keySet());
+        }
+    }
+
+    @Override
+    public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+        if (store != null) {
+            store.revoke(partitions);
+        }
     }
 }
\ No newline at end of file
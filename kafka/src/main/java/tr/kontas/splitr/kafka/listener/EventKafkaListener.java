@@ -4,20 +4,32 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
 import tr.kontas.splitr.consumer.dispatcher.EventDispatcher;
+import tr.kontas.splitr.consumer.retry.RetryRouter;
 import tr.kontas.splitr.dto.EventRequest;
+import tr.kontas.splitr.kafka.shedding.KafkaDeadlineFilter;
+import tr.kontas.splitr.logging.MessageLog;
 
 @RequiredArgsConstructor
 @Slf4j
 public class EventKafkaListener {
 
+    private static final MessageLog messages = MessageLog.of(EventKafkaListener.class, "Dispatching event");
+
     private final EventDispatcher dispatcher;
+    private final RetryRouter retries;
 
     @KafkaListener(
             topics = "${splitr.bus.kafka.event.topic:tr.kontas.splitr.event.topic}",
-            groupId = "${splitr.bus.kafka.event.consumer:tr.kontas.splitr.event.consumer}"
+            groupId = "${splitr.bus.kafka.event.consumer:tr.kontas.splitr.event.consumer}",
+            filter = KafkaDeadlineFilter.BEAN_NAME
     )
     public void listen(EventRequest r) throws Exception {
-        log.atInfo().log("Dispatching command: " + r.getId());
-        dispatcher.dispatch(r);
+        messages.message(r.getType(), r.getId());
+        try {
+            dispatcher.dispatch(r);
+        } catch (Exception e) {
+            // Hata partition'ı bloklamasın; retry tier'ına ya da DLT'ye taşı
+            retries.onFailure(r, e);
+        }
     }
 }
\ No newline at end of file
@@ -2,22 +2,37 @@ package tr.kontas.splitr.kafka.listener;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.TopicPartition;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.AbstractConsumerSeekAware;
 import tr.kontas.splitr.consumer.dispatcher.QueryDispatcher;
 import tr.kontas.splitr.dto.QueryRequest;
+import tr.kontas.splitr.kafka.shedding.KafkaDeadlineFilter;
+import tr.kontas.splitr.logging.MessageLog;
 
 @RequiredArgsConstructor
 @Slf4j
-public class QueryKafkaListener {
+public class QueryKafkaListener extends AbstractConsumerSeekAware implements KafkaDeadlineFilter.FastForward {
+
+    private static final MessageLog messages = MessageLog.of(QueryKafkaListener.class, "Dispatching query");
 
     private final QueryDispatcher dispatcher;
 
     @KafkaListener(
             topics = "${splitr.bus.kafka.query.topic:tr.kontas.splitr.query.topic}",
-            groupId = "${splitr.bus.kafka.query.consumer:tr.kontas.splitr.query.consumer}"
+            groupId = "${splitr.bus.kafka.query.consumer:tr.kontas.splitr.query.consumer}",
+            filter = KafkaDeadlineFilter.BEAN_NAME
     )
     public void listen(QueryRequest r) throws Exception {
-        log.atInfo().log("Dispatching query: " + r.getId());
+        messages.message(r.getType(), r.getId());
         dispatcher.dispatch(r);
     }
-}
\ No newline at end of file
+
+    @Override
+    public void seekToTimestamp(String topic, int partition, long timestamp) {
+        var callbacks = getSeekCallbacksFor(new TopicPartition(topic, partition));
+        if (callbacks != null) {
+            callbacks.forEach(callback -> callback.seekToTimestamp(topic, partition, timestamp));
+        }
+    }
+}
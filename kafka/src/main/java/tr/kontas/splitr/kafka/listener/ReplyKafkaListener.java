@@ -0,0 +1,30 @@
+package tr.kontas.splitr.kafka.listener;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import tr.kontas.splitr.bus.registry.SyncRegistry;
+import tr.kontas.splitr.dto.CommandResponse;
+
+/**
+ * Completes pending commands from the reply topic written by transactional consumers.
+ * <p>
+ * Every publisher instance reads all replies with its own consumer group; replies of other
+ * instances are unknown to the local {@link SyncRegistry} and dropped there.
+ * </p>
+ */
+@RequiredArgsConstructor
+@Slf4j
+public class ReplyKafkaListener {
+
+    private final SyncRegistry registry;
+
+    @KafkaListener(
+            topics = "${splitr.bus.kafka.command.reply-topic:${splitr.bus.kafka.command.topic:tr.kontas.splitr.command.topic}.reply}",
+            groupId = "#{'splitr-reply-' + T(java.util.UUID).randomUUID()}",
+            properties = "isolation.level=read_committed"
+    )
+    public void listen(CommandResponse r) {
+        registry.complete(r);
+    }
+}
@@ -0,0 +1,59 @@
+package tr.kontas.splitr.kafka.producer;
+
+import org.apache.kafka.clients.producer.ProducerConfig;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Producer settings tuned for one end of the latency / throughput trade-off.
+ * <ul>
+ *     <li>{@link #LATENCY}: sends at once, uncompressed, leader-only acks; for sync queries.</li>
+ *     <li>{@link #BALANCED}: short linger, lz4, {@code acks=all} with idempotence.</li>
+ *     <li>{@link #THROUGHPUT}: long linger and large zstd batches, {@code acks=all} with
+ *     idempotence; for events and bulk commands.</li>
+ * </ul>
+ *
+ * @author BurakKontas
+ * @version 1.0.0
+ */
+public enum KafkaProducerProfile {
+
+    LATENCY(Map.of(
+            ProducerConfig.LINGER_MS_CONFIG, 0,
+            ProducerConfig.BATCH_SIZE_CONFIG, 16_384,
+            ProducerConfig.COMPRESSION_TYPE_CONFIG, "none",
+            ProducerConfig.ACKS_CONFIG, "1",
+            // acks=1 idempotence ile birlikte kullanılamaz
+            ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, false
+    )),
+    BALANCED(Map.of(
+            ProducerConfig.LINGER_MS_CONFIG, 5,
+            ProducerConfig.BATCH_SIZE_CONFIG, 65_536,
+            ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4",
+            ProducerConfig.ACKS_CONFIG, "all",
+            ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true
+    )),
+    THROUGHPUT(Map.of(
+            ProducerConfig.LINGER_MS_CONFIG, 20,
+            ProducerConfig.BATCH_SIZE_CONFIG, 262_144,
+            ProducerConfig.COMPRESSION_TYPE_CONFIG, "zstd",
+            ProducerConfig.ACKS_CONFIG, "all",
+            ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true,
+            ProducerConfig.BUFFER_MEMORY_CONFIG, 67_108_864L
+    ));
+
+    private final Map<String, Object> settings;
+
+    KafkaProducerProfile(Map<String, Object> settings) {
+        this.settings = settings;
+    }
+
+    public Map<String, Object> settings() {
+        return settings;
+    }
+
+    public static KafkaProducerProfile parse(String name) {
+        return valueOf(name.trim().toUpperCase(Locale.ROOT));
+    }
+}
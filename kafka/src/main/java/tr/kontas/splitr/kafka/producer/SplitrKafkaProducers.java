@@ -0,0 +1,76 @@
+package tr.kontas.splitr.kafka.producer;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.serializer.JacksonJsonSerializer;
+import tools.jackson.databind.json.JsonMapper;
+import tr.kontas.splitr.dto.base.BaseRequest;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Splitr-managed Kafka producers, one per {@link KafkaProducerProfile} in use.
+ * <p>
+ * Every bus on the same profile shares one producer factory, and so one producer with one set
+ * of connections and one record accumulator, whatever its message type; the value serializer
+ * writes any envelope as JSON. A profile's producer is created on first use, so only the
+ * profiles that buses actually select open connections.
+ * </p>
+ *
+ * @author BurakKontas
+ * @version 1.0.0
+ */
+@Slf4j
+public class SplitrKafkaProducers {
+
+    private final Map<String, Object> baseConfig;
+    private final JsonMapper mapper;
+    private final Map<KafkaProducerProfile, DefaultKafkaProducerFactory<String, Object>> factories =
+            new EnumMap<>(KafkaProducerProfile.class);
+
+    /**
+     * @param baseConfig Connection settings (bootstrap servers, security) shared by every profile.
+     */
+    public SplitrKafkaProducers(Map<String, Object> baseConfig, JsonMapper mapper) {
+        this.baseConfig = Map.copyOf(baseConfig);
+        this.mapper = mapper;
+    }
+
+    public synchronized DefaultKafkaProducerFactory<String, Object> factory(KafkaProducerProfile profile) {
+        return factories.computeIfAbsent(profile, p -> {
+            Map<String, Object> config = new HashMap<>(baseConfig);
+            config.putAll(p.settings());
+            log.info("Creating shared Kafka producer for profile {}", p);
+            return new DefaultKafkaProducerFactory<>(config, new StringSerializer(), new JacksonJsonSerializer<>(mapper));
+        });
+    }
+
+    /**
+     * Creates a transactional factory on the shared connection settings. Transactions need
+     * {@code acks=all} and idempotence, so it always uses {@link KafkaProducerProfile#BALANCED}.
+     * It is not shared; the caller destroys it.
+     */
+    public DefaultKafkaProducerFactory<String, Object> transactionalFactory(String transactionIdPrefix) {
+        Map<String, Object> config = new HashMap<>(baseConfig);
+        config.putAll(KafkaProducerProfile.BALANCED.settings());
+        DefaultKafkaProducerFactory<String, Object> factory =
+                new DefaultKafkaProducerFactory<>(config, new StringSerializer(), new JacksonJsonSerializer<>(mapper));
+        factory.setTransactionIdPrefix(transactionIdPrefix);
+        return factory;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public <T extends BaseRequest> KafkaTemplate<String, T> template(KafkaProducerProfile profile) {
+        // Serializer her envelope tipini yazar; şablon yalnızca bus'ın tipine daraltılır
+        return (KafkaTemplate) new KafkaTemplate<>(factory(profile));
+    }
+
+    public synchronized void shutdown() {
+        factories.values().forEach(DefaultKafkaProducerFactory::destroy);
+        factories.clear();
+    }
+}
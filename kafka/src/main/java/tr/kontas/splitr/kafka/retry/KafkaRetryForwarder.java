@@ -0,0 +1,58 @@
+package tr.kontas.splitr.kafka.retry;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import tr.kontas.splitr.dto.base.BaseRequest;
+import tr.kontas.splitr.dto.base.TransportHeaders;
+
+/**
+ * Consumer of one retry tier: waits until a record is due and hands it to this service's own
+ * listener.
+ * <p>
+ * Tier topics belong to one consumer group, and the record is re-dispatched locally instead of
+ * being republished to the main topic, so other groups of a shared event topic never see the
+ * retry. Records of a tier share the same delay, so they become due in offset order and waiting
+ * on the head never delays a record that is already due. The wait happens on the consumer
+ * thread, so the auto-configuration refuses tier delays that reach {@code max.poll.interval.ms}.
+ * </p>
+ *
+ * @author BurakKontas
+ * @version 1.0.0
+ */
+@Slf4j
+public class KafkaRetryForwarder {
+
+    private final KafkaRetryRoute<?> route;
+    private final Redelivery redelivery;
+
+    public KafkaRetryForwarder(KafkaRetryRoute<?> route, Redelivery redelivery) {
+        this.route = route;
+        this.redelivery = redelivery;
+    }
+
+    public void forward(ConsumerRecord<String, Object> record, Consumer<?, ?> consumer) throws Exception {
+        // Deadline'ı geçmiş kayıtlar deserializer'da null'a çevrilir
+        if (!(record.value() instanceof BaseRequest request)) {
+            return;
+        }
+
+        long wait = KafkaRetryRoute.retryAt(record.headers().lastHeader(TransportHeaders.RETRY_AT))
+                - System.currentTimeMillis();
+        if (wait > 0) {
+            Thread.sleep(wait);
+        }
+
+        log.debug("Redelivering retry {} from {} to group {}", request.getId(), record.topic(), route.group());
+        redelivery.redeliver(record, consumer);
+    }
+
+    /**
+     * Listener logic of the main topic, applied to a due tier record. A failure is expected to
+     * be routed to the next tier by the listener itself; anything thrown keeps the tier record.
+     */
+    @FunctionalInterface
+    public interface Redelivery {
+        void redeliver(ConsumerRecord<String, Object> record, Consumer<?, ?> consumer) throws Exception;
+    }
+}
@@ -0,0 +1,77 @@
+package tr.kontas.splitr.kafka.retry;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.annotation.KafkaListenerConfigurer;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistrar;
+import org.springframework.kafka.config.MethodKafkaListenerEndpoint;
+import org.springframework.messaging.handler.annotation.support.DefaultMessageHandlerMethodFactory;
+import org.springframework.messaging.handler.annotation.support.MessageHandlerMethodFactory;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+/**
+ * Registers one listener container per retry tier, each handing due records back to the local
+ * listener of its route. Tiers get their own containers so a long tier never holds back a
+ * shorter one.
+ *
+ * @author BurakKontas
+ * @version 1.0.0
+ */
+public class KafkaRetryListenerConfigurer implements KafkaListenerConfigurer {
+
+    private static final Method FORWARD;
+
+    static {
+        try {
+            FORWARD = KafkaRetryForwarder.class.getMethod("forward", ConsumerRecord.class, Consumer.class);
+        } catch (NoSuchMethodException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final List<Tiered> routes;
+    private final int tiers;
+
+    /**
+     * @param routes Routes with the listener logic their due records are redelivered to.
+     * @param tiers  Number of retry tiers, i.e. the policy's max attempts.
+     */
+    public KafkaRetryListenerConfigurer(List<Tiered> routes, int tiers) {
+        this.routes = routes;
+        this.tiers = tiers;
+    }
+
+    @Override
+    public void configureKafkaListeners(KafkaListenerEndpointRegistrar registrar) {
+        MessageHandlerMethodFactory factory = registrar.getMessageHandlerMethodFactory();
+        if (factory == null) {
+            DefaultMessageHandlerMethodFactory fallback = new DefaultMessageHandlerMethodFactory();
+            fallback.afterPropertiesSet();
+            factory = fallback;
+        }
+
+        for (Tiered tiered : routes) {
+            KafkaRetryForwarder forwarder = new KafkaRetryForwarder(tiered.route(), tiered.redelivery());
+            for (int tier = 0; tier < tiers; tier++) {
+                String topic = tiered.route().tierTopic(tier);
+                MethodKafkaListenerEndpoint<String, Object> endpoint = new MethodKafkaListenerEndpoint<>();
+                endpoint.setId("splitr-retry-" + topic);
+                endpoint.setGroupId(tiered.route().group() + ".retry");
+                endpoint.setTopics(topic);
+                endpoint.setBean(forwarder);
+                endpoint.setMethod(FORWARD);
+                endpoint.setMessageHandlerMethodFactory(factory);
+                registrar.registerEndpoint(endpoint);
+            }
+        }
+    }
+
+    /**
+     * @param route      Route whose tiers are consumed, by the group {@code <group>.retry}.
+     * @param redelivery Listener logic of the route's main topic.
+     */
+    public record Tiered(KafkaRetryRoute<?> route, KafkaRetryForwarder.Redelivery redelivery) {
+    }
+}
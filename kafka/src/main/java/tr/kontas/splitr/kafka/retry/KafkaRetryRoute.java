@@ -0,0 +1,71 @@
+package tr.kontas.splitr.kafka.retry;
+
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.springframework.kafka.core.KafkaOperations;
+import org.springframework.kafka.core.KafkaTemplate;
+import tr.kontas.splitr.deadline.Deadline;
+import tr.kontas.splitr.dto.base.BaseRequest;
+import tr.kontas.splitr.dto.base.TransportHeaders;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Main topic of one request kind with the retry tiers ({@code <topic>.<group>.retry.<n>}) and
+ * dead-letter topic ({@code <topic>.<group>.dlt}) of one consumer group. Tiers are per group
+ * because several groups may consume the same topic, and a failure in one must not be handled
+ * again by the others.
+ *
+ * @param topic    The main topic.
+ * @param group    Consumer group of the main listener.
+ * @param template Producer of the request kind.
+ * @param type     The request kind.
+ * @param <T>      The request kind.
+ * @author BurakKontas
+ * @version 1.0.0
+ */
+public record KafkaRetryRoute<T extends BaseRequest>(String topic, String group, KafkaTemplate<String, T> template, Class<T> type) {
+
+    public String tierTopic(int tier) {
+        return topic + "." + group + ".retry." + tier;
+    }
+
+    public String deadLetterTopic() {
+        return topic + "." + group + ".dlt";
+    }
+
+    /**
+     * Publishes {@code request} to {@code destination} and waits for the broker acknowledgement.
+     *
+     * @param retryAt Due time written as {@link TransportHeaders#RETRY_AT}, or {@code 0} for none.
+     */
+    public void send(String destination, BaseRequest request, long retryAt) throws Exception {
+        // Offset commit'ten önce broker onayı şart; aksi halde mesaj kaybolabilir
+        template.send(record(destination, request, type.cast(request), retryAt)).get();
+    }
+
+    /**
+     * Publishes {@code request} through {@code ops} instead of the route's own producer, so the
+     * record joins the transaction {@code ops} belongs to.
+     */
+    public void send(KafkaOperations<String, Object> ops, String destination, BaseRequest request, long retryAt)
+            throws Exception {
+        ops.send(record(destination, request, (Object) type.cast(request), retryAt)).get();
+    }
+
+    private static <V> ProducerRecord<String, V> record(String destination, BaseRequest request, V value, long retryAt) {
+        ProducerRecord<String, V> record = new ProducerRecord<>(destination, request.getId(), value);
+        record.headers().add(TransportHeaders.TYPE, request.getType().getBytes(StandardCharsets.UTF_8));
+        if (request.getDeadlineEpochMs() != Deadline.NONE) {
+            record.headers().add(TransportHeaders.DEADLINE, TransportHeaders.encodeDeadline(request.getDeadlineEpochMs()));
+        }
+        if (retryAt > 0) {
+            record.headers().add(TransportHeaders.RETRY_AT, TransportHeaders.encodeDeadline(retryAt));
+        }
+        return record;
+    }
+
+    static long retryAt(Header header) {
+        return header == null ? 0L : TransportHeaders.parseDeadline(header.value());
+    }
+}
@@ -0,0 +1,71 @@
+package tr.kontas.splitr.kafka.retry;
+
+import org.springframework.kafka.core.KafkaOperations;
+import tr.kontas.splitr.consumer.retry.RetryTransport;
+import tr.kontas.splitr.dto.CommandRequest;
+import tr.kontas.splitr.dto.base.BaseRequest;
+
+/**
+ * Publishes failed commands and events to their retry tier or dead-letter topic.
+ *
+ * @author BurakKontas
+ * @version 1.0.0
+ */
+public class KafkaRetryTransport implements RetryTransport {
+
+    private final KafkaRetryRoute<?> commands;
+    private final KafkaRetryRoute<?> events;
+
+    public KafkaRetryTransport(KafkaRetryRoute<?> commands, KafkaRetryRoute<?> events) {
+        this.commands = commands;
+        this.events = events;
+    }
+
+    @Override
+    public void retry(BaseRequest request, int tier, long dueAtEpochMs) throws Exception {
+        KafkaRetryRoute<?> route = routeOf(request);
+        route.send(route.tierTopic(tier), request, dueAtEpochMs);
+    }
+
+    @Override
+    public void deadLetter(BaseRequest request) throws Exception {
+        KafkaRetryRoute<?> route = routeOf(request);
+        route.send(route.deadLetterTopic(), request, 0L);
+    }
+
+    /**
+     * @param ops Operations of a running Kafka transaction.
+     * @return A transport that publishes retries and dead letters inside that transaction.
+     */
+    public RetryTransport within(KafkaOperations<String, Object> ops) {
+        return new RetryTransport() {
+            @Override
+            public void retry(BaseRequest request, int tier, long dueAtEpochMs) throws Exception {
+                KafkaRetryRoute<?> route = routeOf(request);
+                route.send(ops, route.tierTopic(tier), request, dueAtEpochMs);
+            }
+
+            @Override
+            public void deadLetter(BaseRequest request) throws Exception {
+                KafkaRetryRoute<?> route = routeOf(request);
+                route.send(ops, route.deadLetterTopic(), request, 0L);
+            }
+        };
+    }
+
+    public KafkaRetryRoute<?> commands() {
+        return commands;
+    }
+
+    public KafkaRetryRoute<?> events() {
+        return events;
+    }
+
+    private KafkaRetryRoute<?> routeOf(BaseRequest request) {
+        KafkaRetryRoute<?> route = request instanceof CommandRequest ? commands : events;
+        if (route == null) {
+            throw new RuntimeException("No Kafka retry route for " + request.getClass().getSimpleName());
+        }
+        return route;
+    }
+}
@@ -0,0 +1,96 @@
+package tr.kontas.splitr.kafka.shedding;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.utils.Utils;
+import tr.kontas.splitr.deadline.Deadline;
+import tr.kontas.splitr.dto.base.TransportHeaders;
+
+import java.util.Map;
+
+/**
+ * Value deserializer that returns {@code null} for records whose {@link TransportHeaders#DEADLINE}
+ * header has passed, without calling the delegate.
+ * <p>
+ * Records without the header (non-Splitr topics, older publishers) are passed to the delegate
+ * unchanged. The shed record is then discarded by {@link KafkaDeadlineFilter} before it reaches
+ * the listener. When created by Kafka from its class name, the delegate is read from
+ * {@value #DELEGATE_CONFIG}.
+ * </p>
+ *
+ * @param <T> The value type.
+ * @author BurakKontas
+ * @version 1.0.0
+ */
+public class DeadlineSheddingDeserializer<T> implements Deserializer<T> {
+
+    public static final String DELEGATE_CONFIG = "splitr.shedding.value.delegate";
+
+    private Deserializer<T> delegate;
+
+    public DeadlineSheddingDeserializer() {
+    }
+
+    public DeadlineSheddingDeserializer(Deserializer<T> delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        if (delegate == null) {
+            Object type = configs.get(DELEGATE_CONFIG);
+            if (type == null) {
+                type = configs.get(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG);
+            }
+            delegate = newDelegate(type);
+        }
+        delegate.configure(configs, isKey);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Deserializer<T> newDelegate(Object type) {
+        try {
+            return switch (type) {
+                case Class<?> c when !DeadlineSheddingDeserializer.class.isAssignableFrom(c) ->
+                        (Deserializer<T>) Utils.newInstance(c);
+                case String name when !DeadlineSheddingDeserializer.class.getName().equals(name) ->
+                        Utils.newInstance(name, Deserializer.class);
+                case null, default -> throw new IllegalStateException(
+                        "No delegate value deserializer; set " + DELEGATE_CONFIG);
+            };
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("Delegate value deserializer not found: " + type, e);
+        }
+    }
+
+    @Override
+    public T deserialize(String topic, byte[] data) {
+        return delegate.deserialize(topic, data);
+    }
+
+    @Override
+    public T deserialize(String topic, Headers headers, byte[] data) {
+        if (expired(headers)) {
+            return null;
+        }
+        return delegate.deserialize(topic, headers, data);
+    }
+
+    static boolean expired(Headers headers) {
+        if (headers == null) {
+            return false;
+        }
+        Header header = headers.lastHeader(TransportHeaders.DEADLINE);
+        return header != null && Deadline.expired(TransportHeaders.parseDeadline(header.value()));
+    }
+
+    @Override
+    public void close() {
+        if (delegate != null) {
+            delegate.close();
+        }
+    }
+}
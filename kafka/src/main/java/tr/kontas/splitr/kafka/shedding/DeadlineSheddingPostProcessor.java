@@ -0,0 +1,45 @@
+package tr.kontas.splitr.kafka.shedding;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+
+/**
+ * Wraps the value deserializer of every {@link DefaultKafkaConsumerFactory} in a
+ * {@link DeadlineSheddingDeserializer}, so expired Splitr records are never parsed.
+ * <p>
+ * A deserializer configured by class name is instantiated per consumer by the wrapper; an
+ * instance set on the factory is wrapped as is.
+ * </p>
+ *
+ * @author BurakKontas
+ * @version 1.0.0
+ */
+@Slf4j
+public class DeadlineSheddingPostProcessor implements BeanPostProcessor {
+
+    @Override
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+        if (!(bean instanceof DefaultKafkaConsumerFactory<?, ?> factory)) {
+            return bean;
+        }
+
+        Deserializer existing = factory.getValueDeserializer();
+        if (existing instanceof DeadlineSheddingDeserializer) {
+            return bean;
+        }
+        if (existing == null && factory.getConfigurationProperties().get(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG) == null) {
+            return bean;
+        }
+
+        ((DefaultKafkaConsumerFactory) factory).setValueDeserializerSupplier(existing != null
+                ? () -> new DeadlineSheddingDeserializer<>(existing)
+                : DeadlineSheddingDeserializer::new);
+        log.debug("Deadline shedding enabled for consumer factory {}", beanName);
+        return bean;
+    }
+}
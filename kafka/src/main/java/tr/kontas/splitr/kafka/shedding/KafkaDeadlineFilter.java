@@ -0,0 +1,100 @@
+package tr.kontas.splitr.kafka.shedding;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.listener.adapter.RecordFilterStrategy;
+import tr.kontas.splitr.logging.MessageLog;
+import tr.kontas.splitr.metrics.Instrumented;
+import tr.kontas.splitr.metrics.SplitrMetrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Discards records whose deadline header has passed before they reach the Splitr listeners.
+ * <p>
+ * Works with or without {@link DeadlineSheddingDeserializer}: with it the shed record was never
+ * parsed, without it only the dispatch is skipped. In fast-forward mode, an expired record older
+ * than the largest request timeout on the query topic means everything before "now - max
+ * timeout" is expired too, so the partition is moved to that timestamp instead of reading the
+ * backlog record by record.
+ * </p>
+ *
+ * @author BurakKontas
+ * @version 1.0.0
+ */
+public class KafkaDeadlineFilter implements RecordFilterStrategy<Object, Object>, Instrumented {
+
+    public static final String BEAN_NAME = "splitrKafkaDeadlineFilter";
+
+    private static final MessageLog shed = MessageLog.of(KafkaDeadlineFilter.class, "Deadline exceeded, shedding record");
+    private static final long SEEK_INTERVAL_MS = 1_000L;
+
+    private final boolean enabled;
+    private final FastForward fastForward;
+    private final String fastForwardTopic;
+    private final long maxTimeoutMs;
+    private final Map<String, Long> lastSeek = new ConcurrentHashMap<>();
+    private SplitrMetrics metrics = SplitrMetrics.NOOP;
+
+    /**
+     * Seeks a partition to a record timestamp, e.g. through a {@code ConsumerSeekAware} listener.
+     */
+    @FunctionalInterface
+    public interface FastForward {
+        void seekToTimestamp(String topic, int partition, long timestamp);
+    }
+
+    public KafkaDeadlineFilter() {
+        this(true, null, null, 0);
+    }
+
+    /**
+     * @param enabled          Whether expired records are shed at all.
+     * @param fastForward      Seeker of the fast-forward topic, or {@code null} to disable fast-forward.
+     * @param fastForwardTopic Topic whose records all carry a deadline (queries).
+     * @param maxTimeoutMs     Largest timeout used on that topic.
+     */
+    public KafkaDeadlineFilter(boolean enabled, FastForward fastForward, String fastForwardTopic, long maxTimeoutMs) {
+        this.enabled = enabled;
+        this.fastForward = fastForward;
+        this.fastForwardTopic = fastForwardTopic;
+        this.maxTimeoutMs = maxTimeoutMs;
+    }
+
+    @Override
+    public boolean filter(ConsumerRecord<Object, Object> record) {
+        if (!enabled || !DeadlineSheddingDeserializer.expired(record.headers())) {
+            return false;
+        }
+
+        shed.message(record.topic(), String.valueOf(record.key()));
+        metrics.shed("kafka");
+
+        if (fastForward != null && record.topic().equals(fastForwardTopic)) {
+            fastForward(record);
+        }
+        return true;
+    }
+
+    private void fastForward(ConsumerRecord<Object, Object> record) {
+        long now = System.currentTimeMillis();
+        long target = now - maxTimeoutMs;
+        if (record.timestamp() >= target) {
+            return;
+        }
+
+        // Aynı partition için poll başına bir kez; kalan eski kayıtlar zaten elenir
+        String key = record.topic() + "-" + record.partition();
+        Long previous = lastSeek.get(key);
+        if (previous != null && now - previous < SEEK_INTERVAL_MS) {
+            return;
+        }
+        lastSeek.put(key, now);
+        fastForward.seekToTimestamp(record.topic(), record.partition(), target);
+    }
+
+    @Override
+    public void setMetrics(SplitrMetrics metrics) {
+        this.metrics = metrics;
+    }
+}
@@ -0,0 +1,287 @@
+package tr.kontas.splitr.kafka.store;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndTimestamp;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.RecordDeserializationException;
+import org.apache.kafka.common.utils.Utils;
+import tr.kontas.splitr.consumer.store.IdempotencyStore;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * {@link IdempotencyStore} backed by a log-compacted Kafka topic keyed by message id.
+ * <p>
+ * The topic is the source of truth; each instance keeps an in-memory index of the partitions it
+ * owns. The topic must have as many partitions as the command topic, so that marker partition
+ * {@code n} holds the ids of command partition {@code n}. When the command listener is assigned
+ * a partition, the matching marker partition is read from {@code now - ttl} to its end before any
+ * command of that partition is dispatched, so a rebalance never hands a partition to a cold
+ * cache. Revoked partitions are dropped from the index.
+ * </p>
+ * <p>
+ * Writes update the index at once and are sent asynchronously; the producer batches them
+ * ({@code linger.ms}). In index-only mode {@link #put} leaves the topic alone, because the
+ * transactional command listener writes the marker inside its own transaction. Entries older
+ * than the TTL are neither loaded nor served. Only command dispatching uses this store; queries
+ * and events keep the in-memory store.
+ * </p>
+ *
+ * @author BurakKontas
+ * @version 1.0.0
+ */
+@Slf4j
+public class KafkaCompactedStore implements IdempotencyStore {
+
+    public static final String BEAN_NAME = "splitrKafkaCompactedStore";
+
+    private static final Duration POLL_TIMEOUT = Duration.ofMillis(200);
+
+    private record Entry(Object value, long expiresAt) {
+        boolean isExpired(long now) {
+            return now > expiresAt;
+        }
+    }
+
+    private final String topic;
+    private final long defaultTtlMs;
+    private final Producer<String, Object> producer;
+    private final Supplier<Consumer<String, Object>> readers;
+    private final ConcurrentMap<Integer, ConcurrentMap<String, Entry>> index = new ConcurrentHashMap<>();
+    private final Set<Integer> owned = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService cleanupScheduler;
+    private volatile int partitionCount;
+    private volatile boolean checked;
+    private volatile boolean indexOnly;
+
+    /**
+     * @param topic        The compacted marker topic.
+     * @param defaultTtlMs Age after which a marker is ignored.
+     * @param producer     Producer of markers and tombstones.
+     * @param readers      Creates unsubscribed consumers used to warm up assigned partitions.
+     */
+    public KafkaCompactedStore(String topic, long defaultTtlMs, Producer<String, Object> producer,
+                               Supplier<Consumer<String, Object>> readers) {
+        this.topic = topic;
+        this.defaultTtlMs = defaultTtlMs;
+        this.producer = producer;
+        this.readers = readers;
+
+        this.cleanupScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "KafkaCompactedStore-Cleanup");
+            t.setDaemon(true);
+            return t;
+        });
+        this.cleanupScheduler.scheduleAtFixedRate(this::cleanup, 30, 30, TimeUnit.SECONDS);
+    }
+
+    /**
+     * @param indexOnly {@code true} if markers reach the topic another way and {@link #put} should
+     *                  only update the local index.
+     */
+    public void setIndexOnly(boolean indexOnly) {
+        this.indexOnly = indexOnly;
+    }
+
+    /**
+     * Loads the marker partitions matching the assigned command partitions. Blocks until they are
+     * read up to their end offset.
+     */
+    public void assign(Collection<TopicPartition> assigned) {
+        int count = partitionCount();
+        checkCoPartitioned(assigned, count);
+        List<TopicPartition> markers = assigned.stream()
+                .map(TopicPartition::partition)
+                .filter(p -> p < count && !owned.contains(p))
+                .distinct()
+                .map(p -> new TopicPartition(topic, p))
+                .toList();
+        if (markers.isEmpty()) {
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        int loaded = warmUp(markers, start - defaultTtlMs);
+        markers.forEach(tp -> owned.add(tp.partition()));
+        log.info("Loaded {} idempotency markers of {} in {} ms", loaded, markers, System.currentTimeMillis() - start);
+    }
+
+    private void checkCoPartitioned(Collection<TopicPartition> assigned, int count) {
+        if (checked || assigned.isEmpty()) {
+            return;
+        }
+        checked = true;
+        String source = assigned.iterator().next().topic();
+        int sourceCount = producer.partitionsFor(source).size();
+        if (sourceCount != count) {
+            // Partition eşleşmesi bozulur; rebalance sonrası duplicate'ler kaçabilir
+            log.warn("Idempotency topic {} has {} partitions but {} has {}; markers of moved partitions are not warmed up",
+                    topic, count, source, sourceCount);
+        }
+    }
+
+    public void revoke(Collection<TopicPartition> revoked) {
+        for (TopicPartition partition : revoked) {
+            owned.remove(partition.partition());
+            index.remove(partition.partition());
+        }
+    }
+
+    private int warmUp(List<TopicPartition> markers, long since) {
+        Map<Integer, ConcurrentMap<String, Entry>> loaded = new HashMap<>();
+        int count = 0;
+
+        try (Consumer<String, Object> reader = readers.get()) {
+            reader.assign(markers);
+
+            // TTL'i dolmuş marker'ları hiç okuma; zaman indeksinden başla
+            Map<TopicPartition, Long> timestamps = new HashMap<>();
+            markers.forEach(tp -> timestamps.put(tp, since));
+            Map<TopicPartition, OffsetAndTimestamp> offsets = reader.offsetsForTimes(timestamps);
+            Map<TopicPartition, Long> end = reader.endOffsets(markers);
+            for (TopicPartition tp : markers) {
+                OffsetAndTimestamp offset = offsets.get(tp);
+                reader.seek(tp, offset != null ? offset.offset() : end.get(tp));
+                loaded.put(tp.partition(), new ConcurrentHashMap<>());
+            }
+
+            while (!caughtUp(reader, end)) {
+                try {
+                    for (ConsumerRecord<String, Object> record : reader.poll(POLL_TIMEOUT)) {
+                        Map<String, Entry> partition = loaded.get(record.partition());
+                        if (record.value() == null) {
+                            partition.remove(record.key());
+                        } else {
+                            partition.put(record.key(), new Entry(record.value(), record.timestamp() + defaultTtlMs));
+                            count++;
+                        }
+                    }
+                } catch (RecordDeserializationException e) {
+                    log.warn("Skipping unreadable idempotency marker {}@{}", e.topicPartition(), e.offset(), e);
+                    reader.seek(e.topicPartition(), e.offset() + 1);
+                }
+            }
+        }
+
+        // Warm-up sırasında yapılan yazmalar okunanların üzerine yazılır
+        loaded.forEach((partition, entries) -> index.merge(partition, entries, (fresh, warmed) -> {
+            warmed.putAll(fresh);
+            return warmed;
+        }));
+        return count;
+    }
+
+    private static boolean caughtUp(Consumer<?, ?> reader, Map<TopicPartition, Long> end) {
+        for (Map.Entry<TopicPartition, Long> e : end.entrySet()) {
+            if (reader.position(e.getKey()) < e.getValue()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int partitionCount() {
+        int count = partitionCount;
+        if (count == 0) {
+            count = producer.partitionsFor(topic).size();
+            partitionCount = count;
+        }
+        return count;
+    }
+
+    // Producer'ın varsayılan partitioner'ı ile aynı: murmur2(key) % partitions
+    private ConcurrentMap<String, Entry> partitionOf(String id) {
+        int partition = Utils.toPositive(Utils.murmur2(id.getBytes(StandardCharsets.UTF_8))) % partitionCount();
+        return index.computeIfAbsent(partition, p -> new ConcurrentHashMap<>());
+    }
+
+    @Override
+    public boolean contains(String id) {
+        return get(id) != null;
+    }
+
+    @Override
+    public Object get(String id) {
+        Entry entry = partitionOf(id).get(id);
+        if (entry == null || entry.isExpired(System.currentTimeMillis())) {
+            return null;
+        }
+        return entry.value();
+    }
+
+    @Override
+    public void put(String id, Object r) {
+        put(id, r, defaultTtlMs);
+    }
+
+    @Override
+    public void put(String id, Object r, long ttlMs) {
+        partitionOf(id).put(id, new Entry(r, System.currentTimeMillis() + ttlMs));
+        // Transactional modda marker, listener'ın transaction'ında yazılır
+        if (!indexOnly) {
+            send(id, r);
+        }
+    }
+
+    @Override
+    public boolean remove(String id) {
+        boolean removed = partitionOf(id).remove(id) != null;
+        send(id, null);
+        return removed;
+    }
+
+    private void send(String id, Object value) {
+        producer.send(new ProducerRecord<>(topic, id, value), (metadata, e) -> {
+            if (e != null) {
+                log.error("Failed to write idempotency marker for ID: {}", id, e);
+            }
+        });
+    }
+
+    @Override
+    public int cleanup() {
+        long now = System.currentTimeMillis();
+        int removed = 0;
+        for (Map<String, Entry> partition : index.values()) {
+            Iterator<Entry> it = partition.values().iterator();
+            while (it.hasNext()) {
+                if (it.next().isExpired(now)) {
+                    it.remove();
+                    removed++;
+                }
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Clears the local index only; the topic keeps its markers.
+     */
+    @Override
+    public void clear() {
+        index.clear();
+    }
+
+    @Override
+    public int size() {
+        return index.values().stream().mapToInt(Map::size).sum();
+    }
+
+    @Override
+    public void shutdown() {
+        cleanupScheduler.shutdownNow();
+        producer.close(Duration.ofSeconds(5));
+    }
+}
@@ -0,0 +1,140 @@
+package tr.kontas.splitr.kafka.transaction;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaOperations;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import tr.kontas.splitr.consumer.dispatcher.CommandDispatcher;
+import tr.kontas.splitr.consumer.retry.RetryRouter;
+import tr.kontas.splitr.dto.CommandRequest;
+import tr.kontas.splitr.dto.base.BaseResponse;
+import tr.kontas.splitr.kafka.retry.KafkaRetryTransport;
+import tr.kontas.splitr.kafka.store.KafkaCompactedStore;
+import tr.kontas.splitr.logging.MessageLog;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Exactly-once command consumer.
+ * <p>
+ * Each polled batch is processed in one Kafka transaction that contains, per command, the
+ * response on the reply topic and the idempotency marker on the compacted marker topic, plus the
+ * consumed offsets. The transaction commits once per batch instead of once per record; if any
+ * command fails without being moved to a retry tier, the transaction aborts and the batch is
+ * redelivered. Retry and dead-letter records are written in the same transaction, so an aborted
+ * batch never leaves a retry of a command that is redelivered anyway. Responses are not sent to the callback webhook in this mode.
+ * </p>
+ *
+ * @author BurakKontas
+ * @version 1.0.0
+ */
+@Slf4j
+public class TransactionalCommandListener implements ConsumerSeekAware {
+
+    private static final MessageLog messages = MessageLog.of(TransactionalCommandListener.class, "Dispatching command in transaction");
+
+    private final CommandDispatcher dispatcher;
+    private final RetryRouter retries;
+    private final KafkaTemplate<String, Object> kafka;
+    private final String replyTopic;
+    private final String markerTopic;
+    private KafkaCompactedStore store;
+    private KafkaRetryTransport retryTransport;
+
+    public TransactionalCommandListener(CommandDispatcher dispatcher,
+                                        RetryRouter retries,
+                                        KafkaTemplate<String, Object> kafka,
+                                        String replyTopic,
+                                        String markerTopic) {
+        if (!kafka.isTransactional()) {
+            throw new RuntimeException("TransactionalCommandListener requires a transactional KafkaTemplate");
+        }
+        this.dispatcher = dispatcher;
+        this.retries = retries;
+        this.kafka = kafka;
+        this.replyTopic = replyTopic;
+        this.markerTopic = markerTopic;
+    }
+
+    @KafkaListener(
+            topics = "${splitr.bus.kafka.command.topic:tr.kontas.splitr.command.topic}",
+            groupId = "${splitr.bus.kafka.command.consumer:tr.kontas.splitr.command.consumer}",
+            containerFactory = TransactionalContainerFactory.BEAN_NAME,
+            batch = "true"
+    )
+    public void listen(List<ConsumerRecord<String, Object>> records, Consumer<?, ?> consumer) {
+        kafka.executeInTransaction(ops -> {
+            Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+            List<BaseResponse> responses = new ArrayList<>(1);
+
+            for (ConsumerRecord<String, Object> record : records) {
+                // Deadline'ı geçmiş kayıtlar null gelir; yine de offset'leri commit edilir
+                if (record.value() instanceof CommandRequest r) {
+                    messages.message(r.getType(), r.getId());
+                    responses.clear();
+                    dispatch(r, responses, ops);
+                    for (BaseResponse response : responses) {
+                        ops.send(replyTopic, r.getId(), response);
+                        ops.send(markerTopic, r.getId(), response);
+                    }
+                }
+                offsets.put(new TopicPartition(record.topic(), record.partition()),
+                        new OffsetAndMetadata(record.offset() + 1));
+            }
+
+            ops.sendOffsetsToTransaction(offsets, consumer.groupMetadata());
+            return null;
+        });
+    }
+
+    private void dispatch(CommandRequest r, List<BaseResponse> responses, KafkaOperations<String, Object> ops) {
+        try {
+            dispatcher.dispatch(r, (request, response) -> responses.add(response));
+        } catch (Exception e) {
+            try {
+                retries.onFailure(r, e, retryTransport != null ? retryTransport.within(ops) : null);
+            } catch (Exception failed) {
+                // Batch'in tamamı abort edilir ve yeniden teslim edilir
+                throw new RuntimeException(failed);
+            }
+        }
+    }
+
+    /**
+     * @param retryTransport Retry tiers and dead-letter topics, written through the transaction; or {@code null}.
+     */
+    public void setRetryTransport(KafkaRetryTransport retryTransport) {
+        this.retryTransport = retryTransport;
+    }
+
+    /**
+     * @param store Store whose partitions follow this listener's assignment, or {@code null}.
+     */
+    public void setCompactedStore(KafkaCompactedStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        // Partition'ın ilk kaydı dispatch edilmeden marker'lar yüklenmiş olmalı
+        if (store != null) {
+            store.assign(assignments.keySet());
+        }
+    }
+
+    @Override
+    public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+        if (store != null) {
+            store.revoke(partitions);
+        }
+    }
+}
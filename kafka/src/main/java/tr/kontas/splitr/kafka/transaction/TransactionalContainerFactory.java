@@ -0,0 +1,45 @@
+package tr.kontas.splitr.kafka.transaction;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+
+import java.util.Properties;
+
+/**
+ * Batch container factory of the {@link TransactionalCommandListener}.
+ * <p>
+ * Offsets are committed only through the listener's transaction, so the container never commits
+ * them itself. {@code max.poll.records} bounds how many commands share one transaction.
+ * </p>
+ *
+ * @author BurakKontas
+ * @version 1.0.0
+ */
+public final class TransactionalContainerFactory {
+
+    public static final String BEAN_NAME = "splitrTransactionalContainerFactory";
+
+    private TransactionalContainerFactory() {
+    }
+
+    @SuppressWarnings("unchecked")
+    public static ConcurrentKafkaListenerContainerFactory<Object, Object> create(ConsumerFactory<?, ?> consumerFactory,
+                                                                                 int maxBatch) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory((ConsumerFactory<Object, Object>) consumerFactory);
+        factory.setBatchListener(true);
+
+        ContainerProperties container = factory.getContainerProperties();
+        // Ack hiç çağrılmaz; offset'ler transaction ile gider
+        container.setAckMode(ContainerProperties.AckMode.MANUAL);
+
+        Properties overrides = new Properties();
+        overrides.setProperty(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, Integer.toString(maxBatch));
+        overrides.setProperty(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
+        overrides.setProperty(ConsumerConfig.ISOLATION_LEVEL_CONFIG, "read_committed");
+        container.setKafkaConsumerProperties(overrides);
+        return factory;
+    }
+}
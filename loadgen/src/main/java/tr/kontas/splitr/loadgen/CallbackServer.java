@@ -0,0 +1,55 @@
+package tr.kontas.splitr.loadgen;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+import tr.kontas.splitr.bus.registry.SyncRegistry;
+import tr.kontas.splitr.dto.QueryResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.util.concurrent.Executors;
+
+/**
+ * Embedded HTTP server standing in for the publisher's {@code QueryCallbackController}.
+ * <p>
+ * Consumers post their results here and the server completes the matching
+ * {@link SyncRegistry} entry, closing the request/response loop.
+ * </p>
+ */
+@Slf4j
+public class CallbackServer implements AutoCloseable {
+
+    private final HttpServer server;
+
+    public CallbackServer(SyncRegistry registry, ObjectMapper mapper) throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        this.server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        this.server.createContext("/internal/query/callback", exchange -> handle(exchange, registry, mapper));
+        this.server.start();
+        log.info("Callback server listening on {}", callbackUrl());
+    }
+
+    private static void handle(HttpExchange exchange, SyncRegistry registry, ObjectMapper mapper) throws IOException {
+        try (InputStream body = exchange.getRequestBody()) {
+            registry.complete(mapper.readValue(body, QueryResponse.class));
+            exchange.sendResponseHeaders(200, -1);
+        } catch (Exception e) {
+            log.error("Failed to handle callback", e);
+            exchange.sendResponseHeaders(500, -1);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    public String callbackUrl() {
+        return "http://localhost:" + server.getAddress().getPort() + "/internal/%s/callback";
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
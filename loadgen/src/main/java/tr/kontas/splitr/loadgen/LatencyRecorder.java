@@ -0,0 +1,88 @@
+package tr.kontas.splitr.loadgen;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects request outcomes for one load phase.
+ * <p>
+ * Two histograms are kept: the corrected one measures from the <em>intended</em> send time of
+ * the open-loop schedule, so time spent waiting behind a stalled request is not hidden
+ * (coordinated omission); the uncorrected one measures from the actual send time and is only
+ * reported for comparison.
+ * </p>
+ */
+public class LatencyRecorder {
+
+    private static final long MAX_TRACKABLE_US = TimeUnit.MINUTES.toMicros(10);
+
+    private final Histogram corrected = new ConcurrentHistogram(MAX_TRACKABLE_US, 3);
+    private final Histogram uncorrected = new ConcurrentHistogram(MAX_TRACKABLE_US, 3);
+
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder succeeded = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    public void sent() {
+        sent.increment();
+    }
+
+    public long outstanding() {
+        return sent.sum() - succeeded.sum() - timedOut.sum() - failed.sum();
+    }
+
+    public void record(long intendedNs, long actualNs, Throwable error) {
+        long now = System.nanoTime();
+
+        if (error == null) {
+            corrected.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(now - intendedNs), MAX_TRACKABLE_US));
+            uncorrected.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(now - actualNs), MAX_TRACKABLE_US));
+            succeeded.increment();
+        } else if (isTimeout(error)) {
+            timedOut.increment();
+        } else {
+            failed.increment();
+        }
+    }
+
+    private static boolean isTimeout(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof TimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public Histogram corrected() {
+        return corrected;
+    }
+
+    public void report(PrintStream out, LoadGeneratorOptions options, double elapsedSec) {
+        long total = sent.sum();
+
+        out.printf("%n=== Splitr load report (%s, %s, target %d req/s) ===%n",
+                options.transport(), options.mode(), options.rate());
+        out.printf("requests      : %d sent, %d ok, %d timed out, %d failed%n",
+                total, succeeded.sum(), timedOut.sum(), failed.sum());
+        out.printf("throughput    : %.1f req/s%n", succeeded.sum() / elapsedSec);
+        out.printf("timeout rate  : %.3f%%%n", total == 0 ? 0.0 : timedOut.sum() * 100.0 / total);
+        printPercentiles(out, "corrected  ", corrected);
+        printPercentiles(out, "uncorrected", uncorrected);
+    }
+
+    private static void printPercentiles(PrintStream out, String label, Histogram h) {
+        out.printf("%s ms : p50=%.3f p99=%.3f p999=%.3f max=%.3f%n",
+                label,
+                h.getValueAtPercentile(50.0) / 1000.0,
+                h.getValueAtPercentile(99.0) / 1000.0,
+                h.getValueAtPercentile(99.9) / 1000.0,
+                h.getMaxValue() / 1000.0);
+    }
+}
@@ -0,0 +1,174 @@
+package tr.kontas.splitr.loadgen;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import tr.kontas.splitr.bus.query.QueryBus;
+import tr.kontas.splitr.bus.registry.SyncRegistry;
+import tr.kontas.splitr.consumer.dispatcher.QueryDispatcher;
+import tr.kontas.splitr.consumer.store.LruStore;
+import tr.kontas.splitr.loadgen.transport.EmbeddedKafkaTransport;
+import tr.kontas.splitr.loadgen.transport.InProcessRabbitTransport;
+import tr.kontas.splitr.loadgen.transport.RabbitBrokerTransport;
+import tr.kontas.splitr.loadgen.transport.Transport;
+import tr.kontas.splitr.rabbitmq.container.RabbitConsumerOptions;
+import tr.kontas.splitr.test.OrderQuery;
+
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop load generator for the full publish, broker, dispatch, callback and
+ * {@link SyncRegistry#complete} loop.
+ * <p>
+ * Requests are scheduled at a fixed rate regardless of how fast earlier requests complete, and
+ * latency is measured from each request's intended send time, which corrects for coordinated
+ * omission. Example:
+ * </p>
+ * <pre>
+ * java -jar loadgen.jar --transport=kafka --mode=sync --rate=2000 --duration=60 --histogram-file=kafka-sync.hgrm
+ * </pre>
+ *
+ * @author BurakKontas
+ * @version 1.0.0
+ */
+@Slf4j
+public final class LoadGenerator {
+
+    private final LoadGeneratorOptions options;
+    private final QueryBus queryBus;
+    private final ExecutorService publishers;
+
+    private LoadGenerator(LoadGeneratorOptions options, QueryBus queryBus) {
+        this.options = options;
+        this.queryBus = queryBus;
+        this.publishers = Executors.newFixedThreadPool(options.concurrency(), namedThreads("loadgen-publisher"));
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadGeneratorOptions options = LoadGeneratorOptions.parse(args);
+        ObjectMapper mapper = new ObjectMapper();
+
+        SyncRegistry registry = new SyncRegistry(options.timeoutMs(), Integer.MAX_VALUE);
+        LruStore store = new LruStore(100_000, TimeUnit.MINUTES.toMillis(5));
+        QueryDispatcher dispatcher = new QueryDispatcher(
+                List.of(new LoadQueryHandler(options.serviceTimeUs())), store, mapper);
+
+        try (CallbackServer callbackServer = new CallbackServer(registry, mapper);
+             Transport transport = createTransport(options, registry, dispatcher, mapper, callbackServer.callbackUrl())) {
+
+            LoadGenerator generator = new LoadGenerator(options, transport.queryBus());
+
+            if (options.warmupSec() > 0) {
+                log.info("Warming up for {}s", options.warmupSec());
+                generator.runPhase(options.warmupSec(), new LatencyRecorder());
+            }
+
+            log.info("Measuring for {}s at {} req/s", options.durationSec(), options.rate());
+            LatencyRecorder recorder = new LatencyRecorder();
+            double elapsedSec = generator.runPhase(options.durationSec(), recorder);
+
+            recorder.report(System.out, options, elapsedSec);
+            if (options.histogramFile() != null) {
+                try (PrintStream out = new PrintStream(new FileOutputStream(options.histogramFile()))) {
+                    recorder.corrected().outputPercentileDistribution(out, 1000.0);
+                }
+                log.info("Corrected latency distribution written to {}", options.histogramFile());
+            }
+
+            generator.publishers.shutdownNow();
+        } finally {
+            registry.shutdown();
+            store.shutdown();
+        }
+    }
+
+    private static Transport createTransport(LoadGeneratorOptions options, SyncRegistry registry,
+                                             QueryDispatcher dispatcher, ObjectMapper mapper, String callbackUrl) {
+        return switch (options.transport()) {
+            case "kafka" -> new EmbeddedKafkaTransport(
+                    registry, dispatcher, mapper, callbackUrl, options.consumers(), options.timeoutMs());
+            case "rabbit" -> new InProcessRabbitTransport(
+                    registry, dispatcher, mapper, callbackUrl, options.consumers(), options.timeoutMs());
+            case "rabbit-broker" -> new RabbitBrokerTransport(
+                    registry, dispatcher, mapper, callbackUrl, options.rabbitUri(),
+                    new RabbitConsumerOptions(options.rabbitContainer(), options.consumers(), options.consumers(),
+                            options.rabbitPrefetch(), options.rabbitBatchSize(), 1_000),
+                    options.timeoutMs());
+            default -> throw new IllegalArgumentException("Unknown transport: " + options.transport());
+        };
+    }
+
+    /**
+     * Issues requests on the open-loop schedule for the given duration, then waits for in-flight
+     * requests to finish (bounded by the request timeout).
+     *
+     * @return The elapsed time of the phase in seconds.
+     */
+    private double runPhase(int durationSec, LatencyRecorder recorder) throws InterruptedException {
+        long intervalNs = TimeUnit.SECONDS.toNanos(1) / options.rate();
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(durationSec);
+
+        for (long i = 0; ; i++) {
+            long intended = start + i * intervalNs;
+            if (intended >= end) {
+                break;
+            }
+
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            recorder.sent();
+            if (options.mode().equals("async")) {
+                publishAsync(intended, recorder);
+            } else {
+                publishers.execute(() -> publishSync(intended, recorder));
+            }
+        }
+
+        long drainDeadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(options.timeoutMs() + 1_000);
+        while (recorder.outstanding() > 0 && System.nanoTime() < drainDeadline) {
+            Thread.sleep(10);
+        }
+
+        return (System.nanoTime() - start) / 1_000_000_000.0;
+    }
+
+    private void publishAsync(long intended, LatencyRecorder recorder) {
+        long actual = System.nanoTime();
+        try {
+            queryBus.publishAsync(new OrderQuery("order-" + actual), String.class)
+                    .whenComplete((result, error) -> recorder.record(intended, actual, error));
+        } catch (Exception e) {
+            recorder.record(intended, actual, e);
+        }
+    }
+
+    private void publishSync(long intended, LatencyRecorder recorder) {
+        long actual = System.nanoTime();
+        try {
+            queryBus.publishSync(new OrderQuery("order-" + actual), String.class, options.timeoutMs());
+            recorder.record(intended, actual, null);
+        } catch (Exception e) {
+            recorder.record(intended, actual, e);
+        }
+    }
+
+    public static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, prefix + "-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
@@ -0,0 +1,27 @@
+package tr.kontas.splitr.loadgen;
+
+import tr.kontas.splitr.bus.base.BaseQueryHandler;
+import tr.kontas.splitr.test.OrderQuery;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Consumer-side handler answering the generated queries after an optional simulated service time.
+ */
+public class LoadQueryHandler extends BaseQueryHandler<OrderQuery> {
+
+    private final long serviceTimeNs;
+
+    public LoadQueryHandler(long serviceTimeUs) {
+        this.serviceTimeNs = TimeUnit.MICROSECONDS.toNanos(serviceTimeUs);
+    }
+
+    @Override
+    public Object handle(OrderQuery payload) {
+        if (serviceTimeNs > 0) {
+            LockSupport.parkNanos(serviceTimeNs);
+        }
+        return payload.getOrderId();
+    }
+}
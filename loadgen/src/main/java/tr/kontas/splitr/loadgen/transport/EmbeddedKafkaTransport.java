@@ -0,0 +1,114 @@
+package tr.kontas.splitr.loadgen.transport;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.MessageListener;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+import org.springframework.kafka.test.utils.ContainerTestUtils;
+import tr.kontas.splitr.bus.query.QueryBus;
+import tr.kontas.splitr.bus.registry.SyncRegistry;
+import tr.kontas.splitr.consumer.dispatcher.QueryDispatcher;
+import tr.kontas.splitr.dto.QueryRequest;
+import tr.kontas.splitr.kafka.bus.KafkaQueryBus;
+import tr.kontas.splitr.kafka.listener.QueryKafkaListener;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Runs the Kafka publisher and consumer against an embedded KRaft broker.
+ */
+@Slf4j
+public class EmbeddedKafkaTransport implements Transport {
+
+    private static final String TOPIC = "tr.kontas.splitr.query.topic";
+    private static final String GROUP = "tr.kontas.splitr.query.consumer";
+
+    private final EmbeddedKafkaKraftBroker broker;
+    private final DefaultKafkaProducerFactory<String, QueryRequest> producerFactory;
+    private final ConcurrentMessageListenerContainer<String, QueryRequest> container;
+    private final KafkaQueryBus queryBus;
+
+    public EmbeddedKafkaTransport(SyncRegistry registry, QueryDispatcher dispatcher, ObjectMapper mapper,
+                                  String callbackUrl, int partitions, long timeoutMs) {
+        this.broker = new EmbeddedKafkaKraftBroker(1, partitions, TOPIC);
+        this.broker.afterPropertiesSet();
+        log.info("Embedded Kafka started on {}", broker.getBrokersAsString());
+
+        Map<String, Object> producerProps = new HashMap<>();
+        producerProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString());
+        this.producerFactory = new DefaultKafkaProducerFactory<>(
+                producerProps, new StringSerializer(), new EnvelopeSerializer(mapper));
+
+        Map<String, Object> consumerProps = new HashMap<>();
+        consumerProps.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString());
+        consumerProps.put(ConsumerConfig.GROUP_ID_CONFIG, GROUP);
+        consumerProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        DefaultKafkaConsumerFactory<String, QueryRequest> consumerFactory = new DefaultKafkaConsumerFactory<>(
+                consumerProps, new StringDeserializer(), new EnvelopeDeserializer(mapper));
+
+        QueryKafkaListener listener = new QueryKafkaListener(dispatcher);
+        ContainerProperties containerProps = new ContainerProperties(TOPIC);
+        containerProps.setMessageListener((MessageListener<String, QueryRequest>) record -> {
+            try {
+                listener.listen(record.value());
+            } catch (Exception e) {
+                log.error("Listener failed for {}", record.key(), e);
+            }
+        });
+
+        this.container = new ConcurrentMessageListenerContainer<>(consumerFactory, containerProps);
+        this.container.setConcurrency(partitions);
+        this.container.start();
+        ContainerTestUtils.waitForAssignment(container, partitions);
+
+        this.queryBus = new KafkaQueryBus(TOPIC, new KafkaTemplate<>(producerFactory), registry, mapper,
+                callbackUrl, (int) timeoutMs);
+    }
+
+    @Override
+    public QueryBus queryBus() {
+        return queryBus;
+    }
+
+    @Override
+    public void close() {
+        container.stop();
+        producerFactory.destroy();
+        broker.destroy();
+    }
+
+    private record EnvelopeSerializer(ObjectMapper mapper) implements Serializer<QueryRequest> {
+        @Override
+        public byte[] serialize(String topic, QueryRequest data) {
+            try {
+                return mapper.writeValueAsBytes(data);
+            } catch (Exception e) {
+                throw new SerializationException(e);
+            }
+        }
+    }
+
+    private record EnvelopeDeserializer(ObjectMapper mapper) implements Deserializer<QueryRequest> {
+        @Override
+        public QueryRequest deserialize(String topic, byte[] data) {
+            try {
+                return mapper.readValue(data, QueryRequest.class);
+            } catch (Exception e) {
+                throw new SerializationException(e);
+            }
+        }
+    }
+}
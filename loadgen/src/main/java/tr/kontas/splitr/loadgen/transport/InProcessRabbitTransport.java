@@ -0,0 +1,102 @@
+package tr.kontas.splitr.loadgen.transport;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import tr.kontas.splitr.bus.query.QueryBus;
+import tr.kontas.splitr.bus.registry.SyncRegistry;
+import tr.kontas.splitr.consumer.dispatcher.QueryDispatcher;
+import tr.kontas.splitr.dto.QueryRequest;
+import tr.kontas.splitr.loadgen.LoadGenerator;
+import tr.kontas.splitr.rabbitmq.bus.RabbitQueryBus;
+import tr.kontas.splitr.rabbitmq.listener.QueryRabbitListener;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the RabbitMQ publisher and consumer against an in-process AMQP stand-in.
+ * <p>
+ * The stand-in replaces the broker with an in-memory queue: the regular {@link RabbitQueryBus}
+ * converts and sends real AMQP {@link Message}s, and consumer threads convert them back and hand
+ * them to the regular {@link QueryRabbitListener}. Network and broker costs are therefore not
+ * included, only the Splitr side of the AMQP path.
+ * </p>
+ */
+@Slf4j
+public class InProcessRabbitTransport implements Transport {
+
+    private static final String QUEUE = "tr.kontas.splitr.query.queue";
+
+    private final BlockingQueue<Message> queue = new LinkedBlockingQueue<>();
+    private final ExecutorService consumers;
+    private final RabbitQueryBus queryBus;
+    private volatile boolean running = true;
+
+    public InProcessRabbitTransport(SyncRegistry registry, QueryDispatcher dispatcher, ObjectMapper mapper,
+                                    String callbackUrl, int consumerCount, long timeoutMs) {
+        Jackson2JsonMessageConverter converter = new Jackson2JsonMessageConverter();
+        QueryRabbitListener listener = new QueryRabbitListener(dispatcher);
+
+        this.consumers = Executors.newFixedThreadPool(consumerCount, LoadGenerator.namedThreads("rabbit-standin-consumer"));
+        for (int i = 0; i < consumerCount; i++) {
+            consumers.execute(() -> consume(converter, listener));
+        }
+
+        RabbitTemplate template = new StandInRabbitTemplate(queue);
+        template.setMessageConverter(converter);
+
+        this.queryBus = new RabbitQueryBus(QUEUE, template, registry, mapper, callbackUrl, (int) timeoutMs);
+    }
+
+    private void consume(Jackson2JsonMessageConverter converter, QueryRabbitListener listener) {
+        while (running) {
+            try {
+                Message message = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (message != null) {
+                    listener.listen((QueryRequest) converter.fromMessage(message));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Stand-in consumer failed", e);
+            }
+        }
+    }
+
+    @Override
+    public QueryBus queryBus() {
+        return queryBus;
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        consumers.shutdown();
+        consumers.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * {@link RabbitTemplate} that enqueues converted messages locally instead of publishing to a broker.
+     */
+    private static class StandInRabbitTemplate extends RabbitTemplate {
+
+        private final BlockingQueue<Message> queue;
+
+        StandInRabbitTemplate(BlockingQueue<Message> queue) {
+            this.queue = queue;
+        }
+
+        @Override
+        public void send(String exchange, String routingKey, Message message, CorrelationData correlationData) {
+            queue.add(message);
+        }
+    }
+}
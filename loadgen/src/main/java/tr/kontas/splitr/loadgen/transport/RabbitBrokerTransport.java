@@ -0,0 +1,84 @@
+package tr.kontas.splitr.loadgen.transport;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerEndpoint;
+import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitAdmin;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.listener.MessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpoint;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import tr.kontas.splitr.bus.query.QueryBus;
+import tr.kontas.splitr.bus.registry.SyncRegistry;
+import tr.kontas.splitr.consumer.dispatcher.QueryDispatcher;
+import tr.kontas.splitr.dto.QueryRequest;
+import tr.kontas.splitr.rabbitmq.bus.RabbitQueryBus;
+import tr.kontas.splitr.rabbitmq.container.RabbitConsumerOptions;
+import tr.kontas.splitr.rabbitmq.listener.QueryRabbitListener;
+
+import java.net.URI;
+
+/**
+ * Runs the RabbitMQ publisher and consumer against a real broker.
+ * <p>
+ * The consumer uses the same listener container factory as {@code RabbitConsumerAutoConfig},
+ * built from {@link RabbitConsumerOptions}, so container type, prefetch and ack batching can be
+ * compared run against run.
+ * </p>
+ */
+public class RabbitBrokerTransport implements Transport {
+
+    private static final String QUEUE = "tr.kontas.splitr.loadgen.query.queue";
+
+    private final CachingConnectionFactory connectionFactory;
+    private final MessageListenerContainer container;
+    private final RabbitQueryBus queryBus;
+
+    public RabbitBrokerTransport(SyncRegistry registry, QueryDispatcher dispatcher, ObjectMapper mapper,
+                                 String callbackUrl, String uri, RabbitConsumerOptions options, long timeoutMs) {
+        this.connectionFactory = new CachingConnectionFactory(URI.create(uri));
+        Jackson2JsonMessageConverter converter = new Jackson2JsonMessageConverter();
+
+        RabbitAdmin admin = new RabbitAdmin(connectionFactory);
+        admin.declareQueue(new Queue(QUEUE, false, false, true));
+        admin.purgeQueue(QUEUE, false);
+
+        QueryRabbitListener listener = new QueryRabbitListener(dispatcher);
+        SimpleRabbitListenerEndpoint endpoint = new SimpleRabbitListenerEndpoint();
+        endpoint.setId("loadgen-query");
+        endpoint.setQueueNames(QUEUE);
+        endpoint.setMessageListener(message -> {
+            try {
+                listener.listen((QueryRequest) converter.fromMessage(message));
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+
+        this.container = createContainer(options, converter, endpoint);
+        this.container.start();
+
+        RabbitTemplate template = new RabbitTemplate(connectionFactory);
+        template.setMessageConverter(converter);
+        this.queryBus = new RabbitQueryBus(QUEUE, template, registry, mapper, callbackUrl, (int) timeoutMs);
+    }
+
+    private MessageListenerContainer createContainer(RabbitConsumerOptions options, Jackson2JsonMessageConverter converter,
+                                                     RabbitListenerEndpoint endpoint) {
+        MessageListenerContainer created = options.createFactory(connectionFactory, converter).createListenerContainer(endpoint);
+        created.afterPropertiesSet();
+        return created;
+    }
+
+    @Override
+    public QueryBus queryBus() {
+        return queryBus;
+    }
+
+    @Override
+    public void close() {
+        container.stop();
+        connectionFactory.destroy();
+    }
+}
@@ -0,0 +1,22 @@
+package tr.kontas.splitr.loadgen.transport;
+
+import tr.kontas.splitr.bus.query.QueryBus;
+
+/**
+ * A publisher/consumer pair connected through a local broker.
+ * <p>
+ * Implementations wire the regular Splitr publisher ({@link QueryBus}) and consumer
+ * (listener plus dispatcher) around an embedded or in-process broker so the complete
+ * publish, consume, dispatch and callback loop is exercised.
+ * </p>
+ */
+public interface Transport extends AutoCloseable {
+
+    /**
+     * @return The publisher side of the transport.
+     */
+    QueryBus queryBus();
+
+    @Override
+    void close() throws Exception;
+}
@@ -16,6 +16,8 @@ import org.springframework.context.annotation.Primary;
 import tr.kontas.splitr.bus.command.CommandBus;
 import tr.kontas.splitr.bus.command.CommandCallbackController;
 import tr.kontas.splitr.bus.event.EventBus;
+import tr.kontas.splitr.bus.hedge.HedgingPolicy;
+import tr.kontas.splitr.bus.limit.ConcurrencyLimiters;
 import tr.kontas.splitr.bus.query.QueryBus;
 import tr.kontas.splitr.bus.query.QueryCallbackController;
 import tr.kontas.splitr.bus.registry.SyncRegistry;
@@ -23,6 +25,8 @@ import tr.kontas.splitr.consumer.autoconfigure.InMemoryBusAutoConfigure;
 import tr.kontas.splitr.rabbitmq.bus.RabbitCommandBus;
 import tr.kontas.splitr.rabbitmq.bus.RabbitEventBus;
 import tr.kontas.splitr.rabbitmq.bus.RabbitQueryBus;
+import tr.kontas.splitr.rabbitmq.publish.RabbitPublisherOptions;
+import tr.kontas.splitr.rabbitmq.shard.RabbitShards;
 
 @AutoConfigureAfter(InMemoryBusAutoConfigure.class)
 @Configuration
@@ -34,13 +38,21 @@ public class RabbitBusAutoConfig {
         return new Jackson2JsonMessageConverter();
     }
 
+    @Bean
+    @ConditionalOnMissingBean
+    public RabbitPublisherOptions rabbitPublisherOptions(
+            @Value("${splitr.rabbit.publisher.confirms.enabled:false}") boolean confirms,
+            @Value("${splitr.rabbit.publisher.channel-cache-size:25}") int channelCacheSize,
+            @Value("${splitr.rabbit.publisher.channel-checkout-timeout-ms:0}") long channelCheckoutTimeoutMs) {
+        return new RabbitPublisherOptions(confirms, channelCacheSize, channelCheckoutTimeoutMs);
+    }
+
     @Bean("splitrRabbitTemplate")
     @Primary
     public RabbitTemplate splitrRabbitTemplate(ConnectionFactory connectionFactory,
-                                               Jackson2JsonMessageConverter converter) {
-        RabbitTemplate template = new RabbitTemplate(connectionFactory);
-        template.setMessageConverter(converter);
-        return template;
+                                               Jackson2JsonMessageConverter converter,
+                                               RabbitPublisherOptions options) {
+        return options.createTemplate(connectionFactory, converter);
     }
 
     @Bean
@@ -53,13 +65,20 @@ public class RabbitBusAutoConfig {
     @Primary
     public QueryBus queryBus(
             RabbitTemplate rabbit,
+            RabbitPublisherOptions options,
             SyncRegistry registry,
             ObjectMapper mapper,
+            ConcurrencyLimiters limiters,
+            HedgingPolicy hedging,
             @Value("${splitr.callback-url}") String url,
             @Value("${splitr.rabbit.query.queue:tr.kontas.splitr.query.queue}") String queue,
             @Value("${splitr.bus.default-timeout:10000}") int defaultTimeout
     ) {
-        return new RabbitQueryBus(queue, rabbit, registry, mapper, url, defaultTimeout);
+        RabbitQueryBus bus = new RabbitQueryBus(queue, rabbit, registry, mapper, url, defaultTimeout);
+        bus.setPublisherConfirms(options.confirms());
+        bus.setConcurrencyLimiters(limiters);
+        bus.setHedgingPolicy(hedging);
+        return bus;
     }
 
     @Bean
@@ -72,13 +91,20 @@ public class RabbitBusAutoConfig {
     @Primary
     public CommandBus commandBus(
             RabbitTemplate rabbit,
+            RabbitPublisherOptions options,
             SyncRegistry registry,
             ObjectMapper mapper,
+            ConcurrencyLimiters limiters,
             @Value("${splitr.callback-url}") String url,
             @Value("${splitr.rabbit.command.queue:tr.kontas.splitr.command.queue}") String queue,
+            @Value("${splitr.rabbit.command.shards:1}") int shards,
             @Value("${splitr.bus.default-timeout:10000}") int defaultTimeout
     ) {
-        return new RabbitCommandBus(queue, rabbit, registry, mapper, url, defaultTimeout);
+        RabbitCommandBus bus = new RabbitCommandBus(queue, rabbit, registry, mapper, url, defaultTimeout);
+        bus.setPublisherConfirms(options.confirms());
+        bus.setShards(new RabbitShards(queue, shards));
+        bus.setConcurrencyLimiters(limiters);
+        return bus;
     }
 
     @Bean("rabbitEventBus")
@@ -86,13 +112,16 @@ public class RabbitBusAutoConfig {
     @ConditionalOnMissingBean
     public EventBus eventBus(
             RabbitTemplate rabbit,
+            RabbitPublisherOptions options,
             SyncRegistry registry,
             ObjectMapper mapper,
             @Value("${splitr.callback-url}") String url,
             @Value("${splitr.rabbit.event.queue:tr.kontas.splitr.event.queue}") String queue,
             @Value("${splitr.bus.default-timeout:10000}") int defaultTimeout
     ) {
-        return new RabbitEventBus(queue, rabbit, registry, mapper, url, defaultTimeout);
+        RabbitEventBus bus = new RabbitEventBus(queue, rabbit, registry, mapper, url, defaultTimeout);
+        bus.setPublisherConfirms(options.confirms());
+        return bus;
     }
 }
 
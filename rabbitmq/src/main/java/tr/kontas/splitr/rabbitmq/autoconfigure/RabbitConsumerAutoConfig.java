@@ -3,10 +3,14 @@ package tr.kontas.splitr.rabbitmq.autoconfigure;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Declarables;
 import org.springframework.amqp.rabbit.annotation.EnableRabbit;
-import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.config.AbstractRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBooleanProperty;
@@ -23,11 +27,18 @@ import tr.kontas.splitr.consumer.bus.QueryHandler;
 import tr.kontas.splitr.consumer.dispatcher.CommandDispatcher;
 import tr.kontas.splitr.consumer.dispatcher.EventDispatcher;
 import tr.kontas.splitr.consumer.dispatcher.QueryDispatcher;
+import tr.kontas.splitr.consumer.retry.RetryPolicy;
+import tr.kontas.splitr.consumer.retry.RetryRouter;
 import tr.kontas.splitr.consumer.store.IdempotencyStore;
 import tr.kontas.splitr.consumer.store.LruStore;
+import tr.kontas.splitr.metrics.SplitrMetrics;
+import tr.kontas.splitr.rabbitmq.container.RabbitConsumerOptions;
 import tr.kontas.splitr.rabbitmq.listener.CommandRabbitListener;
 import tr.kontas.splitr.rabbitmq.listener.EventRabbitListener;
 import tr.kontas.splitr.rabbitmq.listener.QueryRabbitListener;
+import tr.kontas.splitr.rabbitmq.shard.RabbitShards;
+import tr.kontas.splitr.rabbitmq.retry.RabbitRetryTransport;
+import tr.kontas.splitr.rabbitmq.shedding.DeadlineSheddingMessageConverter;
 
 import java.util.List;
 
@@ -56,8 +67,27 @@ public class RabbitConsumerAutoConfig {
 
     @Bean
     @ConditionalOnMissingBean
-    public CommandRabbitListener commandRabbitListener(CommandDispatcher dispatcher) {
-        return new CommandRabbitListener(dispatcher);
+    public CommandRabbitListener commandRabbitListener(CommandDispatcher dispatcher,
+                                                       @Qualifier("rabbitRetryRouter") RetryRouter retries) {
+        return new CommandRabbitListener(dispatcher, retries);
+    }
+
+    @Bean(RabbitShards.COMMAND_SHARDS)
+    public RabbitShards splitrRabbitCommandShards(
+            @Value("${splitr.rabbit.command.queue:tr.kontas.splitr.command.queue}") String queue,
+            @Value("${splitr.rabbit.command.shards:1}") int shards,
+            @Value("${splitr.rabbit.command.instance-index:0}") int instanceIndex,
+            @Value("${splitr.rabbit.command.instance-count:1}") int instanceCount) {
+        RabbitShards owned = new RabbitShards(queue, shards, instanceIndex, instanceCount);
+        if (owned.isSharded()) {
+            log.atInfo().log("Consuming command queues {}", String.join(", ", owned.queueNames()));
+        }
+        return owned;
+    }
+
+    @Bean
+    public Declarables splitrRabbitCommandQueues(@Qualifier(RabbitShards.COMMAND_SHARDS) RabbitShards shards) {
+        return shards.declarables();
     }
 
     @Bean("rabbitDispatcher")
@@ -72,8 +102,9 @@ public class RabbitConsumerAutoConfig {
 
     @Bean
     @ConditionalOnMissingBean
-    public EventRabbitListener eventRabbitListener(EventDispatcher dispatcher) {
-        return new EventRabbitListener(dispatcher);
+    public EventRabbitListener eventRabbitListener(EventDispatcher dispatcher,
+                                                   @Qualifier("rabbitRetryRouter") RetryRouter retries) {
+        return new EventRabbitListener(dispatcher, retries);
     }
 
     @Bean
@@ -85,20 +116,72 @@ public class RabbitConsumerAutoConfig {
         return new EventDispatcher(handlers, store, mapper);
     }
 
-    @Bean("splitrSimpleRabbitListenerContainerFactory")
+    @Bean
+    @ConditionalOnMissingBean
+    public RabbitConsumerOptions rabbitConsumerOptions(
+            @Value("${splitr.rabbit.consumer.container:simple}") String container,
+            @Value("${splitr.rabbit.consumer.concurrency:1}") int concurrency,
+            @Value("${splitr.rabbit.consumer.max-concurrency:${splitr.rabbit.consumer.concurrency:1}}") int maxConcurrency,
+            @Value("${splitr.rabbit.consumer.prefetch:250}") int prefetch,
+            @Value("${splitr.rabbit.consumer.batch-size:1}") int batchSize,
+            @Value("${splitr.rabbit.consumer.receive-timeout-ms:1000}") long receiveTimeoutMs) {
+        return new RabbitConsumerOptions(container, concurrency, maxConcurrency, prefetch, batchSize, receiveTimeoutMs);
+    }
+
+    @Bean(RabbitConsumerOptions.CONTAINER_FACTORY)
     @Primary
-    public SimpleRabbitListenerContainerFactory rabbitListenerContainerFactory(
+    public AbstractRabbitListenerContainerFactory<?> rabbitListenerContainerFactory(
             ConnectionFactory connectionFactory,
-            Jackson2JsonMessageConverter converter) {
+            Jackson2JsonMessageConverter converter,
+            RabbitConsumerOptions options,
+            ObjectProvider<SplitrMetrics> metrics,
+            @Value("${splitr.rabbit.consumer.shedding.enabled:true}") boolean shedding) {
+        return options.createFactory(connectionFactory, shedding
+                ? new DeadlineSheddingMessageConverter(converter, metrics.getIfAvailable(() -> SplitrMetrics.NOOP))
+                : converter); // JSON dönüşümünü açıyoruz
+    }
 
-        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
-        factory.setConnectionFactory(connectionFactory);
-        factory.setMessageConverter(converter); // JSON dönüşümünü açıyoruz
-        return factory;
+    @Bean(RabbitConsumerOptions.EVENT_CONTAINER_FACTORY)
+    public AbstractRabbitListenerContainerFactory<?> splitrRabbitEventListenerContainerFactory(
+            ConnectionFactory connectionFactory,
+            Jackson2JsonMessageConverter converter,
+            RabbitConsumerOptions options,
+            ObjectProvider<SplitrMetrics> metrics,
+            @Value("${splitr.rabbit.consumer.shedding.enabled:true}") boolean shedding) {
+        // Event'ler idempotency store'a yazılmaz; toplu requeue işlenmiş event'leri tekrar çalıştırırdı
+        return options.unbatched().createFactory(connectionFactory, shedding
+                ? new DeadlineSheddingMessageConverter(converter, metrics.getIfAvailable(() -> SplitrMetrics.NOOP))
+                : converter);
     }
 
     @Bean
     public Jackson2JsonMessageConverter jacksonConverter() {
         return new Jackson2JsonMessageConverter();
     }
-}
+
+    @Bean
+    @ConditionalOnBooleanProperty(name = "splitr.retry.enabled")
+    public RabbitRetryTransport rabbitRetryTransport(
+            ConnectionFactory connectionFactory,
+            Jackson2JsonMessageConverter converter,
+            @Value("${splitr.rabbit.command.queue:tr.kontas.splitr.command.queue}") String commandQueue,
+            @Value("${splitr.rabbit.event.queue:tr.kontas.splitr.event.queue}") String eventQueue) {
+        RabbitTemplate template = new RabbitTemplate(connectionFactory);
+        template.setMessageConverter(converter);
+        return new RabbitRetryTransport(template, commandQueue, eventQueue);
+    }
+
+    @Bean
+    @ConditionalOnBooleanProperty(name = "splitr.retry.enabled")
+    public Declarables splitrRabbitRetryQueues(
+            RetryPolicy policy,
+            @Value("${splitr.rabbit.command.queue:tr.kontas.splitr.command.queue}") String commandQueue,
+            @Value("${splitr.rabbit.event.queue:tr.kontas.splitr.event.queue}") String eventQueue) {
+        return RabbitRetryTransport.declarables(policy, commandQueue, eventQueue);
+    }
+
+    @Bean("rabbitRetryRouter")
+    public RetryRouter rabbitRetryRouter(RetryPolicy policy, ObjectProvider<RabbitRetryTransport> transport) {
+        return new RetryRouter(policy, transport.getIfAvailable());
+    }
+}
\ No newline at end of file
@@ -8,6 +8,8 @@ import tr.kontas.splitr.bus.registry.SyncRegistry;
 import tr.kontas.splitr.dto.EventRequest;
 import tr.kontas.splitr.rabbitmq.bus.base.AbstractRabbitBus;
 
+import java.util.Collection;
+
 public class RabbitEventBus extends AbstractRabbitBus<EventRequest> implements EventBus {
 
     public RabbitEventBus(String queue, RabbitTemplate rabbit,
@@ -26,5 +28,10 @@ public class RabbitEventBus extends AbstractRabbitBus<EventRequest> implements E
     public void publish(Event event) {
         execute(event);
     }
+
+    @Override
+    public void publishAll(Collection<? extends Event> events) {
+        executeAll(events);
+    }
 }
 
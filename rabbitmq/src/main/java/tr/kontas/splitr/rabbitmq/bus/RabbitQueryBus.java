@@ -38,5 +38,10 @@ public class RabbitQueryBus extends AbstractRabbitBus<QueryRequest> implements Q
     public <T> CompletableFuture<T> publishAsync(Query query, Class<T> responseType) {
         return executeAsync(query, responseType);
     }
+
+    @Override
+    public <T> CompletableFuture<T> publishAsync(Query query, Class<T> responseType, long timeoutMs) {
+        return executeAsync(query, responseType, timeoutMs);
+    }
 }
 
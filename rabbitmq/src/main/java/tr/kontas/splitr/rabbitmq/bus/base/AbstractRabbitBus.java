@@ -1,16 +1,46 @@
 package tr.kontas.splitr.rabbitmq.bus.base;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.core.ReturnedMessage;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import tr.kontas.splitr.bus.base.IdempotencyProtected;
+import tr.kontas.splitr.bus.hedge.HedgingPolicy;
+import tr.kontas.splitr.bus.limit.ConcurrencyLimitExceededException;
+import tr.kontas.splitr.bus.limit.ConcurrencyLimiter;
+import tr.kontas.splitr.bus.limit.ConcurrencyLimiters;
+import tr.kontas.splitr.bus.query.CacheableQuery;
 import tr.kontas.splitr.bus.registry.SyncRegistry;
+import tr.kontas.splitr.deadline.Deadline;
+import tr.kontas.splitr.dto.base.BaseRequest;
 import tr.kontas.splitr.dto.base.BaseResponse;
+import tr.kontas.splitr.dto.base.TransportHeaders;
+import tr.kontas.splitr.id.ContentHasher;
+import tr.kontas.splitr.metrics.Instrumented;
+import tr.kontas.splitr.metrics.SplitrMetrics;
+import tr.kontas.splitr.metrics.SplitrObservations;
+import tr.kontas.splitr.rabbitmq.publish.PublishRejectedException;
+import tr.kontas.splitr.rabbitmq.shard.RabbitShards;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
-public abstract class AbstractRabbitBus<TRequest> {
+@Slf4j
+public abstract class AbstractRabbitBus<TRequest extends BaseRequest> implements Instrumented {
+
+    private static final String TRANSPORT = "rabbit";
 
     protected final RabbitTemplate rabbit;
     protected final SyncRegistry registry;
@@ -18,6 +48,14 @@ public abstract class AbstractRabbitBus<TRequest> {
     protected final String callbackUrl;
     protected final String queue;
     protected final int defaultTimeout;
+    protected final ContentHasher hasher;
+    protected SplitrMetrics metrics = SplitrMetrics.NOOP;
+    protected ConcurrencyLimiters limiters = ConcurrencyLimiters.NONE;
+    protected HedgingPolicy hedging = HedgingPolicy.NONE;
+    protected ObservationRegistry observationRegistry = ObservationRegistry.NOOP;
+    protected boolean confirms;
+    protected RabbitShards shards;
+    private final AtomicLong sends = new AtomicLong();
 
     protected AbstractRabbitBus(String queue,
                                 RabbitTemplate rabbit,
@@ -31,6 +69,8 @@ public abstract class AbstractRabbitBus<TRequest> {
         this.mapper = mapper;
         this.callbackUrl = callbackUrl;
         this.defaultTimeout = defaultTimeout;
+        this.hasher = new ContentHasher(mapper);
+        this.shards = new RabbitShards(queue, 1);
 
         if (callbackUrl == null || callbackUrl.isBlank()) {
             throw new RuntimeException("splitr.callback-url is blank");
@@ -44,48 +84,136 @@ public abstract class AbstractRabbitBus<TRequest> {
                                               boolean isSync, long now, long timeout);
 
     protected <T> T executeSync(IdempotencyProtected payload, Class<T> responseType, long timeoutMs) {
+        long start = System.nanoTime();
+        Throwable error = null;
+        ConcurrencyLimiter limiter = ConcurrencyLimiter.UNLIMITED;
         try {
+            // Registry, gönderilen deadline ve bekleme aynı bütçeyi kullanır
+            long budget = Deadline.budgetMs(timeoutMs, defaultTimeout);
+            // Hedef doluysa registry'ye girmeden hemen reddet
+            limiter = limiters.acquire(queue, payload.getClass().getName());
             String id = payload.getIdempotencyKey();
-            var future = registry.register(id);
+            var future = registry.register(id, budget);
 
-            sendInternal(payload, true, timeoutMs);
+            TRequest request = sendInternal(payload, true, budget);
+            scheduleHedge(request, future, budget);
 
-            BaseResponse response = future.get(timeoutMs, TimeUnit.MILLISECONDS);
+            BaseResponse response = future.get(budget, TimeUnit.MILLISECONDS);
+            hedging.record(request.getType(), System.nanoTime() - start);
             return mapper.readValue(response.getResult(), responseType);
+        } catch (ConcurrencyLimitExceededException e) {
+            // Yük atma reddi timeout'tan ayırt edilebilsin; async yol da aynı istisnayla biter
+            error = e;
+            throw e;
         } catch (Exception e) {
+            error = e;
             throw new RuntimeException("Sync execution failed or timeout", e);
+        } finally {
+            limiter.release(System.nanoTime() - start, error);
+            recordPublish(payload, "sync", start, error);
         }
     }
 
     // Event bus için
     protected void execute(IdempotencyProtected payload) {
+        execute(payload, Deadline.NO_TIMEOUT);
+    }
+
+    protected void execute(IdempotencyProtected payload, long timeoutMs) {
+        long start = System.nanoTime();
+        Throwable error = null;
         try {
-            sendInternal(payload, false, Long.MAX_VALUE);
+            sendInternal(payload, false, timeoutMs);
         } catch (Exception e) {
+            error = e;
             throw new RuntimeException("Async execution failed", e);
+        } finally {
+            recordPublish(payload, "fire-and-forget", start, error);
         }
     }
 
     protected <T> CompletableFuture<T> executeAsync(IdempotencyProtected payload, Class<T> responseType) {
+        return executeAsync(payload, responseType, defaultTimeout);
+    }
+
+    protected <T> CompletableFuture<T> executeAsync(IdempotencyProtected payload, Class<T> responseType, long timeoutMs) {
+        long start = System.nanoTime();
+        ConcurrencyLimiter limiter = ConcurrencyLimiter.UNLIMITED;
         try {
+            long budget = Deadline.budgetMs(timeoutMs, defaultTimeout);
+            limiter = limiters.acquire(queue, payload.getClass().getName());
+            ConcurrencyLimiter acquired = limiter;
             String id = payload.getIdempotencyKey();
-            var future = registry.register(id);
+            var future = registry.register(id, budget);
 
-            sendInternal(payload, false, Long.MAX_VALUE);
+            TRequest request = sendInternal(payload, false, budget);
+            scheduleHedge(request, future, budget);
 
             return future.thenApply(response -> {
+                hedging.record(request.getType(), System.nanoTime() - start);
                 try {
                     return mapper.readValue(response.getResult(), responseType);
                 } catch (Exception e) {
                     throw new RuntimeException("Deserialization failed", e);
                 }
+            }).whenComplete((result, error) -> {
+                acquired.release(System.nanoTime() - start, error);
+                recordPublish(payload, "async", start, error);
             });
         } catch (Exception e) {
+            limiter.release(System.nanoTime() - start, e);
+            recordPublish(payload, "async", start, e);
             return CompletableFuture.failedFuture(e);
         }
     }
 
-    protected void sendInternal(IdempotencyProtected payload, boolean isSync, long timeoutMs) throws Exception {
+    protected TRequest sendInternal(IdempotencyProtected payload, boolean isSync, long timeoutMs) throws Exception {
+        TRequest request = prepare(payload, isSync, timeoutMs);
+        publish(request).whenComplete((ignored, error) -> {
+            if (error != null) {
+                // Bekleyen istek timeout'u beklemeden başarısız olur; fire-and-forget'te kayıt yoktur
+                log.warn("Publish of {} was not accepted by the broker", request.getId(), error);
+                registry.completeExceptionally(request.getId(), error);
+            }
+        });
+        return request;
+    }
+
+    /**
+     * Publishes every payload (fire-and-forget) on one channel. With publisher confirms, waits
+     * until the broker confirmed the whole batch and fails if any message was rejected.
+     */
+    protected void executeAll(Collection<? extends IdempotencyProtected> payloads) {
+        long start = System.nanoTime();
+        Throwable error = null;
+        try {
+            List<TRequest> requests = new ArrayList<>(payloads.size());
+            for (IdempotencyProtected payload : payloads) {
+                requests.add(prepare(payload, false, Deadline.NO_TIMEOUT));
+            }
+            // Batch tek kanaldan gider; her mesajda cache'ten kanal alınıp geri verilmez
+            List<CompletableFuture<Void>> confirmations = rabbit.invoke(operations -> {
+                List<CompletableFuture<Void>> sent = new ArrayList<>(requests.size());
+                for (TRequest request : requests) {
+                    sent.add(publish(request));
+                }
+                return sent;
+            });
+            if (confirms) {
+                CompletableFuture.allOf(confirmations.toArray(CompletableFuture[]::new))
+                        .get(defaultTimeout, TimeUnit.MILLISECONDS);
+            }
+        } catch (Exception e) {
+            error = e;
+            throw new RuntimeException("Batch execution failed", e);
+        } finally {
+            for (IdempotencyProtected payload : payloads) {
+                recordPublish(payload, "batch", start, error);
+            }
+        }
+    }
+
+    private TRequest prepare(IdempotencyProtected payload, boolean isSync, long timeoutMs) throws Exception {
         TRequest request = createRequest(
                 payload.getIdempotencyKey(),
                 payload.getClass().getName(),
@@ -94,12 +222,145 @@ public abstract class AbstractRabbitBus<TRequest> {
                 System.currentTimeMillis(),
                 timeoutMs
         );
+        // Eşit sorgular consumer'da tek sonucu paylaşır; istek id'si yine tekildir
+        if (CacheableQuery.Freshness.of(payload.getClass()) > 0) {
+            request.getHeaders().put(TransportHeaders.CONTENT_KEY, hasher.hash(payload));
+        }
+        return request;
+    }
+
+    private CompletableFuture<Void> publish(TRequest request) {
+        Observation observation = SplitrObservations.publish(observationRegistry, request, TRANSPORT).start();
+        try (Observation.Scope ignored = observation.openScope()) {
+            return send(request);
+        } catch (Exception e) {
+            observation.error(e);
+            throw e;
+        } finally {
+            observation.stop();
+        }
+    }
+
+    /**
+     * Publishes {@code request} once more if no response arrived within the hedge delay of its
+     * type. Both copies share the id, so the registry completes on the first response.
+     */
+    private void scheduleHedge(TRequest request, CompletableFuture<?> future, long budgetMs) {
+        long delay = hedging.delayMs(request.getType());
+        if (delay < 0 || delay >= budgetMs) {
+            return;
+        }
+        ScheduledFuture<?> task = hedging.schedule(() -> {
+            if (future.isDone() || Deadline.expired(request.getDeadlineEpochMs())) {
+                return;
+            }
+            try {
+                if (sendHedge(request)) {
+                    metrics.hedge(TRANSPORT, request.getType());
+                }
+            } catch (Exception e) {
+                log.debug("Hedge of {} failed", request.getId(), e);
+            }
+        }, delay);
+        future.whenComplete((response, error) -> task.cancel(false));
+    }
+
+    private CompletableFuture<Void> send(TRequest request) {
+        // Properties doğrudan kurulur; convertAndSend'in MessagePostProcessor adımına gerek yok
+        MessageProperties properties = new MessageProperties();
+        properties.setCorrelationId(request.getId());
+        properties.setReplyTo(callbackUrl);
+        properties.setTimestamp(new Date());
+        // Deadline ve tip header'da da taşınır; listener gövdeyi parse etmeden eleyebilir
+        properties.setHeader(TransportHeaders.TYPE, request.getType());
+        if (request.getDeadlineEpochMs() != Deadline.NONE) {
+            properties.setHeader(TransportHeaders.DEADLINE, request.getDeadlineEpochMs());
+        }
+        Message message = rabbit.getMessageConverter().toMessage(request, properties);
+        String destination = shards.queueFor(request.getId());
+
+        if (!confirms) {
+            rabbit.send(destination, message);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        // Hedge kopyaları aynı istek id'sini taşır; confirm korelasyonu her gönderimde tekil olmalı
+        CorrelationData correlation = new CorrelationData(request.getId() + ":" + sends.incrementAndGet());
+        rabbit.send(destination, message, correlation);
+        return confirmation(request, correlation);
+    }
+
+    private CompletableFuture<Void> confirmation(TRequest request, CorrelationData correlation) {
+        CompletableFuture<Void> confirmed = new CompletableFuture<>();
+        correlation.getFuture().whenComplete((confirm, error) -> {
+            ReturnedMessage returned = correlation.getReturned();
+            if (error != null) {
+                confirmed.completeExceptionally(error);
+            } else if (returned != null) {
+                metrics.publishRejected(TRANSPORT, request.getType(), "returned");
+                confirmed.completeExceptionally(new PublishRejectedException(
+                        request.getId(), request.getType(), "returned", returned.getReplyText()));
+            } else if (!confirm.ack()) {
+                metrics.publishRejected(TRANSPORT, request.getType(), "nack");
+                confirmed.completeExceptionally(new PublishRejectedException(
+                        request.getId(), request.getType(), "nack", confirm.reason()));
+            } else {
+                confirmed.complete(null);
+            }
+        });
+        return confirmed;
+    }
 
-        rabbit.convertAndSend(this.queue, request, message -> {
-            message.getMessageProperties().setCorrelationId(payload.getIdempotencyKey());
-            message.getMessageProperties().setReplyTo(callbackUrl);
-            message.getMessageProperties().setTimestamp(new java.util.Date());
-            return message;
+    // Rabbit'te partition yok; kopya aynı kuyruğa gider ve büyük olasılıkla başka bir consumer'a düşer
+    private boolean sendHedge(TRequest request) {
+        send(request).whenComplete((ignored, error) -> {
+            if (error != null) {
+                log.debug("Hedge of {} was not accepted by the broker", request.getId(), error);
+            }
         });
+        return true;
+    }
+
+    private void recordPublish(IdempotencyProtected payload, String mode, long start, Throwable error) {
+        metrics.publish(TRANSPORT, payload.getClass().getName(), mode, System.nanoTime() - start, error);
+    }
+
+    /**
+     * @param confirms Whether the template publishes with correlated publisher confirms and returns
+     *                 (see {@code RabbitPublisherOptions}).
+     */
+    public void setPublisherConfirms(boolean confirms) {
+        this.confirms = confirms;
+    }
+
+    /**
+     * @param shards Shard queues requests are spread over by idempotency key; only set on command buses.
+     */
+    public void setShards(RabbitShards shards) {
+        this.shards = shards;
+    }
+
+    /**
+     * @param hedging Policy for publishing slow queries a second time; only set on query buses.
+     */
+    public void setHedgingPolicy(HedgingPolicy hedging) {
+        this.hedging = hedging;
+    }
+
+    /**
+     * @param limiters Adaptive in-flight limits applied to sync and async requests.
+     */
+    public void setConcurrencyLimiters(ConcurrencyLimiters limiters) {
+        this.limiters = limiters;
+    }
+
+    @Override
+    public void setMetrics(SplitrMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void setObservationRegistry(ObservationRegistry observationRegistry) {
+        this.observationRegistry = observationRegistry;
     }
 }
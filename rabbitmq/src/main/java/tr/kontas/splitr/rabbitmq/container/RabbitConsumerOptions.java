@@ -0,0 +1,84 @@
+package tr.kontas.splitr.rabbitmq.container;
+
+import org.springframework.amqp.rabbit.config.AbstractRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.config.DirectRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+/**
+ * Throughput settings of the Splitr RabbitMQ listener containers.
+ * <p>
+ * {@code simple} containers hand deliveries from the client thread to their own consumer
+ * threads and scale between {@code concurrency} and {@code maxConcurrency} with load; acks
+ * are sent once per {@code batchSize} messages (or after {@code receiveTimeoutMs} for a partial
+ * batch). {@code direct} containers run the listener on the client thread, which saves a hand-off
+ * per message, with a fixed {@code concurrency} consumers per queue and {@code batchSize}
+ * messages per ack.
+ * </p>
+ * <p>
+ * A failure nacks and requeues the whole unacknowledged batch. Commands and queries that were
+ * already handled are answered from the idempotency store on redelivery, but events are not
+ * recorded there, so the event listener gets its own factory that acknowledges every message.
+ * </p>
+ *
+ * @param container        {@code simple} or {@code direct}.
+ * @param concurrency      Consumers per listener (per queue for {@code direct}).
+ * @param maxConcurrency   Upper bound the {@code simple} container scales up to under load.
+ * @param prefetch         Unacknowledged messages the broker pushes per consumer.
+ * @param batchSize        Messages acknowledged together.
+ * @param receiveTimeoutMs Wait before a partial batch is acknowledged.
+ * @author BurakKontas
+ * @version 1.0.0
+ */
+public record RabbitConsumerOptions(String container, int concurrency, int maxConcurrency, int prefetch,
+                                    int batchSize, long receiveTimeoutMs) {
+
+    public static final String CONTAINER_FACTORY = "splitrRabbitListenerContainerFactory";
+    public static final String EVENT_CONTAINER_FACTORY = "splitrRabbitEventListenerContainerFactory";
+
+    public RabbitConsumerOptions {
+        if (!container.equals("simple") && !container.equals("direct")) {
+            throw new IllegalArgumentException("Unknown RabbitMQ container type: " + container);
+        }
+        if (concurrency < 1 || maxConcurrency < concurrency || batchSize < 1 || prefetch < batchSize) {
+            throw new IllegalArgumentException("Invalid RabbitMQ consumer options: concurrency=" + concurrency
+                    + ", max=" + maxConcurrency + ", prefetch=" + prefetch + ", batch=" + batchSize);
+        }
+    }
+
+    /**
+     * @return The same options acknowledging every message on its own.
+     */
+    public RabbitConsumerOptions unbatched() {
+        return batchSize == 1 ? this
+                : new RabbitConsumerOptions(container, concurrency, maxConcurrency, prefetch, 1, receiveTimeoutMs);
+    }
+
+    public AbstractRabbitListenerContainerFactory<?> createFactory(ConnectionFactory connectionFactory,
+                                                                  MessageConverter converter) {
+        AbstractRabbitListenerContainerFactory<?> factory = container.equals("direct") ? direct() : simple();
+        factory.setConnectionFactory(connectionFactory);
+        factory.setMessageConverter(converter);
+        // Batch'teki mesajlar ack'lenmeden önce broker'dan çekilmiş olmalı
+        factory.setPrefetchCount(prefetch);
+        return factory;
+    }
+
+    private SimpleRabbitListenerContainerFactory simple() {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        factory.setConcurrentConsumers(concurrency);
+        factory.setMaxConcurrentConsumers(maxConcurrency);
+        factory.setBatchSize(batchSize);
+        factory.setReceiveTimeout(receiveTimeoutMs);
+        return factory;
+    }
+
+    private DirectRabbitListenerContainerFactory direct() {
+        DirectRabbitListenerContainerFactory factory = new DirectRabbitListenerContainerFactory();
+        factory.setConsumersPerQueue(concurrency);
+        factory.setMessagesPerAck(batchSize);
+        factory.setAckTimeout(receiveTimeoutMs);
+        return factory;
+    }
+}
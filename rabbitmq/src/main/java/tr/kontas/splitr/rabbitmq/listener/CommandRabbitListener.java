@@ -2,20 +2,35 @@ package tr.kontas.splitr.rabbitmq.listener;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.amqp.rabbit.annotation.Queue;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import tr.kontas.splitr.consumer.dispatcher.CommandDispatcher;
+import tr.kontas.splitr.consumer.retry.RetryRouter;
 import tr.kontas.splitr.dto.CommandRequest;
+import tr.kontas.splitr.logging.MessageLog;
+import tr.kontas.splitr.rabbitmq.container.RabbitConsumerOptions;
+import tr.kontas.splitr.rabbitmq.shard.RabbitShards;
 
 @RequiredArgsConstructor
 @Slf4j
 public class CommandRabbitListener {
 
+    private static final MessageLog messages = MessageLog.of(CommandRabbitListener.class, "Dispatching command");
+
     private final CommandDispatcher dispatcher;
+    private final RetryRouter retries;
 
-    @RabbitListener(queuesToDeclare = @Queue(name = "${splitr.rabbit.command.queue:tr.kontas.splitr.command.queue}", durable = "true"))
+    // Kuyruklar (shard'lar dahil) RabbitConsumerAutoConfig'de declare edilir
+    @RabbitListener(
+            queues = "#{@" + RabbitShards.COMMAND_SHARDS + ".queueNames()}",
+            containerFactory = RabbitConsumerOptions.CONTAINER_FACTORY
+    )
     public void listen(CommandRequest r) throws Exception {
-        log.atInfo().log("Dispatching command: " + r.getId());
-        dispatcher.dispatch(r);
+        messages.message(r.getType(), r.getId());
+        try {
+            dispatcher.dispatch(r);
+        } catch (Exception e) {
+            // Requeue döngüsü yerine gecikmeli retry kuyruğuna ya da DLQ'ya taşı
+            retries.onFailure(r, e);
+        }
     }
 }
@@ -5,18 +5,32 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.annotation.Queue;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import tr.kontas.splitr.consumer.dispatcher.EventDispatcher;
+import tr.kontas.splitr.consumer.retry.RetryRouter;
 import tr.kontas.splitr.dto.EventRequest;
+import tr.kontas.splitr.logging.MessageLog;
+import tr.kontas.splitr.rabbitmq.container.RabbitConsumerOptions;
 
 @RequiredArgsConstructor
 @Slf4j
 public class EventRabbitListener {
 
+    private static final MessageLog messages = MessageLog.of(EventRabbitListener.class, "Dispatching event");
+
     private final EventDispatcher dispatcher;
+    private final RetryRouter retries;
 
-    @RabbitListener(queuesToDeclare = @Queue(name = "${splitr.rabbit.event.queue:tr.kontas.splitr.event.queue}", durable = "true"))
+    @RabbitListener(
+            queuesToDeclare = @Queue(name = "${splitr.rabbit.event.queue:tr.kontas.splitr.event.queue}", durable = "true"),
+            containerFactory = RabbitConsumerOptions.EVENT_CONTAINER_FACTORY
+    )
     public void listen(EventRequest r) throws Exception {
-        log.atInfo().log("Dispatching event: " + r.getId());
-        dispatcher.dispatch(r);
+        messages.message(r.getType(), r.getId());
+        try {
+            dispatcher.dispatch(r);
+        } catch (Exception e) {
+            // Requeue döngüsü yerine gecikmeli retry kuyruğuna ya da DLQ'ya taşı
+            retries.onFailure(r, e);
+        }
     }
 }
 
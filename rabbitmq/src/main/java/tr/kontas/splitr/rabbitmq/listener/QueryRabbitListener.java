@@ -6,16 +6,23 @@ import org.springframework.amqp.rabbit.annotation.Queue;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import tr.kontas.splitr.consumer.dispatcher.QueryDispatcher;
 import tr.kontas.splitr.dto.QueryRequest;
+import tr.kontas.splitr.logging.MessageLog;
+import tr.kontas.splitr.rabbitmq.container.RabbitConsumerOptions;
 
 @RequiredArgsConstructor
 @Slf4j
 public class QueryRabbitListener {
 
+    private static final MessageLog messages = MessageLog.of(QueryRabbitListener.class, "Dispatching query");
+
     private final QueryDispatcher dispatcher;
 
-    @RabbitListener(queuesToDeclare = @Queue(name = "${splitr.rabbit.query.queue:tr.kontas.splitr.query.queue}", durable = "true"))
+    @RabbitListener(
+            queuesToDeclare = @Queue(name = "${splitr.rabbit.query.queue:tr.kontas.splitr.query.queue}", durable = "true"),
+            containerFactory = RabbitConsumerOptions.CONTAINER_FACTORY
+    )
     public void listen(QueryRequest r) throws Exception {
-        log.atInfo().log("Dispatching query: " + r.getId());
+        messages.message(r.getType(), r.getId());
         dispatcher.dispatch(r);
     }
 }
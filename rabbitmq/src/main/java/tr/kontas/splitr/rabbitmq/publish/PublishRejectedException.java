@@ -0,0 +1,37 @@
+package tr.kontas.splitr.rabbitmq.publish;
+
+/**
+ * Completes the pending future of a request the broker did not accept: it was negatively
+ * confirmed ({@code nack}) or could not be routed to its queue ({@code returned}).
+ *
+ * @author BurakKontas
+ * @version 1.0.0
+ */
+public class PublishRejectedException extends RuntimeException {
+
+    private final String id;
+    private final String type;
+    private final String reason;
+
+    public PublishRejectedException(String id, String type, String reason, String detail) {
+        super("Publish of " + type + " (" + id + ") " + reason + ": " + detail);
+        this.id = id;
+        this.type = type;
+        this.reason = reason;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * @return {@code nack} or {@code returned}.
+     */
+    public String getReason() {
+        return reason;
+    }
+}
@@ -0,0 +1,61 @@
+package tr.kontas.splitr.rabbitmq.publish;
+
+import org.springframework.amqp.rabbit.connection.AbstractConnectionFactory;
+import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+/**
+ * Publisher channel settings of the Splitr RabbitMQ buses.
+ * <p>
+ * The template publishes over the publisher connection of the {@link CachingConnectionFactory},
+ * so publishers blocked by broker flow control never stall the listeners on the main connection.
+ * That connection caches {@code channelCacheSize} channels; with a positive
+ * {@code channelCheckoutTimeoutMs} the cache becomes a hard pool and publishers wait up to that
+ * long for a free channel instead of opening more. With {@code confirms} every message is
+ * published mandatory with correlated publisher confirms; the buses complete pending requests
+ * exceptionally when the broker nacks or returns them.
+ * </p>
+ *
+ * @param confirms                 Correlated publisher confirms and returns.
+ * @param channelCacheSize         Channels kept open on the publisher connection.
+ * @param channelCheckoutTimeoutMs Wait for a free channel; {@code 0} lets the cache grow.
+ * @author BurakKontas
+ * @version 1.0.0
+ */
+public record RabbitPublisherOptions(boolean confirms, int channelCacheSize, long channelCheckoutTimeoutMs) {
+
+    public RabbitPublisherOptions {
+        if (channelCacheSize < 1 || channelCheckoutTimeoutMs < 0) {
+            throw new IllegalArgumentException("Invalid RabbitMQ publisher options: channels=" + channelCacheSize
+                    + ", checkout=" + channelCheckoutTimeoutMs);
+        }
+    }
+
+    public RabbitTemplate createTemplate(ConnectionFactory connectionFactory, MessageConverter converter) {
+        RabbitTemplate template = new RabbitTemplate(connectionFactory);
+        template.setMessageConverter(converter);
+
+        // Publisher connection'ı Boot'un CachingConnectionFactory'si kendisi oluşturur
+        if (!(connectionFactory instanceof AbstractConnectionFactory factory)
+                || !factory.hasPublisherConnectionFactory()
+                || !(factory.getPublisherConnectionFactory() instanceof CachingConnectionFactory publisher)) {
+            if (confirms) {
+                throw new IllegalStateException("RabbitMQ publisher confirms need a CachingConnectionFactory, got "
+                        + connectionFactory.getClass().getName());
+            }
+            return template;
+        }
+
+        publisher.setChannelCacheSize(channelCacheSize);
+        publisher.setChannelCheckoutTimeout(channelCheckoutTimeoutMs);
+        if (confirms) {
+            publisher.setPublisherConfirmType(CachingConnectionFactory.ConfirmType.CORRELATED);
+            publisher.setPublisherReturns(true);
+            template.setMandatory(true);
+        }
+        template.setUsePublisherConnection(true);
+        return template;
+    }
+}
@@ -0,0 +1,95 @@
+package tr.kontas.splitr.rabbitmq.retry;
+
+import org.springframework.amqp.core.Declarable;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import tr.kontas.splitr.consumer.retry.RetryPolicy;
+import tr.kontas.splitr.consumer.retry.RetryTransport;
+import tr.kontas.splitr.deadline.Deadline;
+import tr.kontas.splitr.dto.CommandRequest;
+import tr.kontas.splitr.dto.base.BaseRequest;
+import tr.kontas.splitr.dto.base.TransportHeaders;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Publishes failed commands and events to their retry tier or dead-letter queue.
+ * <p>
+ * Tier {@code n} of a queue is {@code <queue>.retry.<n>}: a queue without consumers whose
+ * {@code x-message-ttl} is the tier delay and whose dead-letter target is the main queue, so the
+ * broker returns the message once it is due. Failed messages that are out of retries go to
+ * {@code <queue>.dlq}.
+ * </p>
+ *
+ * @author BurakKontas
+ * @version 1.0.0
+ */
+public class RabbitRetryTransport implements RetryTransport {
+
+    private final RabbitTemplate rabbit;
+    private final String commandQueue;
+    private final String eventQueue;
+
+    public RabbitRetryTransport(RabbitTemplate rabbit, String commandQueue, String eventQueue) {
+        this.rabbit = rabbit;
+        this.commandQueue = commandQueue;
+        this.eventQueue = eventQueue;
+    }
+
+    public static String tierQueue(String queue, int tier) {
+        return queue + ".retry." + tier;
+    }
+
+    public static String deadLetterQueue(String queue) {
+        return queue + ".dlq";
+    }
+
+    /**
+     * Declares the tier and dead-letter queues of every main queue for {@code policy}.
+     */
+    public static Declarables declarables(RetryPolicy policy, String... queues) {
+        List<Declarable> declarables = new ArrayList<>();
+        for (String queue : queues) {
+            for (int tier = 0; tier < policy.maxAttempts(); tier++) {
+                declarables.add(QueueBuilder.durable(tierQueue(queue, tier))
+                        .ttl((int) policy.delayMs(tier))
+                        .deadLetterExchange("")
+                        .deadLetterRoutingKey(queue)
+                        .build());
+            }
+            declarables.add(QueueBuilder.durable(deadLetterQueue(queue)).build());
+        }
+        return new Declarables(declarables);
+    }
+
+    @Override
+    public void retry(BaseRequest request, int tier, long dueAtEpochMs) {
+        send(tierQueue(queueOf(request), tier), request, dueAtEpochMs);
+    }
+
+    @Override
+    public void deadLetter(BaseRequest request) {
+        send(deadLetterQueue(queueOf(request)), request, 0L);
+    }
+
+    private void send(String queue, BaseRequest request, long retryAt) {
+        // Default exchange: routing key doğrudan kuyruk adı
+        rabbit.convertAndSend(queue, request, message -> {
+            message.getMessageProperties().setCorrelationId(request.getId());
+            message.getMessageProperties().setHeader(TransportHeaders.TYPE, request.getType());
+            if (request.getDeadlineEpochMs() != Deadline.NONE) {
+                message.getMessageProperties().setHeader(TransportHeaders.DEADLINE, request.getDeadlineEpochMs());
+            }
+            if (retryAt > 0) {
+                message.getMessageProperties().setHeader(TransportHeaders.RETRY_AT, retryAt);
+            }
+            return message;
+        });
+    }
+
+    private String queueOf(BaseRequest request) {
+        return request instanceof CommandRequest ? commandQueue : eventQueue;
+    }
+}
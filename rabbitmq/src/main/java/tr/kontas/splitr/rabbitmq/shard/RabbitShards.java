@@ -0,0 +1,110 @@
+package tr.kontas.splitr.rabbitmq.shard;
+
+import org.springframework.amqp.core.Declarable;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.core.QueueBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Client-side consistent-hash routing of one logical queue over {@code count} shard queues.
+ * <p>
+ * Shard {@code n} of a queue is {@code <queue>.shard.<n>}. Publishers pick the shard from the
+ * idempotency key with jump consistent hashing, so every message of a key lands on the same
+ * shard and changing {@code count} moves only about {@code 1/count} of the keys. A consumer
+ * instance subscribes only to the shards it owns: shard {@code n} belongs to the instance with
+ * {@code n % instanceCount == instanceIndex}. Shards are declared with
+ * {@code x-single-active-consumer}, so per-key order holds even when several instances share an
+ * index; the broker lets one of them receive and keeps the others as standby. The unsharded
+ * queue stays declared and consumed by every instance; retry tiers dead-letter into it and
+ * producers that do not hash can keep using it. With {@code count} 1 only the unsharded queue
+ * exists, declared as before.
+ * </p>
+ *
+ * @param queue         Name of the logical (unsharded) queue.
+ * @param count         Number of shard queues; {@code 1} disables sharding.
+ * @param instanceIndex Index of this consumer instance, from {@code 0}.
+ * @param instanceCount Number of consumer instances the shards are divided over.
+ * @author BurakKontas
+ * @version 1.0.0
+ */
+public record RabbitShards(String queue, int count, int instanceIndex, int instanceCount) {
+
+    public static final String COMMAND_SHARDS = "splitrRabbitCommandShards";
+
+    public RabbitShards {
+        if (count < 1) {
+            throw new IllegalArgumentException("Shard count must be positive: " + count);
+        }
+        if (instanceCount < 1 || instanceIndex < 0 || instanceIndex >= instanceCount) {
+            throw new IllegalArgumentException("Invalid shard owner: index=" + instanceIndex + ", count=" + instanceCount);
+        }
+    }
+
+    /**
+     * Routing only; a consumer built this way owns every shard.
+     */
+    public RabbitShards(String queue, int count) {
+        this(queue, count, 0, 1);
+    }
+
+    public boolean isSharded() {
+        return count > 1;
+    }
+
+    public String shardQueue(int shard) {
+        return queue + ".shard." + shard;
+    }
+
+    /**
+     * @return The queue messages with {@code key} are published to.
+     */
+    public String queueFor(String key) {
+        if (!isSharded() || key == null) {
+            return queue;
+        }
+        return shardQueue(jumpHash(key.hashCode(), count));
+    }
+
+    /**
+     * @return The unsharded queue and the shards owned by this instance.
+     */
+    public String[] queueNames() {
+        List<String> names = new ArrayList<>();
+        names.add(queue);
+        if (isSharded()) {
+            for (int shard = instanceIndex; shard < count; shard += instanceCount) {
+                names.add(shardQueue(shard));
+            }
+        }
+        return names.toArray(String[]::new);
+    }
+
+    public Declarables declarables() {
+        List<Declarable> declarables = new ArrayList<>();
+        declarables.add(QueueBuilder.durable(queue).build());
+        if (isSharded()) {
+            for (int shard = 0; shard < count; shard++) {
+                declarables.add(QueueBuilder.durable(shardQueue(shard)).singleActiveConsumer().build());
+            }
+        }
+        return new Declarables(declarables);
+    }
+
+    /**
+     * Jump consistent hash (Lamping & Veach).
+     */
+    static int jumpHash(long key, int buckets) {
+        // String.hashCode'un düşük bitleri zayıf; önce karıştırılır
+        key *= 0x9E3779B97F4A7C15L;
+        long bucket = -1;
+        long next = 0;
+        while (next < buckets) {
+            bucket = next;
+            key = key * 2862933555777941757L + 1;
+            next = (long) ((bucket + 1) * ((double) (1L << 31) / (double) ((key >>> 33) + 1)));
+        }
+        return (int) bucket;
+    }
+}
@@ -0,0 +1,71 @@
+package tr.kontas.splitr.rabbitmq.shedding;
+
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.amqp.support.converter.MessageConverter;
+import tr.kontas.splitr.deadline.Deadline;
+import tr.kontas.splitr.dto.base.BaseRequest;
+import tr.kontas.splitr.dto.base.TransportHeaders;
+import tr.kontas.splitr.logging.MessageLog;
+import tr.kontas.splitr.metrics.SplitrMetrics;
+
+import java.lang.reflect.Type;
+
+/**
+ * Message converter that skips parsing the body of messages whose {@link TransportHeaders#DEADLINE}
+ * header has passed.
+ * <p>
+ * Spring AMQP converts the body before the listener is invoked, so shedding has to happen here.
+ * An expired {@link BaseRequest} is returned as an empty instance of the listener's argument type
+ * carrying only its type and deadline; the dispatcher then drops it at the "consume" stage.
+ * Everything else is passed to the delegate.
+ * </p>
+ *
+ * @author BurakKontas
+ * @version 1.0.0
+ */
+public class DeadlineSheddingMessageConverter implements MessageConverter {
+
+    private static final MessageLog shed = MessageLog.of(DeadlineSheddingMessageConverter.class, "Deadline exceeded, shedding message");
+
+    private final MessageConverter delegate;
+    private final SplitrMetrics metrics;
+
+    public DeadlineSheddingMessageConverter(MessageConverter delegate, SplitrMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Message toMessage(Object object, MessageProperties messageProperties) throws MessageConversionException {
+        return delegate.toMessage(object, messageProperties);
+    }
+
+    @Override
+    public Object fromMessage(Message message) throws MessageConversionException {
+        MessageProperties properties = message.getMessageProperties();
+        long deadline = TransportHeaders.parseDeadline(properties.getHeader(TransportHeaders.DEADLINE));
+
+        if (Deadline.expired(deadline) && properties.getInferredArgumentType() instanceof Class<?> target
+                && BaseRequest.class.isAssignableFrom(target)) {
+            BaseRequest stub = stub(target);
+            stub.setId(properties.getCorrelationId());
+            stub.setType(properties.getHeader(TransportHeaders.TYPE));
+            stub.setDeadlineEpochMs(deadline);
+
+            shed.message(stub.getType(), stub.getId());
+            metrics.shed("rabbit");
+            return stub;
+        }
+        return delegate.fromMessage(message);
+    }
+
+    private static BaseRequest stub(Class<?> target) {
+        try {
+            return (BaseRequest) target.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new MessageConversionException("Cannot create " + target.getName(), e);
+        }
+    }
+}